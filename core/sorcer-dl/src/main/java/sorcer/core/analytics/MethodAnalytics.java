@@ -34,6 +34,10 @@ public class MethodAnalytics implements Serializable {
     private String activeOperations;
     private String methodName;
     private double averageExecTime;
+    private long totalItems;
+    private long medianExecTime;
+    private long p99ExecTime;
+    private long maxExecTime;
 
     public MethodAnalytics(String activeOperations,
                            double averageExecTime,
@@ -97,15 +101,64 @@ public class MethodAnalytics implements Serializable {
         return totalCallTime;
     }
 
+    /**
+     * Returns the total number of items handled by batched operations, for
+     * example the number of envelops taken from a space by a space taker.
+     */
+    public long getTotalItems() {
+        return totalItems;
+    }
+
+    public MethodAnalytics setTotalItems(long totalItems) {
+        this.totalItems = totalItems;
+        return this;
+    }
+
+    public double getAverageItems() {
+        return totalOperationCalls == 0 ? 0 : (double) totalItems / totalOperationCalls;
+    }
+
+    /**
+     * Returns the median execution time in nanoseconds.
+     */
+    public long getMedianExecTime() {
+        return medianExecTime;
+    }
+
+    /**
+     * Returns the 99th percentile execution time in nanoseconds.
+     */
+    public long getP99ExecTime() {
+        return p99ExecTime;
+    }
+
+    /**
+     * Returns the longest execution time in nanoseconds.
+     */
+    public long getMaxExecTime() {
+        return maxExecTime;
+    }
+
+    public MethodAnalytics setLatencies(long medianExecTime, long p99ExecTime, long maxExecTime) {
+        this.medianExecTime = medianExecTime;
+        this.p99ExecTime = p99ExecTime;
+        this.maxExecTime = maxExecTime;
+        return this;
+    }
+
     @Override public String toString() {
         return String.format("%s, completed: %s, numActiveOps: %s, averageExecTime: %s, " +
-                             "totalOperationCalls: %s, activeOperations: %s, totalCallTime: %s",
+                             "totalOperationCalls: %s, activeOperations: %s, totalCallTime: %s, " +
+                             "p50: %s, p99: %s, max: %s",
                              methodName,
                              getCompleted(),
                              getNumActiveOperations(),
                              getAverageExecTime(),
                              getTotalOperationCalls(),
                              getActiveOperations(),
-                             getTotalCallTime());
+                             getTotalCallTime(),
+                             getMedianExecTime(),
+                             getP99ExecTime(),
+                             getMaxExecTime());
     }
 }
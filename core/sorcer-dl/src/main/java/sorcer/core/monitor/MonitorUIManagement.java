@@ -62,6 +62,28 @@ public interface MonitorUIManagement {
 	Map<Uuid, ExertionInfo> getMonitorableExertionInfo(Exec.State aspect, Principal principal)
 		throws RemoteException, MonitorException;
 
+	/**
+	 * Returns a page of the monitorable exertion infos of the principal,
+	 * most recently updated first.
+	 *
+	 * @param aspect
+	 *            the state of the exertions, all states if <code>null</code>
+	 *            or {@link Exec.State#NULL}
+	 * @param since
+	 *            the time in milliseconds after which the exertions were
+	 *            updated, 0 for all exertions
+	 * @param offset
+	 *            the number of matching exertions skipped
+	 * @param limit
+	 *            the maximum number of exertion infos returned
+	 *
+	 * @throws RemoteException
+	 *             if there is a communication error
+	 */
+	Map<Uuid, ExertionInfo> getMonitorableExertionInfo(Exec.State aspect, Principal principal, long since,
+													   int offset, int limit)
+		throws RemoteException, MonitorException;
+
 	/**
 	 * For this reference ID, which references a exertion in a monitor, getValue the
 	 * exertion if the principal has enough credentials.
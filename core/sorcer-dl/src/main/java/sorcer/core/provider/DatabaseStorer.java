@@ -40,4 +40,21 @@ public interface DatabaseStorer extends StorageManagement, Remote {
 	public Uuid deleteObject(URL url) throws RemoteException;
 	
 	public URL getDatabaseURL(Store storeType, Uuid uuid) throws MalformedURLException, RemoteException;
+
+	/**
+	 * Returns at most <code>limit</code> records of the store following the
+	 * record located by the resume token of a previous page, or the first
+	 * records for a <code>null</code> token. The records are the Uuids of
+	 * the stored objects, read without the objects, or the descriptions of
+	 * the objects if <code>describe</code> is set.
+	 */
+	public StorePage list(Store storeType, String resumeToken, int limit, boolean describe) throws RemoteException;
+
+	/**
+	 * Returns at most <code>limit</code> records of the store starting at
+	 * the given offset.
+	 *
+	 * @see #list(Store, String, int, boolean)
+	 */
+	public StorePage list(Store storeType, long offset, int limit, boolean describe) throws RemoteException;
 }
\ No newline at end of file
@@ -20,6 +20,9 @@ package sorcer.core.provider;
 import net.jini.core.event.EventRegistration;
 import net.jini.core.event.RemoteEventListener;
 import net.jini.core.lease.LeaseDeniedException;
+import sorcer.core.provider.logger.LogChunk;
+import sorcer.core.provider.logger.LogQuery;
+import sorcer.core.provider.logger.LoggerStats;
 import sorcer.core.provider.logger.LoggingConfig;
 
 import java.io.IOException;
@@ -44,8 +47,36 @@ public interface RemoteLogger extends Remote {
 
     public String[] getLogNames() throws RemoteException;
 
+    /**
+     * Returns the last lines of a log. Use {@link #tailLog(String, int, LogQuery)}
+     * or {@link #readLog(String, long, int, LogQuery)} to read large logs.
+     */
     public List<String> getLog(String fileName) throws RemoteException;
 
+    /**
+     * Reads the records of a log starting at the first line at or after an
+     * offset, until at least <code>maxLines</code> lines are read. The end of
+     * the returned chunk is the offset of the next read.
+     *
+     * @param query the records read, or <code>null</code> for all records
+     */
+    public LogChunk readLog(String fileName, long offset, int maxLines, LogQuery query) throws RemoteException;
+
+    /**
+     * Reads at most <code>maxLines</code> lines of a log starting at a line
+     * number counted from 0.
+     */
+    public LogChunk readLogLines(String fileName, long fromLine, int maxLines) throws RemoteException;
+
+    /**
+     * Reads the last records of a log with at least <code>maxLines</code>
+     * lines. The end of the returned chunk is the offset to follow the log
+     * with {@link #readLog(String, long, int, LogQuery)}.
+     *
+     * @param query the records read, or <code>null</code> for all records
+     */
+    public LogChunk tailLog(String fileName, int maxLines, LogQuery query) throws RemoteException;
+
     public void deleteLog(String logName) throws RemoteException;
 
 
@@ -55,4 +86,9 @@ public interface RemoteLogger extends Remote {
 
     public void unregisterLogListener(EventRegistration evReg) throws RemoteException;
 
+    /**
+     * Returns the ingestion and delivery throughput of this logger.
+     */
+    public LoggerStats getStats() throws RemoteException;
+
 }
\ No newline at end of file
@@ -38,6 +38,11 @@ public interface StorageManagement {
 	final static String store_type = "store/type";
 	final static String store_size = "store/size";
 	final static String store_content_list = "store/content/list";
+	// paging of contextList: offset or resume token in, next resume token out
+	final static String store_page_offset = "store/page/offset";
+	final static String store_page_limit = "store/page/limit";
+	final static String store_page_token = "store/page/token";
+	final static String store_page_next = "store/page/next";
 
 	public Context contextRetrieve(Context context) throws RemoteException,
 			ContextException;
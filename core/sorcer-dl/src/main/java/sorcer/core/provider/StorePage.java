@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A page of the records of a {@link DatabaseStorer} store. The resume token
+ * locates the last record of the page, so the next page starts after it even
+ * if records are added or deleted in between.
+ */
+public class StorePage implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final List<String> records;
+
+	private final String resumeToken;
+
+	public StorePage(List<String> records, String resumeToken) {
+		this.records = records;
+		this.resumeToken = resumeToken;
+	}
+
+	public List<String> getRecords() {
+		return records;
+	}
+
+	/**
+	 * Returns the token to request the next page with, or <code>null</code>
+	 * if this is the last page.
+	 */
+	public String getResumeToken() {
+		return resumeToken;
+	}
+
+	public boolean hasMore() {
+		return resumeToken != null;
+	}
+
+	@Override
+	public String toString() {
+		return records + (resumeToken != null ? " ..." : "");
+	}
+}
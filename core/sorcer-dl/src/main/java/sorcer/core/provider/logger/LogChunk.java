@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.provider.logger;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A part of a remote log. The lines were read from the byte range
+ * [{@link #getStart()}, {@link #getEnd()}) of the log, and the end is the
+ * cursor to resume reading from, e.g. to follow the tail of a log.
+ */
+public class LogChunk implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private final List<String> lines;
+
+	private final long start;
+
+	private final long end;
+
+	private final long length;
+
+	private final long firstLine;
+
+	private final boolean reset;
+
+	public LogChunk(List<String> lines, long start, long end, long length, long firstLine, boolean reset) {
+		this.lines = lines;
+		this.start = start;
+		this.end = end;
+		this.length = length;
+		this.firstLine = firstLine;
+		this.reset = reset;
+	}
+
+	public List<String> getLines() {
+		return lines;
+	}
+
+	/**
+	 * Returns the offset of the first byte read.
+	 */
+	public long getStart() {
+		return start;
+	}
+
+	/**
+	 * Returns the offset following the last line read, where the next read
+	 * resumes.
+	 */
+	public long getEnd() {
+		return end;
+	}
+
+	/**
+	 * Returns the length of the log when it was read.
+	 */
+	public long getLength() {
+		return length;
+	}
+
+	/**
+	 * Returns the number of the first line, counted from 0, or -1 if the
+	 * lines were not read by line number.
+	 */
+	public long getFirstLine() {
+		return firstLine;
+	}
+
+	/**
+	 * Returns <code>true</code> if the log was shorter than the requested
+	 * offset, i.e. it was deleted or truncated, and was read from its start.
+	 */
+	public boolean isReset() {
+		return reset;
+	}
+
+	/**
+	 * Returns <code>true</code> if the log has bytes past this chunk.
+	 */
+	public boolean hasMore() {
+		return end < length;
+	}
+
+	public String toString() {
+		return "lines: " + lines.size() + ", bytes: [" + start + ", " + end + ") of " + length;
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.provider.logger;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Selects the records of a remote log read by the remote logger. A record
+ * is a line starting with its level followed by its continuation lines,
+ * e.g. a stack trace. A record matches if its level is at least the given
+ * level, it was logged for the given mogram, and any of its lines contains
+ * the given regular expression. Unset criteria match all records.
+ */
+public class LogQuery implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private final String pattern;
+
+	private final Level level;
+
+	private final String mogramId;
+
+	private transient Pattern compiled;
+
+	/**
+	 * @param pattern  the regular expression found in a line of the record
+	 * @param level    the lowest level of the record
+	 * @param mogramId the id of the mogram the record was logged for
+	 */
+	public LogQuery(String pattern, Level level, String mogramId) {
+		this.pattern = pattern != null && pattern.length() > 0 ? pattern : null;
+		this.level = level;
+		this.mogramId = mogramId != null && mogramId.length() > 0 ? mogramId : null;
+	}
+
+	public String getPattern() {
+		return pattern;
+	}
+
+	public Level getLevel() {
+		return level;
+	}
+
+	public String getMogramId() {
+		return mogramId;
+	}
+
+	/**
+	 * Returns <code>true</code> if the record matches this query.
+	 *
+	 * @param record the lines of the record
+	 * @param level  the level of the record, or <code>null</code> if the
+	 *               lines precede the first record read
+	 */
+	public boolean matches(List<String> record, Level level) {
+		if (level == null && (this.level != null || mogramId != null))
+			return false;
+		if (this.level != null && !level.isGreaterOrEqual(this.level))
+			return false;
+		// the mogram id is logged in the first line of the record
+		if (mogramId != null && !record.get(0).contains(mogramId))
+			return false;
+		if (pattern == null)
+			return true;
+		if (compiled == null)
+			compiled = Pattern.compile(pattern);
+		for (String line : record) {
+			if (compiled.matcher(line).find())
+				return true;
+		}
+		return false;
+	}
+
+	public String toString() {
+		return "pattern: " + pattern + ", level: " + level + ", mogram: " + mogramId;
+	}
+}
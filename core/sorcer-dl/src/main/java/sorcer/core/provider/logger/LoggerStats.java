@@ -0,0 +1,53 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.provider.logger;
+
+import java.io.Serializable;
+
+/**
+ * A snapshot of the throughput of a remote logger: the log events received,
+ * written to the log files and dropped on ingestion, and the events
+ * delivered to and dropped for remote log listeners.
+ */
+public class LoggerStats implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	public final long received;
+	public final long written;
+	public final long dropped;
+	public final int queued;
+	public final long delivered;
+	public final long deliveryDropped;
+	public final int listeners;
+
+	public LoggerStats(long received, long written, long dropped, int queued,
+					   long delivered, long deliveryDropped, int listeners) {
+		this.received = received;
+		this.written = written;
+		this.dropped = dropped;
+		this.queued = queued;
+		this.delivered = delivered;
+		this.deliveryDropped = deliveryDropped;
+		this.listeners = listeners;
+	}
+
+	public String toString() {
+		return "received: " + received + ", written: " + written + ", dropped: " + dropped
+				+ ", queued: " + queued + ", delivered: " + delivered
+				+ ", delivery dropped: " + deliveryDropped + ", listeners: " + listeners;
+	}
+}
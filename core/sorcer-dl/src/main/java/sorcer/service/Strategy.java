@@ -30,9 +30,11 @@ public interface Strategy extends Arg {
 	 * with exertions control context. Flow type specify the flow of control (
 	 * <code>SEQ</code> (sequential), <code>PAR</code> (parallel), and
 	 * <code>STEP</code> (stepwise)) for all component exertions at the same level.
+	 * <code>DATAFLOW</code> executes component exertions in parallel as soon
+	 * as the exertions they depend on via pipes are done.
 	 */
 	public enum Flow implements Arg {
-		SEQ, PAR, STEP, AUTO, EXPLICIT;
+		SEQ, PAR, STEP, AUTO, EXPLICIT, DATAFLOW;
 
 		/* (non-Javadoc)
 		 * @see sorcer.service.Arg#getName()
@@ -16,6 +16,8 @@ import sorcer.service.Strategy.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static sorcer.co.operator.*;
 import static sorcer.eo.operator.*;
@@ -201,4 +203,21 @@ public class ExertionSorterTest {
         Assert.assertArrayEquals(expList.toArray(), es.getSortedJob().getMograms().toArray());
     }
 
+    @Test
+    public void testSorterDependencies() throws Exception {
+        Job job = createComplexJob();
+        ExertionSorter es = new ExertionSorter(job);
+        Map<Discipline, Set<Discipline>> deps = es.getDependencies(es.getSortedJob());
+        final Discipline f3 = job.getMogram("Task_f3");
+        final Discipline j2 = job.getMogram("Job_f2");
+        final Discipline j8 = job.getMogram("Job_f8");
+        final Discipline j20 = job.getMogram("Job_f20");
+        Assert.assertEquals(1, deps.get(f3).size());
+        Assert.assertTrue(deps.get(f3).contains(j2));
+        Assert.assertEquals(1, deps.get(j8).size());
+        Assert.assertTrue(deps.get(j8).contains(j2));
+        Assert.assertTrue(deps.get(j20).isEmpty());
+        Assert.assertTrue(deps.get(j2).isEmpty());
+    }
+
 }
@@ -20,12 +20,29 @@ package sorcer.core;
 import net.jini.lease.LeaseRenewalManager;
 import sorcer.service.Arg;
 
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
  public interface Dispatcher {
 
     void exec(Arg... args);
 
     DispatchResult getResult();
 
+    /**
+     * Waits at most the given time for the dispatch to complete.
+     *
+     * @throws TimeoutException if the dispatch is still running
+     */
+    DispatchResult getResult(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException;
+
+    /**
+     * Returns a stage completed with the result when the dispatch is done or
+     * failed, for callers that must not block.
+     */
+    CompletionStage<DispatchResult> getResultAsync();
+
     LeaseRenewalManager getLrm();
 
     void setLrm(LeaseRenewalManager lrm);
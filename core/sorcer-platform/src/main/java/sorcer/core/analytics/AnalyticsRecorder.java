@@ -26,20 +26,31 @@ import org.slf4j.LoggerFactory;
 import sorcer.core.monitoring.Monitor;
 import sorcer.core.monitoring.MonitorAgent;
 
+import sorcer.util.ConfigurableThreadFactory;
+
 import java.text.NumberFormat;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.*;
 
 /**
+ * Records provider method invocations. Recording only updates counters of
+ * the method's {@link MethodInvocationRecord}; {@link MethodAnalytics}
+ * snapshots are built on request and published to the monitor every
+ * <code>monitoring.publish.interval</code> milliseconds (1000 by default)
+ * for the methods invoked since the last publication.
+ *
  * @author Dennis Reedy
  */
 public class AnalyticsRecorder {
+    private static final long publishInterval = Long.getLong("monitoring.publish.interval", 1000);
+    private static ScheduledExecutorService publisher;
     private Logger logger = LoggerFactory.getLogger(AnalyticsRecorder.class);
-    private final Map<String, MethodInvocationRecord> activityMap = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, MethodInvocationRecord> activityMap = new ConcurrentHashMap<>();
     private ServiceID serviceID;
     private String hostName;
     private final MonitorAgent monitorAgent;
+    private final ScheduledFuture<?> publication;
     private NumberFormat percentFormatter = NumberFormat.getPercentInstance();
 
     public AnalyticsRecorder(String hostName, ServiceID serviceID, String name, String principal) {
@@ -48,6 +59,25 @@ public class AnalyticsRecorder {
         percentFormatter.setMaximumFractionDigits(3);
         monitorAgent = new MonitorAgent();
         monitorAgent.register(name, principal);
+        if (MonitorAgent.isMonitoringEnabled() && publishInterval > 0) {
+            publication = getPublisher().scheduleWithFixedDelay(new Runnable() {
+                @Override public void run() {
+                    publish();
+                }
+            }, publishInterval, publishInterval, TimeUnit.MILLISECONDS);
+        } else {
+            publication = null;
+        }
+    }
+
+    private static synchronized ScheduledExecutorService getPublisher() {
+        if (publisher == null) {
+            ConfigurableThreadFactory factory = new ConfigurableThreadFactory();
+            factory.setDaemon(true);
+            factory.setNameFormat("AnalyticsPublisher-%2$d");
+            publisher = Executors.newSingleThreadScheduledExecutor(factory);
+        }
+        return publisher;
     }
 
     public Map<String, MethodAnalytics> getMethodAnalytics() {
@@ -70,16 +100,12 @@ public class AnalyticsRecorder {
         MethodInvocationRecord record = getMethodInvocationRecord(m);
         int id = record.inprocess();
         if(logger.isDebugEnabled())
-            logger.debug("{} num active: {}", m, record.numActiveOperations.get());
-        monitorAgent.inprocess(record.create(serviceID, hostName));
+            logger.debug("{} num active: {}", m, record.getNumActiveOperations());
         return id;
     }
 
     public void completed(String m, int id) {
-        MethodInvocationRecord record = getMethodInvocationRecord(m);
-        record.complete(id);
-        activityMap.put(m, record);
-        monitorAgent.completed(record.create(serviceID, hostName));
+        getMethodInvocationRecord(m).complete(id);
     }
 
     /*public void completed(String m, long startTime) {
@@ -90,13 +116,38 @@ public class AnalyticsRecorder {
     }*/
 
     public void failed(String m, int id) {
-        MethodInvocationRecord record = getMethodInvocationRecord(m);
-        record.failed(id);
-        activityMap.put(m, record);
-        monitorAgent.update(Monitor.Status.FAILED, record.create(serviceID, hostName));
+        getMethodInvocationRecord(m).failed(id);
+    }
+
+    /**
+     * Records a batched operation, such as a space take, that completed in
+     * <code>callTime</code> nanoseconds and handled <code>items</code> items.
+     * Batched operations are not reported to the monitor.
+     */
+    public void record(String m, long callTime, int items) {
+        getMethodInvocationRecord(m).record(callTime, items);
+    }
+
+    /**
+     * Publishes to the monitor snapshots of the methods invoked since the
+     * last publication.
+     */
+    public void publish() {
+        for (Map.Entry<String, MethodInvocationRecord> entry : activityMap.entrySet()) {
+            MethodInvocationRecord record = entry.getValue();
+            if (!record.isMonitored())
+                continue;
+            Monitor.Status status = record.publish();
+            if (status != null)
+                monitorAgent.update(status, record.create(serviceID, hostName));
+        }
     }
 
     public void terminate() {
+        if (publication != null) {
+            publication.cancel(false);
+            publish();
+        }
         monitorAgent.terminate();
     }
 
@@ -119,13 +170,12 @@ public class AnalyticsRecorder {
     }
 
     private MethodInvocationRecord getMethodInvocationRecord(String m) {
-        MethodInvocationRecord methodInvocationRecord;
-        synchronized(activityMap) {
-            methodInvocationRecord = activityMap.get(m);
-            if (methodInvocationRecord == null) {
-                methodInvocationRecord = new MethodInvocationRecord(m);
-                activityMap.put(m, methodInvocationRecord);
-            }
+        MethodInvocationRecord methodInvocationRecord = activityMap.get(m);
+        if (methodInvocationRecord == null) {
+            methodInvocationRecord = new MethodInvocationRecord(m);
+            MethodInvocationRecord previous = activityMap.putIfAbsent(m, methodInvocationRecord);
+            if (previous != null)
+                methodInvocationRecord = previous;
         }
         return methodInvocationRecord;
     }
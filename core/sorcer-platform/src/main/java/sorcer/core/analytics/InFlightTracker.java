@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.analytics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tracks the start times of in-flight operations. {@link #start()} returns a
+ * token that locates a slot in a fixed table, claimed with a CAS, so
+ * starting and stopping an operation does not allocate. Only when all
+ * probed slots are taken does the tracker fall back to a map.
+ */
+class InFlightTracker {
+    static final int SLOTS = 1024;
+    // System.nanoTime() may be negative, so no other sentinel is safe
+    static final long NOT_FOUND = Long.MIN_VALUE;
+    private static final int PROBES = 8;
+
+    private final AtomicInteger tokens = new AtomicInteger();
+    // token of the operation owning each slot, 0 if free
+    private final AtomicIntegerArray owners = new AtomicIntegerArray(SLOTS);
+    private final AtomicLongArray startTimes = new AtomicLongArray(SLOTS);
+    private final Map<Integer, Long> overflow = new ConcurrentHashMap<>();
+
+    int start() {
+        int token;
+        do {
+            token = tokens.incrementAndGet();
+        } while (token == 0);
+        long now = System.nanoTime();
+        for (int i = 0; i < PROBES; i++) {
+            int slot = (token + i) & (SLOTS - 1);
+            if (owners.get(slot) == 0 && owners.compareAndSet(slot, 0, token)) {
+                startTimes.set(slot, now);
+                return token;
+            }
+        }
+        overflow.put(token, now);
+        return token;
+    }
+
+    /**
+     * Releases the token and returns its start time, or {@link #NOT_FOUND}
+     * if the token is not in flight.
+     */
+    long stop(int token) {
+        for (int i = 0; i < PROBES; i++) {
+            int slot = (token + i) & (SLOTS - 1);
+            if (owners.get(slot) == token) {
+                long start = startTimes.get(slot);
+                owners.set(slot, 0);
+                return start;
+            }
+        }
+        Long start = overflow.remove(token);
+        return start == null ? NOT_FOUND : start;
+    }
+
+    /**
+     * Returns the comma separated tokens of the operations in flight.
+     */
+    String getActive() {
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < SLOTS; i++) {
+            int token = owners.get(i);
+            if (token != 0) {
+                if (b.length() > 0)
+                    b.append(", ");
+                b.append(token);
+            }
+        }
+        for (Integer token : overflow.keySet()) {
+            if (b.length() > 0)
+                b.append(", ");
+            b.append(token);
+        }
+        return b.toString();
+    }
+}
@@ -18,24 +18,34 @@ package sorcer.core.analytics;
 import net.jini.core.lookup.ServiceID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import sorcer.core.monitoring.Monitor;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
+ * Per method counters updated on every invocation. Counters are striped
+ * {@link LongAdder}s, latencies go to a {@link LatencyHistogram} and active
+ * operations to an {@link InFlightTracker}, so recording an invocation takes
+ * no locks and does not allocate. A {@link MethodAnalytics} snapshot is only
+ * built by {@link #create(ServiceID, String)}.
+ *
  * @author Dennis Reedy
  */
 class MethodInvocationRecord {
-    AtomicInteger numActiveOperations = new AtomicInteger();
-    private AtomicInteger idGenerator = new AtomicInteger();
-    private AtomicInteger completed = new AtomicInteger();
-    private AtomicInteger failed = new AtomicInteger();
-    private final Map<Integer, Long> stopWatch = new ConcurrentHashMap<>();
-    private AtomicInteger totalOperationCalls = new AtomicInteger();
-    private AtomicLong totalCallTime = new AtomicLong();
-    private volatile double averageExecTime;
+    private final LongAdder numActiveOperations = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder totalOperationCalls = new LongAdder();
+    private final LongAdder totalCallTime = new LongAdder();
+    private final LongAdder totalItems = new LongAdder();
+    private final LongAdder updates = new LongAdder();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final InFlightTracker inFlight = new InFlightTracker();
+    // set once the method is invoked through inprocess, batched records are not published
+    private volatile boolean monitored;
+    // number of updates published by the last snapshot sent to the monitor
+    private long published;
+    private long publishedFailures;
     private final String methodName;
     static Logger logger = LoggerFactory.getLogger(MethodInvocationRecord.class);
 
@@ -44,78 +54,121 @@ class MethodInvocationRecord {
     }
 
     int inprocess() {
-        int id = idGenerator.incrementAndGet();
-        numActiveOperations.incrementAndGet();
-        stopWatch.put(id, System.nanoTime());
-        return id;
+        if (!monitored)
+            monitored = true;
+        numActiveOperations.increment();
+        updates.increment();
+        return inFlight.start();
     }
 
     void failed(int id) {
+        // counted first, so a publish that sees the call also sees the failure
+        failed.increment();
         handleCallTime(id);
-        failed.incrementAndGet();
     }
 
     void complete(int id) {
         handleCallTime(id);
-        completed.incrementAndGet();
+        completed.increment();
     }
 
     void complete(long startTime) {
         handleCallTime(startTime);
-        completed.incrementAndGet();
+        completed.increment();
+    }
+
+    /*
+     * Records a completed batched operation that was not tracked as active
+     */
+    void record(long callTime, int items) {
+        addCallTime(callTime);
+        totalItems.add(items);
+        completed.increment();
+    }
+
+    int getNumActiveOperations() {
+        return numActiveOperations.intValue();
+    }
+
+    boolean isMonitored() {
+        return monitored;
+    }
+
+    /**
+     * Marks the started, completed and failed operations published. Returns
+     * the status to report to the monitor, or <code>null</code> if there
+     * were no operations since the last call.
+     */
+    synchronized Monitor.Status publish() {
+        long sum = updates.sum();
+        if (sum == published)
+            return null;
+        published = sum;
+        long failures = failed.sum();
+        Monitor.Status status;
+        if (failures > publishedFailures)
+            status = Monitor.Status.FAILED;
+        else if (numActiveOperations.sum() > 0)
+            status = Monitor.Status.ACTIVE;
+        else
+            status = Monitor.Status.COMPLETED;
+        publishedFailures = failures;
+        return status;
     }
 
     MethodAnalytics create(ServiceID serviceID, String hostName) {
-        String activeOps = "";
-        synchronized (stopWatch) {
-            if (stopWatch.size() > 0) {
-                StringBuilder b = new StringBuilder();
-                for (Integer i : stopWatch.keySet()) {
-                    if (b.length() > 0)
-                        b.append(", ");
-                    b.append(Integer.toString(i));
-                }
-                activeOps = b.toString();
-            }
-        }
-        return new MethodAnalytics(activeOps,
-                                   averageExecTime,
-                                   completed.get(),
-                                   failed.get(),
+        long totalCalls = totalOperationCalls.sum();
+        long callTime = totalCallTime.sum();
+        return new MethodAnalytics(inFlight.getActive(),
+                                   totalCalls == 0 ? 0 : callTime / totalCalls,
+                                   completed.intValue(),
+                                   failed.intValue(),
                                    hostName,
                                    methodName,
-                                   numActiveOperations.get(),
+                                   numActiveOperations.intValue(),
                                    serviceID,
-                                   totalCallTime.get(),
-                                   totalOperationCalls.get());
+                                   callTime,
+                                   (int) totalCalls)
+                   .setTotalItems(totalItems.sum())
+                   .setLatencies(latencies.getPercentile(0.5),
+                                 latencies.getPercentile(0.99),
+                                 latencies.getMax());
     }
 
     private void handleCallTime(long startTime) {
-        long callTime = System.nanoTime() - startTime;;
-        totalCallTime.addAndGet(callTime);
-        int totalCalls = totalOperationCalls.incrementAndGet();
-        averageExecTime = totalCallTime.get() / totalCalls;
-        numActiveOperations.decrementAndGet();
+        addCallTime(System.nanoTime() - startTime);
+        numActiveOperations.decrement();
     }
 
     private void handleCallTime(int id)  {
-        if(stopWatch.containsKey(id)) {
-            handleCallTime(stopWatch.remove(id));
+        long startTime = inFlight.stop(id);
+        if (startTime != InFlightTracker.NOT_FOUND) {
+            handleCallTime(startTime);
         } else {
             logger.error("{} id not found: {}", id, methodName);
-            totalOperationCalls.incrementAndGet();
+            totalOperationCalls.increment();
+            updates.increment();
         }
     }
 
+    private void addCallTime(long callTime) {
+        totalCallTime.add(callTime);
+        totalOperationCalls.increment();
+        latencies.record(callTime);
+        updates.increment();
+    }
+
     @Override public String toString() {
-        return String.format("%s: completed: %s, numActiveOps: %s, averageExecTime: %s, " +
-                             "totalOperationCalls: %s, activeOperations: %s, totalCallTime: %s",
+        return String.format("%s: completed: %s, numActiveOps: %s, totalOperationCalls: %s, " +
+                             "activeOperations: %s, totalCallTime: %s, p50: %s, p99: %s, max: %s",
                              methodName,
-                             completed.get(),
-                             numActiveOperations.get(),
-                             averageExecTime,
-                             totalOperationCalls.get(),
-                             stopWatch.keySet().toString(),
-                             totalCallTime.get());
+                             completed.sum(),
+                             numActiveOperations.sum(),
+                             totalOperationCalls.sum(),
+                             inFlight.getActive(),
+                             totalCallTime.sum(),
+                             latencies.getPercentile(0.5),
+                             latencies.getPercentile(0.99),
+                             latencies.getMax());
     }
 }
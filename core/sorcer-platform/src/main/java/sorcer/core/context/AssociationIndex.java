@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.context;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * An inverted index of singleton attribute associations in a metacontext,
+ * attribute -> value -> paths. An attribute is indexed on its first lookup
+ * and kept up to date by the owning {@link ServiceContext} afterwards, so
+ * marked path lookups do not scan all associations of the attribute.
+ * <p>
+ * The index is shared by all contexts that share the same metacontext. Only
+ * the index identity is serialized; the entries are rebuilt on demand.
+ */
+class AssociationIndex implements Serializable {
+
+	private static final long serialVersionUID = -2473911862380127245L;
+
+	// attribute -> value -> paths in association order
+	private transient Map<String, Map<String, Set<String>>> attributes;
+
+	synchronized List<String> paths(Map<String, LinkedHashMap<String, String>> metacontext,
+									String attribute, String value) {
+		Map<String, Set<String>> values = attributes().get(attribute);
+		if (values == null) {
+			values = build(metacontext.get(attribute));
+			attributes.put(attribute, values);
+		}
+		Set<String> paths = values.get(value);
+		if (paths == null)
+			return new ArrayList<String>(0);
+		return new ArrayList<String>(paths);
+	}
+
+	/**
+	 * Records that the path is associated with a new value of the attribute.
+	 */
+	synchronized void put(String attribute, String path, String oldValue, String newValue) {
+		Map<String, Set<String>> values = attributes().get(attribute);
+		if (values == null)
+			return;
+		if (oldValue != null) {
+			if (!oldValue.equals(newValue))
+				// keep the association order of the metacontext
+				attributes.remove(attribute);
+			return;
+		}
+		Set<String> paths = values.get(newValue);
+		if (paths == null) {
+			paths = new LinkedHashSet<String>();
+			values.put(newValue, paths);
+		}
+		paths.add(path);
+	}
+
+	synchronized void remove(String attribute, String path, String oldValue) {
+		if (oldValue == null)
+			return;
+		Map<String, Set<String>> values = attributes().get(attribute);
+		if (values == null)
+			return;
+		Set<String> paths = values.get(oldValue);
+		if (paths != null) {
+			paths.remove(path);
+			if (paths.isEmpty())
+				values.remove(oldValue);
+		}
+	}
+
+	synchronized void invalidate(String attribute) {
+		attributes().remove(attribute);
+	}
+
+	synchronized void invalidate() {
+		attributes = null;
+	}
+
+	private Map<String, Map<String, Set<String>>> attributes() {
+		if (attributes == null)
+			attributes = new HashMap<String, Map<String, Set<String>>>();
+		return attributes;
+	}
+
+	private static Map<String, Set<String>> build(Map<String, String> associations) {
+		Map<String, Set<String>> values = new HashMap<String, Set<String>>();
+		if (associations == null)
+			return values;
+		for (Map.Entry<String, String> e : associations.entrySet()) {
+			Set<String> paths = values.get(e.getValue());
+			if (paths == null) {
+				paths = new LinkedHashSet<String>();
+				values.put(e.getValue(), paths);
+			}
+			paths.add(e.getKey());
+		}
+		return values;
+	}
+}
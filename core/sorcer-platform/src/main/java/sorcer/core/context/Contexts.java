@@ -1198,30 +1198,23 @@ public class Contexts implements SorcerConstants {
 					// etc. Therefore, the matches that are common for
 					// each element of the metapath are the ones in which
 					// we have interest.
-					String candidate;
-					int match, thisMatch;
+					// index the other element matches by path
+					List<Set<Object>> others = new ArrayList<Set<Object>>(paths.length - 1);
+					for (int j = 0; j < paths.length; j++) {
+						if (j != ii)
+							others.add(new HashSet<Object>(Arrays.asList(paths[j])));
+					}
 					// go through each element of one with most matches
 					for (int i = 0; i < paths[ii].length; i++) {
-						candidate = paths[ii][i];
-						// now look for paths.length-1 matches...
-						match = 0;
-						for (int j = 0; j < paths.length; j++) {
-							if (j == ii)
-								continue;
-							thisMatch = 0;
-							for (int k = 0; k < paths[j].length; k++)
-								if (candidate.equals(paths[j][k])) {
-									match++;
-									thisMatch++;
-									break;
-								}
-							if (thisMatch == 0)
+						boolean match = true;
+						for (Set<Object> other : others) {
+							if (!other.contains(paths[ii][i])) {
+								match = false;
 								break; // no possible match for this candidate
+							}
 						}
-						// System.out.println("candidate="+candidate+"
-						// match="+match+" required maches="+(paths.length-1));
-						if (match == paths.length - 1)
-							keys.addElement(candidate);
+						if (match)
+							keys.addElement(paths[ii][i]);
 					}
 				}
 			}
@@ -1265,7 +1258,9 @@ public class Contexts implements SorcerConstants {
 			throw new ContextException("No Attribute defined: " + attr);
 
 		Vector keys = new Vector();
-		if (cntxt.isSingletonAttribute(attr)) {
+		if (cntxt instanceof ServiceContext && cntxt.isSingletonAttribute(attr)) {
+			keys.addAll(((ServiceContext) cntxt).getIndexedPaths(attr, value));
+		} else if (cntxt.isSingletonAttribute(attr)) {
 			values = (LinkedHashMap<String, String>) cntxt.getMetacontext().get(attr);
 			if (values != null) { // if there are no attributes setValue,
 				// values==null;
@@ -537,6 +537,7 @@ public class ControlContext extends ServiceContext<Object> implements RoutineStr
 					map.put(parent.get(i).getContext().getName(),
 							map.remove(oldPath));
 			}
+			metacontextChanged();
 		}
 	}
 
@@ -607,6 +608,7 @@ public class ControlContext extends ServiceContext<Object> implements RoutineStr
 			if (map != null && map.size() > 0 && map.containsKey(oldPath))
 				map.put(newPath, map.remove(oldPath));
 		}
+		metacontextChanged();
 	}
 
 	public void appendTrace(String info) {
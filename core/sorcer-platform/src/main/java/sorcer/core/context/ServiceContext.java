@@ -89,6 +89,8 @@ public class ServiceContext<T> extends ServiceMogram implements
 	 * contextReturn/metapath args
 	 */
 	protected Map<String, LinkedHashMap<String, String>> metacontext;
+	/** inverted index of singleton associations in the metacontext */
+	private AssociationIndex associationIndex;
 	protected Context initContext;
 
 	/** The exertion that uses this context */
@@ -185,7 +187,7 @@ public class ServiceContext<T> extends ServiceMogram implements
 				put(path, obj);
 		}
 
-		setMetacontext(cxt.getMetacontext());
+		shareMetacontext(cxt);
 		// copy instance fields
 		mogramId = cxt.getId();
 		parentPath = cxt.getParentPath();
@@ -273,6 +275,7 @@ public class ServiceContext<T> extends ServiceMogram implements
 		data = new ConcurrentHashMap<String, T>();
 		metacontext = new HashMap<String, LinkedHashMap<String, String>>();
 		metacontext.put(SorcerConstants.CONTEXT_ATTRIBUTES, new LinkedHashMap());
+		associationIndex = new AssociationIndex();
 
 		// specify four SORCER standard composite attributes
 		try {
@@ -421,7 +424,8 @@ public class ServiceContext<T> extends ServiceMogram implements
 				result = linkedCntxt.getValue(offset);
 			}
 			if (result == null) {
-				// could be in a linked context
+				// could be in a linked context, any link of the context may hold the path
+				Dependencies.unknown();
 				List<String> paths = localLinkPaths();
 				int len;
 				for (String linkPath : paths) {
@@ -525,6 +529,8 @@ public class ServiceContext<T> extends ServiceMogram implements
 							  String name) throws EvaluationException,
 			RemoteException {
 		T val = null;
+		// the value depends on all paths of the context
+		Dependencies.unknown();
 		Iterator<Map.Entry<String, T>> i = entryIterator();
 		Map.Entry<String, T> entry;
 		while (i.hasNext()) {
@@ -545,6 +551,8 @@ public class ServiceContext<T> extends ServiceMogram implements
 	public Object getValueStartsWith(String name) throws EvaluationException,
 			RemoteException {
 		Object val = null;
+		// the value depends on all paths of the context
+		Dependencies.unknown();
 		Iterator<Map.Entry<String, T>> i = entryIterator();
 		Map.Entry<String, T> entry;
 		while (i.hasNext()) {
@@ -870,11 +878,21 @@ public class ServiceContext<T> extends ServiceMogram implements
 	}
 
 	private Map getDataAttributeMap() {
-		return  metacontext.get(SorcerConstants.CONTEXT_ATTRIBUTES);
+		// attributes are defined with defineAttribute
+		return Collections.unmodifiableMap(metacontext.get(SorcerConstants.CONTEXT_ATTRIBUTES));
+	}
+
+	/**
+	 * Defines a data attribute, a redefined attribute is indexed again on
+	 * its next lookup.
+	 */
+	private void defineAttribute(String attribute, String definition) {
+		metacontext.get(SorcerConstants.CONTEXT_ATTRIBUTES).put(attribute, definition);
+		getAssociationIndex().invalidate(attribute);
 	}
 
 	public Set<String>  localAttributes() {
-		return metacontext.get(SorcerConstants.CONTEXT_ATTRIBUTES).keySet();
+		return Collections.unmodifiableSet(metacontext.get(SorcerConstants.CONTEXT_ATTRIBUTES).keySet());
 	}
 
 	protected Map getDataAttributeMap(String attributeName) {
@@ -895,7 +913,7 @@ public class ServiceContext<T> extends ServiceMogram implements
 	public void setComponentAttribute(String attribute) {
 		if (attribute.startsWith(PRIVATE) && attribute.endsWith(PRIVATE))
 			return;
-		getDataAttributeMap().put(attribute, attribute);
+		defineAttribute(attribute, attribute);
 	}
 
 	public void setCompositeAttribute(String descriptor)
@@ -906,7 +924,7 @@ public class ServiceContext<T> extends ServiceMogram implements
 		if (composite.startsWith(PRIVATE) && composite.endsWith(PRIVATE))
 			throw new ContextException("Illegal metaattribute key");
 		String components = descriptor.substring(composite.length() + 1);
-		getDataAttributeMap().put(composite, components);
+		defineAttribute(composite, components);
 		StringTokenizer st = new StringTokenizer(components, APS);
 		String attribute;
 		while (st.hasMoreTokens()) {
@@ -1101,7 +1119,8 @@ public class ServiceContext<T> extends ServiceMogram implements
 				values = new LinkedHashMap();
 				cntxt.metacontext.put(attribute, values);
 			}
-			values.put(mappedKey, attributeValue);
+			String oldValue = (String) values.put(mappedKey, attributeValue);
+			cntxt.getAssociationIndex().put(attribute, mappedKey, oldValue, attributeValue);
 		} else if (cntxt.isMetaattribute(attribute))
 			cntxt.addCompositeAssociation(mappedKey, attribute, attributeValue);
 		else
@@ -1138,7 +1157,6 @@ public class ServiceContext<T> extends ServiceMogram implements
 
 	public List<String> markedPaths(String association) throws ContextException {
 		String attr, value;
-		Map values;
 		if (association == null)
 			return null;
 		int index = association.indexOf(SorcerConstants.APS);
@@ -1152,14 +1170,7 @@ public class ServiceContext<T> extends ServiceMogram implements
 
 		List<String> keys = new ArrayList<String>();
 		if (isSingletonAttribute(attr)) {
-			values = getMetacontext().get(attr);
-			if (values != null) { // if there are no attributes set,
-				// values==null;
-				for (Object key : values.keySet()) {
-					if (values.get(key).equals(value))
-						keys.add((String) key);
-				}
-			}
+			keys.addAll(getIndexedPaths(attr, value));
 		} else {
 			// it is a metaattribute
 			String metapath = getLocalMetapath(attr);
@@ -1194,30 +1205,23 @@ public class ServiceContext<T> extends ServiceMogram implements
 					// etc. Therefore, the matches that are common for
 					// each element of the metapath are the ones in which
 					// we have interest.
-					String candidate;
-					int match, thisMatch;
+					// index the other element matches by path
+					List<Set<Object>> others = new ArrayList<Set<Object>>(paths.length - 1);
+					for (int j = 0; j < paths.length; j++) {
+						if (j != ii)
+							others.add(new HashSet<Object>(Arrays.asList(paths[j])));
+					}
 					// go through each element of one with most matches
 					for (int i = 0; i < paths[ii].length; i++) {
-						candidate = (String) paths[ii][i];
-						// now look for paths.length-1 matches...
-						match = 0;
-						for (int j = 0; j < paths.length; j++) {
-							if (j == ii)
-								continue;
-							thisMatch = 0;
-							for (int k = 0; k < paths[j].length; k++)
-								if (candidate.equals(paths[j][k])) {
-									match++;
-									thisMatch++;
-									break;
-								}
-							if (thisMatch == 0)
+						boolean match = true;
+						for (Set<Object> other : others) {
+							if (!other.contains(paths[ii][i])) {
+								match = false;
 								break; // no possible match for this candidate
+							}
 						}
-						// System.out.println("candidate="+candidate+"
-						// match="+match+" required maches="+(paths.length-1));
-						if (match == paths.length - 1)
-							keys.add(candidate);
+						if (match)
+							keys.add((String) paths[ii][i]);
 					}
 				}
 			}
@@ -1258,11 +1262,11 @@ public class ServiceContext<T> extends ServiceMogram implements
 		String mappedKey = (String) map[1];
 
 		if (cntxt.isSingletonAttribute(attr)) {
-			Hashtable metavalues = (Hashtable) cntxt.getMetacontext().get(attr);
+			Map<String, String> metavalues = (Map<String, String>) cntxt.metacontext.get(attr);
 
 			if (metavalues == null)
 				return;
-			metavalues.remove(mappedKey);
+			cntxt.getAssociationIndex().remove(attr, mappedKey, metavalues.remove(mappedKey));
 			// remove Hashtable if it is now empty
 			if (metavalues.size() == 0)
 				metacontext.remove(attr);
@@ -1415,52 +1419,52 @@ public class ServiceContext<T> extends ServiceMogram implements
 	}
 
 	public String getValClass(String path) throws ContextException {
-		String vc = (String) ((LinkedHashMap)getMetacontext().get(Context.VAL_CLASS)).get(path);
+		String vc = (String) ((LinkedHashMap)metacontext.get(Context.VAL_CLASS)).get(path);
 		return vc;
 	}
 
 	public boolean isString(String path) throws ContextException {
-		String vc = (String) ((LinkedHashMap)getMetacontext().get(Context.VAL_CLASS)).get(path);
+		String vc = (String) ((LinkedHashMap)metacontext.get(Context.VAL_CLASS)).get(path);
 		return vc.equals(""+ String.class);
 	}
 
 	public boolean isInt(String path) throws ContextException {
-		String vc = (String) ((LinkedHashMap)getMetacontext().get(Context.VAL_CLASS)).get(path);
+		String vc = (String) ((LinkedHashMap)metacontext.get(Context.VAL_CLASS)).get(path);
 		boolean is = vc.equals(""+ int.class) || vc.equals(""+ Integer.class);
 		return is;
 	}
 	public boolean isShort(String path) throws ContextException {
-		String vc = (String) ((LinkedHashMap)getMetacontext().get(Context.VAL_CLASS)).get(path);
+		String vc = (String) ((LinkedHashMap)metacontext.get(Context.VAL_CLASS)).get(path);
 		boolean is = vc.equals(""+ short.class) || vc.equals(""+ Short.class);
 		return is;
 	}
 
 	public boolean isLong(String path) throws ContextException {
-		String vc = (String) ((LinkedHashMap)getMetacontext().get(Context.VAL_CLASS)).get(path);
+		String vc = (String) ((LinkedHashMap)metacontext.get(Context.VAL_CLASS)).get(path);
 		boolean is = vc.equals(""+ long.class) || vc.equals(""+ Long.class);
 		return is;
 	}
 
 	public boolean isFloat(String path) throws ContextException {
-		String vc = (String) ((LinkedHashMap)getMetacontext().get(Context.VAL_CLASS)).get(path);
+		String vc = (String) ((LinkedHashMap)metacontext.get(Context.VAL_CLASS)).get(path);
 		boolean is = vc.equals(""+ float.class) || vc.equals(""+ Float.class);
 		return is;
 	}
 
 	public boolean isDouble(String path) throws ContextException {
-		String vc = (String) ((LinkedHashMap)getMetacontext().get(Context.VAL_CLASS)).get(path);
+		String vc = (String) ((LinkedHashMap)metacontext.get(Context.VAL_CLASS)).get(path);
 		boolean is = vc.equals(""+ double.class) || vc.equals(""+ Double.class);
 		return is;
 	}
 
 	public boolean isByte(String path) throws ContextException {
-		String vc = (String) ((LinkedHashMap)getMetacontext().get(Context.VAL_CLASS)).get(path);
+		String vc = (String) ((LinkedHashMap)metacontext.get(Context.VAL_CLASS)).get(path);
 		boolean is = vc.equals(""+ byte.class) || vc.equals(""+ Byte.class);
 		return is;
 	}
 
 	public boolean isBoolean(String path) throws ContextException {
-		String vc = (String) ((LinkedHashMap)getMetacontext().get(Context.VAL_CLASS)).get(path);
+		String vc = (String) ((LinkedHashMap)metacontext.get(Context.VAL_CLASS)).get(path);
 		boolean is = vc.equals(""+ boolean.class) || vc.equals(""+ Boolean.class);
 		return is;
 	}
@@ -2033,7 +2037,8 @@ public class ServiceContext<T> extends ServiceMogram implements
 				continue;
 			attributes = (Map) cxt.metacontext.get(key);
 			if (attributes.containsKey(mappedKey))
-				attributes.remove(mappedKey);
+				cxt.getAssociationIndex().remove(key, mappedKey,
+						(String) attributes.remove(mappedKey));
 		}
 	}
 
@@ -2203,10 +2208,47 @@ public class ServiceContext<T> extends ServiceMogram implements
 		return toString(cr, sb, withMetacontext);
 	}
 
+	/**
+	 * Returns the metacontext of this context. Associations are made with
+	 * the marking methods of the context, callers changing the returned maps
+	 * directly have to call {@link #metacontextChanged()} afterwards.
+	 */
 	public Map<String, LinkedHashMap<String, String>> getMetacontext() {
 		return metacontext;
 	}
 
+	/**
+	 * Drops the indexed associations after the metacontext was changed
+	 * directly, see {@link #getMetacontext()}.
+	 */
+	public void metacontextChanged() {
+		getAssociationIndex().invalidate();
+	}
+
+	/**
+	 * Shares the metacontext of the context together with its association
+	 * index, so associations made in either context are indexed for both.
+	 */
+	public void shareMetacontext(ServiceContext context) {
+		metacontext = context.metacontext;
+		associationIndex = context.getAssociationIndex();
+	}
+
+	/**
+	 * Returns the local paths associated with the value of the singleton
+	 * attribute. Unlike {@link #markedPaths(String)} linked contexts are not
+	 * searched.
+	 */
+	public List<String> getIndexedPaths(String attribute, String value) {
+		return getAssociationIndex().paths(metacontext, attribute, value);
+	}
+
+	AssociationIndex getAssociationIndex() {
+		if (associationIndex == null)
+			associationIndex = new AssociationIndex();
+		return associationIndex;
+	}
+
 	public void connect(String outPath, String inPath, Context inContext)
 			throws ContextException {
 		Contexts.markIn(inContext, inPath);
@@ -2425,6 +2467,7 @@ public class ServiceContext<T> extends ServiceMogram implements
 			if (attributeHash.containsKey(path))
 				attributeHash.remove(path);
 		}
+		getAssociationIndex().invalidate();
 	}
 
 	public String getTitle() {
@@ -2844,6 +2887,7 @@ public class ServiceContext<T> extends ServiceMogram implements
 	@Override
 	public void setMetacontext(Map<String, LinkedHashMap<String, String>> metacontext) {
 		this.metacontext = metacontext;
+		this.associationIndex = new AssociationIndex();
 	}
 
 	public int hashCode() {
@@ -2907,6 +2951,7 @@ public class ServiceContext<T> extends ServiceMogram implements
 	public Entry entry(String path) {
 		Object obj = null;
 		if (path != null) {
+			readPath(path);
 			obj = data.get(path);
 		}
 		if (obj instanceof Function) {
@@ -2918,12 +2963,23 @@ public class ServiceContext<T> extends ServiceMogram implements
 	@Override
 	public T get(String path) {
 		if (path != null){
+			readPath(path);
 			return data.get(path);
 		} else {
 			return (T) Context.none;
 		}
 	}
 
+	/**
+	 * Called when a path of this context is read, so the current evaluation
+	 * can record its inputs, see {@link Dependencies}. The paths of a plain
+	 * context are not tracked, reading them marks the evaluation as
+	 * depending on untracked inputs.
+	 */
+	protected void readPath(String path) {
+		Dependencies.unknown();
+	}
+
 	public Context setOutValues(Context<T> context) throws ContextException,
 			RemoteException {
 		List<String> pl = ((ServiceContext) context).getOutPaths();
@@ -3632,6 +3688,7 @@ public class ServiceContext<T> extends ServiceMogram implements
 	}
 
 	public Function<T> getEntry(String path) {
+		readPath(path);
 		return new Function(path, data.get(path));
 	}
 
@@ -3823,6 +3880,7 @@ public class ServiceContext<T> extends ServiceMogram implements
         this.prefix = context.prefix;
         this.entryLists = context.entryLists;
         this.metacontext = context.metacontext;
+        this.associationIndex = context.getAssociationIndex();
         this.initContext = context.initContext;
         this.exertion = context.exertion;
         this.currentPrefix = context.currentPrefix;
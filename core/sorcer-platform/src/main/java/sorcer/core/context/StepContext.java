@@ -61,6 +61,7 @@ public class StepContext extends ServiceContext<Object> {
 
     @Override
     public Object get(String key) {
+        readPath(key);
         return data.get(key);
     }
 }
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.context.model.ent;
+
+import sorcer.service.Evaluation;
+import sorcer.service.Invocation;
+import sorcer.service.MultiFiSlot;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The model paths read by an evaluation, e.g. of an invoker or a request,
+ * so its value can be reused until one of the paths read changes. Reads
+ * are recorded per thread into the innermost tracked evaluation, and the
+ * reads of a nested evaluation are merged into the enclosing one, so an
+ * evaluation depends on its transitive inputs. A path read has changed if
+ * the model holds another object at the path, or the entry at the path
+ * holds another value. Values which may change in place, anything but
+ * strings, boxed primitives and enums, e.g. arrays, lists or contexts, are
+ * always considered changed. The entries of computed values, e.g.
+ * invokers, depend on the reads of their own evaluation instead.
+ * <p>
+ * An evaluation that reads inputs which are not tracked, e.g. a plain
+ * service context, is marked as unknown and never reported as current,
+ * so its callers fall back to the change flag of their context.
+ */
+public final class Dependencies {
+
+	private static final ThreadLocal<Deque<Dependencies>> frames = new ThreadLocal<Deque<Dependencies>>() {
+		@Override
+		protected Deque<Dependencies> initialValue() {
+			return new ArrayDeque<Dependencies>();
+		}
+	};
+
+	private final Object owner;
+
+	// the reads by the data maps of models and their paths
+	private final Map<Map<String, ?>, Map<String, Read>> reads =
+			new IdentityHashMap<Map<String, ?>, Map<String, Read>>();
+
+	private boolean unknown;
+
+	private boolean ended;
+
+	private Dependencies(Object owner) {
+		this.owner = owner;
+	}
+
+	/**
+	 * Starts recording the reads of an evaluation on the current thread.
+	 * The returned dependencies have to be ended by the same thread.
+	 *
+	 * @param owner the evaluated object, e.g. an invoker
+	 */
+	public static Dependencies track(Object owner) {
+		Dependencies dependencies = new Dependencies(owner);
+		frames.get().push(dependencies);
+		return dependencies;
+	}
+
+	/**
+	 * Records a read of a path of a model data map by the current
+	 * evaluation, if any.
+	 */
+	public static void read(Map<String, ?> data, String path) {
+		Dependencies current = frames.get().peek();
+		if (current != null)
+			current.add(data, path, new Read(data, path));
+	}
+
+	/**
+	 * Marks the current evaluation, if any, as depending on inputs which
+	 * are not tracked.
+	 */
+	public static void unknown() {
+		Dependencies current = frames.get().peek();
+		if (current != null) {
+			synchronized (current) {
+				current.unknown = true;
+			}
+		}
+	}
+
+	/**
+	 * Stops recording the reads of this evaluation and merges them into
+	 * the enclosing evaluation, if any.
+	 */
+	public void end() {
+		Deque<Dependencies> stack = frames.get();
+		if (ended)
+			return;
+		ended = true;
+		// evaluations ended out of order are ended with this one
+		while (!stack.isEmpty()) {
+			if (stack.pop() == this)
+				break;
+		}
+		report();
+	}
+
+	/**
+	 * Merges these reads into the current evaluation, e.g. when a value
+	 * computed before is reused.
+	 */
+	public void report() {
+		Dependencies current = frames.get().peek();
+		if (current == null || current == this)
+			return;
+		List<Read> all = new ArrayList<Read>();
+		boolean isUnknown;
+		synchronized (this) {
+			for (Map<String, Read> paths : reads.values())
+				all.addAll(paths.values());
+			isUnknown = unknown;
+		}
+		synchronized (current) {
+			for (Read read : all)
+				current.add(read.data, read.path, read);
+			if (isUnknown)
+				current.unknown = true;
+		}
+	}
+
+	/**
+	 * Drops the reads of a path, e.g. of the entry holding the value of
+	 * this evaluation.
+	 */
+	public synchronized void ignore(Map<String, ?> data, String path) {
+		Map<String, Read> paths = reads.get(data);
+		if (paths != null)
+			paths.remove(path);
+	}
+
+	/**
+	 * Returns <code>true</code> if the evaluation read a tracked path and
+	 * none of the paths read changed since.
+	 */
+	public boolean isCurrent() {
+		List<Read> all = new ArrayList<Read>();
+		synchronized (this) {
+			if (unknown)
+				return false;
+			for (Map<String, Read> paths : reads.values())
+				all.addAll(paths.values());
+		}
+		if (all.isEmpty())
+			return false;
+		for (Read read : all) {
+			if (!read.isCurrent())
+				return false;
+		}
+		return true;
+	}
+
+	public synchronized boolean isEmpty() {
+		for (Map<String, Read> paths : reads.values()) {
+			if (!paths.isEmpty())
+				return false;
+		}
+		return true;
+	}
+
+	public synchronized boolean isUnknown() {
+		return unknown;
+	}
+
+	public Object getOwner() {
+		return owner;
+	}
+
+	public synchronized int size() {
+		int size = 0;
+		for (Map<String, Read> paths : reads.values())
+			size += paths.size();
+		return size;
+	}
+
+	private synchronized void add(Map<String, ?> data, String path, Read read) {
+		Map<String, Read> paths = reads.get(data);
+		if (paths == null) {
+			paths = new LinkedHashMap<String, Read>();
+			reads.put(data, paths);
+		}
+		// the first read of a path holds the state the evaluation depends on
+		if (!paths.containsKey(path))
+			paths.put(path, read);
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "reads: " + size() + (unknown ? ", unknown" : "");
+	}
+
+	/**
+	 * The state of a path when it was read.
+	 */
+	private static class Read {
+		final Map<String, ?> data;
+		final String path;
+		final Object slot;
+		final Object impl;
+		final Object out;
+		// the value read may have changed in place since
+		final boolean mutable;
+
+		Read(Map<String, ?> data, String path) {
+			this.data = data;
+			this.path = path;
+			slot = data.get(path);
+			if (slot instanceof MultiFiSlot) {
+				impl = ((MultiFiSlot) slot).getImpl();
+				out = isComputed(impl) ? null : ((MultiFiSlot) slot).getOut();
+				mutable = !isComputed(impl) && !(isImmutable(impl) && isImmutable(out));
+			} else {
+				impl = null;
+				out = null;
+				mutable = !isImmutable(slot);
+			}
+		}
+
+		boolean isCurrent() {
+			if (mutable)
+				return false;
+			Object current = data.get(path);
+			if (current != slot)
+				return false;
+			if (current instanceof MultiFiSlot) {
+				Object currentImpl = ((MultiFiSlot) current).getImpl();
+				if (currentImpl != impl)
+					return false;
+				return isComputed(impl) || ((MultiFiSlot) current).getOut() == out;
+			}
+			return true;
+		}
+
+		// the output of a computed entry is tracked by its own evaluation
+		private static boolean isComputed(Object impl) {
+			return impl instanceof Evaluation || impl instanceof Invocation;
+		}
+
+		private static boolean isImmutable(Object value) {
+			return value == null || value instanceof String || value instanceof Enum
+					|| value instanceof Boolean || value instanceof Character || value instanceof Double
+					|| value instanceof Float || value instanceof Long || value instanceof Integer
+					|| value instanceof Short || value instanceof Byte;
+		}
+	}
+}
@@ -35,6 +35,8 @@ import sorcer.util.url.sos.SdbUtil;
 import java.net.URL;
 import java.rmi.RemoteException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static sorcer.mo.operator.setValues;
 import static sorcer.so.operator.eval;
@@ -75,6 +77,8 @@ public class EntryModel extends PositionalContext<Object> implements Model, Invo
     // model supporting collaboration
 	protected Collaboration collaboration;
 
+	private transient ConcurrentMap<String, ParallelDependencies.Task> inflight;
+
 	public static EntryModel instance(Signature builder) throws SignatureException {
 		EntryModel model = (EntryModel) sorcer.co.operator.instance(builder);
 		model.setBuilder(builder);
@@ -164,7 +168,7 @@ public class EntryModel extends PositionalContext<Object> implements Model, Invo
 				if (impl instanceof Mogram) {
 					return exec((Service)impl, args);
 				} else if (impl instanceof Invocation) {
-					if (isChanged) {
+					if (isChanged && !((ServiceInvoker) impl).isUpToDate()) {
 						((ServiceInvoker) impl).setValid(false);
 					}
 					// this is set as the scope for impl
@@ -258,6 +262,15 @@ public class EntryModel extends PositionalContext<Object> implements Model, Invo
 		return super.put(path, value);
 	}
 
+	/**
+	 * Records the path as read by the current evaluation, see
+	 * {@link Dependencies}.
+	 */
+	@Override
+	protected void readPath(String path) {
+		Dependencies.read(data, path);
+	}
+
 	public Prc getCall(String name) throws ContextException {
 		Object obj = get(name);
 		if (obj instanceof Prc)
@@ -459,6 +472,7 @@ public class EntryModel extends PositionalContext<Object> implements Model, Invo
 	public Entry entry(String path) {
 		Object entry = null;
 		if (path != null) {
+			readPath(path);
 			entry = data.get(path);
 		}
 		if (entry instanceof Function) {
@@ -507,57 +521,99 @@ public class EntryModel extends PositionalContext<Object> implements Model, Invo
 		}
 	}
 
+	/**
+	 * Evaluates the dependent paths of a path. With the parallel flow of the
+	 * model strategy, independent dependent paths are evaluated concurrently.
+	 * Conditions and fidelity selections wait for the preceding dependent
+	 * paths, as they may depend on their values.
+	 */
 	public void execDependencies(String path, Arg... args) throws ContextException {
 		Map<String, List<ExecDependency>> dpm = ((ModelStrategy) domainStrategy).getDependentPaths();
 		if (dpm != null && dpm.get(path) != null) {
 			List<ExecDependency> del = dpm.get(path);
 			Entry entry = entry(path);
 			if (del != null && del.size() > 0) {
-				for (ExecDependency de : del) {
-					List<Path> dpl = (List<Path>) de.getImpl();
-					if (de.getType().equals(Functionality.Type.FIDELITY)) {
-						Fidelity deFi = (Fidelity) de.annotation();
-						if (deFi.getOption() == Fi.Type.IF) {
-							if (((Fidelity) entry.getMultiFi().getSelect()).getName().equals(deFi.getName())) {
-								// apply only to matched fidelity
+				ParallelDependencies batch = null;
+				if (((ModelStrategy) domainStrategy).getFlowType() == Strategy.Flow.PAR) {
+					batch = new ParallelDependencies(this, args);
+				}
+				try {
+					for (ExecDependency de : del) {
+						List<Path> dpl = (List<Path>) de.getImpl();
+						if (de.getType().equals(Functionality.Type.FIDELITY)) {
+							Fidelity deFi = (Fidelity) de.annotation();
+							if (deFi.getOption() == Fi.Type.IF) {
+								if (((Fidelity) entry.getMultiFi().getSelect()).getName().equals(deFi.getName())) {
+									// apply only to matched fidelity
+									if (dpl != null && dpl.size() > 0) {
+										for (Path p : dpl) {
+											execDependency(batch, p.path, args);
+										}
+									}
+								}
+								continue;
+							} else {
+								if (batch != null) {
+									batch.await();
+								}
+								// first select the requested fidelity
+								try {
+									entry.getMultiFi().selectSelect(((Fidelity) de.annotation()).getName());
+								} catch (ConfigurationException e) {
+									throw new ContextException(e);
+								}
+							}
+						} else if (de.getType().equals(Functionality.Type.CONDITION)) {
+							if (batch != null) {
+								batch.await();
+							}
+							Conditional condition = de.getCondition();
+							if (condition.isTrue()) {
+								// apply only if condition is true
 								if (dpl != null && dpl.size() > 0) {
 									for (Path p : dpl) {
-										getValue(p.path, args);
+										execDependency(batch, p.path, args);
 									}
 								}
 							}
 							continue;
-						} else {
-							// first select the requested fidelity
-							try {
-								entry.getMultiFi().selectSelect(((Fidelity) de.annotation()).getName());
-							} catch (ConfigurationException e) {
-								throw new ContextException(e);
-							}
 						}
-					} else if (de.getType().equals(Functionality.Type.CONDITION)) {
-						Conditional condition = de.getCondition();
-						if (condition.isTrue()) {
-							// apply only if condition is true
-							if (dpl != null && dpl.size() > 0) {
-								for (Path p : dpl) {
-									getValue(p.path, args);
-								}
+						if (dpl != null && dpl.size() > 0) {
+							for (Path p : dpl) {
+								execDependency(batch, p.path, args);
 							}
 						}
-						continue;
+
 					}
-					if (dpl != null && dpl.size() > 0) {
-						for (Path p : dpl) {
-							getValue(p.path, args);
-						}
+				} catch (ContextException | RuntimeException e) {
+					if (batch != null) {
+						batch.cancel();
 					}
-
+					throw e;
+				}
+				if (batch != null) {
+					batch.await();
 				}
 			}
 		}
 	}
 
+	private void execDependency(ParallelDependencies batch, String path, Arg... args) throws ContextException {
+		if (batch != null) {
+			batch.add(path);
+		} else {
+			getValue(path, args);
+		}
+	}
+
+	// the dependent paths being evaluated concurrently
+	synchronized ConcurrentMap<String, ParallelDependencies.Task> getInflight() {
+		if (inflight == null) {
+			inflight = new ConcurrentHashMap<String, ParallelDependencies.Task>();
+		}
+		return inflight;
+	}
+
 	protected void execDependencies(Signature sig, Arg... args) throws ContextException {
 		execDependencies(sig.getName(), args);
 	}
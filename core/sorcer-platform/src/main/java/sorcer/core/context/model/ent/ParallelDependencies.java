@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.context.model.ent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.service.Arg;
+import sorcer.service.ContextException;
+import sorcer.service.EvaluationException;
+import sorcer.util.ServiceExecutors;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Evaluates the dependent paths of a model path concurrently on the
+ * {@link ServiceExecutors#MODEL} pool, e.g. the remote requests of a
+ * request model. A path is evaluated once per batch, and a path being
+ * evaluated by another branch of the model is joined instead of evaluated
+ * again. A thread waiting for the batch runs the paths not yet started
+ * itself, so nested batches cannot deadlock on a saturated pool.
+ */
+class ParallelDependencies {
+	private static final Logger logger = LoggerFactory.getLogger(ParallelDependencies.class);
+
+	private final EntryModel model;
+
+	private final Arg[] args;
+
+	private final Set<String> paths = new HashSet<String>();
+
+	private final List<Task> tasks = new ArrayList<Task>();
+
+	ParallelDependencies(EntryModel model, Arg... args) {
+		this.model = model;
+		this.args = args;
+	}
+
+	/**
+	 * Starts the evaluation of a dependent path.
+	 */
+	void add(String path) {
+		if (!paths.add(path))
+			return;
+		ConcurrentMap<String, Task> inflight = model.getInflight();
+		Task task = new Task(path);
+		Task current = inflight.putIfAbsent(path, task);
+		if (current != null) {
+			tasks.add(current);
+			return;
+		}
+		tasks.add(task);
+		// a saturated pool evaluates the path in this thread
+		ServiceExecutors.get(ServiceExecutors.MODEL).execute(task);
+	}
+
+	/**
+	 * Waits for the dependent paths started since the last wait, running
+	 * the ones not yet started in the calling thread.
+	 *
+	 * @throws ContextException the first failure of the paths
+	 */
+	void await() throws ContextException {
+		Throwable failure = null;
+		for (Task task : tasks) {
+			task.run();
+			try {
+				task.get();
+				task.report();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				if (failure == null)
+					failure = e;
+			} catch (ExecutionException e) {
+				if (failure == null)
+					failure = e.getCause();
+			} catch (CancellationException e) {
+				if (failure == null)
+					failure = e;
+			}
+		}
+		tasks.clear();
+		paths.clear();
+		if (failure instanceof ContextException)
+			throw (ContextException) failure;
+		if (failure instanceof Error)
+			throw (Error) failure;
+		if (failure != null)
+			throw new EvaluationException((Exception) failure);
+	}
+
+	/**
+	 * Cancels the dependent paths not yet started and waits for the others,
+	 * ignoring their failures, e.g. when a condition of the model failed.
+	 */
+	void cancel() {
+		for (Task task : tasks) {
+			// paths joined from other branches are left to their batches
+			if (task.batch == ParallelDependencies.this)
+				task.future.cancel(false);
+		}
+		for (Task task : tasks) {
+			try {
+				task.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			} catch (Exception e) {
+				logger.debug("Dependent path {} of {} failed", task.path, model.getName(), e);
+			}
+		}
+		tasks.clear();
+		paths.clear();
+	}
+
+	/**
+	 * The evaluation of a dependent path, recording the paths it reads.
+	 */
+	class Task implements Callable<Object>, Runnable {
+		private final String path;
+
+		private final ParallelDependencies batch = ParallelDependencies.this;
+
+		// done() runs after the waiters are released, a cancelled path is
+		// removed there, an evaluated one before its value is published
+		private final FutureTask<Object> future = new FutureTask<Object>(this) {
+			@Override
+			protected void done() {
+				model.getInflight().remove(path, Task.this);
+			}
+		};
+
+		private volatile Dependencies reads;
+
+		Task(String path) {
+			this.path = path;
+		}
+
+		@Override
+		public Object call() throws Exception {
+			Dependencies frame = Dependencies.track(path);
+			try {
+				return model.getValue(path, args);
+			} finally {
+				frame.end();
+				reads = frame;
+				model.getInflight().remove(path, this);
+			}
+		}
+
+		// does nothing if the evaluation was started by another thread
+		@Override
+		public void run() {
+			future.run();
+		}
+
+		Object get() throws InterruptedException, ExecutionException {
+			return future.get();
+		}
+
+		// merges the paths read into the evaluation of the waiting thread
+		void report() {
+			Dependencies frame = reads;
+			if (frame != null)
+				frame.report();
+		}
+	}
+}
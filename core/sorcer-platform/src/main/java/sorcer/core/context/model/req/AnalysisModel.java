@@ -185,6 +185,7 @@ public class AnalysisModel extends RequestModel implements Transmodel, Configura
             domain = path$domain.substring(ind + 1);
             return ((Mogram)getChild(domain)).get(path);
         } else if (path$domain != null){
+            readPath(path$domain);
             return data.get(path$domain);
         } else {
             return Context.none;
@@ -40,6 +40,7 @@ import sorcer.service.modeling.Functionality;
 
 import java.rmi.RemoteException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static sorcer.eo.operator.*;
 import static sorcer.so.operator.exec;
@@ -59,6 +60,9 @@ import static sorcer.so.operator.execMogram;
 public class RequestModel extends EntryModel implements Invocation<Object> {
     private static final Logger logger = LoggerFactory.getLogger(RequestModel.class);
 
+    // the model paths read by the requests evaluated in-process, by the paths of the requests
+    private transient Map<String, Dependencies> reqReads;
+
     public static RequestModel instance(Signature builder) throws SignatureException {
         RequestModel model = (RequestModel) sorcer.co.operator.instance(builder);
         model.setBuilder(builder);
@@ -134,11 +138,60 @@ public class RequestModel extends EntryModel implements Invocation<Object> {
         }
         Object out = getReqValue(path, args);
         data.remove(path);
+        if (reqReads != null)
+            reqReads.remove(path);
         return out;
     }
 
     // used as execute but renamed to alter polymorphic chaining
     public Object getReqValue(String path, Arg... args) throws EvaluationException {
+        Object req = path != null ? data.get(path) : null;
+        if (!(req instanceof Req))
+            return evalReqValue(path, args);
+        // record the paths read by the request, see isReusable
+        Dependencies reads = Dependencies.track(req);
+        boolean evaluated = false;
+        try {
+            Object out = evalReqValue(path, args);
+            evaluated = true;
+            return out;
+        } finally {
+            reads.ignore(data, path);
+            reads.end();
+            if (reqReads == null)
+                reqReads = new ConcurrentHashMap<String, Dependencies>();
+            if (evaluated && isTracked((Req) req) && data.get(path) == req
+                    && !reads.isEmpty() && !reads.isUnknown())
+                reqReads.put(path, reads);
+            else
+                reqReads.remove(path);
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if the request was evaluated in-process and
+     * none of the model paths it read has changed since. The paths are
+     * reported to the enclosing evaluation, if any.
+     */
+    private boolean isReusable(String path, Req req, Arg... args) {
+        if (reqReads == null || req.getMultiFi() != null || Arg.selectDomain(args) != null)
+            return false;
+        Dependencies reads = reqReads.get(path);
+        if (reads == null || reads.getOwner() != req || !req.isValid() || !reads.isCurrent())
+            return false;
+        reads.report();
+        return true;
+    }
+
+    // requests with carriers reading the model in-process, the others hand the model over to services
+    private static boolean isTracked(Req req) {
+        Object carrier = req.getImpl();
+        return carrier instanceof ServiceInvoker
+                || req.getType() == Functionality.Type.LAMBDA
+                && (carrier instanceof ValueCallable || carrier instanceof EntryCollable);
+    }
+
+    private Object evalReqValue(String path, Arg... args) throws EvaluationException {
         Object val = null;
         try {
             append(args);
@@ -163,6 +216,8 @@ public class RequestModel extends EntryModel implements Invocation<Object> {
             if (val instanceof Req) {
                 if (((Req) val).isCached() && ((Req) val).isValid()) {
                     return ((Req) val).getOut();
+                } else if (isReusable(path, (Req) val, args)) {
+                    return ((Req) val).getOut();
                 } else if (isChanged()) {
                     ((Req) val).setValid(false);
                     ((Req) val).setChanged(true);
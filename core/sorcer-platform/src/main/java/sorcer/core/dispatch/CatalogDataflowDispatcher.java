@@ -0,0 +1,215 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.dispatch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.core.exertion.Mograms;
+import sorcer.service.Exerter;
+import sorcer.service.*;
+import sorcer.util.ServiceExecutors;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.*;
+
+import static sorcer.service.Exec.*;
+
+/**
+ * Executes the component exertions of a job as a dataflow graph. Each
+ * exertion is started on the shared {@link ServiceExecutors#DISPATCH} pool
+ * as soon as all exertions it depends on via pipes (as computed by
+ * {@link ExertionSorter}) are done, with at most <code>poolSize</code>
+ * exertions running at a time, so a job completes in the time of its
+ * critical path.
+ */
+public class CatalogDataflowDispatcher extends CatalogExertDispatcher {
+    private final Logger logger = LoggerFactory.getLogger(CatalogDataflowDispatcher.class);
+
+    public static final int DEFAULT_POOL_SIZE = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private final Map<Discipline, Set<Discipline>> dependencies;
+
+    private final int poolSize;
+
+    public CatalogDataflowDispatcher(Job job,
+                                     Set<Context> sharedContexts,
+                                     boolean isSpawned,
+                                     Exerter provider,
+                                     ProvisionManager provisionManager,
+                                     Map<Discipline, Set<Discipline>> dependencies) {
+        this(job, sharedContexts, isSpawned, provider, provisionManager, dependencies, DEFAULT_POOL_SIZE);
+    }
+
+    public CatalogDataflowDispatcher(Job job,
+                                     Set<Context> sharedContexts,
+                                     boolean isSpawned,
+                                     Exerter provider,
+                                     ProvisionManager provisionManager,
+                                     Map<Discipline, Set<Discipline>> dependencies,
+                                     int poolSize) {
+        super(job, sharedContexts, isSpawned, provider, provisionManager);
+        this.dependencies = dependencies;
+        this.poolSize = poolSize;
+    }
+
+    public void doExec(Arg... args) throws RoutineException, SignatureException {
+        xrt.startExecTime();
+        List<Routine> inputs = new ArrayList<Routine>();
+        if (inputXrts != null) {
+            for (Discipline mogram : inputXrts) {
+                if (mogram instanceof Routine)
+                    inputs.add((Routine) mogram);
+            }
+        }
+        // upstream exertions not yet done for each input exertion
+        Map<Routine, Set<Routine>> waiting = new LinkedHashMap<Routine, Set<Routine>>();
+        // downstream exertions for each input exertion
+        Map<Routine, List<Routine>> dependents = new HashMap<Routine, List<Routine>>();
+        for (Routine mogram : inputs) {
+            Set<Routine> upstream = new HashSet<Routine>();
+            Set<Discipline> deps = dependencies != null ? dependencies.get(mogram) : null;
+            if (deps != null) {
+                for (Routine other : inputs) {
+                    if (other != mogram && deps.contains(other)) {
+                        upstream.add(other);
+                        List<Routine> down = dependents.get(other);
+                        if (down == null) {
+                            down = new ArrayList<Routine>();
+                            dependents.put(other, down);
+                        }
+                        down.add(mogram);
+                    }
+                }
+            }
+            waiting.put(mogram, upstream);
+        }
+
+        CompletionService<Routine> completion = new ExecutorCompletionService<Routine>(
+                ServiceExecutors.get(ServiceExecutors.DISPATCH));
+        Map<Future<Routine>, Routine> running = new HashMap<Future<Routine>, Routine>();
+        boolean isFailed = false;
+        boolean isSuspended = false;
+        try {
+            startReady(waiting, completion, running, args);
+            while (!running.isEmpty()) {
+                Future<Routine> result = completion.take();
+                Routine done = running.remove(result);
+                try {
+                    Subroutine se = (Subroutine) result.get();
+                    se.stopExecTime();
+                    if (se.getStatus() == FAILED)
+                        isFailed = true;
+                    else if (se.getStatus() == SUSPENDED)
+                        isSuspended = true;
+                } catch (ExecutionException e) {
+                    logger.warn("Error while executing {}", done.getName(), e.getCause());
+                    isFailed = true;
+                }
+                if (isFailed || isSuspended)
+                    break;
+                List<Routine> down = dependents.get(done);
+                if (down != null) {
+                    for (Routine mogram : down)
+                        waiting.get(mogram).remove(done);
+                }
+                startReady(waiting, completion, running, args);
+            }
+            if (!isFailed && !isSuspended && !waiting.isEmpty()) {
+                // nothing left to run, the remaining exertions wait on each other
+                logger.warn("Unresolved dependencies for: {}", waiting.keySet());
+                isFailed = true;
+            }
+        } catch (InterruptedException e) {
+            logger.warn("Interrupted {}", xrt.getName(), e);
+            Thread.currentThread().interrupt();
+            isFailed = true;
+        } finally {
+            for (Future<Routine> result : running.keySet())
+                result.cancel(true);
+        }
+
+        if (isFailed) {
+            xrt.setStatus(FAILED);
+            setState(FAILED);
+            RoutineException fe = new RoutineException(this.getClass().getName()
+                    + " failed job", xrt);
+            xrt.reportException(fe);
+            dispatchers.remove(xrt.getId());
+            throw fe;
+        } else if (isSuspended) {
+            xrt.setStatus(SUSPENDED);
+            state = SUSPENDED;
+            RoutineException fe = new RoutineException(this.getClass().getName()
+                    + " suspended job", xrt);
+            xrt.reportException(fe);
+            dispatchers.remove(xrt.getId());
+            throw fe;
+        }
+
+        if (masterXrt != null) {
+            masterXrt = (Subroutine) execExertion(masterXrt, args);
+            masterXrt.stopExecTime();
+            if (masterXrt.getStatus() <= FAILED) {
+                xrt.setStatus(FAILED);
+                setState(FAILED);
+                dispatchers.remove(xrt.getId());
+                return;
+            }
+        }
+        xrt.stopExecTime();
+        xrt.setStatus(DONE);
+        dispatchers.remove(xrt.getId());
+        setState(DONE);
+    }
+
+    private void startReady(Map<Routine, Set<Routine>> waiting,
+                            CompletionService<Routine> completion,
+                            Map<Future<Routine>, Routine> running,
+                            Arg... args) {
+        Iterator<Map.Entry<Routine, Set<Routine>>> i = waiting.entrySet().iterator();
+        while (i.hasNext() && running.size() < Math.max(1, poolSize)) {
+            Map.Entry<Routine, Set<Routine>> next = i.next();
+            if (next.getValue().isEmpty()) {
+                i.remove();
+                logger.debug("Starting {}", next.getKey().getName());
+                running.put(completion.submit(new ExecExertion(next.getKey(), args)), next.getKey());
+            }
+        }
+    }
+
+    @Override
+    protected List<Discipline> getInputExertions() throws ContextException {
+        return Mograms.getInputExertions(((Job) xrt));
+    }
+
+    protected class ExecExertion implements Callable<Routine> {
+        private final Routine exertion;
+        private final Arg[] args;
+
+        public ExecExertion(Routine exertion, Arg... args) {
+            this.exertion = exertion;
+            this.args = args;
+        }
+
+        @Override
+        public Routine call() throws Exception {
+            return execExertion(exertion, args);
+        }
+    }
+}
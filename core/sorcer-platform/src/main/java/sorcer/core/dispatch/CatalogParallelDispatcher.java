@@ -23,6 +23,7 @@ import org.slf4j.LoggerFactory;
 import sorcer.core.exertion.Mograms;
 import sorcer.service.Exerter;
 import sorcer.service.*;
+import sorcer.util.ServiceExecutors;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -34,7 +35,7 @@ import static sorcer.service.Exec.*;
 
 public class CatalogParallelDispatcher extends CatalogExertDispatcher {
     private final Logger logger = LoggerFactory.getLogger(CatalogParallelDispatcher.class);
-    protected ExecutorService executor = Executors.newCachedThreadPool();
+    protected ExecutorService executor = ServiceExecutors.get(ServiceExecutors.DISPATCH);
 
     public CatalogParallelDispatcher(Job job,
             Set<Context> sharedContexts,
@@ -82,7 +83,7 @@ public class CatalogParallelDispatcher extends CatalogExertDispatcher {
         }
 		if (isFailed) {
 			xrt.setStatus(FAILED);
-			state = FAILED;
+			setState(FAILED);
 			RoutineException fe = new RoutineException(this.getClass().getName()
 					+ " failed job", xrt);
 			xrt.reportException(fe);
@@ -116,7 +117,7 @@ public class CatalogParallelDispatcher extends CatalogExertDispatcher {
 		}
 		xrt.setStatus(DONE);
 		dispatchers.remove(xrt.getId());
-		state = DONE;
+		setState(DONE);
 	}
 
     @Override
@@ -47,7 +47,7 @@ public class CatalogSequentialDispatcher extends CatalogExertDispatcher {
         String pn;
         if (inputXrts == null) {
             xrt.setStatus(FAILED);
-            state = FAILED;
+            setState(FAILED);
             try {
                 pn = provider.getProviderName();
                 if (pn == null)
@@ -104,14 +104,14 @@ public class CatalogSequentialDispatcher extends CatalogExertDispatcher {
         if (masterXrt != null) {
             masterXrt = (Subroutine) execExertion(masterXrt, args); // executeMasterExertion();
             if (masterXrt.getStatus() <= FAILED) {
-                state = FAILED;
+                setState(FAILED);
                 xrt.setStatus(FAILED);
             } else {
-                state = DONE;
+                setState(DONE);
                 xrt.setStatus(DONE);
             }
         } else
-            state = DONE;
+            setState(DONE);
         dispatchers.remove(xrt.getId());
         xrt.stopExecTime();
         xrt.setStatus(DONE);
@@ -121,7 +121,7 @@ public class CatalogSequentialDispatcher extends CatalogExertDispatcher {
         se = (Subroutine) execExertion(se, args);
         if (se.getStatus() <= FAILED) {
             xrt.setStatus(FAILED);
-            state = FAILED;
+            setState(FAILED);
             try {
                 String pn = provider.getProviderName();
                 if (pn == null) {
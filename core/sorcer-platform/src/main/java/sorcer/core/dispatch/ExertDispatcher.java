@@ -38,6 +38,12 @@ import javax.security.auth.Subject;
 import java.lang.reflect.Array;
 import java.rmi.RemoteException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 import static sorcer.service.Exec.*;
 
 @SuppressWarnings("rawtypes")
@@ -52,6 +58,12 @@ abstract public class ExertDispatcher implements Dispatcher {
 
 	protected volatile int state = Exec.INITIAL;
 
+    // completed with the dispatch result once the state becomes DONE or FAILED
+    private final CompletableFuture<DispatchResult> completion = new CompletableFuture<DispatchResult>();
+
+    // exec is running, completion waits until the exertion is finalized
+    private volatile boolean executing;
+
     protected boolean isMonitored;
 
     protected Set<Context> sharedContexts;
@@ -68,7 +80,6 @@ abstract public class ExertDispatcher implements Dispatcher {
 
     protected static Map<Uuid, Dispatcher> dispatchers = new HashMap<Uuid, Dispatcher>();
 
-	protected ThreadGroup disatchGroup;
     protected ProvisionManager provisionManager;
 
     public static Map<Uuid, Dispatcher> getDispatchers() {
@@ -102,6 +113,7 @@ abstract public class ExertDispatcher implements Dispatcher {
 
     public void exec(Arg... args) {
         dispatchers.put(xrt.getId(), this);
+        executing = true;
         state = Exec.RUNNING;
         xrt.setStatus(state);
         if (xrt instanceof Job) {
@@ -115,7 +127,7 @@ abstract public class ExertDispatcher implements Dispatcher {
         } catch (Exception e) {
             logger.warn("Routine governor thread killed by exception: ", e);
             xrt.setStatus(Exec.FAILED);
-            state = Exec.FAILED;
+            setState(Exec.FAILED);
             xrt.reportException(e);
         } finally {
             try {
@@ -125,6 +137,8 @@ abstract public class ExertDispatcher implements Dispatcher {
                 logger.warn("Problem removing lease for : " + xrt.getName() + " " + Exec.State.name(xrt.getStatus()) , ce);
             }
             dispatchers.remove(xrt.getId());
+            executing = false;
+            complete();
         }
     }
 
@@ -169,21 +183,39 @@ abstract public class ExertDispatcher implements Dispatcher {
         logger.debug("After exert {}", result);
     }
 
+    /**
+     * Waits until the dispatch is done or failed and returns its result. If
+     * the calling thread is interrupted the current state is returned.
+     */
     @Override
     public DispatchResult getResult() {
-        /**
-         * The default implementation - wait for status to be changed by another thread
-         */
-
         try {
-            while (!finished())
-                Thread.sleep(50);
+            return completion.get();
         } catch (InterruptedException e) {
             logger.warn("Interrupted!", e);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.warn("Dispatch failed", e.getCause());
         }
         return new DispatchResult(State.values()[state], xrt);
     }
 
+    @Override
+    public DispatchResult getResult(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        try {
+            return completion.get(timeout, unit);
+        } catch (ExecutionException e) {
+            logger.warn("Dispatch failed", e.getCause());
+            return new DispatchResult(State.values()[state], xrt);
+        }
+    }
+
+    @Override
+    public CompletionStage<DispatchResult> getResultAsync() {
+        // a dependent stage, so callers cannot complete the dispatch
+        return completion.thenApply(r -> r);
+    }
+
     private boolean finished(){
         return state == State.DONE.ordinal() || state == State.FAILED.ordinal();
     }
@@ -212,8 +244,21 @@ abstract public class ExertDispatcher implements Dispatcher {
         return state;
     }
 
+    /**
+     * Sets the state of this dispatcher. Setting DONE or FAILED completes the
+     * dispatch, once {@link #exec} has returned if it is still running; later
+     * state changes do not change its result.
+     */
     public void setState(int state) {
         this.state = state;
+        if (!executing)
+            complete();
+    }
+
+    private void complete() {
+        int current = state;
+        if (current == State.DONE.ordinal() || current == State.FAILED.ordinal())
+            completion.complete(new DispatchResult(State.values()[current], xrt));
     }
 
     protected class CollectResultThread implements Runnable {
@@ -230,6 +275,10 @@ abstract public class ExertDispatcher implements Dispatcher {
             if (xrt.isExecTimeRequested())
                 xrt.stopExecTime();
             dispatchers.remove(xrt.getId());
+            // collecting is over, so complete the dispatch even if the
+            // collector left it running
+            if (!finished())
+                setState(xrt.getStatus() == FAILED ? FAILED : DONE);
         }
     }
 
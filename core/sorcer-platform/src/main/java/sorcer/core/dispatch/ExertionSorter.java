@@ -69,6 +69,40 @@ public class ExertionSorter {
         return topLevelJob;
     }
 
+    /**
+     * Return the dependencies between the component domains of the given job
+     * that result from pipes specified between them or any of their inner
+     * domains. Each component is mapped to the set of its sibling components
+     * that have to be done before it can be executed.
+     *
+     * @param job
+     * @return
+     */
+    public Map<Discipline, Set<Discipline>> getDependencies(Routine job) {
+        Map<String, Discipline> owners = new HashMap<String, Discipline>();
+        for (Discipline xrt : job.getMograms()) {
+            owners.put(xrt.getId().toString(), xrt);
+            if (xrt instanceof Job) {
+                for (String id : addSubExertions(((Job) xrt).getMograms()))
+                    owners.put(id, xrt);
+            }
+        }
+        Map<Discipline, Set<Discipline>> dependencies = new HashMap<Discipline, Set<Discipline>>();
+        for (Discipline xrt : job.getMograms())
+            dependencies.put(xrt, new HashSet<Discipline>());
+        for (Map.Entry<String, Discipline> owner : owners.entrySet()) {
+            if (dag.getVertex(owner.getKey()) == null)
+                continue;
+            for (String depId : dag.getChildLabels(owner.getKey())) {
+                Discipline dependency = owners.get(depId);
+                if (dependency != null && dependency != owner.getValue()) {
+                    dependencies.get(owner.getValue()).add(dependency);
+                    logger.debug("Dependency: " + owner.getValue().getName() + " on: " + dependency.getName());
+                }
+            }
+        }
+        return dependencies;
+    }
 
     /**
      * Helper method to build a tree of all exertion IDs in a tree - required by setFlow
@@ -79,9 +79,12 @@ public class MogramDispatcherFactory implements DispatcherFactory {
                 provisionManager = new ProvisionManager((Routine)mogram);
         }
 
+        ExertionSorter sorter = null;
         try {
-            if(mogram instanceof Job)
-                mogram = new ExertionSorter((Job)mogram).getSortedJob();
+            if(mogram instanceof Job) {
+                sorter = new ExertionSorter((Job)mogram);
+                mogram = sorter.getSortedJob();
+            }
 
             if ( mogram instanceof Block && Mograms.isCatalogBlock((Routine)mogram)) {
                 logger.info("Running Catalog Block Dispatch...");
@@ -109,6 +112,14 @@ public class MogramDispatcherFactory implements DispatcherFactory {
                                                              loki,
                                                              provider,
                                                              provisionManager);
+                } else if (Mograms.isCatalogDataflow(job)) {
+                    logger.info("Running Catalog Dataflow Dispatch...");
+                    dispatcher = new CatalogDataflowDispatcher(job,
+                                                               sharedContexts,
+                                                               isSpawned,
+                                                               provider,
+                                                               provisionManager,
+                                                               sorter.getDependencies(job));
                 } else if (Mograms.isCatalogParallel(job)) {
                     logger.info("Running Catalog Parallel Dispatch...");
                     dispatcher = new CatalogParallelDispatcher(job,
@@ -32,6 +32,7 @@ import sorcer.service.DispatchException;
 import sorcer.service.Routine;
 import sorcer.service.Subroutine;
 import sorcer.service.Signature;
+import sorcer.util.ServiceExecutors;
 
 import java.rmi.RemoteException;
 import java.util.ArrayList;
@@ -49,6 +50,9 @@ import java.util.concurrent.*;
  */
 public class ProvisionManager {
 	private static final Logger logger = LoggerFactory.getLogger(ProvisionManager.class.getName());
+    // bounds of the delay between deployment state checks, doubled after each check
+    private static final long MIN_POLL_DELAY = 50;
+    private static final long MAX_POLL_DELAY = 1000;
 	private final Routine exertion;
     final List<Signature> signatures;
     private final List<String> deploymentNames = new ArrayList<>();
@@ -94,8 +98,8 @@ public class ProvisionManager {
                 tasks.add(new DeploymentFutureTask(deployment));
             }
         }
-        final ExecutorService pool = Executors.newFixedThreadPool(tasks.size());
-        final ExecutorCompletionService<Boolean> completionService = new ExecutorCompletionService<>(pool);
+        final ExecutorCompletionService<Boolean> completionService =
+            new ExecutorCompletionService<>(ServiceExecutors.get(ServiceExecutors.PROVISION));
         for(Callable<Boolean> task : tasks) {
             completionService.submit(task);
         }
@@ -221,8 +225,9 @@ public class ProvisionManager {
         for(String deploymentName : deploymentNames) {
             try {
                 deployAdmin.undeploy(deploymentName);
+                long delay = MIN_POLL_DELAY;
                 while(deployAdmin.hasDeployed(deploymentName)) {
-                    Thread.sleep(1000);
+                    delay = pause(delay);
                 }
                 removals.add(deploymentName);
             } catch (Exception e) {
@@ -286,6 +291,15 @@ public class ProvisionManager {
         return signatures;
     }
 
+    /**
+     * Sleeps for the given delay and returns the delay to use next, so that
+     * fast deployments are seen quickly and slow ones are not polled hard.
+     */
+    private static long pause(long delay) throws InterruptedException {
+        Thread.sleep(delay);
+        return Math.min(delay * 2, MAX_POLL_DELAY);
+    }
+
     private class DeploymentFutureTask implements Callable<Boolean> {
         final OperationalString deployment;
 
@@ -296,12 +310,15 @@ public class ProvisionManager {
         boolean waitForDeployment()  {
             try {
                 OperationalStringManager mgr = null;
+                long delay = MIN_POLL_DELAY;
                 while(mgr==null) {
                     try {
                         mgr = deployAdmin.getOperationalStringManager(deployment.getName());
                     } catch (OperationalStringException ignore) {}
-                    Thread.sleep(500);
+                    if (mgr==null)
+                        delay = pause(delay);
                 }
+                delay = MIN_POLL_DELAY;
                 Map<ServiceElement, Integer> deploy = new HashMap<>();
                 int total = 0;
                 for (ServiceElement elem: deployment.getServices()) {
@@ -352,7 +369,7 @@ public class ProvisionManager {
                         }
                     }
                     if (deployed < total) {
-                        Thread.sleep(500);
+                        delay = pause(delay);
                     }
                 }
             } catch (Exception e) {
@@ -21,8 +21,10 @@ package sorcer.core.dispatch;
 import net.jini.core.entry.Entry;
 import net.jini.core.entry.UnusableEntryException;
 import net.jini.core.lease.Lease;
+import net.jini.core.transaction.TransactionException;
 import net.jini.entry.UnusableEntriesException;
 import net.jini.id.Uuid;
+import net.jini.space.JavaSpace;
 import net.jini.space.JavaSpace05;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,22 +38,59 @@ import sorcer.service.Exerter;
 import sorcer.core.provider.SpaceTaker;
 import sorcer.service.*;
 import sorcer.service.space.SpaceAccessor;
+import sorcer.service.space.SpaceAvailability;
+import sorcer.util.ServiceExecutors;
 
+import java.io.Serializable;
 import java.rmi.RemoteException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static sorcer.service.Exec.*;
-import static sorcer.util.StringUtils.tName;
 
+/**
+ * Dispatches the component exertions of a job to the exertion space. The
+ * envelops are written with bulk writes, and a collector takes the results
+ * in bulk and hands each of them to the shared {@link ServiceExecutors#RESULT}
+ * pool, so the results of large jobs are handled in parallel.
+ */
 public class SpaceParallelDispatcher extends ExertDispatcher {
+    // the maximum number of envelops written to the space at once
+    public static final String WRITE_BATCH = "sorcer.space.write.batch";
+
     protected JavaSpace05 space;
-    private int doneExertionIndex = 0;
+    private final AtomicInteger doneExertionIndex = new AtomicInteger();
     protected LokiMemberUtil loki;
     private final Logger logger = LoggerFactory.getLogger(SpaceParallelDispatcher.class);
 
+    private final int writeBatch = Math.max(1, Integer.getInteger(WRITE_BATCH, 128));
+
+    private final AtomicBoolean poisoned = new AtomicBoolean();
+
+    // the first failure of a result handler
+    private final AtomicReference<Exception> handlerFailure = new AtomicReference<Exception>();
+
+    private final AtomicLong written = new AtomicLong();
+
+    private final AtomicLong taken = new AtomicLong();
+
+    private final AtomicLong completed = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
     public SpaceParallelDispatcher(Routine exertion,
                                    Set<Context> sharedContexts,
                                    boolean isSpawned,
@@ -65,15 +104,18 @@ public class SpaceParallelDispatcher extends ExertDispatcher {
             throw new RoutineException("NO exertion space available!");
         }
 
-        disatchGroup = new ThreadGroup("exertion-" + exertion.getId());
-        disatchGroup.setDaemon(true);
-        disatchGroup.setMaxPriority(Thread.NORM_PRIORITY - 1);
-
         this.loki = loki;
 	}
 
     public int getDoneExertionIndex() {
-        return doneExertionIndex;
+        return doneExertionIndex.get();
+    }
+
+    /**
+     * Returns the progress of the exertions dispatched to the space.
+     */
+    public Stats getStats() {
+        return new Stats(xrt.getName(), written.get(), taken.get(), completed.get(), failed.get());
     }
 
     @Override
@@ -88,103 +130,162 @@ public class SpaceParallelDispatcher extends ExertDispatcher {
 
     @Override
     public void doExec(Arg... args) throws SignatureException, RoutineException {
-        new Thread(disatchGroup, new CollectResultThread(), tName("collect-" + xrt.getName())).start();
+        try {
+            ServiceExecutors.get(ServiceExecutors.COLLECT).execute(new CollectResultThread());
+        } catch (RejectedExecutionException e) {
+            xrt.setStatus(FAILED);
+            setState(FAILED);
+            throw new RoutineException("Could not start the result collector of: " + xrt.getName(), e);
+        }
 
-        for (Discipline mogram : inputXrts) {
-            logger.info("Calling monSession.init from SpaceParallelDispatcher for: {}", mogram.getName());
-            MonitoringSession monSession = MonitorUtil.getMonitoringSession((Routine)mogram);
-            if (xrt.isMonitorable() && monSession!=null) {
+        List<Routine> exertions = new ArrayList<Routine>(inputXrts.size());
+        for (Discipline mogram : inputXrts)
+            exertions.add((Routine) mogram);
+        dispatchExertions(exertions);
+	}
+
+    /**
+     * Writes the envelops of the exertions to the space, at most
+     * {@link #WRITE_BATCH} envelops at once.
+     */
+    protected void dispatchExertions(List<Routine> exertions) throws RoutineException, SignatureException {
+        for (int from = 0; from < exertions.size() && state != FAILED; from += writeBatch) {
+            List<Routine> batch = exertions.subList(from, Math.min(exertions.size(), from + writeBatch));
+            for (Routine exertion : batch)
+                initMonitoring(exertion);
+            writeEnvelops(batch);
+            for (Routine exertion : batch) {
                 try {
-                    if (monSession.getState()==State.INITIAL.ordinal()) {
-                        logger.info("initializing monitoring from SpaceParallelDispatcher for{}", mogram.getName());
-                        monSession.init(Lease.FOREVER, MogramDispatcherFactory.DEFAULT_TIMEOUT_PERIOD);
-                    }
-                } catch (MonitorException | RemoteException e) {
-                    logger.error("Problem starting monitoring for {}", xrt.getName(), e);
+                    afterExec(exertion);
+                } catch (ContextException ce) {
+                    logger.warn("Problem sending state to monitor");
                 }
             }
-            dispatchExertion((Routine)mogram);
+        }
+    }
+
+    private void initMonitoring(Routine exertion) {
+        logger.info("Calling monSession.init from SpaceParallelDispatcher for: {}", exertion.getName());
+        MonitoringSession monSession = MonitorUtil.getMonitoringSession(exertion);
+        if (xrt.isMonitorable() && monSession!=null) {
             try {
-                afterExec((Routine)mogram);
-            } catch (ContextException ce) {
-                logger.warn("Problem sending state to monitor");
+                if (monSession.getState()==State.INITIAL.ordinal()) {
+                    logger.info("initializing monitoring from SpaceParallelDispatcher for{}", exertion.getName());
+                    monSession.init(Lease.FOREVER, MogramDispatcherFactory.DEFAULT_TIMEOUT_PERIOD);
+                }
+            } catch (MonitorException | RemoteException e) {
+                logger.error("Problem starting monitoring for {}", xrt.getName(), e);
             }
         }
-	}
-
-    protected void dispatchExertion(Routine exertion) throws RoutineException, SignatureException {
-        logger.debug("exertion #{}: exertion: {}", exertion.getIndex(), exertion);
-        try {
-            writeEnvelop(exertion);
-            logger.debug("generateTasks ==> SPACE EXECUTE EXERTION: "
-                    + exertion.getName());
-            xrt.setStatus(INSPACE);
-        } catch (RemoteException re) {
-			logger.warn("Space not reachable....resetting space", re);
-			space = SpaceAccessor.getSpace();
-			if (space == null) {
-				xrt.setStatus(FAILED);
-				throw new RoutineException("NO exertion space available!");
-			}
-			if (masterXrt != null) {
-				try {
-					writeEnvelop(masterXrt);
-				} catch (Exception e) {
-					e.printStackTrace();
-					xrt.setStatus(FAILED);
-					throw new RoutineException(
-							"Wrting master exertion into exertion space failed!",
-							e);
-				}
-			}
-		}
-	}
+    }
 
 	public void collectResults() throws RoutineException, SignatureException, RemoteException {
 		int count = 0;
 		// getValue all children of the underlying parent job
         List<ExertionEnvelop> templates = Arrays.asList(getTemplate(DONE), getTemplate(FAILED), getTemplate(ERROR));
-        while(count < inputXrts.size() && state != FAILED) {
-            Collection<ExertionEnvelop> results;
-            try {
-                results = space.take(templates, null, SpaceTaker.SPACE_TIMEOUT, Integer.MAX_VALUE);
-                if (results.isEmpty())
-                    continue;
-                logger.debug("Got from space: " + results.size());
-                for (ExertionEnvelop eee : results) {
-                    logger.debug("Got: " + eee.toString());
-                    logger.debug("Got: " + eee.exertion);
-                }
-                count += results.size();
-            } catch (UnusableEntriesException e) {
-                xrt.setStatus(FAILED);
-                state = FAILED;
-                Collection<UnusableEntryException> exceptions = e.getUnusableEntryExceptions();
-                for (UnusableEntryException throwable : exceptions) {
-                    logger.warn("UnusableEntryException! unusable fields = " + throwable.partialEntry, throwable);
-                }
-                cleanRemainingFailedExertions(xrt.getId());
-
-                throw new RoutineException(e);
-            } catch (Exception e) {
-                xrt.setStatus(FAILED);
-                state = FAILED;
-                throw new RoutineException("Taking exertion envelop failed", e);
-            } finally {
-                synchronized (this) {
-                    notify();
+        ExecutorService handlers = ServiceExecutors.get(ServiceExecutors.RESULT);
+        List<Future<?>> handled = new ArrayList<Future<?>>(inputXrts.size());
+        // the collector waits for results signalled by the space, the timed
+        // take is the fallback if the space does not signal them
+        SpaceAvailability availability = SpaceAvailability.register(space, templates);
+        try {
+            while(count < inputXrts.size() && state != FAILED && handlerFailure.get() == null) {
+                Collection<ExertionEnvelop> results;
+                try {
+                    long seen = availability != null ? availability.getGeneration() : 0;
+                    results = space.take(templates, null,
+                            availability != null ? JavaSpace.NO_WAIT : SpaceTaker.SPACE_TIMEOUT, Integer.MAX_VALUE);
+                    if (results.isEmpty()) {
+                        if (availability != null)
+                            availability.await(seen, SpaceTaker.SPACE_TIMEOUT);
+                        continue;
+                    }
+                    logger.debug("Got from space: " + results.size());
+                    count += results.size();
+                    taken.addAndGet(results.size());
+                } catch (UnusableEntriesException e) {
+                    xrt.setStatus(FAILED);
+                    setState(FAILED);
+                    Collection<UnusableEntryException> exceptions = e.getUnusableEntryExceptions();
+                    for (UnusableEntryException throwable : exceptions) {
+                        logger.warn("UnusableEntryException! unusable fields = " + throwable.partialEntry, throwable);
+                    }
+                    cleanRemainingFailedExertions(xrt.getId());
+
+                    throw new RoutineException(e);
+                } catch (Exception e) {
+                    xrt.setStatus(FAILED);
+                    setState(FAILED);
+                    throw new RoutineException("Taking exertion envelop failed", e);
+                } finally {
+                    synchronized (this) {
+                        notify();
+                    }
                 }
+                for (ExertionEnvelop result : results)
+                    handled.add(submitResult(handlers, result));
             }
-            handleResult(results);
+        } finally {
+            if (availability != null)
+                availability.close();
         }
+        awaitResults(handled);
+        logger.debug("Collected {}", getStats());
 
         if(xrt.getStatus()!=FAILED) {
             executeMasterExertion();
-            state = DONE;
+            setState(DONE);
         }
         dispatchers.remove(xrt.getId());
     }
 
+    /**
+     * Hands a result to the result handlers, or handles it in the collector
+     * if the handlers are saturated.
+     */
+    private Future<?> submitResult(ExecutorService handlers, final ExertionEnvelop result) {
+        FutureTask<Void> task = new FutureTask<Void>(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    handleResult(Collections.singletonList(result));
+                    completed.incrementAndGet();
+                } catch (Exception e) {
+                    logger.warn("Problem handling result {}", result, e);
+                    handlerFailure.compareAndSet(null, e);
+                }
+            }
+        }, null);
+        try {
+            handlers.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+        return task;
+    }
+
+    private void awaitResults(List<Future<?>> handled) throws RoutineException {
+        for (Future<?> result : handled) {
+            try {
+                result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RoutineException("Interrupted while handling results of " + xrt.getName(), e);
+            } catch (ExecutionException e) {
+                // handler failures are kept by the handlers
+                logger.warn("Error while handling result", e.getCause());
+            }
+        }
+        Exception failure = handlerFailure.get();
+        if (failure != null) {
+            xrt.setStatus(FAILED);
+            setState(FAILED);
+            if (failure instanceof RoutineException)
+                throw (RoutineException) failure;
+            throw new RoutineException("Handling exertion result failed", failure);
+        }
+    }
+
     protected ExertionEnvelop getTemplate(int state) {
         Uuid parentId = null;
         Uuid id = null;
@@ -197,8 +298,11 @@ public class SpaceParallelDispatcher extends ExertDispatcher {
         return tmpl;
     }
 
+    /**
+     * Handles results taken from the space. Called by the result handlers,
+     * so the results of a job may be handled concurrently.
+     */
     protected void handleResult(Collection<ExertionEnvelop> results) throws RoutineException, SignatureException, RemoteException {
-        boolean poisoned = false;
         for (ExertionEnvelop resultEnvelop : results) {
 
             logger.debug("HandleResult got result: " + resultEnvelop.describe());
@@ -210,10 +314,9 @@ public class SpaceParallelDispatcher extends ExertDispatcher {
             if(status == DONE)
                 postExecExertion(input, result);
             else if (status == FAILED) {
-                if (!poisoned) {
+                failed.incrementAndGet();
+                if (poisoned.compareAndSet(false, true))
                     addPoison(xrt);
-                    poisoned = true;
-                }
                 handleError(result);
             }
 
@@ -246,10 +349,13 @@ public class SpaceParallelDispatcher extends ExertDispatcher {
         }
     }
 
-    protected synchronized void changeDoneExertionIndex(int index) {
-        logger.debug("[" + Thread.currentThread().getName() + "] - Updating changeDoneExertionIndex to: " + index+1);
-        doneExertionIndex = index + 1;
-        notifyAll();
+    protected void changeDoneExertionIndex(int index) {
+        logger.debug("[" + Thread.currentThread().getName() + "] - Updating changeDoneExertionIndex to: " + (index + 1));
+        // results are handled out of order, the index only grows
+        int done;
+        do {
+            done = doneExertionIndex.get();
+        } while (done < index + 1 && !doneExertionIndex.compareAndSet(done, index + 1));
     }
 
     // abstract in ExertionDispatcher
@@ -295,8 +401,51 @@ public class SpaceParallelDispatcher extends ExertDispatcher {
                     + ee.describe() + "\n to: " + space);
         } catch (Exception e) {
             logger.warn("writeEnvelop", e);
-            state = Exec.FAILED;
+            setState(Exec.FAILED);
+        }
+    }
+
+    /**
+     * Writes the envelops of the exertions to the space with one bulk write,
+     * retried once with a new space if the space is not reachable.
+     */
+    protected void writeEnvelops(List<Routine> exertions) throws RoutineException, SignatureException {
+        List<Entry> envelops = new ArrayList<Entry>(exertions.size());
+        for (Routine exertion : exertions) {
+            // setSubject before exertion is dropped
+            ((Subroutine) exertion).setSubject(subject);
+            preExecExertion(exertion);
+            ExertionEnvelop ee = ExertionEnvelop.getTemplate(exertion);
+            ee.state = INITIAL;
+            envelops.add(ee);
         }
+        List<Long> leases = Collections.nCopies(envelops.size(), Lease.FOREVER);
+        for (int attempt = 0; ; attempt++) {
+            space = SpaceAccessor.getSpace();
+            if (space == null) {
+                xrt.setStatus(FAILED);
+                setState(FAILED);
+                throw new RoutineException("NO exertion space available!");
+            }
+            try {
+                space.write(envelops, null, leases);
+                break;
+            } catch (RemoteException re) {
+                if (attempt > 0) {
+                    xrt.setStatus(FAILED);
+                    setState(FAILED);
+                    throw new RoutineException("Writing exertions into exertion space failed!", re);
+                }
+                logger.warn("Space not reachable....resetting space", re);
+            } catch (TransactionException e) {
+                xrt.setStatus(FAILED);
+                setState(FAILED);
+                throw new RoutineException("Writing exertions into exertion space failed!", e);
+            }
+        }
+        written.addAndGet(envelops.size());
+        logger.debug("written {} envelops to: {}", envelops.size(), space);
+        xrt.setStatus(INSPACE);
     }
 
     protected ExertionEnvelop takeEnvelop(Entry template)
@@ -404,4 +553,42 @@ public class SpaceParallelDispatcher extends ExertDispatcher {
             postExecExertion(masterXrt, result.exertion);
         }
     }
+
+    /**
+     * A snapshot of the progress of a space dispatch.
+     */
+    public static class Stats implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        public final String name;
+        // the envelops written to the space
+        public final long written;
+        // the results taken from the space
+        public final long taken;
+        // the results handled
+        public final long completed;
+        // the failed results
+        public final long failed;
+
+        public Stats(String name, long written, long taken, long completed, long failed) {
+            this.name = name;
+            this.written = written;
+            this.taken = taken;
+            this.completed = completed;
+            this.failed = failed;
+        }
+
+        /**
+         * Returns the number of envelops in the space or being executed.
+         */
+        public long getInSpace() {
+            return written - taken;
+        }
+
+        @Override
+        public String toString() {
+            return name + " [in space: " + getInSpace() + ", written: " + written + ", taken: " + taken
+                    + ", completed: " + completed + ", failed: " + failed + "]";
+        }
+    }
 }
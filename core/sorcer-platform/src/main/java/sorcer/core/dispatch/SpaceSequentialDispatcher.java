@@ -24,6 +24,8 @@ import sorcer.core.loki.member.LokiMemberUtil;
 import sorcer.service.Exerter;
 import sorcer.service.*;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 public class SpaceSequentialDispatcher extends SpaceParallelDispatcher {
@@ -38,11 +40,23 @@ public class SpaceSequentialDispatcher extends SpaceParallelDispatcher {
 		super(job, sharedContexts, isSpawned, myMemberUtil, provider, provisionManager);
 	}
 
-    protected void dispatchExertion(Routine exertion) throws RoutineException, SignatureException {
-        super.dispatchExertion(exertion);
-		waitForExertion(exertion);
+    /**
+     * Writes the exertions one at a time, each after its predecessor is done.
+     */
+    @Override
+    protected void dispatchExertions(List<Routine> exertions) throws RoutineException, SignatureException {
+        for (Routine exertion : exertions) {
+            super.dispatchExertions(Collections.singletonList(exertion));
+            waitForExertion(exertion);
+        }
 	}
 
+    @Override
+    protected synchronized void changeDoneExertionIndex(int index) {
+        super.changeDoneExertionIndex(index);
+        notifyAll();
+    }
+
     protected synchronized void waitForExertion(Routine exertion) {
         while (exertion.getIndex() - getDoneExertionIndex() > -1) {
             try {
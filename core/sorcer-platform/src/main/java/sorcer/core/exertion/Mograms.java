@@ -53,6 +53,12 @@ public class Mograms implements SorcerConstants {
 				&& Access.PUSH.equals(cc.get(cc.EXERTION_ACCESS));
 	}
 
+	public static boolean isCatalogDataflow(Job job) {
+		ControlContext cc = job.getControlContext();
+		return Flow.DATAFLOW.equals(cc.get(cc.EXERTION_FLOW))
+				&& Access.PUSH.equals(cc.get(cc.EXERTION_ACCESS));
+	}
+
 	public static boolean isCatalogBlock(Routine exertion) {
 		ControlContext cc = (ControlContext)exertion.getControlContext();
 		return exertion instanceof Block
@@ -138,7 +144,7 @@ public class Mograms implements SorcerConstants {
 		cc.setDomainId(sc.getDomainId());
 		cc.setSubdomainId(sc.getSubdomainId());
 		cc.setDomainName(sc.getDomainName());
-		cc.setMetacontext(sc.getMetacontext());
+		cc.shareMetacontext((ServiceContext) sc);
 		cc.isPersistantTaskAssociated = ((ServiceContext) sc).isPersistantTaskAssociated;
 		return cc;
 	}
@@ -17,12 +17,13 @@
 
 package sorcer.core.invoker;
 
-import groovy.lang.GroovyShell;
+import groovy.lang.Binding;
 import sorcer.core.context.ServiceContext;
 import sorcer.core.context.model.ent.Prc;
 import sorcer.service.*;
 
 import java.io.*;
+import java.nio.file.Files;
 import java.rmi.RemoteException;
 import java.util.Iterator;
 
@@ -41,24 +42,24 @@ public class GroovyInvoker<T> extends ServiceInvoker<T> {
 	// counter for unnamed instances
 	protected static int count;
 
-	private static StringBuilder staticImports;
+	private static String staticImports;
 
 	/**
 	 * expression to be evaluated
 	 */
 	protected String expression;
 
-	/**
-	 * The evaluator
-	 */
-	transient private GroovyShell shell;
-
 	private File scriptFile = null;
 
+	// the source of the script file read at its last modification time
+	transient private String scriptSource;
+
+	transient private long scriptModified;
+
 	public GroovyInvoker() {
 		super(defaultName + count++);
 		if (staticImports == null) {
-			staticImports = readStaticImports();
+			staticImports = readStaticImports().toString();
 		}
 	}
 
@@ -98,7 +99,7 @@ public class GroovyInvoker<T> extends ServiceInvoker<T> {
 	public T evaluate(Arg... args) throws InvocationException,
 			RemoteException {
 		Object result = null;
-		shell = new GroovyShell(Thread.currentThread().getContextClassLoader());
+		Binding binding = new Binding();
 		try {
 			if (args != null) {
 				ContextDomain inCxt = Arg.selectDomain(args);
@@ -110,28 +111,37 @@ public class GroovyInvoker<T> extends ServiceInvoker<T> {
 					setValid(false);
 				}
 			}
-			initBindings();
-			synchronized (shell) {
-				if (scriptFile != null) {
-					try {
-						result = shell.evaluate(scriptFile);
-					} catch (IOException e) {
-						throw new InvocationException(e);
-					}
-				} else {
-					StringBuilder sb = new StringBuilder(staticImports.toString());
-					sb.append(expression);
-					logger.debug(sb.toString());
-					result = shell.evaluate(sb.toString());
+			initBindings(binding);
+			String source;
+			if (scriptFile != null) {
+				try {
+					source = readScript();
+				} catch (IOException e) {
+					throw new InvocationException(e);
 				}
+			} else {
+				source = staticImports + expression;
+				logger.debug(source);
 			}
+			// compiled once and shared by all invokers with the same script
+			result = ScriptCache.evaluate(source, Thread.currentThread().getContextClassLoader(),
+					GroovyInvoker.class.getName(), null, binding);
 		} catch (ContextException e) {
 			logger.error("Error Occurred in Groovy Shell: " + e.getMessage());
 		}
 		return (T) result;
 	}
 
-	private void initBindings() throws RemoteException, ContextException {
+	private synchronized String readScript() throws IOException {
+		long modified = scriptFile.lastModified();
+		if (scriptSource == null || modified != scriptModified) {
+			scriptSource = new String(Files.readAllBytes(scriptFile.toPath()), "UTF-8");
+			scriptModified = modified;
+		}
+		return scriptSource;
+	}
+
+	private void initBindings(Binding binding) throws RemoteException, ContextException {
 		if ((invokeContext == null || invokeContext.size() == 0) && scope !=null){
 			invokeContext = scope;
 		}
@@ -159,7 +169,7 @@ public class GroovyInvoker<T> extends ServiceInvoker<T> {
 			if (val instanceof Evaluation) {
 				val = ((Evaluation) val).evaluate();
 			}
-			shell.setVariable(key, val);
+			binding.setVariable(key, val);
 		}
 	}
 
@@ -192,7 +202,7 @@ public class GroovyInvoker<T> extends ServiceInvoker<T> {
 	}
 
 	public void clean() {
-		shell = null;
+		scriptSource = null;
 	}
 
 	@Override
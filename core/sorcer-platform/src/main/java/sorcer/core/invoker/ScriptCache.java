@@ -0,0 +1,255 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.invoker;
+
+import groovy.lang.Binding;
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.GroovyCodeSource;
+import groovy.lang.GroovyShell;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The shared cache of compiled Groovy scripts. Scripts are compiled once per
+ * source, class loader and compiler configuration, and every evaluation runs
+ * a new instance of the compiled class with its own binding. The cache holds
+ * at most <code>sorcer.script.cache.size</code> classes, 512 by default, and
+ * evicts the least recently used ones, so their class loaders can be
+ * collected.
+ * <p>
+ * A cached class holds on to the class loader it was compiled for until it
+ * is evicted, so scripts of short-lived class loaders, like the loader of
+ * each netlet, are not compiled through the cache.
+ */
+public final class ScriptCache {
+    private static final Logger logger = LoggerFactory.getLogger(ScriptCache.class);
+
+    public static final String CACHE_SIZE = "sorcer.script.cache.size";
+
+    // the name GroovyShell gives to the first script of a shell, script
+    // errors are reported for the lines of the Script1 class
+    static final String SCRIPT_NAME = "Script1.groovy";
+
+    private static final int maxSize = Math.max(1, Integer.getInteger(CACHE_SIZE, 512));
+
+    private static final AtomicLong hits = new AtomicLong();
+
+    private static final AtomicLong misses = new AtomicLong();
+
+    private static final AtomicLong evictions = new AtomicLong();
+
+    private static final AtomicLong compileTime = new AtomicLong();
+
+    private static final Map<Key, FutureTask<Class<?>>> scripts =
+            new LinkedHashMap<Key, FutureTask<Class<?>>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, FutureTask<Class<?>>> eldest) {
+                    if (size() > maxSize) {
+                        evictions.incrementAndGet();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+
+    private ScriptCache() {
+    }
+
+    /**
+     * Returns the compiled class of a script, compiling it on the first
+     * request. Concurrent requests for a script being compiled wait for its
+     * compilation.
+     *
+     * @param configName the name of the compiler configuration, scripts
+     *                   compiled with different configurations are cached
+     *                   apart
+     * @param config     the compiler configuration used on a miss, or
+     *                   <code>null</code> for the default configuration
+     * @throws org.codehaus.groovy.control.CompilationFailedException if the
+     *                   script does not compile
+     */
+    public static Class<?> getScriptClass(final String source, final ClassLoader loader, String configName,
+                                          final CompilerConfiguration config) {
+        Key key = new Key(loader, configName, digest(source));
+        FutureTask<Class<?>> compiled;
+        boolean miss = false;
+        synchronized (scripts) {
+            compiled = scripts.get(key);
+            if (compiled == null) {
+                compiled = new FutureTask<Class<?>>(new Callable<Class<?>>() {
+                    @Override
+                    public Class<?> call() {
+                        return compile(source, loader, config);
+                    }
+                });
+                scripts.put(key, compiled);
+                miss = true;
+            }
+        }
+        if (miss) {
+            misses.incrementAndGet();
+            compiled.run();
+        } else {
+            hits.incrementAndGet();
+        }
+        try {
+            return compiled.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while compiling script", e);
+        } catch (ExecutionException e) {
+            synchronized (scripts) {
+                if (scripts.get(key) == compiled)
+                    scripts.remove(key);
+            }
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Runs a new instance of a compiled script with the given binding.
+     */
+    public static Object run(Class<?> scriptClass, Binding binding) {
+        return InvokerHelper.createScript(scriptClass, binding).run();
+    }
+
+    /**
+     * Compiles the script if needed and runs it with the given binding.
+     */
+    public static Object evaluate(String source, ClassLoader loader, String configName,
+                                  CompilerConfiguration config, Binding binding) {
+        return run(getScriptClass(source, loader, configName, config), binding);
+    }
+
+    public static Stats getStats() {
+        int size;
+        synchronized (scripts) {
+            size = scripts.size();
+        }
+        return new Stats(size, maxSize, hits.get(), misses.get(), evictions.get(),
+                compileTime.get() / 1000000);
+    }
+
+    /**
+     * Drops all compiled scripts.
+     */
+    public static void clear() {
+        synchronized (scripts) {
+            scripts.clear();
+        }
+    }
+
+    private static Class<?> compile(String source, ClassLoader loader, CompilerConfiguration config) {
+        long start = System.nanoTime();
+        GroovyClassLoader classLoader = new GroovyClassLoader(loader,
+                config != null ? config : CompilerConfiguration.DEFAULT);
+        try {
+            return classLoader.parseClass(new GroovyCodeSource(source, SCRIPT_NAME, GroovyShell.DEFAULT_CODE_BASE), false);
+        } finally {
+            long time = System.nanoTime() - start;
+            compileTime.addAndGet(time);
+            logger.debug("Compiled script in {} ms", time / 1000000);
+        }
+    }
+
+    private static String digest(String source) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(hash.length * 2);
+            for (byte b : hash)
+                sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Key {
+        final ClassLoader loader;
+        final String configName;
+        final String digest;
+
+        Key(ClassLoader loader, String configName, String digest) {
+            this.loader = loader;
+            this.configName = configName;
+            this.digest = digest;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key))
+                return false;
+            Key other = (Key) o;
+            return loader == other.loader && digest.equals(other.digest)
+                    && (configName == null ? other.configName == null : configName.equals(other.configName));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * System.identityHashCode(loader) + digest.hashCode())
+                    + (configName == null ? 0 : configName.hashCode());
+        }
+    }
+
+    /**
+     * A snapshot of the use of the cache.
+     */
+    public static class Stats implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        public final int size;
+        public final int maxSize;
+        public final long hits;
+        public final long misses;
+        public final long evictions;
+        // the total time spent compiling scripts in milliseconds
+        public final long compileTime;
+
+        public Stats(int size, int maxSize, long hits, long misses, long evictions, long compileTime) {
+            this.size = size;
+            this.maxSize = maxSize;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.compileTime = compileTime;
+        }
+
+        @Override
+        public String toString() {
+            return "scripts [size: " + size + "/" + maxSize + ", hits: " + hits + ", misses: " + misses
+                    + ", evictions: " + evictions + ", compile time: " + compileTime + " ms]";
+        }
+    }
+}
@@ -23,6 +23,7 @@ import net.jini.id.UuidFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sorcer.core.context.ServiceContext;
+import sorcer.core.context.model.ent.Dependencies;
 import sorcer.core.context.model.ent.EntryModel;
 import sorcer.core.context.model.ent.Entry;
 import sorcer.core.context.model.ent.Prc;
@@ -108,6 +109,9 @@ public class ServiceInvoker<T> extends Observable implements Evaluator<T>, Invoc
 	// set of dependent variables for this evaluator
 	protected ArgSet args = new ArgSet();
 
+	// the model paths read by the last evaluation
+	protected transient Dependencies reads;
+
 	protected Fi multiFi;
 
 	protected Morpher morpher;
@@ -230,7 +234,15 @@ public class ServiceInvoker<T> extends Observable implements Evaluator<T>, Invoc
 	public boolean isValid() {
 		return isValid;
 	}
-	
+
+	/**
+	 * Returns <code>true</code> if the cached value is valid and none of the
+	 * model paths read to compute it has changed since.
+	 */
+	public boolean isUpToDate() {
+		return isValid && reads != null && reads.isCurrent();
+	}
+
 	public void valueChanged() throws EvaluationException {
 		setChanged();
 		try {
@@ -367,15 +379,33 @@ public class ServiceInvoker<T> extends Observable implements Evaluator<T>, Invoc
 				}
 				((ServiceContext)invokeContext).substitute(args);
 			}
-			if (invokeContext != null && invokeContext.isChanged()) {
+			// a changed context invalidates the value only if a path it was computed from changed
+			if (invokeContext != null && invokeContext.isChanged()
+					&& (reads == null || !reads.isCurrent())) {
 				isValid = false;
 				if (this.args != null)
 					this.args.clearArgs();
 			}
-			if (isValid)
+			if (isValid) {
+				if (reads != null)
+					reads.report();
+				else
+					Dependencies.unknown();
 				return value;
-			else {
-				value = (T) invoke(args);
+			} else {
+				Dependencies frame = Dependencies.track(this);
+				try {
+					value = (T) invoke(args);
+				} finally {
+					frame.end();
+				}
+				if (frame.isEmpty()) {
+					// no tracked paths read, the value depends on the change flag of the context
+					reads = null;
+					Dependencies.unknown();
+				} else {
+					reads = frame;
+				}
 				isValid = true;
 			}
 		} catch (Exception e) {
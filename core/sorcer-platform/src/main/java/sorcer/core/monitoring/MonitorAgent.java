@@ -78,6 +78,10 @@ public class MonitorAgent {
     private MonitorRegistration monitorRegistration;
     private LeaseRenewalManager leaseManager;
 
+    public static boolean isMonitoringEnabled() {
+        return monitoringEnabled;
+    }
+
     public void register(String identifier, String owner) {
         register(identifier, owner, Lease.ANY);
     }
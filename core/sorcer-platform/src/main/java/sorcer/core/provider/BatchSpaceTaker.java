@@ -0,0 +1,199 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.provider;
+
+import net.jini.core.entry.Entry;
+import net.jini.core.lease.Lease;
+import net.jini.core.transaction.Transaction;
+import net.jini.space.JavaSpace;
+import sorcer.core.analytics.AnalyticsRecorder;
+import sorcer.core.exertion.ExertionEnvelop;
+import sorcer.river.TX;
+import sorcer.service.space.SpaceAccessor;
+import sorcer.service.space.SpaceAvailability;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * A space taker that takes up to as many envelops per
+ * {@link net.jini.space.JavaSpace05#take(Collection, Transaction, long, long)}
+ * call as its worker pool can accept. When the pool is saturated the taker
+ * backs off exponentially, starting at one millisecond and stretched by the
+ * depth of the worker queue, instead of sleeping for a fixed time. Envelops
+ * the pool rejects are written back to the space one by one. The latency
+ * and the size of each take are recorded with the provider's
+ * {@link AnalyticsRecorder}.
+ * <p>
+ * Transactional takers take a single envelop per transaction, since each
+ * worker commits or aborts its own transaction.
+ * <p>
+ * If the space accepts a {@link SpaceAvailability} registration, the taker
+ * waits for its signal instead of blocking in timed takes.
+ */
+public class BatchSpaceTaker extends SpaceTaker {
+
+	static final long MIN_BACKOFF = 1;
+
+	protected int maxBatchSize;
+
+	protected AnalyticsRecorder analyticsRecorder;
+
+	protected String metricName;
+
+	private long backoff = 0;
+
+	public BatchSpaceTaker(SpaceTakerData data, ExecutorService pool, boolean remoteLogging,
+						   int maxBatchSize, AnalyticsRecorder analyticsRecorder) {
+		super(data, pool, remoteLogging);
+		this.maxBatchSize = Math.max(1, maxBatchSize);
+		this.analyticsRecorder = analyticsRecorder;
+		this.metricName = "spaceTake:" + (data.entry.serviceType != null
+			? data.entry.serviceType.getSimpleName() : "*");
+	}
+
+	public void run() {
+		String threadId = doThreadMonitorTaker(null);
+		List<Entry> templates = Collections.<Entry>singletonList(data.entry);
+		while (keepGoing) {
+			try {
+				space = SpaceAccessor.getSpace(data.spaceName);
+				if (space == null) {
+					Thread.sleep(spaceTimeout / 6);
+					continue;
+				}
+				int capacity = getFreeCapacity();
+				if (capacity <= 0) {
+					Thread.sleep(nextBackoff());
+					continue;
+				}
+				backoff = 0;
+				SpaceAvailability signal = getAvailability(space);
+				long seen = signal != null ? signal.getGeneration() : 0;
+				long takeTimeout = signal != null ? JavaSpace.NO_WAIT : spaceTimeout;
+
+				if (isTransactional) {
+					Transaction.Created txnCreated = TX.createTransaction(transactionLeaseTimeout);
+					if (txnCreated == null) {
+						logger.warn("SpaceTaker did not getValue TRANSACTION thread: {}", threadId);
+						Thread.sleep(nextBackoff());
+						continue;
+					}
+					long start = System.nanoTime();
+					ExertionEnvelop ee = (ExertionEnvelop) space.take(data.entry, txnCreated.transaction, takeTimeout);
+					record(start, ee == null ? 0 : 1);
+					if (ee == null) {
+						TX.abortTransaction(txnCreated);
+						awaitAvailability(signal, seen);
+						continue;
+					}
+					pool.execute(new SpaceWorker(ee, txnCreated, data.provider, remoteLogging));
+				} else {
+					int batchSize = Math.min(capacity, maxBatchSize);
+					long start = System.nanoTime();
+					Collection<?> taken = space.take(templates, null, takeTimeout, batchSize);
+					record(start, taken.size());
+					if (taken.isEmpty())
+						awaitAvailability(signal, seen);
+					for (Object entry : taken) {
+						dispatch((ExertionEnvelop) entry);
+					}
+				}
+			} catch (InterruptedException ie) {
+				keepGoing = false;
+			} catch (Exception ex) {
+				if (keepGoing) {
+					logger.warn("Problem with SpaceTaker", ex);
+				}
+			}
+		}
+		closeAvailability();
+		doThreadMonitorTaker(threadId);
+	}
+
+	/**
+	 * Returns the number of envelops the worker pool can accept without
+	 * blocking or rejecting, including free queue slots unless the taker
+	 * is configured with no queue.
+	 */
+	protected int getFreeCapacity() {
+		if (!(pool instanceof ThreadPoolExecutor))
+			return maxBatchSize;
+		ThreadPoolExecutor executor = (ThreadPoolExecutor) pool;
+		int idle = executor.getMaximumPoolSize() - executor.getActiveCount();
+		if (data.noQueue)
+			return Math.min(executor.getCorePoolSize() - executor.getActiveCount(), idle);
+		return Math.max(0, idle) + executor.getQueue().remainingCapacity();
+	}
+
+	/**
+	 * Returns the next time to wait for free capacity. The backoff doubles
+	 * while the pool stays saturated and is stretched by the number of
+	 * queued envelops per worker, since a deeper queue takes longer to
+	 * drain, up to a sixth of the space timeout.
+	 */
+	protected long nextBackoff() {
+		long max = Math.max(MIN_BACKOFF, spaceTimeout / 6);
+		backoff = backoff == 0 ? MIN_BACKOFF : Math.min(backoff * 2, max);
+		if (getFreeCapacity() > 0)
+			return backoff;
+		return Math.min(backoff * (1 + getQueueDepth() / getWorkerCount()), max);
+	}
+
+	/**
+	 * Returns the number of envelops waiting in the worker pool queue.
+	 */
+	protected int getQueueDepth() {
+		if (!(pool instanceof ThreadPoolExecutor))
+			return 0;
+		return ((ThreadPoolExecutor) pool).getQueue().size();
+	}
+
+	private int getWorkerCount() {
+		if (!(pool instanceof ThreadPoolExecutor))
+			return 1;
+		return Math.max(1, ((ThreadPoolExecutor) pool).getMaximumPoolSize());
+	}
+
+	private void dispatch(ExertionEnvelop ee) {
+		try {
+			pool.execute(new SpaceWorker(ee, null, data.provider, remoteLogging));
+		} catch (RejectedExecutionException e) {
+			// return the envelop to the space for other takers
+			logger.warn("Worker pool rejected envelop, writing it back to space");
+			try {
+				space.write(ee, null, Lease.FOREVER);
+			} catch (Exception we) {
+				// keep dispatching the rest of the batch
+				logger.error("Failed to write back envelop {}", ee, we);
+			}
+		}
+	}
+
+	private void record(long start, int items) {
+		if (analyticsRecorder != null)
+			analyticsRecorder.record(metricName, System.nanoTime() - start, items);
+	}
+
+	public int getMaxBatchSize() {
+		return maxBatchSize;
+	}
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.provider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A per provider class table of resolved service operations. A selector and
+ * its argument types are resolved once, with the same rules used by
+ * {@link ProviderDelegate#invokeMethod(String, sorcer.service.Context)}, into
+ * an {@link Invoker} backed by a {@link MethodHandle}. Subsequent requests
+ * skip the method scan and the reflective call.
+ */
+public class DispatchTable {
+	private static final Logger logger = LoggerFactory.getLogger(DispatchTable.class);
+
+	private static final ClassValue<DispatchTable> tables = new ClassValue<DispatchTable>() {
+		@Override
+		protected DispatchTable computeValue(Class<?> type) {
+			return new DispatchTable(type);
+		}
+	};
+
+	private final Class<?> type;
+
+	private final ConcurrentMap<Key, Invoker> invokers = new ConcurrentHashMap<>();
+
+	private DispatchTable(Class<?> type) {
+		this.type = type;
+	}
+
+	/**
+	 * Returns the shared dispatch table of the given provider class.
+	 */
+	public static DispatchTable forClass(Class<?> type) {
+		return tables.get(type);
+	}
+
+	public Class<?> getType() {
+		return type;
+	}
+
+	/**
+	 * Returns an invoker for the selector and argument types, resolving and
+	 * caching it on the first request.
+	 *
+	 * @throws NoSuchMethodException
+	 *             if no public method matches the selector and argument types
+	 */
+	public Invoker getInvoker(String selector, Class[] argTypes) throws NoSuchMethodException {
+		Key key = new Key(selector, argTypes);
+		Invoker invoker = invokers.get(key);
+		if (invoker == null) {
+			invoker = new Invoker(resolve(selector, argTypes));
+			Invoker previous = invokers.putIfAbsent(new Key(selector, argTypes.clone()), invoker);
+			if (previous != null)
+				invoker = previous;
+		}
+		return invoker;
+	}
+
+	/**
+	 * Resolves in advance all single argument methods of the published service
+	 * types that accept the given context type.
+	 *
+	 * @return the number of resolved operations
+	 */
+	public int warmUp(Class[] serviceTypes, Class<?> contextType) {
+		int count = 0;
+		if (serviceTypes == null)
+			return count;
+		for (Class<?> serviceType : serviceTypes) {
+			if (!serviceType.isAssignableFrom(type))
+				continue;
+			for (Method m : serviceType.getMethods()) {
+				if (m.getParameterCount() == 1 && m.getParameterTypes()[0].isAssignableFrom(contextType)) {
+					try {
+						getInvoker(m.getName(), new Class[] { contextType });
+						count++;
+					} catch (NoSuchMethodException e) {
+						logger.debug("Unable to resolve {} for {}", m.getName(), type.getName());
+					}
+				}
+			}
+		}
+		logger.debug("Warmed up {} operations of {}", count, type.getName());
+		return count;
+	}
+
+	public int size() {
+		return invokers.size();
+	}
+
+	private Method resolve(String selector, Class[] argTypes) throws NoSuchMethodException {
+		for (Method m : type.getMethods()) {
+			if (m.getName().equals(selector) && m.getParameterCount() == 1) {
+				if (m.getParameterTypes()[0].isAssignableFrom(argTypes[0])) {
+					return m;
+				}
+			}
+		}
+		return type.getMethod(selector, argTypes);
+	}
+
+	/**
+	 * A resolved provider operation.
+	 */
+	public static class Invoker {
+		private final Method method;
+		// (Object target, Object[] args)Object
+		private final MethodHandle handle;
+
+		Invoker(Method method) {
+			this.method = method;
+			this.handle = spreader(method);
+		}
+
+		public Method getMethod() {
+			return method;
+		}
+
+		/**
+		 * Invokes the operation on the target. As with
+		 * {@link Method#invoke(Object, Object...)} exceptions thrown by the
+		 * operation are wrapped in an {@link InvocationTargetException}.
+		 */
+		public Object invoke(Object target, Object[] args)
+			throws InvocationTargetException, IllegalAccessException {
+			if (handle == null)
+				return method.invoke(target, args);
+			try {
+				return (Object) handle.invokeExact(target, args);
+			} catch (Throwable t) {
+				throw new InvocationTargetException(t);
+			}
+		}
+
+		private static MethodHandle spreader(Method method) {
+			int arity = method.getParameterCount();
+			try {
+				try {
+					method.setAccessible(true);
+				} catch (RuntimeException e) {
+					// use the public lookup rules only
+				}
+				return MethodHandles.lookup().unreflect(method)
+					.asType(MethodType.genericMethodType(arity + 1))
+					.asSpreader(Object[].class, arity);
+			} catch (IllegalAccessException e) {
+				logger.debug("Reflective dispatch used for {}", method);
+				return null;
+			}
+		}
+
+		@Override
+		public String toString() {
+			return method.toString();
+		}
+	}
+
+	private static class Key {
+		private final String selector;
+		private final Class[] argTypes;
+		private final int hash;
+
+		Key(String selector, Class[] argTypes) {
+			this.selector = selector;
+			this.argTypes = argTypes;
+			this.hash = 31 * selector.hashCode() + Arrays.hashCode(argTypes);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return selector.equals(other.selector) && Arrays.equals(argTypes, other.argTypes);
+		}
+	}
+}
@@ -98,7 +98,6 @@ import java.security.PrivilegedExceptionAction;
 import java.util.*;
 import java.util.Collections;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
@@ -195,6 +194,9 @@ public class ProviderDelegate {
 
 	protected boolean takersSelectable = false;
 
+	/* maximum number of envelops taken from space at once, 1 disables batching */
+	protected int spaceTakeBatchSize = 1;
+
 	protected boolean spaceSecurityEnabled = false;
 
 	private ThreadGroup namedGroup, interfaceGroup;
@@ -297,6 +299,9 @@ public class ProviderDelegate {
 	 */
 	private Map<Class<?>, Object> serviceComponents;
 
+	/** resolved service operations of the provider class */
+	private DispatchTable dispatchTable;
+
 	/**
 	 * Indicates a single threaded execution for service beans or providers
 	 * implementing the SingleThreadModel interface.
@@ -557,6 +562,13 @@ public class ProviderDelegate {
 			logger.warn("Problem getting {}.{}", ServiceExerter.COMPONENT, SPACE_READINESS, e);
 		}
 
+		try {
+			spaceTakeBatchSize = (Integer) jconfig.getEntry(ServiceExerter.COMPONENT, SPACE_TAKE_BATCH_SIZE, int.class,
+				1);
+		} catch (Exception e) {
+			logger.warn("Problem getting {}.{}", ServiceExerter.COMPONENT, SPACE_TAKE_BATCH_SIZE, e);
+		}
+
 		try {
 			osName = ((ServiceExerter)provider).getProviderOsName();
 			if (osName == null) {
@@ -666,6 +678,7 @@ public class ProviderDelegate {
 			}
 			publishedServiceTypes = toPublish.toArray(new Class<?>[toPublish.size()]);
 			logger.info("*** published services: {}", Arrays.toString(publishedServiceTypes));
+			getDispatchTable().warmUp(publishedServiceTypes, ServiceContext.class);
 		}
 		// getValue exporters for outer and inner proxy
 		getExporters(jconfig);
@@ -767,11 +780,9 @@ public class ProviderDelegate {
 
 		for (int i = 0; i < publishedServiceTypes.length; i++) {
 			// spaceWorkerPool = Executors.newFixedThreadPool(workerCount);
-			spaceWorkerPool = new ThreadPoolExecutor(workerCount,
-				maximumPoolSize > workerCount ? maximumPoolSize
-					: workerCount, 0L, TimeUnit.MILLISECONDS,
-				new LinkedBlockingQueue<Runnable>((queueSize == 0 ? workerCount : queueSize)),
-				factory);
+			spaceWorkerPool = ServiceExecutors.newPool("SpcTkr-" + getProviderName(), workerCount,
+				maximumPoolSize, queueSize == 0 ? workerCount : queueSize,
+				factory, new ThreadPoolExecutor.AbortPolicy());
 			spaceHandlingPools.add(spaceWorkerPool);
 			// SORCER.ANY is required for a ProviderWorker
 			// to avoid matching to any provider key
@@ -803,6 +814,22 @@ public class ProviderDelegate {
 					spaceWorkerPool);
 				spaceTakers.add(worker);
 				logger.debug("*** {} space taker created for: {} apps: {}", getProviderName(), osName, appNames);
+			} else if (spaceTakeBatchSize > 1) {
+				worker = new BatchSpaceTaker(new SpaceTaker.SpaceTakerData(envelop,
+					memberInfo,
+					provider,
+					spaceName,
+					spaceGroup,
+					workerTransactional,
+					queueSize == 0,
+					null,
+					null),
+					spaceWorkerPool,
+					remoteLogging,
+					spaceTakeBatchSize,
+					analyticsRecorder);
+				spaceTakers.add(worker);
+				logger.debug("*** {} batch space taker created, batch size: {}", getProviderName(), spaceTakeBatchSize);
 			} else {
 				worker = new SpaceTaker(new SpaceTaker.SpaceTakerData(envelop,
 					memberInfo,
@@ -830,11 +857,9 @@ public class ProviderDelegate {
 
 			if (matchInterfaceOnly) {
 				// spaceWorkerPool = Executors.newFixedThreadPool(workerCount);
-				spaceWorkerPool = new ThreadPoolExecutor(workerCount,
-					maximumPoolSize > workerCount ? maximumPoolSize
-						: workerCount, 0L, TimeUnit.MILLISECONDS,
-					new LinkedBlockingQueue<Runnable>(
-						(queueSize == 0 ? workerCount : queueSize)), factory);
+				spaceWorkerPool = ServiceExecutors.newPool("SpcTkr-" + getProviderName(), workerCount,
+					maximumPoolSize, queueSize == 0 ? workerCount : queueSize,
+					factory, new ThreadPoolExecutor.AbortPolicy());
 				spaceHandlingPools.add(spaceWorkerPool);
 				envelop = ExertionEnvelop.getTemplate(publishedServiceTypes[i],
 					SorcerConstants.ANY);
@@ -855,6 +880,16 @@ public class ProviderDelegate {
 						spaceWorkerPool);
 					spaceTakers.add(worker);
 					logger.debug("*** {} space taker created for: {} apps: {}", getProviderName(), osName, appNames);
+				} else if (spaceTakeBatchSize > 1) {
+					worker = new BatchSpaceTaker(new SpaceTaker.SpaceTakerData(
+						envelop, memberInfo, provider, spaceName,
+						spaceGroup, workerTransactional, queueSize == 0,
+						null, null),
+						spaceWorkerPool,
+						remoteLogging,
+						spaceTakeBatchSize,
+						analyticsRecorder);
+					spaceTakers.add(worker);
 				} else {
 					worker = new SpaceTaker(new SpaceTaker.SpaceTakerData(
 						envelop, memberInfo, provider, spaceName,
@@ -1452,17 +1487,7 @@ public class ProviderDelegate {
 				args = cxt.getArgs();
 				isContextual = false;
 			}
-			Method execMethod = null;
-			for(Method m : provider.getClass().getMethods()) {
-				if(m.getName().equals(selector) && m.getParameterCount()==1) {
-					if(m.getParameterTypes()[0].isAssignableFrom(argTypes[0])) {
-						execMethod = m;
-						break;
-					}
-				}
-			}
-			if(execMethod==null)
-				execMethod = provider.getClass().getMethod(selector, argTypes);
+			DispatchTable.Invoker execMethod = getDispatchTable().getInvoker(selector, argTypes);
 			Context result;
             /*boolean monitored = MonitorCheck.monitor(execMethod);
 			int id = 0;
@@ -1496,6 +1521,15 @@ public class ProviderDelegate {
 		}
 	}
 
+	/**
+	 * Returns the table of resolved service operations of this provider.
+	 */
+	public DispatchTable getDispatchTable() {
+		if (dispatchTable == null || dispatchTable.getType() != provider.getClass())
+			dispatchTable = DispatchTable.forClass(provider.getClass());
+		return dispatchTable;
+	}
+
 	private void doMethodAs(Subject subject, final String methodName)
 		throws java.security.PrivilegedActionException,
 		AccessControlException {
@@ -1882,11 +1916,38 @@ public class ProviderDelegate {
 				}
 			}
 		}
+		destroyServiceBeans();
 /*        if (beanListener != null && serviceBeans != null)
             for (Object serviceBean : serviceBeans)
                 beanListener.destroy(serviceBuilder, serviceBean);*/
 	}
 
+	/**
+	 * Calls the 'destroy' method of the remote logger beans, which stops
+	 * their log writer. Other service beans are left as they are, their
+	 * 'destroy' methods are not known to be safe to call at shutdown.
+	 */
+	private void destroyServiceBeans() {
+		if (serviceBeans == null)
+			return;
+		for (Object serviceBean : serviceBeans) {
+			// providers used as beans are destroyed by themselves
+			if (!(serviceBean instanceof RemoteLogger) || serviceBean instanceof Exerter)
+				continue;
+			Method m;
+			try {
+				m = serviceBean.getClass().getMethod("destroy");
+			} catch (NoSuchMethodException e) {
+				continue;
+			}
+			try {
+				m.invoke(serviceBean);
+			} catch (Exception e) {
+				logger.warn("Problem destroying remote logger: {}", serviceBean.getClass().getName(), e);
+			}
+		}
+	}
+
 	public void fireEvent() throws RemoteException {
 		provider.fireEvent();
 	}
@@ -3369,6 +3430,8 @@ public class ProviderDelegate {
 
 	public static final String SPACE_TAKERS_SELECTABLE = "takersSelectable";
 
+	public static final String SPACE_TAKE_BATCH_SIZE = "spaceTakeBatchSize";
+
 	public static final String APP_NAMES = "appNames";
 
 	public final static String OS_NAME = "osName";
@@ -37,9 +37,11 @@ import sorcer.core.monitor.MonitoringSession;
 import sorcer.river.TX;
 import sorcer.service.*;
 import sorcer.service.space.SpaceAccessor;
+import sorcer.service.space.SpaceAvailability;
 
 import java.rmi.RemoteException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -75,6 +77,12 @@ public class SpaceTaker implements Runnable {
 
     private final LeaseRenewalManager lrm;
 
+	// signals envelops matching the template of this taker, null if polling
+	private volatile SpaceAvailability availability;
+
+	// the space polled without availability events
+	private JavaSpace05 pollingSpace;
+
 	// controls the loop of this space worker
 	protected volatile boolean keepGoing = true;
     protected boolean remoteLogging;
@@ -261,6 +269,11 @@ public class SpaceTaker implements Runnable {
 					Thread.sleep(spaceTimeout / 6);
 					continue;
 				}
+				// with availability events the taker does not block in the
+				// space, it waits for a signal when no envelop is available
+				SpaceAvailability signal = getAvailability(space);
+				long seen = signal != null ? signal.getGeneration() : 0;
+				long takeTimeout = signal != null ? JavaSpace.NO_WAIT : spaceTimeout;
 
 				if (data.noQueue) {
 					if (((ThreadPoolExecutor) pool).getActiveCount() != ((ThreadPoolExecutor) pool).getCorePoolSize()) {
@@ -274,7 +287,7 @@ public class SpaceTaker implements Runnable {
 							}
                             tx = txnCreated.transaction;
 						}
-                        envelopNoCast = space.take(data.entry, tx, spaceTimeout);
+                        envelopNoCast = space.take(data.entry, tx, takeTimeout);
                         ee = (ExertionEnvelop) envelopNoCast;
 					} else {
                         /* Sleep for whats basically a clock tick to avoid thrashing */
@@ -291,24 +304,28 @@ public class SpaceTaker implements Runnable {
 							continue;
 						}
 						ee = (ExertionEnvelop) space.take(data.entry,
-								txnCreated.transaction, spaceTimeout);
+								txnCreated.transaction, takeTimeout);
 					} else {
 						ee = (ExertionEnvelop) space.take(data.entry, null,
-								spaceTimeout);
+								takeTimeout);
 					}
 				}
 
 				// after 'take' timeout abort transaction and sleep for a while
 				// before 'taking' the next exertion
 				if (ee == null) {
-					if (txnCreated != null) {
+					if (txnCreated != null)
 						TX.abortTransaction(txnCreated);
-						try {
-                            Thread.sleep(spaceTimeout / 2);
-                        } catch (InterruptedException ie) {
-                            keepGoing = false;
-                            break;
-                        }
+					try {
+						if (signal != null) {
+							// polls again after the space timeout if no signal comes
+							signal.await(seen, spaceTimeout);
+						} else if (txnCreated != null) {
+							Thread.sleep(spaceTimeout / 2);
+						}
+					} catch (InterruptedException ie) {
+						keepGoing = false;
+						break;
 					}
 
 					txnCreated = null;
@@ -322,10 +339,45 @@ public class SpaceTaker implements Runnable {
 			}
 		}
 		
+		closeAvailability();
 		// remove thread monitor
 		doThreadMonitorTaker(threadId);
 	}
 
+	/**
+	 * Returns the availability signal of the template of this taker in the
+	 * space, registered again if the space changed.
+	 */
+	protected SpaceAvailability getAvailability(JavaSpace05 space) {
+		SpaceAvailability current = availability;
+		if (current != null && current.getSpace() == space)
+			return current;
+		if (current == null && pollingSpace == space)
+			return null;
+		closeAvailability();
+		current = SpaceAvailability.register(space, Collections.singletonList(data.entry));
+		availability = current;
+		// do not register again with a space that refused the registration
+		pollingSpace = current == null ? space : null;
+		return current;
+	}
+
+	protected void closeAvailability() {
+		SpaceAvailability current = availability;
+		availability = null;
+		if (current != null)
+			current.close();
+	}
+
+	/**
+	 * Waits for a signal after a take found no envelop. Without a signal the
+	 * timed take has waited already, so it returns at once.
+	 */
+	protected void awaitAvailability(SpaceAvailability signal, long seen) throws InterruptedException {
+		if (signal != null)
+			signal.await(seen, spaceTimeout);
+	}
+
 	synchronized public Transaction.Created createTransaction() {
 		return TX.createTransaction(transactionLeaseTimeout);
 	}
@@ -363,6 +415,7 @@ public class SpaceTaker implements Runnable {
 
     public void destroy() {
         keepGoing = false;
+        closeAvailability();
     }
 
 
@@ -375,8 +428,7 @@ public class SpaceTaker implements Runnable {
 		SpaceWorker(ExertionEnvelop envelope,
                     Transaction.Created workerTxnCreated,
                     Exerter provider,
-                    boolean remoteLogging)
-				throws UnknownLeaseException {
+                    boolean remoteLogging) {
             this.provider = provider;
 			ee = envelope;
             this.remoteLogging = remoteLogging;
@@ -62,6 +62,7 @@ public class MonitorSession extends ArrayList<MonitorSession> implements Monitor
 
 	public transient static MonitorLandlord mLandlord;
 	public transient static MonitoringManagement sessionManager;
+	public transient static SessionJournal journal;
 	public transient static ExecutorService eventPool;
 	static transient final Logger logger = LoggerFactory.getLogger(MonitorSession.class);
 	static transient final int EVENT_TASK_POOL_MIN = 1;
@@ -75,6 +76,7 @@ public class MonitorSession extends ArrayList<MonitorSession> implements Monitor
 	private RemoteEventListener listener;
 	private long expiration;
 	private long timeout;
+	private long lastUpdateTime = System.currentTimeMillis();
     private final AtomicInteger sequenceNumber = new AtomicInteger(1);
 
 	// The state which is sorcer.core.monitor.ExertionState
@@ -200,7 +202,7 @@ public class MonitorSession extends ArrayList<MonitorSession> implements Monitor
 		this.provider = executor;
 		setExpiration(mLandlord.getExpiration(duration));
 		setTimeout(System.currentTimeMillis() + timeout);
-		persist();
+		persist(false);
 		return mLandlord.newLease(this);
 	}
 
@@ -216,7 +218,7 @@ public class MonitorSession extends ArrayList<MonitorSession> implements Monitor
 		setTimeout(System.currentTimeMillis() + timeout);
         logger.warn("SETTING INSPACE for: {}", runtimeExertion.getName());
 		runtimeExertion.setStatus(Exec.INSPACE);
-		persist();
+		persist(false);
 		lease = mLandlord.newLease(this);
 	}
 
@@ -234,7 +236,7 @@ public class MonitorSession extends ArrayList<MonitorSession> implements Monitor
         if (runtimeExertion.getControlContext().getStopwatch()==null)
             runtimeExertion.startExecTime();
         this.provider = executor;
-		persist();
+		persist(false);
 		return lease;
 	}
 
@@ -248,7 +250,7 @@ public class MonitorSession extends ArrayList<MonitorSession> implements Monitor
             runtimeExertion.setContext(ctx);
             runtimeExertion.setControlContext((ControlContext)controlContext);
 		}
-		persist();
+		persist(true);
 	}
 
 	public void done(Context<?> ctx, RoutineStrategy controlContext) throws MonitorException {
@@ -273,7 +275,7 @@ public class MonitorSession extends ArrayList<MonitorSession> implements Monitor
 
 		fireRemoteEvent();
 		notifyParent();
-		persist();
+		persist(true);
 		mLandlord.remove(this);
 	}
 
@@ -294,7 +296,7 @@ public class MonitorSession extends ArrayList<MonitorSession> implements Monitor
 
 		fireRemoteEvent();
 		notifyParent();
-		persist();
+		persist(true);
 		mLandlord.remove(this);
 	}
 
@@ -319,20 +321,26 @@ public class MonitorSession extends ArrayList<MonitorSession> implements Monitor
 		if (oldState != getState()) {
 			fireRemoteEvent();
 			notifyParent();
-			persist();
+			persist(false);
 		}
 	}
 
-	// Persist only the root session
-	private void persist() {
-	    MonitorSession tempSession = this;
-        do {
-            if (tempSession.parentResource!=null)
-                tempSession = tempSession.parentResource;
-        } while (tempSession.parentResource!=null);
-        logger.info("Persisting resource for exertion: " + tempSession.runtimeExertion.getName());
+	/**
+	 * Appends the change of this session to the journal of the root session,
+	 * with the data context only if it changed. Without a journal the whole
+	 * root session is persisted.
+	 */
+	private void persist(boolean contextChanged) {
+		MonitorSession root = getRoot();
+		lastUpdateTime = System.currentTimeMillis();
+		logger.info("Persisting resource for exertion: " + runtimeExertion.getName());
 		try {
-            sessionManager.persist(tempSession);
+			if (journal != null)
+				journal.append(root, new SessionDelta(cookie, getState(),
+						contextChanged ? runtimeExertion.getDataContext() : null,
+						runtimeExertion.getControlContext(), provider, expiration, timeout));
+			else
+				sessionManager.persist(root);
 		} catch (Exception e) {
 			logger.error("Problem persisting monitorSession: " + e.getMessage());
 			try {
@@ -344,6 +352,29 @@ public class MonitorSession extends ArrayList<MonitorSession> implements Monitor
 		}
 	}
 
+	private MonitorSession getRoot() {
+		MonitorSession root = this;
+		while (root.parentResource != null)
+			root = root.parentResource;
+		return root;
+	}
+
+	/**
+	 * Applies a change of this session read from the session journal.
+	 */
+	public void apply(SessionDelta delta) {
+		runtimeExertion.setStatus(delta.getState());
+		if (delta.getContext() != null)
+			runtimeExertion.setContext(delta.getContext());
+		if (delta.getControlContext() != null)
+			runtimeExertion.setControlContext(delta.getControlContext());
+		if (delta.getProvider() != null)
+			provider = delta.getProvider();
+		expiration = delta.getExpiration();
+		timeout = delta.getTimeout();
+		lastUpdateTime = delta.getTimestamp();
+	}
+
 	/**
 	 * Here's the algorithm to manage the states based on states of children
 	 * Rule 1: If any one of the child state is FAILED and all others are DONE,
@@ -493,7 +524,7 @@ public class MonitorSession extends ArrayList<MonitorSession> implements Monitor
 
 			fireRemoteEvent();
 			notifyParent();
-			persist();
+			persist(false);
 
 		} catch (Exception e) {
 			logger.error("Exception occured which calling leaseCancelled");
@@ -507,7 +538,7 @@ public class MonitorSession extends ArrayList<MonitorSession> implements Monitor
 
 			fireRemoteEvent();
 			notifyParent();
-			persist();
+			persist(false);
 
 		} catch (Exception e) {
 			logger.error("Exception occurred which calling timed out");
@@ -522,6 +553,13 @@ public class MonitorSession extends ArrayList<MonitorSession> implements Monitor
 		return cookie;
 	}
 
+	/**
+	 * Returns the time of the last change of this session.
+	 */
+	public long getLastUpdateTime() {
+		return lastUpdateTime;
+	}
+
 	public Subroutine getInitialExertion() {
 		return initialExertion;
 	}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.provider.exertmonitor;
+
+import net.jini.id.Uuid;
+import sorcer.core.context.ControlContext;
+import sorcer.service.Context;
+import sorcer.service.Monitorable;
+
+import java.io.Serializable;
+
+/**
+ * A journal record of the change of one {@link MonitorSession}. A delta holds
+ * the new state of the session and its control context, and its data context
+ * only when the context changed, so replaying the deltas of a root session
+ * over its last snapshot restores the session. Deltas carry values, not
+ * differences, so replaying a delta twice is harmless.
+ */
+public class SessionDelta implements Serializable {
+	static final long serialVersionUID = 1L;
+
+	private final Uuid cookie;
+
+	private final int state;
+
+	private final Context<?> context;
+
+	private final ControlContext controlContext;
+
+	private final Monitorable provider;
+
+	private final long expiration;
+
+	private final long timeout;
+
+	private final long timestamp;
+
+	SessionDelta(Uuid cookie, int state, Context<?> context, ControlContext controlContext,
+				 Monitorable provider, long expiration, long timeout) {
+		this.cookie = cookie;
+		this.state = state;
+		this.context = context;
+		this.controlContext = controlContext;
+		this.provider = provider;
+		this.expiration = expiration;
+		this.timeout = timeout;
+		this.timestamp = System.currentTimeMillis();
+	}
+
+	/**
+	 * Returns the cookie of the changed session.
+	 */
+	public Uuid getCookie() {
+		return cookie;
+	}
+
+	public int getState() {
+		return state;
+	}
+
+	/**
+	 * Returns the data context of the session, or <code>null</code> if the
+	 * context did not change.
+	 */
+	public Context<?> getContext() {
+		return context;
+	}
+
+	public ControlContext getControlContext() {
+		return controlContext;
+	}
+
+	public Monitorable getProvider() {
+		return provider;
+	}
+
+	public long getExpiration() {
+		return expiration;
+	}
+
+	public long getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Returns the time the change was made.
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public String toString() {
+		return "cookie:" + cookie + " state:" + state + (context != null ? " with context" : "");
+	}
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.provider.exertmonitor;
+
+import java.io.IOException;
+
+/**
+ * The store of {@link MonitorSession} changes. Changes of nested sessions are
+ * appended as {@link SessionDelta}s to the journal of their root session,
+ * which the store compacts into a snapshot of the root session from time to
+ * time.
+ */
+public interface SessionJournal {
+
+	/**
+	 * Appends the change of a session to the journal of its root session.
+	 *
+	 * @param root  the root session of the changed session
+	 * @param delta the change
+	 */
+	void append(MonitorSession root, SessionDelta delta) throws IOException;
+
+}
@@ -71,6 +71,7 @@ public class ScripterThread extends Thread {
         ClassLoader currentCL = Thread.currentThread().getContextClassLoader();
         try {
             Thread.currentThread().setContextClassLoader(classLoader);
+            // not cached, each netlet has its own class loader
             synchronized (gShell) {
                 target = gShell.evaluate(script);
             }
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.service.space;
+
+import net.jini.core.entry.Entry;
+import net.jini.core.event.EventRegistration;
+import net.jini.core.event.RemoteEvent;
+import net.jini.core.event.RemoteEventListener;
+import net.jini.core.event.UnknownEventException;
+import net.jini.core.lease.Lease;
+import net.jini.export.Exporter;
+import net.jini.jeri.BasicILFactory;
+import net.jini.jeri.BasicJeriExporter;
+import net.jini.jeri.tcp.TcpServerEndpoint;
+import net.jini.lease.LeaseRenewalManager;
+import net.jini.space.JavaSpace05;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.util.Sorcer;
+
+import java.rmi.RemoteException;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signals the availability of entries matching a set of templates in a
+ * space. Space takers wait for a signal instead of polling the space with
+ * timed takes, so an entry is taken as soon as it is written. The signal
+ * is registered with {@link JavaSpace05#registerForAvailabilityEvent} and
+ * can be disabled with <code>sorcer.space.availability=false</code>, in
+ * which case takers keep polling.
+ */
+public class SpaceAvailability implements RemoteEventListener {
+    private static final Logger logger = LoggerFactory.getLogger(SpaceAvailability.class);
+
+    public static final String AVAILABILITY = "sorcer.space.availability";
+
+    private static final long MIN_LEASE = TimeUnit.SECONDS.toMillis(30);
+
+    private static final LeaseRenewalManager lrm = new LeaseRenewalManager();
+
+    private final JavaSpace05 space;
+
+    private final Exporter exporter;
+
+    private EventRegistration registration;
+
+    // the number of events received, guarded by this
+    private long generation;
+
+    private boolean closed;
+
+    private SpaceAvailability(JavaSpace05 space, Exporter exporter) {
+        this.space = space;
+        this.exporter = exporter;
+    }
+
+    /**
+     * Registers for the availability of entries matching the templates.
+     * Returns <code>null</code> if the signal is disabled or the space
+     * does not accept the registration, so the caller polls the space.
+     */
+    public static SpaceAvailability register(JavaSpace05 space, Collection<? extends Entry> templates) {
+        if (space == null || !Boolean.parseBoolean(System.getProperty(AVAILABILITY, "true")))
+            return null;
+        SpaceAvailability availability = null;
+        try {
+            availability = new SpaceAvailability(space, new BasicJeriExporter(
+                    TcpServerEndpoint.getInstance(Sorcer.getHostAddress(), 0), new BasicILFactory()));
+            RemoteEventListener proxy = (RemoteEventListener) availability.exporter.export(availability);
+            EventRegistration registration = space.registerForAvailabilityEvent(templates, null, true, proxy,
+                    Lease.FOREVER, null);
+            lrm.renewUntil(registration.getLease(), Lease.FOREVER, MIN_LEASE, null);
+            synchronized (availability) {
+                availability.registration = registration;
+            }
+            return availability;
+        } catch (Exception e) {
+            logger.warn("Unable to register for space availability events, polling the space", e);
+            if (availability != null)
+                availability.close();
+            return null;
+        }
+    }
+
+    public JavaSpace05 getSpace() {
+        return space;
+    }
+
+    /**
+     * Returns the number of signals received, to be passed to
+     * {@link #await(long, long)} after a take found no entry.
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Waits until a signal is received after the given generation, the
+     * timeout elapses or this signal is closed.
+     *
+     * @return <code>true</code> if a signal was received
+     */
+    public synchronized boolean await(long seen, long timeout) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeout;
+        long remaining = timeout;
+        while (generation == seen && !closed && remaining > 0) {
+            wait(remaining);
+            remaining = deadline - System.currentTimeMillis();
+        }
+        return generation != seen;
+    }
+
+    @Override
+    public synchronized void notify(RemoteEvent event) throws UnknownEventException, RemoteException {
+        generation++;
+        notifyAll();
+    }
+
+    /**
+     * Cancels the registration and wakes up the waiting takers.
+     */
+    public void close() {
+        EventRegistration current;
+        synchronized (this) {
+            if (closed)
+                return;
+            closed = true;
+            current = registration;
+            notifyAll();
+        }
+        if (current != null) {
+            try {
+                lrm.remove(current.getLease());
+                current.getLease().cancel();
+            } catch (Exception e) {
+                logger.debug("Problem cancelling space availability registration", e);
+            }
+        }
+        try {
+            exporter.unexport(true);
+        } catch (IllegalStateException e) {
+            // not exported
+        }
+    }
+}
@@ -40,11 +40,15 @@ import sorcer.core.provider.exerter.ServiceShell;
 import sorcer.service.*;
 import sorcer.service.modeling.*;
 import sorcer.service.Region;
+import sorcer.util.ServiceExecutors;
 
 import java.rmi.RemoteException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import static sorcer.co.operator.get;
 import static sorcer.mo.operator.value;
@@ -615,6 +619,25 @@ public class operator extends Operator {
         }
     }
 
+    /**
+     * Exerts the mogram without blocking the caller. The returned future
+     * completes with the exerted mogram, or exceptionally with the cause of
+     * the failure.
+     */
+    public static <T extends Mogram> CompletableFuture<T> exertAsync(T mogram, Arg... args) {
+        return exertAsync(ServiceExecutors.get(ServiceExecutors.EXERT), mogram, args);
+    }
+
+    public static <T extends Mogram> CompletableFuture<T> exertAsync(Executor executor, final T mogram, final Arg... args) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return (T) mogram.exert(null, args);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
     public static <T extends Contextion> T exert(T input,
                                              Transaction transaction,
                                              Arg... entries) throws ContextException {
@@ -0,0 +1,967 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.util;
+
+import net.jini.id.Uuid;
+import net.jini.id.UuidFactory;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * A table that stores its cells by column. A column holds the values of a
+ * single type in a primitive array, doubles, longs or ints, or strings as
+ * codes into a dictionary of the distinct strings, and falls back to objects
+ * once it is given a value of another type. The type of a column is taken
+ * from its first value that is not <code>null</code>, and the cells are
+ * returned as the same boxed values they were given.
+ * <p>
+ * The columns of numbers can be scanned through views of their arrays, e.g.
+ * {@link #getDoubles(int)}, without copying or boxing the values. The rows
+ * are available as a list of row views, so a {@link DataTable} can use the
+ * table in place of its list of row lists.
+ */
+@SuppressWarnings({ "unchecked", "rawtypes" })
+public class ColumnTable implements ModelTable {
+
+	static final long serialVersionUID = 1L;
+
+	public enum Type {
+		NULL, DOUBLE, LONG, INT, STRING, OBJECT
+	}
+
+	protected Uuid id = UuidFactory.generate();
+
+	protected String name;
+
+	protected List<String> columnNames;
+
+	private final List<Column> columns = new ArrayList<Column>();
+
+	private int rowCount;
+
+	private final Rows rows = new Rows();
+
+	/**
+	 * Constructs a table of zero rows with the given column names.
+	 *
+	 * @param columnNames
+	 *            the names of the columns, or <code>null</code> for a table of
+	 *            zero columns
+	 */
+	public ColumnTable(List<?> columnNames) {
+		this("Column Table", columnNames);
+	}
+
+	public ColumnTable(String name, List<?> columnNames) {
+		this.name = name;
+		setColumnNames(columnNames);
+	}
+
+	@Override
+	public Uuid getId() {
+		return id;
+	}
+
+	public void setId(Uuid id) {
+		this.id = id;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public List<String> getColumnNames() {
+		return columnNames;
+	}
+
+	/**
+	 * Replaces the column names. Columns are added for the names beyond the
+	 * current columns, the columns beyond the names are kept. The list is
+	 * used as given, so a {@link DataTable} shares its column identifiers
+	 * with its columns.
+	 */
+	public synchronized void setColumnNames(List<?> columnNames) {
+		if (columnNames == null)
+			columnNames = Collections.synchronizedList(new ArrayList<String>());
+		this.columnNames = (List<String>) columnNames;
+		while (columns.size() < columnNames.size())
+			columns.add(new NullColumn(rowCount));
+	}
+
+	public int columnIndexOf(String columnName) {
+		return columnNames.indexOf(columnName);
+	}
+
+	public synchronized int getRowCount() {
+		return rowCount;
+	}
+
+	public synchronized int getColumnCount() {
+		return columns.size();
+	}
+
+	/**
+	 * Returns the rows of this table as a list of row views. A row view
+	 * reads and writes the cells of the row at its index, and has as many
+	 * cells as the table has columns. Adding, removing or replacing a row of
+	 * the list changes this table.
+	 */
+	public List<List<?>> rows() {
+		return rows;
+	}
+
+	public synchronized Column getColumn(int column) {
+		return columns.get(column);
+	}
+
+	public Column getColumn(String columnName) {
+		return getColumn(columnIndexOf(columnName));
+	}
+
+	/**
+	 * Returns a read-only view of the values of a column of doubles, with a
+	 * <code>NaN</code> for a <code>null</code> cell. The view is not copied,
+	 * it holds the rows of the column when it was taken and sees later
+	 * changes to their cells until rows are added or removed.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the column does not hold doubles
+	 */
+	public DoubleBuffer getDoubles(int column) {
+		Column c = getColumn(column);
+		if (!(c instanceof DoubleColumn))
+			throw new IllegalArgumentException("Column " + column + " of " + name + " holds " + c.getType() + " values");
+		return ((DoubleColumn) c).getDoubles();
+	}
+
+	/**
+	 * Returns a read-only view of the values of a column of longs, with a
+	 * zero for a <code>null</code> cell.
+	 *
+	 * @see #getDoubles(int)
+	 */
+	public LongBuffer getLongs(int column) {
+		Column c = getColumn(column);
+		if (!(c instanceof LongColumn))
+			throw new IllegalArgumentException("Column " + column + " of " + name + " holds " + c.getType() + " values");
+		return ((LongColumn) c).getLongs();
+	}
+
+	/**
+	 * Returns a read-only view of the values of a column of ints, with a
+	 * zero for a <code>null</code> cell.
+	 *
+	 * @see #getDoubles(int)
+	 */
+	public IntBuffer getInts(int column) {
+		Column c = getColumn(column);
+		if (!(c instanceof IntColumn))
+			throw new IllegalArgumentException("Column " + column + " of " + name + " holds " + c.getType() + " values");
+		return ((IntColumn) c).getInts();
+	}
+
+	public synchronized Object getValueAt(int row, int column) {
+		checkRow(row, rowCount);
+		return columns.get(column).get(row);
+	}
+
+	public synchronized void setValueAt(Object value, int row, int column) {
+		checkRow(row, rowCount);
+		columnFor(column, value).set(row, value);
+	}
+
+	/**
+	 * Appends a row, the table is widened to the length of the row and the
+	 * missing cells of a shorter row are <code>null</code>.
+	 */
+	public void addRow(List<?> row) {
+		insertRow(getRowCount(), row);
+	}
+
+	/**
+	 * Appends a row of doubles without boxing them into the columns of
+	 * doubles.
+	 */
+	public synchronized void addRow(double[] row) {
+		widen(row.length);
+		for (int c = 0; c < columns.size(); c++) {
+			if (c >= row.length) {
+				columnFor(c, null).insert(rowCount, null);
+				continue;
+			}
+			Column column = columns.get(c);
+			if (column instanceof DoubleColumn) {
+				((DoubleColumn) column).add(row[c]);
+			} else {
+				Double value = row[c];
+				columnFor(c, value).insert(rowCount, value);
+			}
+		}
+		rowCount++;
+	}
+
+	public synchronized void insertRow(int row, List<?> values) {
+		checkRow(row, rowCount + 1);
+		int length = values != null ? values.size() : 0;
+		widen(length);
+		for (int c = 0; c < columns.size(); c++) {
+			Object value = c < length ? values.get(c) : null;
+			columnFor(c, value).insert(row, value);
+		}
+		rowCount++;
+	}
+
+	public synchronized void removeRow(int row) {
+		checkRow(row, rowCount);
+		for (Column column : columns)
+			column.remove(row);
+		rowCount--;
+	}
+
+	/**
+	 * Moves the rows from <code>start</code> inclusive to <code>end</code>
+	 * exclusive by <code>shift</code> rows, rotating the rows in the range.
+	 */
+	public synchronized void moveRows(int start, int end, int shift) {
+		checkRow(start, rowCount);
+		checkRow(end, rowCount + 1);
+		int size = end - start;
+		if (size <= 0)
+			return;
+		Object[] segment = new Object[size];
+		for (Column column : columns) {
+			for (int i = 0; i < size; i++)
+				segment[i] = column.get(start + i);
+			for (int i = 0; i < size; i++)
+				column.set(start + Math.floorMod(i + shift, size), segment[i]);
+		}
+	}
+
+	/**
+	 * Appends a named column with the given values, more values than rows
+	 * append rows of <code>null</code> values.
+	 */
+	public synchronized void addColumn(String columnName, List<?> values) {
+		columnNames.add(columnName);
+		insertColumn(columns.size(), values);
+	}
+
+	/**
+	 * Inserts a column of values at <code>column</code> without changing the
+	 * column names.
+	 *
+	 * @param values
+	 *            the values of the column, or <code>null</code> for a column
+	 *            of <code>null</code> values
+	 */
+	public synchronized void insertColumn(int column, List<?> values) {
+		columns.add(column, new NullColumn(rowCount));
+		if (values == null)
+			return;
+		while (rowCount < values.size())
+			insertRow(rowCount, null);
+		for (int i = 0; i < values.size(); i++) {
+			Object value = values.get(i);
+			if (value != null)
+				columnFor(column, value).set(i, value);
+		}
+	}
+
+	/**
+	 * Removes a column without changing the column names.
+	 */
+	public synchronized void removeColumn(int column) {
+		columns.remove(column);
+	}
+
+	/**
+	 * Removes all rows, the columns keep their types.
+	 */
+	public synchronized void clear() {
+		for (Column column : columns)
+			column.clear();
+		rowCount = 0;
+	}
+
+	// the column at the index that holds the value, a column of nulls takes
+	// the type of its first value, other columns fall back to objects
+	private Column columnFor(int index, Object value) {
+		Column column = columns.get(index);
+		if (column.accepts(value))
+			return column;
+		if (column.getType() == Type.NULL)
+			column = newColumn(value, column.size());
+		else
+			column = new ObjectColumn(column);
+		columns.set(index, column);
+		return column;
+	}
+
+	private void widen(int width) {
+		while (columns.size() < width)
+			columns.add(new NullColumn(rowCount));
+	}
+
+	private static Column newColumn(Object value, int nulls) {
+		ArrayColumn column;
+		if (value instanceof Double)
+			column = new DoubleColumn();
+		else if (value instanceof Long)
+			column = new LongColumn();
+		else if (value instanceof Integer)
+			column = new IntColumn();
+		else if (value instanceof String)
+			column = new StringColumn();
+		else
+			column = new ObjectColumn();
+		for (int i = 0; i < nulls; i++)
+			column.insert(i, null);
+		return column;
+	}
+
+	private static void checkRow(int row, int size) {
+		if (row < 0 || row >= size)
+			throw new IndexOutOfBoundsException("Row: " + row + ", rows: " + size);
+	}
+
+	@Override
+	public synchronized String toString() {
+		StringBuilder sb = new StringBuilder(getClass().getName()).append(": ").append(name);
+		sb.append("\n").append(columnNames).append("\nrows: ").append(rowCount).append(", types: [");
+		for (int i = 0; i < columns.size(); i++) {
+			if (i > 0)
+				sb.append(", ");
+			sb.append(columns.get(i).getType());
+		}
+		return sb.append("]").toString();
+	}
+
+	/**
+	 * The values of a column. Reading the values of a column while the table
+	 * is changed by another thread is not synchronized.
+	 */
+	public static abstract class Column implements Serializable {
+		static final long serialVersionUID = 1L;
+
+		public abstract Type getType();
+
+		public abstract int size();
+
+		public abstract Object get(int row);
+
+		public boolean isNull(int row) {
+			return get(row) == null;
+		}
+
+		/**
+		 * Returns the value of a cell as a double, <code>NaN</code> for a
+		 * <code>null</code> cell.
+		 *
+		 * @throws NumberFormatException
+		 *             if the value is not a number
+		 */
+		public double getDouble(int row) {
+			Object value = get(row);
+			if (value == null)
+				return Double.NaN;
+			if (value instanceof Number)
+				return ((Number) value).doubleValue();
+			return Double.parseDouble(value.toString());
+		}
+
+		/**
+		 * Returns a read-only list view of the values, the values are boxed
+		 * when read.
+		 */
+		public List<Object> asList() {
+			return new ColumnList(this);
+		}
+
+		abstract boolean accepts(Object value);
+
+		abstract void insert(int row, Object value);
+
+		abstract void set(int row, Object value);
+
+		abstract void remove(int row);
+
+		abstract void clear();
+	}
+
+	private static class ColumnList extends AbstractList<Object> implements RandomAccess, Serializable {
+		static final long serialVersionUID = 1L;
+
+		private final Column column;
+
+		ColumnList(Column column) {
+			this.column = column;
+		}
+
+		@Override
+		public Object get(int index) {
+			return column.get(index);
+		}
+
+		@Override
+		public int size() {
+			return column.size();
+		}
+	}
+
+	// a column with no values yet, replaced on its first value
+	private static class NullColumn extends Column {
+		static final long serialVersionUID = 1L;
+
+		private int size;
+
+		NullColumn(int size) {
+			this.size = size;
+		}
+
+		@Override
+		public Type getType() {
+			return Type.NULL;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public Object get(int row) {
+			checkRow(row, size);
+			return null;
+		}
+
+		@Override
+		boolean accepts(Object value) {
+			return value == null;
+		}
+
+		@Override
+		void insert(int row, Object value) {
+			size++;
+		}
+
+		@Override
+		void set(int row, Object value) {
+		}
+
+		@Override
+		void remove(int row) {
+			size--;
+		}
+
+		@Override
+		void clear() {
+			size = 0;
+		}
+	}
+
+	/**
+	 * A column that holds its values in an array and marks the
+	 * <code>null</code> cells.
+	 */
+	private static abstract class ArrayColumn extends Column {
+		static final long serialVersionUID = 1L;
+
+		protected int size;
+
+		protected final BitSet nulls = new BitSet();
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public boolean isNull(int row) {
+			checkRow(row, size);
+			return nulls.get(row);
+		}
+
+		@Override
+		public Object get(int row) {
+			checkRow(row, size);
+			return nulls.get(row) ? null : value(row);
+		}
+
+		@Override
+		boolean accepts(Object value) {
+			return value == null || type(value);
+		}
+
+		@Override
+		void insert(int row, Object value) {
+			if (size == capacity())
+				resize(Math.max(16, size + (size >> 1)));
+			if (row < size) {
+				move(row, row + 1, size - row);
+				BitSet tail = nulls.get(row, size);
+				nulls.clear(row, size);
+				for (int i = tail.nextSetBit(0); i >= 0; i = tail.nextSetBit(i + 1))
+					nulls.set(row + 1 + i);
+			}
+			size++;
+			set(row, value);
+		}
+
+		@Override
+		void set(int row, Object value) {
+			if (value == null) {
+				nulls.set(row);
+				store(row, null);
+			} else {
+				nulls.clear(row);
+				store(row, value);
+			}
+		}
+
+		@Override
+		void remove(int row) {
+			checkRow(row, size);
+			move(row + 1, row, size - row - 1);
+			BitSet tail = nulls.get(row + 1, size);
+			nulls.clear(row, size);
+			for (int i = tail.nextSetBit(0); i >= 0; i = tail.nextSetBit(i + 1))
+				nulls.set(row + i);
+			size--;
+			store(size, null);
+		}
+
+		@Override
+		void clear() {
+			nulls.clear();
+			size = 0;
+			resize(0);
+		}
+
+		// the values are serialized without the spare capacity
+		private void writeObject(ObjectOutputStream out) throws IOException {
+			resize(size);
+			out.defaultWriteObject();
+		}
+
+		abstract boolean type(Object value);
+
+		abstract Object value(int row);
+
+		abstract void store(int row, Object value);
+
+		abstract int capacity();
+
+		abstract void resize(int capacity);
+
+		abstract void move(int from, int to, int length);
+	}
+
+	/**
+	 * A column of doubles.
+	 */
+	public static class DoubleColumn extends ArrayColumn {
+		static final long serialVersionUID = 1L;
+
+		private double[] values = new double[0];
+
+		@Override
+		public Type getType() {
+			return Type.DOUBLE;
+		}
+
+		@Override
+		public double getDouble(int row) {
+			checkRow(row, size);
+			return values[row];
+		}
+
+		public DoubleBuffer getDoubles() {
+			return DoubleBuffer.wrap(values, 0, size).slice().asReadOnlyBuffer();
+		}
+
+		void add(double value) {
+			if (size == values.length)
+				resize(Math.max(16, size + (size >> 1)));
+			values[size++] = value;
+		}
+
+		@Override
+		boolean type(Object value) {
+			return value instanceof Double;
+		}
+
+		@Override
+		Object value(int row) {
+			return values[row];
+		}
+
+		@Override
+		void store(int row, Object value) {
+			values[row] = value != null ? (Double) value : Double.NaN;
+		}
+
+		@Override
+		int capacity() {
+			return values.length;
+		}
+
+		@Override
+		void resize(int capacity) {
+			values = Arrays.copyOf(values, capacity);
+		}
+
+		@Override
+		void move(int from, int to, int length) {
+			System.arraycopy(values, from, values, to, length);
+		}
+	}
+
+	/**
+	 * A column of longs.
+	 */
+	public static class LongColumn extends ArrayColumn {
+		static final long serialVersionUID = 1L;
+
+		private long[] values = new long[0];
+
+		@Override
+		public Type getType() {
+			return Type.LONG;
+		}
+
+		public LongBuffer getLongs() {
+			return LongBuffer.wrap(values, 0, size).slice().asReadOnlyBuffer();
+		}
+
+		@Override
+		boolean type(Object value) {
+			return value instanceof Long;
+		}
+
+		@Override
+		Object value(int row) {
+			return values[row];
+		}
+
+		@Override
+		void store(int row, Object value) {
+			values[row] = value != null ? (Long) value : 0L;
+		}
+
+		@Override
+		int capacity() {
+			return values.length;
+		}
+
+		@Override
+		void resize(int capacity) {
+			values = Arrays.copyOf(values, capacity);
+		}
+
+		@Override
+		void move(int from, int to, int length) {
+			System.arraycopy(values, from, values, to, length);
+		}
+	}
+
+	/**
+	 * A column of ints.
+	 */
+	public static class IntColumn extends ArrayColumn {
+		static final long serialVersionUID = 1L;
+
+		private int[] values = new int[0];
+
+		@Override
+		public Type getType() {
+			return Type.INT;
+		}
+
+		public IntBuffer getInts() {
+			return IntBuffer.wrap(values, 0, size).slice().asReadOnlyBuffer();
+		}
+
+		@Override
+		boolean type(Object value) {
+			return value instanceof Integer;
+		}
+
+		@Override
+		Object value(int row) {
+			return values[row];
+		}
+
+		@Override
+		void store(int row, Object value) {
+			values[row] = value != null ? (Integer) value : 0;
+		}
+
+		@Override
+		int capacity() {
+			return values.length;
+		}
+
+		@Override
+		void resize(int capacity) {
+			values = Arrays.copyOf(values, capacity);
+		}
+
+		@Override
+		void move(int from, int to, int length) {
+			System.arraycopy(values, from, values, to, length);
+		}
+	}
+
+	/**
+	 * A column of strings, each cell holds the code of its string in the
+	 * dictionary of the distinct strings of the column.
+	 */
+	public static class StringColumn extends ArrayColumn {
+		static final long serialVersionUID = 1L;
+
+		private int[] codes = new int[0];
+
+		private final List<String> dictionary = new ArrayList<String>();
+
+		private transient Map<String, Integer> lookup = new HashMap<String, Integer>();
+
+		@Override
+		public Type getType() {
+			return Type.STRING;
+		}
+
+		/**
+		 * Returns a read-only view of the codes of the cells into the
+		 * dictionary, with -1 for a <code>null</code> cell.
+		 *
+		 * @see ColumnTable#getDoubles(int)
+		 */
+		public IntBuffer getCodes() {
+			return IntBuffer.wrap(codes, 0, size).slice().asReadOnlyBuffer();
+		}
+
+		public List<String> getDictionary() {
+			return Collections.unmodifiableList(dictionary);
+		}
+
+		@Override
+		boolean type(Object value) {
+			return value instanceof String;
+		}
+
+		@Override
+		Object value(int row) {
+			return dictionary.get(codes[row]);
+		}
+
+		@Override
+		void store(int row, Object value) {
+			if (value == null) {
+				codes[row] = -1;
+				return;
+			}
+			Integer code = lookup.get(value);
+			if (code == null) {
+				code = dictionary.size();
+				dictionary.add((String) value);
+				lookup.put((String) value, code);
+			}
+			codes[row] = code;
+		}
+
+		@Override
+		int capacity() {
+			return codes.length;
+		}
+
+		@Override
+		void resize(int capacity) {
+			codes = Arrays.copyOf(codes, capacity);
+		}
+
+		@Override
+		void move(int from, int to, int length) {
+			System.arraycopy(codes, from, codes, to, length);
+		}
+
+		private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+			in.defaultReadObject();
+			lookup = new HashMap<String, Integer>(dictionary.size() * 2);
+			for (int i = 0; i < dictionary.size(); i++)
+				lookup.put(dictionary.get(i), i);
+		}
+	}
+
+	/**
+	 * A column of values of any type.
+	 */
+	public static class ObjectColumn extends ArrayColumn {
+		static final long serialVersionUID = 1L;
+
+		private Object[] values = new Object[0];
+
+		ObjectColumn() {
+		}
+
+		// copies the values of a typed column
+		ObjectColumn(Column column) {
+			int size = column.size();
+			values = new Object[Math.max(16, size + (size >> 1))];
+			for (int i = 0; i < size; i++)
+				insert(i, column.get(i));
+		}
+
+		@Override
+		public Type getType() {
+			return Type.OBJECT;
+		}
+
+		@Override
+		boolean type(Object value) {
+			return true;
+		}
+
+		@Override
+		Object value(int row) {
+			return values[row];
+		}
+
+		@Override
+		void store(int row, Object value) {
+			values[row] = value;
+		}
+
+		@Override
+		int capacity() {
+			return values.length;
+		}
+
+		@Override
+		void resize(int capacity) {
+			values = Arrays.copyOf(values, capacity);
+		}
+
+		@Override
+		void move(int from, int to, int length) {
+			System.arraycopy(values, from, values, to, length);
+		}
+	}
+
+	/**
+	 * The rows of the table as row views.
+	 */
+	private class Rows extends AbstractList<List<?>> implements RandomAccess, Serializable {
+		static final long serialVersionUID = 1L;
+
+		@Override
+		public List<?> get(int index) {
+			checkRow(index, getRowCount());
+			return new RowView(index);
+		}
+
+		@Override
+		public int size() {
+			return getRowCount();
+		}
+
+		@Override
+		public void add(int index, List<?> row) {
+			insertRow(index, row);
+		}
+
+		// returns a copy of the row replaced
+		@Override
+		public List<?> set(int index, List<?> row) {
+			synchronized (ColumnTable.this) {
+				List<Object> old = new ArrayList<Object>(new RowView(index));
+				List<Object> values = new ArrayList<Object>(row);
+				widen(values.size());
+				for (int c = 0; c < columns.size(); c++)
+					setValueAt(c < values.size() ? values.get(c) : null, index, c);
+				return old;
+			}
+		}
+
+		// returns a copy of the row removed
+		@Override
+		public List<?> remove(int index) {
+			synchronized (ColumnTable.this) {
+				List<Object> old = new ArrayList<Object>(new RowView(index));
+				removeRow(index);
+				return old;
+			}
+		}
+
+		@Override
+		public void clear() {
+			ColumnTable.this.clear();
+		}
+	}
+
+	/**
+	 * The cells of the row at an index.
+	 */
+	private class RowView extends AbstractList<Object> implements RandomAccess, Serializable {
+		static final long serialVersionUID = 1L;
+
+		private final int row;
+
+		RowView(int row) {
+			this.row = row;
+		}
+
+		@Override
+		public Object get(int index) {
+			return getValueAt(row, index);
+		}
+
+		@Override
+		public Object set(int index, Object value) {
+			synchronized (ColumnTable.this) {
+				Object old = getValueAt(row, index);
+				setValueAt(value, row, index);
+				return old;
+			}
+		}
+
+		@Override
+		public int size() {
+			return getColumnCount();
+		}
+	}
+}
@@ -34,6 +34,7 @@ import java.io.*;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.DoubleBuffer;
 import java.rmi.RemoteException;
 import java.util.*;
 import java.util.Collections;
@@ -42,6 +43,14 @@ import java.util.Collections;
  * This is a Java class that is an implementation of dataTable of objects that uses a
  * <code>List</code> of <code>Lists</code> to store the cell data objects. It 
  * implements the interface <code>Serializable</code>.
+ * <p>
+ * A columnar dataTable stores its cells in a {@link ColumnTable} of typed
+ * columns instead, and its list of rows is a view of the columns, so large
+ * tables of numbers are not boxed per cell. Tables are columnar when
+ * constructed with <code>columnar</code> set, or by default with
+ * <code>-Dsorcer.table.columnar=true</code>. The rows of a columnar
+ * dataTable are as wide as the table, and its columns are returned as
+ * read-only views.
  * 
  * @author Mike Sobolewski
  * @see List
@@ -55,6 +64,8 @@ public class DataTable implements ModelTable, Response, rsp {
 	protected static Logger logger = LoggerFactory.getLogger(DataTable.class.getName());
 	/** Encoding for the dataTable */
 	protected static String ENCODING = "UTF-8";
+	/** The property that makes dataTables columnar by default */
+	public static final String COLUMNAR = "sorcer.table.columnar";
 	/**
 	 * The <code>List</code> of <code>Lists</code> of <code>Object</code>
 	 * values.
@@ -113,6 +124,9 @@ public class DataTable implements ModelTable, Response, rsp {
 	/* List of List that defines a dataTable */
 	protected List<List<?>> dataList;
 
+	/* The columns of a columnar dataTable, its dataList is a view of the rows */
+	protected ColumnTable columnTable;
+
 	// Input dataTable properties
 	/* Input dataTable file key */
 	protected String inputFileName;
@@ -206,10 +220,36 @@ public class DataTable implements ModelTable, Response, rsp {
 	 * @see #setValueAt
 	 */
 	public DataTable(List<?> columnNames, int rowCount) {
+		this(columnNames, rowCount, Boolean.getBoolean(COLUMNAR));
+	}
+
+	/**
+	 * Constructs a <code>Table</code> with as many columns as there are
+	 * elements in <code>columnNames</code>, that stores its cells by column
+	 * if <code>columnar</code> is set.
+	 *
+	 * @see #DataTable(List, int)
+	 * @see ColumnTable
+	 */
+	public DataTable(List<?> columnNames, int rowCount, boolean columnar) {
 		id = UuidFactory.generate();
+		if (columnar)
+			columnTable = new ColumnTable(name, null);
 		setDataList(newList(rowCount), columnNames);
 	}
 
+	/**
+	 * Constructs a columnar <code>Table</code> with the rows and columns of
+	 * <code>table</code>.
+	 */
+	public DataTable(ColumnTable table) {
+		id = table.getId();
+		name = table.getName();
+		columnTable = table;
+		dataList = table.rows();
+		columnIdentifiers = table.getColumnNames();
+	}
+
 	/**
 	 * Constructs a <code>Table</code> with as many columns as there are
 	 * elements in <code>columnNames</code> and <code>rowCount</code> of
@@ -298,6 +338,9 @@ public class DataTable implements ModelTable, Response, rsp {
 	public List getColumn(int colIndex){
 		if (colIndex < 0)
 			return null;
+		if (columnTable != null && colIndex < columnTable.getColumnCount())
+			// a copy, callers update the returned column
+			return new ArrayList(columnTable.getColumn(colIndex).asList());
 
 		int rowCount = getRowCount();
 		List colList = new ArrayList();
@@ -337,7 +380,30 @@ public class DataTable implements ModelTable, Response, rsp {
 	}
 
 	public void setDataList(List dataList) {
-		this.dataList = nonNullList(dataList);
+		if (columnTable != null)
+			setColumnData(dataList);
+		else
+			this.dataList = nonNullList(dataList);
+	}
+
+	// copies the rows into the columns of a columnar dataTable
+	private void setColumnData(List rows) {
+		if (rows == columnTable.rows())
+			return;
+		columnTable.clear();
+		if (rows != null) {
+			for (Object row : rows)
+				columnTable.addRow((List) row);
+		}
+		this.dataList = columnTable.rows();
+	}
+
+	public boolean isColumnar() {
+		return columnTable != null;
+	}
+
+	public ColumnTable getColumnTable() {
+		return columnTable;
 	}
 
 	/**
@@ -361,8 +427,8 @@ public class DataTable implements ModelTable, Response, rsp {
 	 * @see #getDataList
 	 */
 	public void setDataList(List dataList, List columnIdentifiers) {
-		this.dataList = nonNullList(dataList);
-		this.columnIdentifiers = nonNullList(columnIdentifiers);
+		setDataList(dataList);
+		setColumnIdentifiers(columnIdentifiers);
 	}
 
 
@@ -414,6 +480,10 @@ public class DataTable implements ModelTable, Response, rsp {
 	 *            optional data of the listing being added
 	 */
 	public void addRow(double[] rowData) {
+		if (columnTable != null) {
+			columnTable.addRow(rowData);
+			return;
+		}
 		List<Double> doa = new ArrayList<>();
 		for(double d : rowData) {
 			doa.add(d);
@@ -513,7 +583,10 @@ public class DataTable implements ModelTable, Response, rsp {
 			first = start;
 			last = to + end - start;
 		}
-		rotate(dataList, first, last + 1, shift);
+		if (columnTable != null)
+			columnTable.moveRows(first, last + 1, shift);
+		else
+			rotate(dataList, first, last + 1, shift);
 	}
 
 	/**
@@ -548,6 +621,8 @@ public class DataTable implements ModelTable, Response, rsp {
 	 */
 	public void setColumnIdentifiers(List columnIdentifiers) {
 		this.columnIdentifiers = nonNullList(columnIdentifiers);
+		if (columnTable != null)
+			columnTable.setColumnNames(this.columnIdentifiers);
 	}
 
 	public void setRowIdentifiers(List rowIdentifiers) {
@@ -621,7 +696,9 @@ public class DataTable implements ModelTable, Response, rsp {
 	 */
 	public void addColumn(String columnName, List columnData, int colID) {
 		columnIdentifiers.add(colID, columnName);
-		if (columnData != null) {
+		if (columnTable != null) {
+			columnTable.insertColumn(colID, columnData);
+		} else if (columnData != null) {
 			int columnSize = columnData.size();
 			for (int i = 0; i < columnSize; i++) {
 				List row = (List) dataList.get(i);
@@ -639,6 +716,11 @@ public class DataTable implements ModelTable, Response, rsp {
 	 * @throws EvaluationException 
 	 */
 	public void removeColumn(int colID) throws EvaluationException {
+		if (columnTable != null) {
+			columnTable.removeColumn(colID);
+			columnIdentifiers.remove(colID);
+			return;
+		}
 		int rowSize = getRowCount();
 	
 			for (int i = 0; i < rowSize; i++) {
@@ -664,7 +746,9 @@ public class DataTable implements ModelTable, Response, rsp {
 	 */
 	public void addColumn(String columnName, List columnData) {
 		columnIdentifiers.add(columnName);
-		if (columnData != null) {
+		if (columnTable != null) {
+			columnTable.insertColumn(Math.min(getColumnCount() - 1, columnTable.getColumnCount()), columnData);
+		} else if (columnData != null) {
 			int columnSize = columnData.size();
 			int newColumn = getColumnCount() - 1;
 			for (int i = 0; i < columnSize; i++) {
@@ -753,6 +837,8 @@ public class DataTable implements ModelTable, Response, rsp {
 	 *                if an invalid listing or column was given
 	 */
 	public Object getValueAt(int row, int column) {
+		if (columnTable != null)
+			return columnTable.getValueAt(row, column);
 		List rowList = (List) dataList.get(row);
 		return rowList.get(column);
 	}
@@ -775,6 +861,25 @@ public class DataTable implements ModelTable, Response, rsp {
 		return getMinMaxValuesAsDouble(columnIndexOf(columnName));
 	}
 	public Double[] getMinMaxValuesAsDouble(int colIndex){
+		if (columnTable != null && columnTable.getColumn(colIndex) instanceof ColumnTable.DoubleColumn) {
+			// scan the doubles in place, null cells are skipped
+			ColumnTable.Column column = columnTable.getColumn(colIndex);
+			DoubleBuffer values = columnTable.getDoubles(colIndex);
+			Double[] minmax = new Double[2];
+			for (int i = 0; i < values.limit(); i++) {
+				if (column.isNull(i))
+					continue;
+				double value = values.get(i);
+				if (minmax[0] == null) {
+					minmax[0] = value;
+					minmax[1] = value;
+				} else {
+					if (value > minmax[1]) minmax[1] = value;
+					if (value < minmax[0]) minmax[0] = value;
+				}
+			}
+			return minmax;
+		}
 		Double[] minmax = new Double[2];
 		minmax[0]= getValueAtAsDouble(0,colIndex);
 		minmax[1]=minmax[0];
@@ -905,6 +1010,10 @@ public class DataTable implements ModelTable, Response, rsp {
 	 *                if an invalid listing or column was given
 	 */
 	public void setValueAt(Object aValue, int row, int column) {
+		if (columnTable != null) {
+			columnTable.setValueAt(aValue, row, column);
+			return;
+		}
 		List rowList = (List) dataList.get(row);
 		rowList.set(column, aValue);
 	}
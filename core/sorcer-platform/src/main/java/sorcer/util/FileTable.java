@@ -32,14 +32,26 @@ import java.util.*;
 import java.util.Collections;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * A persistent table of serializable values. By default values are stored
+ * in an object file and the index in an index file rewritten on every
+ * change. A log-structured table, created with <code>logged</code> or the
+ * system property <code>sorcer.table.log=true</code>, appends values and
+ * index changes to logs instead, see {@link TableLog}, so large tables are
+ * written and loaded at disk speed. The two layouts use different files.
+ */
 public class FileTable<K,V> extends Identity implements Runnable, ModelTable {
 
 	private final static Logger logger = LoggerFactory.getLogger(FileTable.class);
 
+	public static final String LOG_STRUCTURED = "sorcer.table.log";
+
 	// Object File
 	ObjectFile ofl;
 	// Index File
 	ObjectFile ifl;
+	// the storage of a log-structured table
+	TableLog<K> log;
 
 	String fileName;
 
@@ -78,6 +90,10 @@ public class FileTable<K,V> extends Identity implements Runnable, ModelTable {
 	protected static int count = 0;
 
 	public FileTable(String parent, String child) throws IOException {
+		this(parent, child, Boolean.getBoolean(LOG_STRUCTURED));
+	}
+
+	public FileTable(String parent, String child, boolean logged) throws IOException {
 		if (child == null) {
 			throw new NullPointerException();
 		}
@@ -89,12 +105,17 @@ public class FileTable<K,V> extends Identity implements Runnable, ModelTable {
 		}
 		name = child;
 		this.fileName = tableName;
-		ofl = new ObjectFile(fileName +".obf");
-		ifl = new ObjectFile(fileName +"-index.obf");
+		if (logged) {
+			log = new TableLog<K>(fileName);
+			table = log.getIndex();
+		} else {
+			ofl = new ObjectFile(fileName +".obf");
+			ifl = new ObjectFile(fileName +"-index.obf");
 
-		try { table = (ConcurrentHashMap)ifl.readObject(0); } catch (Exception e) { }
+			try { table = (ConcurrentHashMap)ifl.readObject(0); } catch (Exception e) { }
 
-		if (table == null) table = new ConcurrentHashMap();
+			if (table == null) table = new ConcurrentHashMap();
+		}
 
 		Thread t = new Thread(this);
 		t.setDaemon(true);
@@ -107,13 +128,27 @@ public class FileTable<K,V> extends Identity implements Runnable, ModelTable {
 
 	public synchronized final void close() throws  IOException {
 		running = false;
+		if (log != null) {
+			log.close();
+			return;
+		}
 		ofl.close();
 		ifl.close();
 	}
 
-	public synchronized final void put(K key, V value) throws IOException {
+	public final void put(K key, V value) throws IOException {
 		if (! (value instanceof Serializable))
 			throw new IOException("Not serializable eval");
+		if (log != null) {
+			// serialized outside of the log, appended under its lock
+			log.put(key, TableLog.serialize(value));
+			lastKey = key;
+			return;
+		}
+		putObject(key, value);
+	}
+
+	private synchronized void putObject(K key, V value) throws IOException {
 		Long oldPos = table.get(key);
 		long newPos;
 		if (oldPos == null)
@@ -135,6 +170,10 @@ public class FileTable<K,V> extends Identity implements Runnable, ModelTable {
 	}
 
 	public final V get(K key) throws IOException {
+		if (log != null) {
+			byte[] bytes = log.get(key);
+			return bytes == null ? null : (V) TableLog.deserialize(bytes);
+		}
 		Long pos = table.get(key);
 		if (pos == null) return null;
 		else return (V)ofl.readObject(pos.longValue());
@@ -162,11 +201,20 @@ public class FileTable<K,V> extends Identity implements Runnable, ModelTable {
 
 
 	public synchronized final void remove(K key) throws IOException {
+		if (log != null) {
+			log.remove(key);
+			return;
+		}
 		table.remove(key);
 		ifl.rewriteObject(0, table);
 	}
 
 	public synchronized void cleanup() throws IOException {
+		if (log != null) {
+			log.compact(1.0);
+			log.checkpoint();
+			return;
+		}
 		ObjectFile tmp = new ObjectFile(fileName + "-temp.obf");
 		ConcurrentHashMap newTable = new ConcurrentHashMap();
 
@@ -189,6 +237,20 @@ public class FileTable<K,V> extends Identity implements Runnable, ModelTable {
 	}
 
 	public void run() {
+		if (log != null) {
+			// syncs batched writes, checkpoints and compacts in the background
+			while (running) {
+				try {
+					Thread.sleep(Math.max(100, Math.min(log.getSyncInterval(), 1000)));
+					log.maintain();
+				} catch (InterruptedException e) {
+					return;
+				} catch (Exception e) {
+					logger.warn("Maintenance of table {} failed", fileName, e);
+				}
+			}
+			return;
+		}
 		while (running) {
 			try {
 				Thread.sleep(WAITING_TIME);
@@ -591,8 +653,12 @@ public class FileTable<K,V> extends Identity implements Runnable, ModelTable {
 	public Context getFileContext() throws ContextException {
 		ServiceContext sc = new ServiceContext(this.getName());
 
-        sc.putValue("object/file/key", fileName +".obf");
-        sc.putValue("index/file/key", fileName +"-index.obf");
+        if (log != null) {
+            sc.putValue("log/files", log.getFileNames());
+        } else {
+            sc.putValue("object/file/key", fileName +".obf");
+            sc.putValue("index/file/key", fileName +"-index.obf");
+        }
 
 		sc.putValue("input/file/key", inputFileName);
 		sc.putValue("input/table/URL", inputTableURL);
@@ -605,6 +671,14 @@ public class FileTable<K,V> extends Identity implements Runnable, ModelTable {
 	}
 
 	public void delete() {
+		if (log != null) {
+			try {
+				log.delete();
+			} catch (IOException e) {
+				logger.warn("Problem deleting table {}", fileName, e);
+			}
+			return;
+		}
 		File obf = new File(fileName +".obf");
 		File iobf = new File(fileName +"-index.obf");
 		obf.delete();
@@ -27,27 +27,36 @@ import sorcer.service.*;
 
 public class ObjectCloner {
 
+	/**
+	 * Returns a deep copy of the object. Graphs of contexts, routines,
+	 * entries and plain serializable types are copied structurally; other
+	 * graphs are copied by serialization.
+	 */
 	public static Object clone(Object o) {
 		try {
-			return new MarshalledObject<Object>(o).get();
-		} catch (IOException e) {
-			e.printStackTrace();
-		} catch (ClassNotFoundException e) {
-			e.printStackTrace();
+			return StructuralCopier.copy(o);
+		} catch (StructuralCopier.UnsupportedTypeException e) {
+			return cloneSerialized(o);
 		}
-		return null;
 	}
 
 	public static Object cloneWithNewIDs(Object o) {
-		Object obj = null;
+		return renewIDs(clone(o));
+	}
+
+	/**
+	 * Returns a deep copy of the object by serializing it into a
+	 * {@link MarshalledObject} and reading it back.
+	 */
+	public static Object cloneSerialized(Object o) {
 		try {
-			obj = new MarshalledObject<Object>(o).get();
+			return new MarshalledObject<Object>(o).get();
 		} catch (IOException e) {
 			e.printStackTrace();
 		} catch (ClassNotFoundException e) {
 			e.printStackTrace();
 		}
-		return renewIDs(obj);
+		return null;
 	}
 
 	public static Object cloneAnnotated(Object o) {
@@ -0,0 +1,295 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+
+/**
+ * The shared execution subsystem of dispatchers and providers. Work runs on
+ * named thread pools, bounded but for {@link #COLLECT}: the shared pools
+ * {@link #DISPATCH}, {@link #COLLECT}, {@link #RESULT}, {@link #MODEL},
+ * {@link #PROVISION} and {@link #EXERT} are created on first use, and
+ * components that need pools of their own create them with {@link #newPool}.
+ * All pools are registered by name, so their {@link Stats} can be read, and
+ * {@link #shutdown} stops them together.
+ * <p>
+ * The size of a shared pool is read from the system properties
+ * <code>sorcer.executor.&lt;name&gt;.threads</code> and
+ * <code>sorcer.executor.&lt;name&gt;.queue</code>. With
+ * <code>sorcer.executor.virtual=true</code> the shared pools run their tasks
+ * on virtual threads if the JVM supports them; the pools keep their bounds.
+ */
+public final class ServiceExecutors {
+    private static final Logger logger = LoggerFactory.getLogger(ServiceExecutors.class);
+
+    /**
+     * Runs the component exertions of catalog dispatchers. A saturated pool
+     * runs a task in the submitting thread, so dispatchers waiting for
+     * nested dispatches cannot deadlock on queued work.
+     */
+    public static final String DISPATCH = "dispatch";
+
+    /**
+     * Runs the result collectors of space dispatchers. A collector blocks
+     * until its exertions are done, so collectors are never queued and the
+     * pool starts a thread for each running space dispatch. Idle threads end
+     * after the keep-alive time.
+     */
+    public static final String COLLECT = "collect";
+
+    /**
+     * Handles the results taken by the collectors of space dispatchers. A
+     * collector handles a result itself when the pool is saturated.
+     */
+    public static final String RESULT = "result";
+
+    /**
+     * Evaluates the independent dependent paths of models with the parallel
+     * flow. The pool has no queue, when all its threads are busy the thread
+     * adding a path evaluates it right away. A model waiting for its
+     * dependent paths evaluates the paths no thread has started itself,
+     * e.g. after the pool was shut down.
+     */
+    public static final String MODEL = "model";
+
+    /**
+     * Runs the waits for provisioned services to be deployed.
+     */
+    public static final String PROVISION = "provision";
+
+    /**
+     * Runs the exertions of asynchronous client calls.
+     */
+    public static final String EXERT = "exert";
+
+    /**
+     * Delivers the events of the remote logger to its remote listeners.
+     */
+    public static final String LOG_DELIVERY = "log-delivery";
+
+    public static final String VIRTUAL_THREADS = "sorcer.executor.virtual";
+
+    private static final long KEEP_ALIVE = 60;
+
+    private static final ConcurrentMap<String, Pool> pools = new ConcurrentHashMap<String, Pool>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+            @Override
+            public void run() {
+                shutdown(1, TimeUnit.SECONDS);
+            }
+        }, "ServiceExecutors-shutdown"));
+    }
+
+    private ServiceExecutors() {
+    }
+
+    /**
+     * Returns the shared pool of the given name, creating it if it does not
+     * run yet.
+     */
+    public static ExecutorService get(String name) {
+        Pool pool = pools.get(name);
+        if (pool != null && !pool.isShutdown())
+            return pool;
+        synchronized (pools) {
+            pool = pools.get(name);
+            if (pool == null || pool.isShutdown()) {
+                pool = createShared(name);
+                pools.put(name, pool);
+            }
+            return pool;
+        }
+    }
+
+    /**
+     * Creates a pool owned by the caller and registers it under the given
+     * name, or the name with a numeric suffix if the name is taken. The pool
+     * is deregistered when it terminates.
+     *
+     * @param queueSize the capacity of the work queue, 0 for direct handoff
+     */
+    public static ThreadPoolExecutor newPool(String name, int threads, int maxThreads, int queueSize,
+                                             ThreadFactory factory, RejectedExecutionHandler handler) {
+        BlockingQueue<Runnable> queue = queueSize > 0
+                ? new LinkedBlockingQueue<Runnable>(queueSize)
+                : new SynchronousQueue<Runnable>();
+        synchronized (pools) {
+            String key = name;
+            for (int i = 2; pools.containsKey(key); i++)
+                key = name + "-" + i;
+            Pool pool = new Pool(key, threads, Math.max(threads, maxThreads), queue, factory, handler);
+            pools.put(key, pool);
+            return pool;
+        }
+    }
+
+    public static Stats getStats(String name) {
+        Pool pool = pools.get(name);
+        return pool == null ? null : pool.getStats();
+    }
+
+    /**
+     * Returns the statistics of all registered pools, sorted by name.
+     */
+    public static Map<String, Stats> getStats() {
+        Map<String, Stats> stats = new TreeMap<String, Stats>();
+        for (Pool pool : pools.values())
+            stats.put(pool.name, pool.getStats());
+        return stats;
+    }
+
+    /**
+     * Shuts down all registered pools, waiting at most the given time for
+     * running tasks before interrupting them. Shared pools are created
+     * again on their next use.
+     */
+    public static void shutdown(long timeout, TimeUnit unit) {
+        Pool[] running;
+        synchronized (pools) {
+            running = pools.values().toArray(new Pool[0]);
+        }
+        for (Pool pool : running)
+            pool.shutdown();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Pool pool : running) {
+            try {
+                if (!pool.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    logger.warn("Pool {} did not terminate, interrupting {} active tasks", pool.name, pool.getActiveCount());
+                    pool.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                pool.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static Pool createShared(String name) {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        int threads;
+        int queueSize;
+        RejectedExecutionHandler handler;
+        if (DISPATCH.equals(name) || MODEL.equals(name)) {
+            threads = Math.max(16, cpus * 8);
+            queueSize = 0;
+            handler = new ThreadPoolExecutor.CallerRunsPolicy();
+        } else if (COLLECT.equals(name)) {
+            threads = 0;
+            queueSize = 0;
+            handler = new ThreadPoolExecutor.AbortPolicy();
+        } else {
+            threads = Math.max(4, cpus);
+            queueSize = 1024;
+            handler = new ThreadPoolExecutor.AbortPolicy();
+        }
+        threads = Integer.getInteger("sorcer.executor." + name + ".threads", threads);
+        queueSize = Integer.getInteger("sorcer.executor." + name + ".queue", queueSize);
+        int maxThreads = COLLECT.equals(name) ? Integer.MAX_VALUE : threads;
+
+        ThreadFactory factory = null;
+        if (Boolean.getBoolean(VIRTUAL_THREADS))
+            factory = virtualThreadFactory(name);
+        if (factory == null) {
+            ConfigurableThreadFactory platformFactory = new ConfigurableThreadFactory();
+            platformFactory.setDaemon(true);
+            platformFactory.setNameFormat(name + "-%2$d");
+            factory = platformFactory;
+        }
+        BlockingQueue<Runnable> queue = queueSize > 0
+                ? new LinkedBlockingQueue<Runnable>(queueSize)
+                : new SynchronousQueue<Runnable>();
+        Pool pool = new Pool(name, threads, Math.max(threads, maxThreads), queue, factory, handler);
+        pool.allowCoreThreadTimeOut(true);
+        logger.info("Created {} pool, threads: {}, queue: {}", name,
+                maxThreads == Integer.MAX_VALUE ? "unbounded" : maxThreads, queueSize);
+        return pool;
+    }
+
+    /**
+     * Returns a factory of virtual threads or <code>null</code> if the JVM
+     * does not support them. Looked up reflectively to run on Java 8.
+     */
+    private static ThreadFactory virtualThreadFactory(String name) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, name + "-", 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (Exception e) {
+            logger.warn("Virtual threads are not supported, {} pool uses platform threads", name);
+            return null;
+        }
+    }
+
+    private static class Pool extends ThreadPoolExecutor {
+        final String name;
+
+        Pool(String name, int threads, int maxThreads, BlockingQueue<Runnable> queue,
+             ThreadFactory factory, RejectedExecutionHandler handler) {
+            super(threads, maxThreads, KEEP_ALIVE, TimeUnit.SECONDS, queue, factory, handler);
+            this.name = name;
+        }
+
+        Stats getStats() {
+            return new Stats(name, getPoolSize(), getActiveCount(), getMaximumPoolSize(),
+                    getQueue().size(), getCompletedTaskCount());
+        }
+
+        @Override
+        protected void terminated() {
+            pools.remove(name, this);
+        }
+    }
+
+    /**
+     * A snapshot of the load of a pool.
+     */
+    public static class Stats implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        public final String name;
+        public final int poolSize;
+        public final int activeCount;
+        public final int maximumPoolSize;
+        public final int queueSize;
+        public final long completedTaskCount;
+
+        public Stats(String name, int poolSize, int activeCount, int maximumPoolSize,
+                     int queueSize, long completedTaskCount) {
+            this.name = name;
+            this.poolSize = poolSize;
+            this.activeCount = activeCount;
+            this.maximumPoolSize = maximumPoolSize;
+            this.queueSize = queueSize;
+            this.completedTaskCount = completedTaskCount;
+        }
+
+        @Override
+        public String toString() {
+            return name + " [threads: " + poolSize + "/" + maximumPoolSize + ", active: " + activeCount
+                    + ", queued: " + queueSize + ", completed: " + completedTaskCount + "]";
+        }
+    }
+}
@@ -0,0 +1,414 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.util;
+
+import net.jini.id.Uuid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.security.auth.Subject;
+import java.io.*;
+import java.lang.reflect.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URL;
+import java.rmi.MarshalledObject;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deep copies object graphs field by field with the semantics of Java
+ * serialization, but without writing and reading a byte stream: shared
+ * references and cycles are preserved, transient fields are left at their
+ * defaults and constructors of serializable classes are not run. Immutable
+ * values such as strings, boxed numbers, enums and {@link Uuid}s are shared
+ * rather than copied. Instances are created as by serialization, reading a
+ * stream with no field values, so only the no-arg constructor of the first
+ * non-serializable superclass is run.
+ * <p>
+ * Common JDK collections are rebuilt element by element. Throwables and
+ * subjects are copied through serialization. Any other type that does not
+ * follow default serialization (custom <code>writeObject</code>,
+ * <code>readResolve</code>, {@link Externalizable}, non-serializable
+ * classes, subclasses of collections or inaccessible platform classes) makes
+ * {@link #copy(Object)} fail with {@link UnsupportedTypeException} so that
+ * the caller can fall back to serializing the whole graph.
+ */
+final class StructuralCopier {
+	private static final Logger logger = LoggerFactory.getLogger(StructuralCopier.class);
+
+	private enum Kind { IMMUTABLE, OBJECT, COLLECTION, MAP, TREE_SET, TREE_MAP, DATE,
+		ATOMIC_BOOLEAN, ATOMIC_INTEGER, ATOMIC_LONG, SERIALIZED, UNSUPPORTED }
+
+	private static final Set<Class<?>> immutables = new HashSet<Class<?>>(Arrays.<Class<?>>asList(
+		String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class,
+		Long.class, Float.class, Double.class, BigInteger.class, BigDecimal.class, Class.class,
+		URL.class, URI.class, File.class, UUID.class, Locale.class,
+		java.util.Collections.emptyList().getClass(), java.util.Collections.emptySet().getClass(),
+		java.util.Collections.emptyMap().getClass()));
+
+	// collection classes rebuilt with their public no-arg constructor,
+	// their subclasses are copied by serialization
+	private static final List<Class<?>> collections = Arrays.<Class<?>>asList(
+		ArrayList.class, LinkedList.class, Vector.class, CopyOnWriteArrayList.class,
+		LinkedHashSet.class, HashSet.class);
+
+	private static final List<Class<?>> maps = Arrays.<Class<?>>asList(
+		LinkedHashMap.class, HashMap.class, Hashtable.class, ConcurrentHashMap.class);
+
+	private static final ClassValue<Plan> plans = new ClassValue<Plan>() {
+		@Override
+		protected Plan computeValue(Class<?> type) {
+			Plan plan = Plan.create(type);
+			if (plan.kind == Kind.UNSUPPORTED)
+				logger.debug("No structural copy for {}: {}", type.getName(), plan.reason);
+			return plan;
+		}
+	};
+
+	// instances in the serial form of a class
+	private static final int INSTANCES = 256;
+
+	private final Map<Object, Object> copies = new IdentityHashMap<Object, Object>();
+
+	private final Map<Plan, Instantiation> instantiations = new IdentityHashMap<Plan, Instantiation>();
+
+	private StructuralCopier() {
+	}
+
+	/**
+	 * Returns a deep copy of the object graph.
+	 *
+	 * @throws UnsupportedTypeException
+	 *             if the graph contains an object that can be copied only by
+	 *             serialization
+	 */
+	static Object copy(Object object) throws UnsupportedTypeException {
+		return new StructuralCopier().copyObject(object);
+	}
+
+	private Object copyObject(Object object) throws UnsupportedTypeException {
+		if (object == null)
+			return null;
+		Object copy = copies.get(object);
+		if (copy != null)
+			return copy;
+		Class<?> type = object.getClass();
+		if (type.isArray())
+			return copyArray(object, type);
+
+		Plan plan = plans.get(type);
+		try {
+			switch (plan.kind) {
+				case IMMUTABLE:
+					return object;
+				case OBJECT:
+					copy = newInstance(plan);
+					copies.put(object, copy);
+					copyFields(plan, object, copy);
+					return copy;
+				case COLLECTION:
+					copy = plan.constructor.newInstance();
+					copies.put(object, copy);
+					for (Object element : (Collection<?>) object)
+						((Collection<Object>) copy).add(copyObject(element));
+					return copy;
+				case MAP:
+					copy = plan.constructor.newInstance();
+					copies.put(object, copy);
+					copyEntries((Map<?, ?>) object, (Map<Object, Object>) copy);
+					return copy;
+				case TREE_SET:
+					copy = new TreeSet<Object>((Comparator<Object>) copyObject(((TreeSet<?>) object).comparator()));
+					copies.put(object, copy);
+					for (Object element : (TreeSet<?>) object)
+						((TreeSet<Object>) copy).add(copyObject(element));
+					return copy;
+				case TREE_MAP:
+					copy = new TreeMap<Object, Object>((Comparator<Object>) copyObject(((TreeMap<?, ?>) object).comparator()));
+					copies.put(object, copy);
+					copyEntries((Map<?, ?>) object, (Map<Object, Object>) copy);
+					return copy;
+				case DATE:
+					copy = new Date(((Date) object).getTime());
+					break;
+				case ATOMIC_BOOLEAN:
+					copy = new AtomicBoolean(((AtomicBoolean) object).get());
+					break;
+				case ATOMIC_INTEGER:
+					copy = new AtomicInteger(((AtomicInteger) object).get());
+					break;
+				case ATOMIC_LONG:
+					copy = new AtomicLong(((AtomicLong) object).get());
+					break;
+				case SERIALIZED:
+					copy = new MarshalledObject<Object>(object).get();
+					break;
+				default:
+					throw new UnsupportedTypeException(type, plan.reason);
+			}
+		} catch (UnsupportedTypeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new UnsupportedTypeException(type, e.toString());
+		}
+		copies.put(object, copy);
+		return copy;
+	}
+
+	private Object newInstance(Plan plan) throws Exception {
+		Instantiation instantiation = instantiations.get(plan);
+		if (instantiation == null || instantiation.remaining == 0) {
+			instantiation = new Instantiation(plan.type, plan.stream);
+			instantiations.put(plan, instantiation);
+		}
+		instantiation.remaining--;
+		return instantiation.readObject();
+	}
+
+	private Object copyArray(Object array, Class<?> type) throws UnsupportedTypeException {
+		int length = Array.getLength(array);
+		Object copy = Array.newInstance(type.getComponentType(), length);
+		copies.put(array, copy);
+		if (type.getComponentType().isPrimitive()) {
+			System.arraycopy(array, 0, copy, 0, length);
+		} else {
+			Object[] source = (Object[]) array;
+			Object[] target = (Object[]) copy;
+			for (int i = 0; i < length; i++)
+				target[i] = copyObject(source[i]);
+		}
+		return copy;
+	}
+
+	private void copyEntries(Map<?, ?> source, Map<Object, Object> target) throws UnsupportedTypeException {
+		for (Map.Entry<?, ?> e : source.entrySet())
+			target.put(copyObject(e.getKey()), copyObject(e.getValue()));
+	}
+
+	private void copyFields(Plan plan, Object source, Object target)
+		throws IllegalAccessException, UnsupportedTypeException {
+		for (Field field : plan.fields) {
+			if (field.getType().isPrimitive())
+				field.set(target, field.get(source));
+			else
+				field.set(target, copyObject(field.get(source)));
+		}
+	}
+
+	/**
+	 * How instances of a class are copied.
+	 */
+	private static class Plan {
+		final Kind kind;
+		final Class<?> type;
+		final Constructor<?> constructor;
+		// serial form of instances with no field values
+		final byte[] stream;
+		final Field[] fields;
+		final String reason;
+
+		Plan(Kind kind, Class<?> type, Constructor<?> constructor, byte[] stream, Field[] fields, String reason) {
+			this.kind = kind;
+			this.type = type;
+			this.constructor = constructor;
+			this.stream = stream;
+			this.fields = fields;
+			this.reason = reason;
+		}
+
+		static Plan of(Kind kind) {
+			return new Plan(kind, null, null, null, null, null);
+		}
+
+		static Plan unsupported(String reason) {
+			return new Plan(Kind.UNSUPPORTED, null, null, null, null, reason);
+		}
+
+		private static Plan container(Kind kind, Class<?> type) {
+			try {
+				return new Plan(kind, type, type.getConstructor(), null, null, null);
+			} catch (NoSuchMethodException e) {
+				return unsupported("no no-arg constructor");
+			}
+		}
+
+		static Plan create(Class<?> type) {
+			if (immutables.contains(type) || Enum.class.isAssignableFrom(type)
+				|| Uuid.class.isAssignableFrom(type) || type.getName().startsWith("java.time."))
+				return of(Kind.IMMUTABLE);
+			if (type == TreeSet.class)
+				return of(Kind.TREE_SET);
+			if (type == TreeMap.class)
+				return of(Kind.TREE_MAP);
+			if (type == Date.class)
+				return of(Kind.DATE);
+			if (type == AtomicBoolean.class)
+				return of(Kind.ATOMIC_BOOLEAN);
+			if (type == AtomicInteger.class)
+				return of(Kind.ATOMIC_INTEGER);
+			if (type == AtomicLong.class)
+				return of(Kind.ATOMIC_LONG);
+			if (!Serializable.class.isAssignableFrom(type))
+				return unsupported("not serializable");
+			if (Throwable.class.isAssignableFrom(type) || type == Subject.class)
+				return of(Kind.SERIALIZED);
+			if (Externalizable.class.isAssignableFrom(type))
+				return unsupported("externalizable");
+			if (Proxy.isProxyClass(type) || type.isSynthetic())
+				return unsupported("generated class");
+
+			if (collections.contains(type))
+				return container(Kind.COLLECTION, type);
+			if (maps.contains(type))
+				return container(Kind.MAP, type);
+			if (Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type))
+				// the elements may depend on state restored by custom
+				// serialization of the subclass
+				return unsupported("unlisted collection class");
+
+			List<Field> fields = new ArrayList<Field>();
+			Class<?> c = type;
+			for (; c != null && Serializable.class.isAssignableFrom(c); c = c.getSuperclass()) {
+				if (isPlatformClass(c))
+					return unsupported("platform class " + c.getName());
+				String reason = customSerialization(c);
+				if (reason != null)
+					return unsupported(reason + " in " + c.getName());
+				for (Field field : c.getDeclaredFields()) {
+					int modifiers = field.getModifiers();
+					if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers))
+						continue;
+					try {
+						field.setAccessible(true);
+					} catch (RuntimeException e) {
+						return unsupported("inaccessible field " + field);
+					}
+					fields.add(field);
+				}
+			}
+
+			Field[] copied = fields.toArray(new Field[fields.size()]);
+			try {
+				// as serialization, run the no-arg constructor of the
+				// first non-serializable class
+				if (!isSerializationAccessible(c.getDeclaredConstructor(), type))
+					return unsupported("no accessible no-arg constructor in " + c.getName());
+				return new Plan(Kind.OBJECT, type, null, serialForm(type), copied, null);
+			} catch (NoSuchMethodException e) {
+				return unsupported("no no-arg constructor");
+			} catch (Exception e) {
+				return unsupported(e.toString());
+			}
+		}
+
+		private static byte[] serialForm(Class<?> type) throws IOException {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeShort(ObjectStreamConstants.STREAM_MAGIC);
+			out.writeShort(ObjectStreamConstants.STREAM_VERSION);
+			out.writeByte(ObjectStreamConstants.TC_OBJECT);
+			out.writeByte(ObjectStreamConstants.TC_CLASSDESC);
+			out.writeUTF(type.getName());
+			out.writeLong(ObjectStreamClass.lookup(type).getSerialVersionUID());
+			out.writeByte(ObjectStreamConstants.SC_SERIALIZABLE);
+			// no fields and no superclass data, all are left at their defaults
+			out.writeShort(0);
+			out.writeByte(ObjectStreamConstants.TC_ENDBLOCKDATA);
+			out.writeByte(ObjectStreamConstants.TC_NULL);
+			for (int i = 1; i < INSTANCES; i++) {
+				out.writeByte(ObjectStreamConstants.TC_OBJECT);
+				out.writeByte(ObjectStreamConstants.TC_REFERENCE);
+				// the class descriptor is the first handle of the stream
+				out.writeInt(ObjectStreamConstants.baseWireHandle);
+			}
+			out.flush();
+			return bytes.toByteArray();
+		}
+
+		private static boolean isPlatformClass(Class<?> c) {
+			String name = c.getName();
+			return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("sun.")
+				|| name.startsWith("com.sun.") || name.startsWith("jdk.");
+		}
+
+		private static boolean isSerializationAccessible(Constructor<?> constructor, Class<?> type) {
+			int modifiers = constructor.getModifiers();
+			if (Modifier.isPublic(modifiers) || Modifier.isProtected(modifiers))
+				return true;
+			if (Modifier.isPrivate(modifiers))
+				return false;
+			Package p1 = constructor.getDeclaringClass().getPackage();
+			Package p2 = type.getPackage();
+			return constructor.getDeclaringClass().getClassLoader() == type.getClassLoader()
+				&& (p1 == null ? p2 == null : p1.equals(p2));
+		}
+
+		private static String customSerialization(Class<?> c) {
+			for (Method m : c.getDeclaredMethods()) {
+				String name = m.getName();
+				if (name.equals("writeObject") || name.equals("readObject") || name.equals("readObjectNoData")
+					|| name.equals("writeReplace") || name.equals("readResolve"))
+					return name;
+			}
+			try {
+				c.getDeclaredField("serialPersistentFields");
+				return "serialPersistentFields";
+			} catch (NoSuchFieldException e) {
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Reads new instances of a class from its serial form.
+	 */
+	private static class Instantiation extends ObjectInputStream {
+		private final Class<?> type;
+
+		private int remaining = INSTANCES;
+
+		Instantiation(Class<?> type, byte[] stream) throws IOException {
+			super(new ByteArrayInputStream(stream));
+			this.type = type;
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			if (desc.getName().equals(type.getName()))
+				return type;
+			return super.resolveClass(desc);
+		}
+	}
+
+	/**
+	 * Thrown when an object graph can be copied only by serialization.
+	 */
+	static class UnsupportedTypeException extends Exception {
+		private static final long serialVersionUID = 1L;
+
+		UnsupportedTypeException(Class<?> type, String reason) {
+			super(type.getName() + ": " + reason, null, false, false);
+		}
+	}
+}
@@ -0,0 +1,820 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.util;
+
+import net.jini.id.Uuid;
+import net.jini.id.UuidFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The storage of a log-structured {@link FileTable}. Values are appended to
+ * data segments and the positions of their keys to an index log, so a put
+ * costs the size of its value rather than the size of the table. Writes are
+ * buffered and synced to disk in batches. The index is recovered from the
+ * last checkpoint and the index log written since, and a checkpoint is
+ * taken once the index log outgrows the index.
+ * <p>
+ * Records are read through memory-mapped regions of the segments. A full
+ * segment is sealed, and sealed segments whose records are mostly
+ * overwritten or removed are compacted in the background: their live
+ * records are appended again one at a time, so writers are not blocked,
+ * and the segment is deleted.
+ */
+final class TableLog<K> {
+    private static final Logger logger = LoggerFactory.getLogger(TableLog.class);
+
+    public static final String SEGMENT_SIZE = "sorcer.table.segment.size";
+
+    // the milliseconds between syncs of batched writes, 0 to sync every write
+    public static final String SYNC_INTERVAL = "sorcer.table.sync.interval";
+
+    private static final int CHECKPOINT_MAGIC = 0x534f5443;
+
+    private static final int REGION_SIZE = 8 * 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // the index records logged before a checkpoint is taken, at least
+    private static final int CHECKPOINT_RECORDS = 64 * 1024;
+
+    // the share of live bytes below which a sealed segment is compacted
+    private static final double COMPACTION_RATIO = 0.5;
+
+    private static final byte PUT = 1;
+
+    private static final byte REMOVE = 2;
+
+    private static final Pattern SEGMENT_FILE = Pattern.compile("-(\\d+)\\.dat");
+
+    private static final Pattern INDEX_FILE = Pattern.compile("-index-(\\d+)\\.log");
+
+    private final String fileName;
+
+    private final long segmentSize;
+
+    private final long syncInterval;
+
+    private final ConcurrentHashMap<K, Long> index = new ConcurrentHashMap<K, Long>();
+
+    private final ConcurrentSkipListMap<Integer, Segment> segments = new ConcurrentSkipListMap<Integer, Segment>();
+
+    // the segment appended to, guarded by this
+    private Segment active;
+
+    private final Buffer dataBuffer = new Buffer();
+
+    private final Buffer indexBuffer = new Buffer();
+
+    private final DataOutputStream dataOut = new DataOutputStream(dataBuffer);
+
+    private final DataOutputStream indexOut = new DataOutputStream(indexBuffer);
+
+    private FileChannel indexLog;
+
+    private int indexGeneration;
+
+    private long indexRecords;
+
+    private boolean dirty;
+
+    private long lastSync = System.currentTimeMillis();
+
+    private volatile boolean closed;
+
+    // serializes checkpoints and compactions
+    private final Object maintenance = new Object();
+
+    TableLog(String fileName) throws IOException {
+        this(fileName, Long.getLong(SEGMENT_SIZE, 64L * 1024 * 1024), Long.getLong(SYNC_INTERVAL, 1000L));
+    }
+
+    TableLog(String fileName, long segmentSize, long syncInterval) throws IOException {
+        this.fileName = fileName;
+        this.segmentSize = Math.max(BUFFER_SIZE, segmentSize);
+        this.syncInterval = Math.max(0, syncInterval);
+        open();
+    }
+
+    ConcurrentHashMap<K, Long> getIndex() {
+        return index;
+    }
+
+    long getSyncInterval() {
+        return syncInterval;
+    }
+
+    String[] getFileNames() {
+        List<String> names = new ArrayList<String>();
+        for (Segment segment : segments.values())
+            names.add(segment.file.getPath());
+        names.add(indexFile(indexGeneration).getPath());
+        names.add(checkpointFile().getPath());
+        return names.toArray(new String[names.size()]);
+    }
+
+    /**
+     * Appends the value of a key and returns its position.
+     */
+    synchronized long put(K key, byte[] value) throws IOException {
+        ensureOpen();
+        long position = append(key, value);
+        afterWrite();
+        return position;
+    }
+
+    synchronized void remove(K key) throws IOException {
+        ensureOpen();
+        Long old = index.remove(key);
+        if (old == null)
+            return;
+        logIndex(REMOVE, key, -1);
+        release(old);
+        afterWrite();
+    }
+
+    /**
+     * Returns the value of a key, or <code>null</code> if the key is not
+     * in the table.
+     */
+    byte[] get(K key) throws IOException {
+        while (true) {
+            Long position = index.get(key);
+            if (position == null)
+                return null;
+            try {
+                return read(position);
+            } catch (IOException e) {
+                // the record was moved by a compaction
+                if (position.equals(index.get(key)))
+                    throw e;
+            }
+        }
+    }
+
+    byte[] read(long position) throws IOException {
+        Segment segment = segments.get(segmentOf(position));
+        if (segment == null)
+            throw new IOException("No segment for position: " + position);
+        long offset = offsetOf(position);
+        if (offset + 4 > segment.flushed) {
+            synchronized (this) {
+                flush();
+            }
+        }
+        return segment.read(offset);
+    }
+
+    /**
+     * Writes the buffered records and forces them to disk.
+     */
+    synchronized void sync() throws IOException {
+        if (closed)
+            return;
+        flush();
+        if (dirty) {
+            active.channel.force(false);
+            indexLog.force(false);
+            dirty = false;
+        }
+        lastSync = System.currentTimeMillis();
+    }
+
+    /**
+     * Syncs the batched writes, takes a checkpoint of the index if the
+     * index log outgrew it, and compacts sealed segments.
+     */
+    void maintain() throws IOException {
+        if (closed)
+            return;
+        boolean checkpoint;
+        synchronized (this) {
+            if (System.currentTimeMillis() - lastSync >= syncInterval)
+                sync();
+            checkpoint = indexRecords > Math.max(CHECKPOINT_RECORDS, index.size());
+        }
+        if (checkpoint)
+            checkpoint();
+        compact(COMPACTION_RATIO);
+    }
+
+    /**
+     * Writes the index to a checkpoint and deletes the index log it
+     * covers. Writers append to a new index log meanwhile, which is
+     * replayed over the checkpoint on recovery.
+     */
+    void checkpoint() throws IOException {
+        synchronized (maintenance) {
+            writeCheckpoint();
+        }
+    }
+
+    private void writeCheckpoint() throws IOException {
+        int generation;
+        synchronized (this) {
+            if (closed)
+                return;
+            sync();
+            indexLog.close();
+            indexGeneration++;
+            indexLog = openIndexLog(indexGeneration);
+            indexRecords = 0;
+            generation = indexGeneration;
+        }
+        File tmp = new File(fileName + "-index.ckp.tmp");
+        FileOutputStream fos = new FileOutputStream(tmp);
+        try {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos, BUFFER_SIZE));
+            out.writeInt(CHECKPOINT_MAGIC);
+            out.writeInt(generation);
+            for (Map.Entry<K, Long> entry : index.entrySet()) {
+                out.writeBoolean(true);
+                writeKey(out, entry.getKey());
+                out.writeLong(entry.getValue());
+            }
+            out.writeBoolean(false);
+            out.flush();
+            fos.getFD().sync();
+        } finally {
+            fos.close();
+        }
+        try {
+            Files.move(tmp.toPath(), checkpointFile().toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp.toPath(), checkpointFile().toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        for (Map.Entry<Integer, File> old : listFiles(INDEX_FILE).entrySet()) {
+            if (old.getKey() < generation && !old.getValue().delete())
+                logger.warn("Unable to delete index log: {}", old.getValue());
+        }
+        logger.debug("Checkpoint of {} taken with {} keys", fileName, index.size());
+    }
+
+    /**
+     * Appends the live records of the sealed segments with a share of live
+     * bytes below the ratio again and deletes the segments.
+     */
+    void compact(double ratio) throws IOException {
+        synchronized (maintenance) {
+            compactSegments(ratio);
+        }
+    }
+
+    private void compactSegments(double ratio) throws IOException {
+        for (Segment segment : segments.values()) {
+            if (closed)
+                return;
+            if (!segment.sealed || segment.live.get() > segment.length * ratio)
+                continue;
+            int moved = 0;
+            for (Map.Entry<K, Long> entry : index.entrySet()) {
+                long position = entry.getValue();
+                if (segmentOf(position) != segment.id)
+                    continue;
+                byte[] value = segment.read(offsetOf(position));
+                synchronized (this) {
+                    if (closed)
+                        return;
+                    Long current = index.get(entry.getKey());
+                    if (current != null && current == position) {
+                        append(entry.getKey(), value);
+                        afterWrite();
+                        moved++;
+                    }
+                }
+            }
+            // the moves are on disk before the segment is gone
+            sync();
+            segments.remove(segment.id);
+            segment.close();
+            if (!segment.file.delete())
+                logger.warn("Unable to delete compacted segment: {}", segment.file);
+            logger.debug("Compacted segment {} of {}, moved {} records", segment.id, fileName, moved);
+        }
+    }
+
+    void close() throws IOException {
+        synchronized (maintenance) {
+            boolean checkpoint;
+            synchronized (this) {
+                if (closed)
+                    return;
+                sync();
+                checkpoint = indexRecords > 0;
+            }
+            // a checkpoint makes the next open read one file
+            if (checkpoint)
+                writeCheckpoint();
+            synchronized (this) {
+                closed = true;
+                indexLog.close();
+                for (Segment segment : segments.values())
+                    segment.close();
+            }
+        }
+    }
+
+    void delete() throws IOException {
+        close();
+        for (Segment segment : segments.values())
+            segment.file.delete();
+        for (File file : listFiles(INDEX_FILE).values())
+            file.delete();
+        checkpointFile().delete();
+    }
+
+    private long append(K key, byte[] value) throws IOException {
+        int size = 4 + value.length;
+        if (active.length > 0 && active.length + size > segmentSize)
+            roll();
+        long position = positionOf(active.id, active.length);
+        dataOut.writeInt(value.length);
+        dataOut.write(value);
+        active.length += size;
+        active.live.addAndGet(size);
+        logIndex(PUT, key, position);
+        Long old = index.put(key, position);
+        if (old != null)
+            release(old);
+        return position;
+    }
+
+    // the record at the position is no longer live
+    private void release(long position) throws IOException {
+        Segment segment = segments.get(segmentOf(position));
+        if (segment == null)
+            return;
+        long offset = offsetOf(position);
+        if (offset + 4 > segment.flushed)
+            flush();
+        segment.live.addAndGet(-(4 + segment.readInt(offset)));
+    }
+
+    private void logIndex(byte op, K key, long position) throws IOException {
+        indexOut.writeByte(op);
+        writeKey(indexOut, key);
+        indexOut.writeLong(position);
+        indexRecords++;
+    }
+
+    private void afterWrite() throws IOException {
+        dirty = true;
+        if (dataBuffer.size() >= BUFFER_SIZE || indexBuffer.size() >= BUFFER_SIZE)
+            flush();
+        if (syncInterval == 0)
+            sync();
+    }
+
+    // writes the buffered records, the data before the index
+    private void flush() throws IOException {
+        if (dataBuffer.size() > 0) {
+            active.write(dataBuffer.buffer());
+            dataBuffer.reset();
+        }
+        if (indexBuffer.size() > 0) {
+            ByteBuffer buffer = indexBuffer.buffer();
+            while (buffer.hasRemaining())
+                indexLog.write(buffer);
+            indexBuffer.reset();
+        }
+    }
+
+    private void roll() throws IOException {
+        flush();
+        active.channel.force(false);
+        active.seal();
+        active = new Segment(active.id + 1, true);
+        segments.put(active.id, active);
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed)
+            throw new IOException("Table closed: " + fileName);
+    }
+
+    private void open() throws IOException {
+        File dir = new File(fileName).getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.exists())
+            dir.mkdirs();
+        for (Map.Entry<Integer, File> file : listFiles(SEGMENT_FILE).entrySet())
+            segments.put(file.getKey(), new Segment(file.getKey(), false));
+        if (segments.isEmpty())
+            segments.put(0, new Segment(0, true));
+        active = segments.lastEntry().getValue();
+        for (Segment segment : segments.values()) {
+            if (segment != active)
+                segment.seal();
+        }
+
+        int generation = readCheckpoint();
+        indexGeneration = generation;
+        for (Map.Entry<Integer, File> file : listFiles(INDEX_FILE).entrySet()) {
+            if (file.getKey() >= generation) {
+                replay(file.getValue());
+                indexGeneration = file.getKey();
+            }
+        }
+        indexLog = openIndexLog(indexGeneration);
+
+        // drop the keys of records lost in a crash and count the live bytes
+        for (Map.Entry<K, Long> entry : index.entrySet()) {
+            long position = entry.getValue();
+            Segment segment = segments.get(segmentOf(position));
+            long offset = offsetOf(position);
+            int size = -1;
+            if (segment != null && offset + 4 <= segment.length) {
+                size = 4 + segment.readInt(offset);
+                if (size < 4 || offset + size > segment.length)
+                    size = -1;
+            }
+            if (size < 0) {
+                logger.warn("Dropping key {} of {} with a lost record", entry.getKey(), fileName);
+                index.remove(entry.getKey());
+            } else {
+                segment.live.addAndGet(size);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private int readCheckpoint() throws IOException {
+        File file = checkpointFile();
+        if (!file.exists())
+            return 0;
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE));
+        try {
+            if (in.readInt() != CHECKPOINT_MAGIC)
+                throw new IOException("Not a table checkpoint: " + file);
+            int generation = in.readInt();
+            while (in.readBoolean()) {
+                K key = (K) readKey(in, file.length());
+                index.put(key, in.readLong());
+            }
+            return generation;
+        } finally {
+            in.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void replay(File file) throws IOException {
+        Counter counter = new Counter(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE));
+        DataInputStream in = new DataInputStream(counter);
+        long valid = 0;
+        try {
+            while (true) {
+                int op = in.read();
+                if (op < 0)
+                    break;
+                if (op != PUT && op != REMOVE)
+                    throw new StreamCorruptedException("Unknown index operation: " + op);
+                K key = (K) readKey(in, file.length());
+                long position = in.readLong();
+                if (op == PUT)
+                    index.put(key, position);
+                else
+                    index.remove(key);
+                valid = counter.count;
+                indexRecords++;
+            }
+        } catch (EOFException | StreamCorruptedException e) {
+            // a record cut short or left garbled, e.g. zero-filled, by a crash
+            logger.warn("Truncating the torn tail of index log: {} at {}: {}", file, valid, e.toString());
+        } finally {
+            in.close();
+        }
+        if (valid < file.length()) {
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            try {
+                raf.setLength(valid);
+            } finally {
+                raf.close();
+            }
+        }
+    }
+
+    private FileChannel openIndexLog(int generation) throws IOException {
+        FileChannel channel = FileChannel.open(indexFile(generation).toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return channel;
+    }
+
+    private File indexFile(int generation) {
+        return new File(fileName + "-index-" + generation + ".log");
+    }
+
+    private File checkpointFile() {
+        return new File(fileName + "-index.ckp");
+    }
+
+    // the files of this table matching the pattern by their numbers
+    private Map<Integer, File> listFiles(Pattern pattern) {
+        File base = new File(fileName).getAbsoluteFile();
+        Map<Integer, File> files = new TreeMap<Integer, File>();
+        File[] all = base.getParentFile().listFiles();
+        if (all == null)
+            return files;
+        String prefix = base.getName();
+        for (File file : all) {
+            String name = file.getName();
+            if (!name.startsWith(prefix))
+                continue;
+            Matcher matcher = pattern.matcher(name.substring(prefix.length()));
+            if (matcher.matches())
+                files.put(Integer.valueOf(matcher.group(1)), file);
+        }
+        return files;
+    }
+
+    private static long positionOf(int segment, long offset) {
+        return ((long) segment << 40) | offset;
+    }
+
+    private static int segmentOf(long position) {
+        return (int) (position >>> 40);
+    }
+
+    private static long offsetOf(long position) {
+        return position & ((1L << 40) - 1);
+    }
+
+    static byte[] serialize(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(value);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    static Object deserialize(byte[] bytes) throws IOException {
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes)) {
+            @Override
+            protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+                ClassLoader loader = Thread.currentThread().getContextClassLoader();
+                if (loader != null) {
+                    try {
+                        return Class.forName(desc.getName(), false, loader);
+                    } catch (ClassNotFoundException e) {
+                        // resolved below
+                    }
+                }
+                return super.resolveClass(desc);
+            }
+        };
+        try {
+            return in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Class Not found:" + e.getMessage(), e);
+        } finally {
+            in.close();
+        }
+    }
+
+    private static void writeKey(DataOutputStream out, Object key) throws IOException {
+        if (key instanceof Integer) {
+            out.writeByte(1);
+            out.writeInt((Integer) key);
+        } else if (key instanceof Long) {
+            out.writeByte(2);
+            out.writeLong((Long) key);
+        } else if (key instanceof String) {
+            byte[] bytes = ((String) key).getBytes(StandardCharsets.UTF_8);
+            out.writeByte(3);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else if (key instanceof Uuid) {
+            out.writeByte(4);
+            out.writeLong(((Uuid) key).getMostSignificantBits());
+            out.writeLong(((Uuid) key).getLeastSignificantBits());
+        } else {
+            byte[] bytes = serialize(key);
+            out.writeByte(0);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Reads a key written by {@link #writeKey}.
+     *
+     * @param limit the length of the file read, bounds the key length
+     * @throws StreamCorruptedException if the bytes are not a key
+     */
+    private static Object readKey(DataInputStream in, long limit) throws IOException {
+        int type = in.readByte();
+        switch (type) {
+            case 1:
+                return in.readInt();
+            case 2:
+                return in.readLong();
+            case 3: {
+                byte[] bytes = new byte[readLength(in, limit)];
+                in.readFully(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+            case 4:
+                return UuidFactory.create(in.readLong(), in.readLong());
+            case 0: {
+                byte[] bytes = new byte[readLength(in, limit)];
+                in.readFully(bytes);
+                return deserialize(bytes);
+            }
+            default:
+                throw new StreamCorruptedException("Unknown key type: " + type);
+        }
+    }
+
+    private static int readLength(DataInputStream in, long limit) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > limit)
+            throw new StreamCorruptedException("Invalid key length: " + length);
+        return length;
+    }
+
+    /**
+     * A data file of the table. Its records are a length followed by the
+     * serialized value.
+     */
+    private final class Segment {
+        final int id;
+        final File file;
+        final FileChannel channel;
+        // the bytes written to the file
+        volatile long flushed;
+        // the bytes written and buffered, guarded by TableLog.this
+        long length;
+        final AtomicLong live = new AtomicLong();
+        volatile boolean sealed;
+        private volatile MappedByteBuffer[] regions = new MappedByteBuffer[0];
+
+        Segment(int id, boolean create) throws IOException {
+            this.id = id;
+            file = new File(fileName + "-" + id + ".dat");
+            channel = create
+                    ? FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                            StandardOpenOption.WRITE)
+                    : FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            flushed = channel.size();
+            length = flushed;
+            map();
+        }
+
+        void write(ByteBuffer buffer) throws IOException {
+            long position = flushed;
+            while (buffer.hasRemaining())
+                position += channel.write(buffer, position);
+            flushed = position;
+            map();
+        }
+
+        void seal() throws IOException {
+            sealed = true;
+            map();
+        }
+
+        // maps the regions of the segment that are complete
+        private void map() throws IOException {
+            long size = sealed ? flushed : flushed - flushed % REGION_SIZE;
+            int count = (int) ((size + REGION_SIZE - 1) / REGION_SIZE);
+            MappedByteBuffer[] current = regions;
+            if (count <= current.length && (count == 0 || current[count - 1].capacity() == regionSize(count - 1, size)))
+                return;
+            MappedByteBuffer[] mapped = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long regionSize = regionSize(i, size);
+                if (i < current.length && current[i].capacity() == regionSize)
+                    mapped[i] = current[i];
+                else
+                    mapped[i] = channel.map(FileChannel.MapMode.READ_ONLY, (long) i * REGION_SIZE, regionSize);
+            }
+            regions = mapped;
+        }
+
+        private long regionSize(int region, long size) {
+            return Math.min(REGION_SIZE, size - (long) region * REGION_SIZE);
+        }
+
+        int readInt(long offset) throws IOException {
+            ByteBuffer region = region(offset, 4);
+            if (region != null)
+                return region.getInt();
+            ByteBuffer buffer = ByteBuffer.allocate(4);
+            readFully(buffer, offset);
+            return buffer.getInt(0);
+        }
+
+        byte[] read(long offset) throws IOException {
+            int size = readInt(offset);
+            if (size < 0 || offset + 4 + size > flushed)
+                throw new IOException("Corrupted record of " + file + " at: " + offset);
+            byte[] bytes = new byte[size];
+            ByteBuffer region = region(offset + 4, size);
+            if (region != null)
+                region.get(bytes);
+            else
+                readFully(ByteBuffer.wrap(bytes), offset + 4);
+            return bytes;
+        }
+
+        // a view of a mapped region positioned at the offset, or null if the bytes are not mapped in one region
+        private ByteBuffer region(long offset, int size) {
+            MappedByteBuffer[] current = regions;
+            int i = (int) (offset / REGION_SIZE);
+            if (i >= current.length)
+                return null;
+            int start = (int) (offset - (long) i * REGION_SIZE);
+            if (start + size > current[i].capacity())
+                return null;
+            ByteBuffer view = current[i].duplicate();
+            view.position(start);
+            return view;
+        }
+
+        private void readFully(ByteBuffer buffer, long offset) throws IOException {
+            while (buffer.hasRemaining()) {
+                int n = channel.read(buffer, offset + buffer.position());
+                if (n < 0)
+                    throw new EOFException("Unexpected end of " + file);
+            }
+        }
+
+        void close() throws IOException {
+            regions = new MappedByteBuffer[0];
+            channel.close();
+        }
+    }
+
+    /**
+     * The buffer of records not written yet.
+     */
+    private static final class Buffer extends ByteArrayOutputStream {
+        Buffer() {
+            super(BUFFER_SIZE);
+        }
+
+        ByteBuffer buffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+
+    /**
+     * Counts the bytes read, to find the end of the last complete record.
+     */
+    private static final class Counter extends FilterInputStream {
+        long count;
+
+        Counter(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0)
+                count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0)
+                count += n;
+            return n;
+        }
+    }
+}
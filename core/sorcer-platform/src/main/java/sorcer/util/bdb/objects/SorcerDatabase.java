@@ -20,6 +20,7 @@ package sorcer.util.bdb.objects;
 import java.io.File;
 import java.util.concurrent.TimeUnit;
 
+import sorcer.core.provider.DatabaseStorer.Store;
 import sorcer.core.provider.ProviderRuntime;
 import sorcer.service.Subroutine;
 
@@ -197,6 +198,29 @@ public class SorcerDatabase {
     public final Database getUuidObjectDatabase() {
         return uuidObjectDb;
     }
+
+    /**
+     * Return the storage container of the given store type, or
+     * <code>null</code> if the type has no container of its own.
+     */
+    public final Database getDatabase(Store storeType) {
+        switch (storeType) {
+            case context:
+                return contextDb;
+            case exertion:
+                return exertionDb;
+            case table:
+                return tableDb;
+            case var:
+                return varDb;
+            case varmodel:
+                return varModelDb;
+            case object:
+                return uuidObjectDb;
+            default:
+                return null;
+        }
+    }
     
     /**
      * Return the shipment-by-part index.
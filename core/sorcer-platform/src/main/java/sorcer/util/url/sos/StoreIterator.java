@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.util.url.sos;
+
+import sorcer.core.provider.DatabaseStorer;
+import sorcer.core.provider.DatabaseStorer.Store;
+import sorcer.core.provider.StorePage;
+
+import java.io.UncheckedIOException;
+import java.rmi.RemoteException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over the records of a {@link DatabaseStorer} store, fetching one
+ * page at a time, so a client holds a single page of a large store. A
+ * failed remote call is thrown as an {@link UncheckedIOException}.
+ */
+public class StoreIterator implements Iterator<String> {
+
+	public static final int DEFAULT_PAGE_SIZE = 100;
+
+	private final DatabaseStorer storer;
+
+	private final Store storeType;
+
+	private final int pageSize;
+
+	private final boolean describe;
+
+	private Iterator<String> page = Collections.<String>emptyList().iterator();
+
+	private String resumeToken;
+
+	private boolean last;
+
+	/**
+	 * @param describe if the records are the descriptions of the stored
+	 *                 objects instead of their Uuids
+	 */
+	public StoreIterator(DatabaseStorer storer, Store storeType, int pageSize, boolean describe) {
+		this.storer = storer;
+		this.storeType = storeType;
+		this.pageSize = Math.max(1, pageSize);
+		this.describe = describe;
+	}
+
+	public StoreIterator(DatabaseStorer storer, Store storeType) {
+		this(storer, storeType, DEFAULT_PAGE_SIZE, false);
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (!page.hasNext() && !last) {
+			try {
+				StorePage next = storer.list(storeType, resumeToken, pageSize, describe);
+				page = next.getRecords().iterator();
+				resumeToken = next.getResumeToken();
+				last = !next.hasMore();
+			} catch (RemoteException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return page.hasNext();
+	}
+
+	@Override
+	public String next() {
+		if (!hasNext())
+			throw new NoSuchElementException();
+		return page.next();
+	}
+
+	/**
+	 * Returns the token resuming the iteration after the current page, or
+	 * <code>null</code> at the last page.
+	 */
+	public String getResumeToken() {
+		return resumeToken;
+	}
+}
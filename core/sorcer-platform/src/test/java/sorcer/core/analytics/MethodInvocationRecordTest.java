@@ -0,0 +1,65 @@
+package sorcer.core.analytics;
+
+import org.junit.Test;
+import sorcer.core.monitoring.Monitor;
+
+import static org.junit.Assert.*;
+
+public class MethodInvocationRecordTest {
+
+    @Test
+    public void testHistogramBuckets() {
+        for (long v : new long[] { 0, 1, 15, 16, 17, 100, 1000, 123456789L, Long.MAX_VALUE }) {
+            int index = LatencyHistogram.index(v);
+            assertTrue(index < LatencyHistogram.BUCKETS);
+            assertTrue(LatencyHistogram.upperBound(index) >= v);
+            if (v < Long.MAX_VALUE / 2)
+                assertTrue(LatencyHistogram.upperBound(index) <= v + v / 8);
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++)
+            histogram.record(i * 1000L);
+        assertEquals(1000000L, histogram.getMax());
+        long p50 = histogram.getPercentile(0.5);
+        long p99 = histogram.getPercentile(0.99);
+        assertTrue(p50 >= 500000L && p50 <= 500000L * 9 / 8);
+        assertTrue(p99 >= 990000L && p99 <= 1000000L);
+    }
+
+    @Test
+    public void testRecord() {
+        MethodInvocationRecord record = new MethodInvocationRecord("foo");
+        int first = record.inprocess();
+        int second = record.inprocess();
+        assertEquals(2, record.getNumActiveOperations());
+        assertEquals(Monitor.Status.ACTIVE, record.publish());
+        assertNull(record.publish());
+
+        record.complete(first);
+        record.failed(second);
+        assertEquals(Monitor.Status.FAILED, record.publish());
+        MethodAnalytics analytics = record.create(null, "localhost");
+        assertEquals(0, analytics.getNumActiveOperations());
+        assertEquals(1, analytics.getCompleted());
+        assertEquals(1, analytics.getFailed());
+        assertEquals(2, analytics.getTotalOperationCalls());
+        assertEquals("", analytics.getActiveOperations());
+        assertTrue(analytics.getMaxExecTime() >= analytics.getMedianExecTime());
+    }
+
+    @Test
+    public void testInFlightOverflow() {
+        InFlightTracker tracker = new InFlightTracker();
+        int[] tokens = new int[InFlightTracker.SLOTS + 10];
+        for (int i = 0; i < tokens.length; i++)
+            tokens[i] = tracker.start();
+        for (int token : tokens)
+            assertTrue(tracker.stop(token) != InFlightTracker.NOT_FOUND);
+        assertEquals(InFlightTracker.NOT_FOUND, tracker.stop(tokens[0]));
+        assertEquals("", tracker.getActive());
+    }
+}
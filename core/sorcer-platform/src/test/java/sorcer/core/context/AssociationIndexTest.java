@@ -0,0 +1,96 @@
+package sorcer.core.context;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class AssociationIndexTest {
+
+    private Map<String, LinkedHashMap<String, String>> metacontext() {
+        Map<String, LinkedHashMap<String, String>> metacontext = new HashMap<String, LinkedHashMap<String, String>>();
+        LinkedHashMap<String, String> dnt = new LinkedHashMap<String, String>();
+        dnt.put("a/x", "in");
+        dnt.put("a/y", "out");
+        dnt.put("a/z", "in");
+        metacontext.put("dnt", dnt);
+        return metacontext;
+    }
+
+    @Test
+    public void testLookup() {
+        AssociationIndex index = new AssociationIndex();
+        Map<String, LinkedHashMap<String, String>> metacontext = metacontext();
+        assertEquals(Arrays.asList("a/x", "a/z"), index.paths(metacontext, "dnt", "in"));
+        assertEquals(Arrays.asList("a/y"), index.paths(metacontext, "dnt", "out"));
+        assertTrue(index.paths(metacontext, "dnt", "inout").isEmpty());
+        assertTrue(index.paths(metacontext, "tag", "in").isEmpty());
+    }
+
+    @Test
+    public void testIncrementalUpdates() {
+        AssociationIndex index = new AssociationIndex();
+        Map<String, LinkedHashMap<String, String>> metacontext = metacontext();
+        index.paths(metacontext, "dnt", "in");
+
+        metacontext.get("dnt").put("a/w", "in");
+        index.put("dnt", "a/w", null, "in");
+        assertEquals(Arrays.asList("a/x", "a/z", "a/w"), index.paths(metacontext, "dnt", "in"));
+
+        index.remove("dnt", "a/x", metacontext.get("dnt").remove("a/x"));
+        assertEquals(Arrays.asList("a/z", "a/w"), index.paths(metacontext, "dnt", "in"));
+
+        // a changed value keeps the association order of the metacontext
+        String old = metacontext.get("dnt").put("a/z", "out");
+        index.put("dnt", "a/z", old, "out");
+        assertEquals(Arrays.asList("a/y", "a/z"), index.paths(metacontext, "dnt", "out"));
+        assertEquals(Arrays.asList("a/w"), index.paths(metacontext, "dnt", "in"));
+    }
+
+    @Test
+    public void testInvalidate() {
+        AssociationIndex index = new AssociationIndex();
+        Map<String, LinkedHashMap<String, String>> metacontext = metacontext();
+        index.paths(metacontext, "dnt", "in");
+        metacontext.get("dnt").put("a/v", "in");
+        index.invalidate();
+        assertEquals(Arrays.asList("a/x", "a/z", "a/v"), index.paths(metacontext, "dnt", "in"));
+    }
+
+    @Test
+    public void testCopiedContext() throws Exception {
+        ServiceContext<Object> context = new ServiceContext<Object>("a");
+        context.putValue("a/x", 1.0);
+        context.putValue("a/y", 2.0);
+        context.mark("a/x", "tag|in");
+        assertEquals(Arrays.asList("a/x"), context.getIndexedPaths("tag", "in"));
+
+        // the copy shares the metacontext and its index
+        ServiceContext<Object> copy = new ServiceContext<Object>(context);
+        assertEquals(Arrays.asList("a/x"), copy.getIndexedPaths("tag", "in"));
+        assertEquals(Arrays.asList("a/x"), context.getIndexedPaths("tag", "in"));
+        copy.mark("a/y", "tag|in");
+        assertEquals(Arrays.asList("a/x", "a/y"), context.getIndexedPaths("tag", "in"));
+        assertEquals(Arrays.asList("a/x", "a/y"), copy.getIndexedPaths("tag", "in"));
+    }
+
+    @Test
+    public void testControlContextCopy() throws Exception {
+        ServiceContext<Object> context = new ServiceContext<Object>("a");
+        context.putValue("a/x", 1.0);
+        context.putValue("a/y", 2.0);
+        context.mark("a/x", "tag|in");
+        assertEquals(Arrays.asList("a/x"), context.getIndexedPaths("tag", "in"));
+
+        // as the control context built by Mograms.getCC
+        ControlContext cc = new ControlContext();
+        cc.shareMetacontext(context);
+        assertEquals(Arrays.asList("a/x"), cc.getIndexedPaths("tag", "in"));
+        cc.mark("a/y", "tag|in");
+        assertEquals(Arrays.asList("a/x", "a/y"), context.getIndexedPaths("tag", "in"));
+    }
+}
@@ -0,0 +1,148 @@
+package sorcer.core.context.model.ent;
+
+import org.junit.Test;
+import sorcer.core.context.ServiceContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static sorcer.ent.operator.*;
+import static sorcer.mo.operator.*;
+
+public class DependenciesTest {
+
+    @Test
+    public void testChangedPath() {
+        Map<String, Object> data = new HashMap<String, Object>();
+        data.put("x", 1.0);
+        data.put("y", 2.0);
+        Dependencies reads = Dependencies.track("z");
+        try {
+            Dependencies.read(data, "x");
+        } finally {
+            reads.end();
+        }
+        assertEquals(1, reads.size());
+        assertTrue(reads.isCurrent());
+
+        data.put("y", 3.0);
+        assertTrue(reads.isCurrent());
+        data.put("x", 4.0);
+        assertFalse(reads.isCurrent());
+    }
+
+    @Test
+    public void testNestedReads() {
+        Map<String, Object> data = new HashMap<String, Object>();
+        data.put("x", 1.0);
+        data.put("y", 2.0);
+        Dependencies outer = Dependencies.track("outer");
+        Dependencies inner;
+        try {
+            Dependencies.read(data, "y");
+            inner = Dependencies.track("inner");
+            try {
+                Dependencies.read(data, "x");
+            } finally {
+                inner.end();
+            }
+        } finally {
+            outer.end();
+        }
+        assertEquals(1, inner.size());
+        assertEquals(2, outer.size());
+
+        // a reused inner value reports its reads
+        Dependencies again = Dependencies.track("again");
+        try {
+            inner.report();
+        } finally {
+            again.end();
+        }
+        assertEquals(1, again.size());
+
+        data.put("x", 5.0);
+        assertFalse(inner.isCurrent());
+        assertFalse(outer.isCurrent());
+        assertFalse(again.isCurrent());
+    }
+
+    @Test
+    public void testUnknownReads() {
+        Map<String, Object> data = new HashMap<String, Object>();
+        data.put("x", 1.0);
+        Dependencies outer = Dependencies.track("outer");
+        try {
+            Dependencies.read(data, "x");
+            Dependencies inner = Dependencies.track("inner");
+            try {
+                Dependencies.unknown();
+            } finally {
+                inner.end();
+            }
+        } finally {
+            outer.end();
+        }
+        assertTrue(outer.isUnknown());
+        assertFalse(outer.isCurrent());
+
+        Dependencies empty = Dependencies.track("empty");
+        empty.end();
+        assertTrue(empty.isEmpty());
+        assertFalse(empty.isCurrent());
+
+        // reads outside of tracked evaluations are not recorded
+        Dependencies.read(data, "x");
+        Dependencies.unknown();
+    }
+
+    @Test
+    public void testSuffixPathInput() throws Exception {
+        // "x" is found by the suffix of "in/x", not by its path
+        EntryModel em = entModel("m");
+        add(em, prc("in/x", 10.0), prc("y", 20.0),
+                invoker("fxn", cxt -> (double) ((ServiceContext) cxt).getSoftValue("x")
+                        + (double) value(cxt, "y")));
+        assertEquals(30.0, (Double) invoke(em, "fxn"), 0.0);
+
+        setValue(em, "in/x", 20.0);
+        assertEquals(40.0, (Double) invoke(em, "fxn"), 0.0);
+    }
+
+    @Test
+    public void testEntryInput() throws Exception {
+        EntryModel em = entModel("m");
+        add(em, prc("x", 10.0), prc("y", 20.0),
+                invoker("fxn", cxt -> (double) ((EntryModel) cxt).entry("x").getData()
+                        + (double) value(cxt, "y")));
+        assertEquals(30.0, (Double) invoke(em, "fxn"), 0.0);
+
+        setValue(em, "x", 20.0);
+        assertEquals(40.0, (Double) invoke(em, "fxn"), 0.0);
+    }
+
+    @Test
+    public void testMutatedInput() throws Exception {
+        EntryModel em = entModel("m");
+        final double[] x = { 10.0 };
+        add(em, prc("x", x), prc("y", 20.0),
+                invoker("fxn", cxt -> ((double[]) value(cxt, "x"))[0] + (double) value(cxt, "y")));
+        assertEquals(30.0, (Double) invoke(em, "fxn"), 0.0);
+
+        // the same array is put back after it was changed in place
+        x[0] = 20.0;
+        setValue(em, "x", x);
+        assertEquals(40.0, (Double) invoke(em, "fxn"), 0.0);
+
+        Map<String, Object> data = new HashMap<String, Object>();
+        data.put("x", x);
+        Dependencies reads = Dependencies.track("z");
+        try {
+            Dependencies.read(data, "x");
+        } finally {
+            reads.end();
+        }
+        assertFalse(reads.isCurrent());
+    }
+}
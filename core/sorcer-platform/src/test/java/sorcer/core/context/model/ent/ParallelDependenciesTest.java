@@ -0,0 +1,134 @@
+package sorcer.core.context.model.ent;
+
+import org.junit.Test;
+import sorcer.co.tuple.ExecDependency;
+import sorcer.service.ContextException;
+import sorcer.service.EvaluationException;
+import sorcer.service.Path;
+import sorcer.service.Strategy.Flow;
+
+import java.util.Arrays;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static sorcer.co.operator.dep;
+import static sorcer.eo.operator.condition;
+import static sorcer.ent.operator.*;
+import static sorcer.mo.operator.*;
+
+public class ParallelDependenciesTest {
+
+    private static EntryModel parModel(String name) throws Exception {
+        EntryModel em = entModel(name);
+        em.getDomainStrategy().setFlowType(Flow.PAR);
+        return em;
+    }
+
+    private static void dependsOn(EntryModel em, String path, ExecDependency... deps) {
+        em.getDomainStrategy().getDependentPaths().put(path, Arrays.asList(deps));
+    }
+
+    private static void pause(long millis) throws ContextException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new ContextException(e);
+        }
+    }
+
+    private static void join(CyclicBarrier barrier) throws ContextException {
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new ContextException(e);
+        }
+    }
+
+    @Test
+    public void testDiamond() throws Exception {
+        // d depends on b and c, both depend on a
+        final EntryModel em = parModel("diamond");
+        final AtomicInteger evaluations = new AtomicInteger();
+        final CyclicBarrier together = new CyclicBarrier(2);
+        add(em, invoker("a", cxt -> {
+                    evaluations.incrementAndGet();
+                    pause(200);
+                    return 1.0;
+                }),
+                invoker("b", cxt -> {
+                    // b and c are evaluated concurrently
+                    join(together);
+                    ParallelDependencies deps = new ParallelDependencies(em);
+                    deps.add("a");
+                    deps.await();
+                    return 2.0;
+                }),
+                invoker("c", cxt -> {
+                    join(together);
+                    ParallelDependencies deps = new ParallelDependencies(em);
+                    deps.add("a");
+                    deps.await();
+                    return 3.0;
+                }));
+        dependsOn(em, "d", dep("d", new Path("b"), new Path("c")));
+
+        em.execDependencies("d");
+        // the second branch joins the evaluation of a
+        assertEquals(1, evaluations.get());
+        assertTrue(em.getInflight().isEmpty());
+    }
+
+    @Test
+    public void testCallerRuns() throws Exception {
+        EntryModel em = parModel("caller");
+        add(em, invoker("a", cxt -> 1.0));
+        ParallelDependencies deps = new ParallelDependencies(em);
+        deps.add("a");
+        deps.add("a");
+        // runs the paths no thread has started
+        deps.await();
+        assertTrue(em.getInflight().isEmpty());
+        deps.await();
+    }
+
+    @Test
+    public void testFailingBranch() throws Exception {
+        EntryModel em = parModel("failing");
+        final AtomicInteger after = new AtomicInteger();
+        add(em, invoker("fail", cxt -> {
+                    throw new ContextException("failed branch");
+                }),
+                invoker("ok", cxt -> 1.0),
+                invoker("after", cxt -> after.incrementAndGet()));
+        dependsOn(em, "d", dep("d", new Path("fail"), new Path("ok")),
+                dep("d", condition(true), new Path("after")));
+
+        try {
+            em.execDependencies("d");
+            fail("the failed branch is not reported");
+        } catch (EvaluationException e) {
+            // thrown by the condition waiting for the preceding branches
+        }
+        assertEquals(0, after.get());
+        assertTrue(em.getInflight().isEmpty());
+    }
+
+    @Test
+    public void testConditionWaitsForPrecedingPaths() throws Exception {
+        EntryModel em = parModel("condition");
+        final AtomicInteger done = new AtomicInteger();
+        final AtomicInteger after = new AtomicInteger();
+        add(em, invoker("a", cxt -> {
+                    pause(100);
+                    return done.incrementAndGet();
+                }),
+                invoker("after", cxt -> after.incrementAndGet()));
+        dependsOn(em, "d", dep("d", new Path("a")),
+                dep("d", condition(cxt -> done.get() == 1), new Path("after")));
+
+        em.execDependencies("d");
+        assertEquals(1, after.get());
+    }
+}
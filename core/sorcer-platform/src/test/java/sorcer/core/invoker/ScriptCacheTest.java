@@ -0,0 +1,60 @@
+package sorcer.core.invoker;
+
+import groovy.lang.Binding;
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.junit.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static org.junit.Assert.*;
+
+public class ScriptCacheTest {
+
+    @Test
+    public void testCompiledOnce() throws Exception {
+        ClassLoader loader = getClass().getClassLoader();
+        String source = "x * y + 1";
+        ScriptCache.Stats before = ScriptCache.getStats();
+        Class<?> first = ScriptCache.getScriptClass(source, loader, "test", null);
+        Class<?> second = ScriptCache.getScriptClass(source, loader, "test", null);
+        ScriptCache.Stats after = ScriptCache.getStats();
+        assertSame(first, second);
+        assertEquals(1, after.misses - before.misses);
+        assertEquals(1, after.hits - before.hits);
+
+        Binding binding = new Binding();
+        binding.setVariable("x", 2);
+        binding.setVariable("y", 3);
+        assertEquals(7, ScriptCache.run(first, binding));
+        binding = new Binding();
+        binding.setVariable("x", 4);
+        binding.setVariable("y", 5);
+        assertEquals(21, ScriptCache.run(second, binding));
+    }
+
+    @Test
+    public void testCachedPerClassLoader() throws Exception {
+        String source = "'loader'";
+        ClassLoader other = new URLClassLoader(new URL[0], getClass().getClassLoader());
+        Class<?> first = ScriptCache.getScriptClass(source, getClass().getClassLoader(), "test", null);
+        Class<?> second = ScriptCache.getScriptClass(source, other, "test", null);
+        assertNotSame(first, second);
+        assertNotSame(first, ScriptCache.getScriptClass(source, other, "other", null));
+    }
+
+    @Test
+    public void testFailureNotCached() throws Exception {
+        String source = "def x = ";
+        ScriptCache.Stats before = ScriptCache.getStats();
+        for (int i = 0; i < 2; i++) {
+            try {
+                ScriptCache.getScriptClass(source, getClass().getClassLoader(), "test", null);
+                fail("compiled an invalid script");
+            } catch (CompilationFailedException e) {
+                // expected
+            }
+        }
+        assertEquals(2, ScriptCache.getStats().misses - before.misses);
+    }
+}
@@ -0,0 +1,67 @@
+package sorcer.core.provider;
+
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+
+import static org.junit.Assert.*;
+
+public class DispatchTableTest {
+
+    public interface Adder {
+        Number add(Number n);
+    }
+
+    public static class AdderImpl implements Adder {
+        public Number add(Number n) {
+            return n.intValue() + 1;
+        }
+
+        public String concat(String a, String b) {
+            return a + b;
+        }
+
+        public Object fail(Object o) {
+            throw new IllegalStateException("failed");
+        }
+    }
+
+    @Test
+    public void testAssignableDispatch() throws Exception {
+        DispatchTable table = DispatchTable.forClass(AdderImpl.class);
+        assertSame(table, DispatchTable.forClass(AdderImpl.class));
+        DispatchTable.Invoker invoker = table.getInvoker("add", new Class[] { Integer.class });
+        assertEquals(2, invoker.invoke(new AdderImpl(), new Object[] { 1 }));
+        assertSame(invoker, table.getInvoker("add", new Class[] { Integer.class }));
+    }
+
+    @Test
+    public void testParametricDispatch() throws Exception {
+        DispatchTable table = DispatchTable.forClass(AdderImpl.class);
+        DispatchTable.Invoker invoker = table.getInvoker("concat", new Class[] { String.class, String.class });
+        assertEquals("ab", invoker.invoke(new AdderImpl(), new Object[] { "a", "b" }));
+    }
+
+    @Test(expected = NoSuchMethodException.class)
+    public void testMissingMethod() throws Exception {
+        DispatchTable.forClass(AdderImpl.class).getInvoker("subtract", new Class[] { Integer.class });
+    }
+
+    @Test
+    public void testTargetException() throws Exception {
+        DispatchTable.Invoker invoker = DispatchTable.forClass(AdderImpl.class)
+            .getInvoker("fail", new Class[] { String.class });
+        try {
+            invoker.invoke(new AdderImpl(), new Object[] { "x" });
+            fail();
+        } catch (InvocationTargetException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testWarmUp() {
+        DispatchTable table = DispatchTable.forClass(AdderImpl.class);
+        assertEquals(1, table.warmUp(new Class[] { Adder.class, Runnable.class }, Double.class));
+    }
+}
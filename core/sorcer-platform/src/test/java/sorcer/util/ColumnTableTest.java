@@ -0,0 +1,125 @@
+package sorcer.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@SuppressWarnings("unchecked")
+public class ColumnTableTest {
+
+    @Test
+    public void testTypedColumns() {
+        ColumnTable table = new ColumnTable(Arrays.asList("x", "n", "id", "name"));
+        table.addRow(Arrays.asList(1.0, 10L, 1, "a"));
+        table.addRow(Arrays.asList(2.0, 20L, 2, "b"));
+        table.addRow(Arrays.asList(3.0, null, 3, "a"));
+
+        assertEquals(ColumnTable.Type.DOUBLE, table.getColumn("x").getType());
+        assertEquals(ColumnTable.Type.LONG, table.getColumn("n").getType());
+        assertEquals(ColumnTable.Type.INT, table.getColumn("id").getType());
+        assertEquals(ColumnTable.Type.STRING, table.getColumn("name").getType());
+        assertNull(table.getValueAt(2, 1));
+        assertEquals(20L, table.getValueAt(1, 1));
+        assertEquals("a", table.getValueAt(2, 3));
+        assertEquals(2, ((ColumnTable.StringColumn) table.getColumn(3)).getDictionary().size());
+
+        DoubleBuffer x = table.getDoubles(0);
+        assertEquals(3, x.limit());
+        assertEquals(2.0, x.get(1), 0.0);
+        table.setValueAt(5.0, 1, 0);
+        // the view is not a copy
+        assertEquals(5.0, x.get(1), 0.0);
+    }
+
+    @Test
+    public void testDoubleRows() {
+        ColumnTable table = new ColumnTable(Arrays.asList("x", "y"));
+        for (int i = 0; i < 1000; i++)
+            table.addRow(new double[] { i, i * 2 });
+        assertEquals(1000, table.getRowCount());
+        assertEquals(ColumnTable.Type.DOUBLE, table.getColumn(1).getType());
+        assertEquals(1998.0, table.getDoubles(1).get(999), 0.0);
+        assertEquals(Arrays.asList(3.0, 6.0), table.rows().get(3));
+    }
+
+    @Test
+    public void testMixedColumn() {
+        ColumnTable table = new ColumnTable(Arrays.asList("v"));
+        table.addRow(Arrays.asList(1.0));
+        table.addRow(Arrays.asList("one"));
+        table.addRow(Arrays.asList(1));
+        assertEquals(ColumnTable.Type.OBJECT, table.getColumn(0).getType());
+        assertEquals(Arrays.asList(1.0, "one", 1), table.getColumn(0).asList());
+    }
+
+    @Test
+    public void testRows() {
+        ColumnTable table = new ColumnTable(Arrays.asList("a", "b"));
+        List<List<?>> rows = table.rows();
+        rows.add(Arrays.asList(1, "x"));
+        rows.add(Arrays.asList(3, "z"));
+        rows.add(1, Arrays.asList(2, null));
+        // a wider row widens the table
+        rows.add(Arrays.asList(4, "w", 4.0));
+        assertEquals(3, table.getColumnCount());
+        assertEquals(Arrays.asList(2, null, null), rows.get(1));
+
+        ((List<Object>) rows.get(1)).set(1, "y");
+        assertEquals("y", table.getValueAt(1, 1));
+        assertEquals(Arrays.asList(4, "w", 4.0), rows.remove(3));
+        assertEquals(Arrays.asList(1, 2, 3), table.getColumn(0).asList());
+
+        table.moveRows(0, 3, 1);
+        assertEquals(Arrays.asList(3, 1, 2), table.getColumn(0).asList());
+        assertEquals(Arrays.asList("z", "x", "y"), table.getColumn(1).asList());
+
+        table.insertColumn(1, Arrays.asList(1L, 2L, 3L, 4L));
+        assertEquals(4, rows.size());
+        assertEquals(Arrays.asList(null, 4L, null, null), rows.get(3));
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        ColumnTable table = new ColumnTable(Arrays.asList("x", "name"));
+        table.addRow(Arrays.asList(1.5, "a"));
+        table.addRow(Arrays.asList(null, "b"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(table);
+        out.close();
+        ColumnTable copy = (ColumnTable) new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+        assertEquals(table.rows(), copy.rows());
+        assertEquals(table.getId(), copy.getId());
+        copy.addRow(Arrays.asList(2.5, "a"));
+        assertEquals(2, ((ColumnTable.StringColumn) copy.getColumn(1)).getDictionary().size());
+    }
+
+    @Test
+    public void testDataTableColumns() {
+        ColumnTable table = new ColumnTable(Arrays.asList("x", "name"));
+        table.addRow(Arrays.asList(1.5, "a"));
+        table.addRow(Arrays.asList(null, "b"));
+        table.addRow(Arrays.asList(-2.0, "c"));
+        DataTable data = new DataTable(table);
+
+        // null cells are not part of the range
+        assertArrayEquals(new Double[] { -2.0, 1.5 }, data.getMinMaxValuesAsDouble(0));
+
+        // the column is a copy of the table column
+        List column = data.getColumn(1);
+        column.set(0, "z");
+        assertEquals(Arrays.asList("z", "b", "c"), column);
+        assertEquals(Arrays.asList("a", "b", "c"), table.getColumn(1).asList());
+    }
+}
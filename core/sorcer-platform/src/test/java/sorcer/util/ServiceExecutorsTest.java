@@ -0,0 +1,76 @@
+package sorcer.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class ServiceExecutorsTest {
+
+    @Test
+    public void testPoolRegistration() throws Exception {
+        ThreadPoolExecutor first = ServiceExecutors.newPool("test-pool", 1, 1, 4,
+                new ConfigurableThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        ThreadPoolExecutor second = ServiceExecutors.newPool("test-pool", 1, 1, 4,
+                new ConfigurableThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        assertNotNull(ServiceExecutors.getStats("test-pool"));
+        assertNotNull(ServiceExecutors.getStats("test-pool-2"));
+
+        first.submit(() -> null).get();
+        // the worker counts the task after its future is done
+        long deadline = System.currentTimeMillis() + 5000;
+        while (ServiceExecutors.getStats("test-pool").completedTaskCount == 0
+                && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+        assertEquals(1, ServiceExecutors.getStats("test-pool").completedTaskCount);
+
+        first.shutdown();
+        second.shutdown();
+        assertTrue(first.awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(second.awaitTermination(5, TimeUnit.SECONDS));
+        assertNull(ServiceExecutors.getStats("test-pool"));
+        assertNull(ServiceExecutors.getStats("test-pool-2"));
+    }
+
+    @Test
+    public void testSaturatedDispatchRunsInCaller() throws Exception {
+        ExecutorService dispatch = ServiceExecutors.get(ServiceExecutors.DISPATCH);
+        int threads = ServiceExecutors.getStats(ServiceExecutors.DISPATCH).maximumPoolSize;
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < threads; i++) {
+            dispatch.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException ignore) {
+                }
+            });
+        }
+        Thread caller = Thread.currentThread();
+        Future<Thread> runner = dispatch.submit(Thread::currentThread);
+        assertSame(caller, runner.get());
+        release.countDown();
+    }
+
+    @Test
+    public void testCollectPoolGrows() throws Exception {
+        ExecutorService collect = ServiceExecutors.get(ServiceExecutors.COLLECT);
+        int collectors = 300;
+        CountDownLatch started = new CountDownLatch(collectors);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < collectors; i++) {
+                collect.execute(() -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException ignore) {
+                    }
+                });
+            }
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package sorcer.util;
+
+import net.jini.id.Uuid;
+import net.jini.id.UuidFactory;
+import org.junit.Test;
+import sorcer.core.context.ServiceContext;
+import sorcer.service.Context;
+import sorcer.service.Job;
+import sorcer.service.Task;
+
+import java.io.ObjectInputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static sorcer.co.operator.*;
+import static sorcer.eo.operator.*;
+
+public class StructuralCopierTest {
+
+    static class Base {
+        String baseName = "base";
+    }
+
+    static class Node extends Base implements Serializable {
+        private final String name;
+        private final Uuid id = UuidFactory.generate();
+        private int count;
+        private transient Object cache = new Object();
+        private Node parent;
+        private final List<Node> children = new ArrayList<Node>();
+        private final Map<String, Object> values = new LinkedHashMap<String, Object>();
+        private int[] data = { 1, 2, 3 };
+
+        Node(String name) {
+            this.name = name;
+        }
+    }
+
+    static class Names extends ArrayList<String> {
+        String label;
+    }
+
+    static class Custom implements Serializable {
+        transient String value = "lost";
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            value = "read";
+        }
+    }
+
+    @Test
+    public void testGraphCopy() throws Exception {
+        Node root = new Node("root");
+        root.count = 3;
+        Node child = new Node("child");
+        child.parent = root;
+        root.children.add(child);
+        root.values.put("child", child);
+        root.values.put("n", 42);
+
+        Node copy = (Node) StructuralCopier.copy(root);
+        assertNotSame(root, copy);
+        assertEquals("root", copy.name);
+        assertSame(root.name, copy.name);
+        assertSame(root.id, copy.id);
+        assertEquals(3, copy.count);
+        assertNull(copy.cache);
+        // the no-arg constructor of the non-serializable superclass is run
+        assertEquals("base", copy.baseName);
+        assertArrayEquals(root.data, copy.data);
+        assertNotSame(root.data, copy.data);
+
+        Node childCopy = copy.children.get(0);
+        assertNotSame(child, childCopy);
+        assertSame(copy, childCopy.parent);
+        assertSame(childCopy, copy.values.get("child"));
+        assertEquals(Arrays.asList("child", "n"), new ArrayList<String>(copy.values.keySet()));
+    }
+
+    interface Adder {
+    }
+
+    @Test(expected = StructuralCopier.UnsupportedTypeException.class)
+    public void testCollectionSubclass() throws Exception {
+        Names names = new Names();
+        names.add("a");
+        StructuralCopier.copy(names);
+    }
+
+    @Test
+    public void testCollectionSubclassFallback() {
+        Names names = new Names();
+        names.label = "names";
+        names.add("a");
+        names.add("b");
+        Names copy = (Names) ObjectCloner.clone(names);
+        assertNotSame(names, copy);
+        assertEquals(names, copy);
+        assertEquals("names", copy.label);
+    }
+
+    @Test
+    public void testContextCopy() throws Exception {
+        Context<Object> cxt = context("add", inVal("arg/x1", 20.0), inVal("arg/x2", 80.0),
+                outVal("result/y"));
+        Context<Object> copy = (Context<Object>) StructuralCopier.copy(cxt);
+        assertNotSame(cxt, copy);
+        assertEquals(cxt.getName(), copy.getName());
+        assertEquals(20.0, copy.getValue("arg/x1"));
+        assertEquals(80.0, copy.getValue("arg/x2"));
+        assertEquals(((ServiceContext) cxt).getInPaths(), ((ServiceContext) copy).getInPaths());
+
+        copy.putValue("arg/x1", 10.0);
+        assertEquals(20.0, cxt.getValue("arg/x1"));
+    }
+
+    @Test
+    public void testJobCopy() throws Exception {
+        Task t1 = task("t1", sig("add", Adder.class),
+                context("add", inVal("arg/x1", 20.0), inVal("arg/x2", 80.0), outVal("result/y")));
+        Task t2 = task("t2", sig("add", Adder.class),
+                context("add", inVal("arg/x1", 10.0), inVal("arg/x2", 50.0), outVal("result/y")));
+        Job job = job("j1", t1, t2);
+
+        Job copy = (Job) StructuralCopier.copy(job);
+        assertNotSame(job, copy);
+        assertEquals("j1", copy.getName());
+        assertEquals(job.getId(), copy.getId());
+        assertEquals(2, copy.getMograms().size());
+        Task t1Copy = (Task) copy.getMograms().get(0);
+        assertNotSame(t1, t1Copy);
+        assertEquals("t1", t1Copy.getName());
+        assertEquals(20.0, t1Copy.getContext().getValue("arg/x1"));
+        assertNotSame(t1.getContext(), t1Copy.getContext());
+        assertEquals("add", t1Copy.getProcessSignature().getSelector());
+        assertEquals(80.0, copy.getMograms().get(0).getContext().getValue("arg/x2"));
+        assertEquals(50.0, ((Task) copy.getMograms().get(1)).getContext().getValue("arg/x2"));
+    }
+
+    @Test(expected = StructuralCopier.UnsupportedTypeException.class)
+    public void testCustomSerialization() throws Exception {
+        List<Custom> list = new ArrayList<Custom>();
+        list.add(new Custom());
+        StructuralCopier.copy(list);
+    }
+
+    @Test
+    public void testFallback() {
+        List<Custom> list = new ArrayList<Custom>();
+        list.add(new Custom());
+        List<Custom> copy = (List<Custom>) ObjectCloner.clone(list);
+        assertEquals("read", copy.get(0).value);
+    }
+}
@@ -0,0 +1,174 @@
+package sorcer.util;
+
+import net.jini.id.Uuid;
+import net.jini.id.UuidFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class TableLogTest {
+
+    private File dir;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("table-log").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files)
+                file.delete();
+        }
+        dir.delete();
+    }
+
+    private String table() {
+        return new File(dir, "test").getPath();
+    }
+
+    @Test
+    public void testPutGetRemove() throws Exception {
+        TableLog<Object> log = new TableLog<Object>(table(), 1024 * 1024, 1000);
+        Uuid id = UuidFactory.generate();
+        log.put(id, TableLog.serialize("uuid"));
+        log.put(1, TableLog.serialize("one"));
+        log.put("two", TableLog.serialize(2.0));
+        log.put(1, TableLog.serialize("uno"));
+        assertEquals("uuid", TableLog.deserialize(log.get(id)));
+        assertEquals("uno", TableLog.deserialize(log.get(1)));
+        assertEquals(2.0, TableLog.deserialize(log.get("two")));
+
+        log.remove("two");
+        assertNull(log.get("two"));
+        assertEquals(2, log.getIndex().size());
+        log.close();
+    }
+
+    @Test
+    public void testRecovery() throws Exception {
+        TableLog<Integer> log = new TableLog<Integer>(table(), 1024 * 1024, 1000);
+        for (int i = 0; i < 1000; i++)
+            log.put(i, TableLog.serialize("value-" + i));
+        log.checkpoint();
+        for (int i = 0; i < 1000; i += 2)
+            log.put(i, TableLog.serialize("even-" + i));
+        log.remove(999);
+        // the index log written since the checkpoint is replayed
+        log.sync();
+
+        TableLog<Integer> reopened = new TableLog<Integer>(table(), 1024 * 1024, 1000);
+        assertEquals(999, reopened.getIndex().size());
+        assertEquals("even-10", TableLog.deserialize(reopened.get(10)));
+        assertEquals("value-11", TableLog.deserialize(reopened.get(11)));
+        assertNull(reopened.get(999));
+        reopened.close();
+        log.close();
+
+        reopened = new TableLog<Integer>(table(), 1024 * 1024, 1000);
+        assertEquals(999, reopened.getIndex().size());
+        assertEquals("even-998", TableLog.deserialize(reopened.get(998)));
+        reopened.close();
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        TableLog<Integer> log = new TableLog<Integer>(table(), 64 * 1024, 0);
+        byte[] value = new byte[1000];
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 100; i++) {
+                value[0] = (byte) round;
+                log.put(i, value.clone());
+            }
+        }
+        int segments = dir.listFiles((d, name) -> name.endsWith(".dat")).length;
+        assertTrue(segments > 2);
+
+        log.compact(0.5);
+        assertTrue(dir.listFiles((d, name) -> name.endsWith(".dat")).length < segments);
+        for (int i = 0; i < 100; i++)
+            assertEquals(4, log.get(i)[0]);
+        log.close();
+
+        TableLog<Integer> reopened = new TableLog<Integer>(table(), 64 * 1024, 0);
+        assertEquals(100, reopened.getIndex().size());
+        for (int i = 0; i < 100; i++)
+            assertEquals(4, reopened.get(i)[0]);
+        reopened.close();
+    }
+
+    // appends bytes to the index log, as left by a crash while writing it
+    private void tearIndexLog(byte[] tail) throws Exception {
+        File[] logs = dir.listFiles((d, name) -> name.matches("test-index-\\d+\\.log"));
+        assertEquals(1, logs.length);
+        FileOutputStream out = new FileOutputStream(logs[0], true);
+        try {
+            out.write(tail);
+        } finally {
+            out.close();
+        }
+    }
+
+    private void assertRecovered(byte[] tail) throws Exception {
+        // the crashed log is abandoned, it writes no checkpoint
+        TableLog<Integer> crashed = new TableLog<Integer>(table(), 1024 * 1024, 0);
+        for (int i = 0; i < 10; i++)
+            crashed.put(i, TableLog.serialize("value-" + i));
+        crashed.remove(9);
+        tearIndexLog(tail);
+
+        TableLog<Integer> reopened = new TableLog<Integer>(table(), 1024 * 1024, 0);
+        assertEquals(9, reopened.getIndex().size());
+        assertEquals("value-8", TableLog.deserialize(reopened.get(8)));
+        // records appended after the truncated tail are replayed
+        reopened.put(10, TableLog.serialize("value-10"));
+        reopened.close();
+
+        TableLog<Integer> again = new TableLog<Integer>(table(), 1024 * 1024, 0);
+        assertEquals(10, again.getIndex().size());
+        assertEquals("value-10", TableLog.deserialize(again.get(10)));
+        again.close();
+    }
+
+    @Test
+    public void testZeroFilledTail() throws Exception {
+        assertRecovered(new byte[64]);
+    }
+
+    @Test
+    public void testPartialTail() throws Exception {
+        // a put of an int key cut short
+        assertRecovered(new byte[] { 1, 1, 0, 0 });
+    }
+
+    @Test
+    public void testGarbledTail() throws Exception {
+        // a put with an unknown key type, a string key of negative length
+        assertRecovered(new byte[] { 1, 9, 0, 0, 0, 1, 1, 3, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff });
+    }
+
+    @Test
+    public void testLoggedFileTable() throws Exception {
+        FileTable<String, Object> table = new FileTable<String, Object>(dir.getPath(), "table", true);
+        table.put("a", "alpha");
+        table.put("b", 2.0);
+        table.put("a", "again");
+        table.remove("b");
+        assertEquals("again", table.get("a"));
+        assertNull(table.get("b"));
+        table.close();
+
+        table = new FileTable<String, Object>(dir.getPath(), "table", true);
+        assertEquals(1, table.keySet().size());
+        assertEquals("again", table.get("a"));
+        table.close();
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.provider.cataloger;
+
+import net.jini.core.lookup.ServiceID;
+import net.jini.core.lookup.ServiceItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.util.ConfigurableThreadFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tracks the liveness of cataloged providers in the background. Each tracked
+ * item is probed on a schedule on a bounded pool, its last round trip time is
+ * recorded, and an item that fails <code>maxFailures</code> consecutive
+ * probes is evicted. Lookups only read the recorded state with
+ * {@link #isHealthy(ServiceItem)}, so a slow or dead provider does not stall
+ * them.
+ */
+class ProviderHealthTracker {
+	private static final Logger logger = LoggerFactory.getLogger(ProviderHealthTracker.class);
+
+	public static final long DEFAULT_INTERVAL = 10000;
+
+	public static final long DEFAULT_TIMEOUT = 5000;
+
+	public static final int DEFAULT_MAX_FAILURES = 2;
+
+	public static final int DEFAULT_MAX_PROBES = 8;
+
+	/**
+	 * A remote liveness check of a provider; it fails by throwing an
+	 * exception.
+	 */
+	interface Probe {
+		void probe(ServiceItem item) throws Exception;
+	}
+
+	interface EvictionListener {
+		void evicted(ServiceItem item);
+	}
+
+	private final ConcurrentMap<ServiceID, Health> health = new ConcurrentHashMap<ServiceID, Health>();
+
+	private final Probe probe;
+
+	private final EvictionListener evictionListener;
+
+	private long interval = DEFAULT_INTERVAL;
+
+	private long timeout = DEFAULT_TIMEOUT;
+
+	private int maxFailures = DEFAULT_MAX_FAILURES;
+
+	private ScheduledExecutorService scheduler;
+
+	private ThreadPoolExecutor probes;
+
+	// the index of the item to probe first in the next round
+	private int cursor;
+
+	ProviderHealthTracker(Probe probe, EvictionListener evictionListener) {
+		this.probe = probe;
+		this.evictionListener = evictionListener;
+	}
+
+	/**
+	 * Starts probing the tracked items every <code>interval</code>
+	 * milliseconds. Items probing longer than <code>timeout</code>
+	 * milliseconds are reported as unhealthy until their probe returns.
+	 */
+	synchronized void start(long interval, long timeout, int maxFailures) {
+		if (scheduler != null)
+			return;
+		this.interval = interval;
+		this.timeout = timeout;
+		this.maxFailures = Math.max(1, maxFailures);
+
+		ConfigurableThreadFactory factory = new ConfigurableThreadFactory();
+		factory.setDaemon(true);
+		factory.setNameFormat("Cataloger-health-%2$d");
+		scheduler = Executors.newSingleThreadScheduledExecutor(factory);
+		ConfigurableThreadFactory probeFactory = new ConfigurableThreadFactory();
+		probeFactory.setDaemon(true);
+		probeFactory.setNameFormat("Cataloger-probe-%2$d");
+		// a busy pool skips the remaining items until the next round
+		probes = new ThreadPoolExecutor(DEFAULT_MAX_PROBES, DEFAULT_MAX_PROBES, 60, TimeUnit.SECONDS,
+			new SynchronousQueue<Runnable>(), probeFactory, new ThreadPoolExecutor.AbortPolicy());
+		probes.allowCoreThreadTimeOut(true);
+		scheduler.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				probeAll();
+			}
+		}, interval, interval, TimeUnit.MILLISECONDS);
+		logger.info("Started provider health tracking, interval: {} ms, timeout: {} ms, max failures: {}",
+			interval, timeout, this.maxFailures);
+	}
+
+	synchronized void stop() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+			probes.shutdownNow();
+			scheduler = null;
+			probes = null;
+		}
+	}
+
+	void track(ServiceItem item) {
+		Health previous = health.put(item.serviceID, new Health(item));
+		if (previous != null)
+			logger.debug("Restarted health tracking of {}", item.serviceID);
+	}
+
+	void untrack(ServiceID serviceID) {
+		health.remove(serviceID);
+	}
+
+	/**
+	 * Returns <code>false</code> if the last probe of the item failed or the
+	 * current probe exceeds the timeout. Items not probed yet are healthy.
+	 */
+	boolean isHealthy(ServiceItem item) {
+		if (item == null)
+			return false;
+		Health h = health.get(item.serviceID);
+		if (h == null)
+			return true;
+		if (!h.alive)
+			return false;
+		long started = h.probeStarted;
+		return started == 0 || System.currentTimeMillis() - started <= timeout;
+	}
+
+	/**
+	 * Returns the round trip time of the last successful probe in
+	 * milliseconds, or -1 if unknown.
+	 */
+	long getRoundTripTime(ServiceID serviceID) {
+		Health h = health.get(serviceID);
+		return h == null ? -1 : h.roundTripTime;
+	}
+
+	int size() {
+		return health.size();
+	}
+
+	/**
+	 * Probes the tracked items starting where the previous round stopped,
+	 * so that with more items than probe threads each item is probed in
+	 * turn.
+	 */
+	void probeAll() {
+		ThreadPoolExecutor executor = probes;
+		if (executor == null)
+			return;
+		List<Health> items = new ArrayList<Health>(health.values());
+		int size = items.size();
+		if (size == 0)
+			return;
+		int first = cursor % size;
+		for (int i = 0; i < size; i++) {
+			int index = (first + i) % size;
+			final Health h = items.get(index);
+			// skip items with a probe still running
+			if (!h.probing.compareAndSet(false, true))
+				continue;
+			try {
+				executor.execute(new Runnable() {
+					@Override
+					public void run() {
+						probe(h);
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				h.probing.set(false);
+				// resume with this item in the next round
+				cursor = index;
+				logger.debug("All probes busy, skipping {} remaining provider(s)", size - i);
+				return;
+			}
+		}
+		cursor = first;
+	}
+
+	void probe(Health h) {
+		long start = System.currentTimeMillis();
+		h.probeStarted = start;
+		boolean evict = false;
+		try {
+			probe.probe(h.item);
+			h.roundTripTime = System.currentTimeMillis() - start;
+			h.failures = 0;
+			h.alive = true;
+		} catch (Exception e) {
+			h.failures++;
+			h.alive = false;
+			logger.warn("Service ID: {} failed {} health probe(s): {}", h.item.serviceID, h.failures, e.toString());
+			evict = h.failures >= maxFailures;
+		} finally {
+			h.probeStarted = 0;
+			h.probing.set(false);
+		}
+		if (evict && health.remove(h.item.serviceID, h)) {
+			logger.warn("Service ID: {} is not Alive anymore, evicting", h.item.serviceID);
+			if (evictionListener != null)
+				evictionListener.evicted(h.item);
+		}
+	}
+
+	static class Health {
+		final ServiceItem item;
+		final AtomicBoolean probing = new AtomicBoolean();
+		volatile boolean alive = true;
+		volatile int failures;
+		volatile long roundTripTime = -1;
+		volatile long probeStarted;
+
+		Health(ServiceItem item) {
+			this.item = item;
+		}
+	}
+}
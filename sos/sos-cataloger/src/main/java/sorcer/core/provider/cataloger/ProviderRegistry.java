@@ -0,0 +1,249 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.provider.cataloger;
+
+import net.jini.core.entry.Entry;
+import net.jini.core.lookup.ServiceID;
+import net.jini.core.lookup.ServiceItem;
+import net.jini.lookup.entry.Name;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The registry of providers known to the {@link ServiceCataloger}, indexed
+ * by service ID, by implemented interface and by provider {@link Name}.
+ * <p>
+ * Registrations are serialized, lookups are lock-free. A lookup resolves its
+ * interfaces and provider name once into a {@link Selector}, a snapshot of
+ * the matching items with an atomic round-robin cursor, that is reused until
+ * the registry changes. The cost of a repeated lookup therefore does not
+ * depend on the number of registered providers.
+ */
+class ProviderRegistry {
+
+	private final ConcurrentMap<ServiceID, ServiceItem> items = new ConcurrentHashMap<ServiceID, ServiceItem>();
+
+	// interface name -> IDs of the items implementing it
+	private final ConcurrentMap<String, Set<ServiceID>> byInterface = new ConcurrentHashMap<String, Set<ServiceID>>();
+
+	// provider name -> IDs of the items with that name
+	private final ConcurrentMap<String, Set<ServiceID>> byName = new ConcurrentHashMap<String, Set<ServiceID>>();
+
+	private final ConcurrentMap<String, Selector> selectors = new ConcurrentHashMap<String, Selector>();
+
+	private volatile long version;
+
+	/**
+	 * Adds the item, replacing a previously registered item with the same
+	 * service ID.
+	 */
+	synchronized void add(ServiceItem item) {
+		ServiceItem previous = items.put(item.serviceID, item);
+		if (previous != null)
+			unindex(previous);
+		for (String type : getInterfaceNames(item))
+			indexed(byInterface, type).add(item.serviceID);
+		for (String name : getNames(item))
+			indexed(byName, name).add(item.serviceID);
+		changed();
+	}
+
+	synchronized ServiceItem remove(ServiceID serviceID) {
+		ServiceItem previous = items.remove(serviceID);
+		if (previous != null) {
+			unindex(previous);
+			changed();
+		}
+		return previous;
+	}
+
+	ServiceItem get(ServiceID serviceID) {
+		return items.get(serviceID);
+	}
+
+	int size() {
+		return items.size();
+	}
+
+	/**
+	 * Returns the selector of the items implementing all given interfaces
+	 * and, unless <code>providerName</code> is <code>null</code>, named
+	 * <code>providerName</code>.
+	 */
+	Selector select(Class[] interfaces, String providerName) {
+		String key = getKey(interfaces, providerName);
+		Selector selector = selectors.get(key);
+		long current = version;
+		if (selector == null || selector.version != current) {
+			selector = new Selector(current, match(interfaces, providerName));
+			selectors.put(key, selector);
+		}
+		return selector;
+	}
+
+	private ServiceItem[] match(Class[] interfaces, String providerName) {
+		List<Set<ServiceID>> sets = new ArrayList<Set<ServiceID>>();
+		if (interfaces != null) {
+			for (Class type : interfaces) {
+				Set<ServiceID> ids = byInterface.get(type.getName());
+				if (ids == null)
+					return new ServiceItem[0];
+				sets.add(ids);
+			}
+		}
+		if (providerName != null) {
+			Set<ServiceID> ids = byName.get(providerName);
+			if (ids == null)
+				return new ServiceItem[0];
+			sets.add(ids);
+		}
+		Collection<ServiceID> candidates = items.keySet();
+		for (Set<ServiceID> ids : sets) {
+			if (ids.size() < candidates.size())
+				candidates = ids;
+		}
+		List<ServiceItem> matches = new ArrayList<ServiceItem>();
+		CANDIDATES:
+		for (ServiceID id : candidates) {
+			for (Set<ServiceID> ids : sets) {
+				if (!ids.contains(id))
+					continue CANDIDATES;
+			}
+			ServiceItem item = items.get(id);
+			if (item != null)
+				matches.add(item);
+		}
+		return matches.toArray(new ServiceItem[matches.size()]);
+	}
+
+	private void unindex(ServiceItem item) {
+		for (String type : getInterfaceNames(item))
+			unindexed(byInterface, type, item.serviceID);
+		for (String name : getNames(item))
+			unindexed(byName, name, item.serviceID);
+	}
+
+	private void changed() {
+		version++;
+		selectors.clear();
+	}
+
+	private static Set<ServiceID> indexed(ConcurrentMap<String, Set<ServiceID>> index, String key) {
+		Set<ServiceID> ids = index.get(key);
+		if (ids == null) {
+			ids = Collections.newSetFromMap(new ConcurrentHashMap<ServiceID, Boolean>());
+			index.put(key, ids);
+		}
+		return ids;
+	}
+
+	private static void unindexed(ConcurrentMap<String, Set<ServiceID>> index, String key, ServiceID id) {
+		Set<ServiceID> ids = index.get(key);
+		if (ids != null) {
+			ids.remove(id);
+			if (ids.isEmpty())
+				index.remove(key);
+		}
+	}
+
+	private static String getKey(Class[] interfaces, String providerName) {
+		StringBuilder sb = new StringBuilder();
+		if (providerName != null)
+			sb.append(providerName);
+		if (interfaces != null) {
+			String[] names = new String[interfaces.length];
+			for (int i = 0; i < interfaces.length; i++)
+				names[i] = interfaces[i].getName();
+			Arrays.sort(names);
+			for (String name : names)
+				sb.append('|').append(name);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the names of the proxy interfaces of the item and of their
+	 * direct super interfaces, as matched by
+	 * {@link ServiceCataloger.CatalogerInfo.InterfaceList#containsAllInterfaces}.
+	 */
+	static Set<String> getInterfaceNames(ServiceItem item) {
+		Set<String> names = new HashSet<String>();
+		if (item.service == null)
+			return names;
+		for (Class type : item.service.getClass().getInterfaces()) {
+			names.add(type.getName());
+			for (Class superType : type.getInterfaces())
+				names.add(superType.getName());
+		}
+		return names;
+	}
+
+	static Set<String> getNames(ServiceItem item) {
+		Set<String> names = new HashSet<String>();
+		if (item.attributeSets == null)
+			return names;
+		for (Entry e : item.attributeSets) {
+			if (e instanceof Name && ((Name) e).name != null)
+				names.add(((Name) e).name);
+		}
+		return names;
+	}
+
+	/**
+	 * A snapshot of the items matching a lookup with a round-robin cursor.
+	 */
+	static class Selector {
+		private final long version;
+		private final ServiceItem[] items;
+		private final AtomicInteger cursor = new AtomicInteger();
+
+		Selector(long version, ServiceItem[] items) {
+			this.version = version;
+			this.items = items;
+		}
+
+		int size() {
+			return items.length;
+		}
+
+		/**
+		 * Returns the next item in round-robin order or <code>null</code> if
+		 * there are no matching items.
+		 */
+		ServiceItem next() {
+			if (items.length == 0)
+				return null;
+			return items[(cursor.getAndIncrement() & Integer.MAX_VALUE) % items.length];
+		}
+
+		/**
+		 * Returns all items starting at the next item in round-robin order.
+		 */
+		ServiceItem[] ordered() {
+			ServiceItem[] ordered = new ServiceItem[items.length];
+			if (items.length == 0)
+				return ordered;
+			int first = (cursor.getAndIncrement() & Integer.MAX_VALUE) % items.length;
+			for (int i = 0; i < items.length; i++)
+				ordered[i] = items[(first + i) % items.length];
+			return ordered;
+		}
+	}
+}
@@ -95,12 +95,12 @@ import java.util.concurrent.ConcurrentMap;
  * always removed and added to the end
  * 
  * <li> <code>getServiceItem(String[] interfaces), String providerName))</code>:
- * not only returns the serviceItem with the following specs, but also removes
- * and adds the sericeItem to the end of the list to provide load-balancing
+ * returns the serviceItems with the following specs in round-robin order to
+ * provide load-balancing. Lookups are served by a {@link ProviderRegistry}
+ * indexed by interface, provider name and serviceID.
  * 
- * <li>synchronized <code>getServiceItem(ServiceID serviceID)</code> returns a
- * service with a serviceID, with the same load-balancing feature mentioned
- * above
+ * <li><code>getServiceItem(ServiceID serviceID)</code> returns a
+ * service with a serviceID
  * 
  * <li> <code>getServiceMethods())</code> returns a hash map with the key as a
  * service interface (those interfaces package key starting with
@@ -125,6 +125,15 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 
 	protected final CatalogerInfo cinfo = new CatalogerInfo();
 
+	/** interval in milliseconds between provider health probes */
+	public static final String P_HEALTH_INTERVAL = "cataloger.health.interval";
+
+	/** time in milliseconds after which a running health probe marks its provider unhealthy */
+	public static final String P_HEALTH_TIMEOUT = "cataloger.health.timeout";
+
+	/** consecutive failed health probes after which a provider is evicted */
+	public static final String P_HEALTH_MAX_FAILURES = "cataloger.health.maxFailures";
+
 	private String[] locators = null;
 
 	public LookupLocator[] getLL() throws RemoteException {
@@ -223,6 +232,11 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 			cache = lookupMgr.createLookupCache(template, null,
 					new CatalogerEventListener(cinfo));
 
+			cinfo.health.start(
+					Long.parseLong(getProperty(P_HEALTH_INTERVAL, "" + ProviderHealthTracker.DEFAULT_INTERVAL)),
+					Long.parseLong(getProperty(P_HEALTH_TIMEOUT, "" + ProviderHealthTracker.DEFAULT_TIMEOUT)),
+					Integer.parseInt(getProperty(P_HEALTH_MAX_FAILURES, "" + ProviderHealthTracker.DEFAULT_MAX_FAILURES)));
+
 			logger.info("-----------------------------");
 			logger.info("Matching services that are: " + templateMatch);
 			logger.info(P_GROUPS + ": " + Arrays.toString(groups));
@@ -423,6 +437,10 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 	protected static class CatalogerInfo {
 		Cataloger cataloger = null;
 		final ConcurrentMap<InterfaceList, List<ServiceItem>> interfaceListMap = new ConcurrentHashMap<CatalogerInfo.InterfaceList, List<ServiceItem>>();
+		// indexed providers used for lookups
+		final ProviderRegistry registry = new ProviderRegistry();
+		// background liveness of the registered providers
+		final ProviderHealthTracker health;
 
         public ConcurrentMap<InterfaceList, List<ServiceItem>> getInterfaceListMap() {
             return interfaceListMap;
@@ -452,6 +470,18 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 			interfaceIgnoreList[6] = "sorcer.service.RemoteTasker";
 			interfaceIgnoreList[7] = "org.rioproject.admin.ServiceActivityProvider";
 			observable = new CatalogObservable();
+			health = new ProviderHealthTracker(new ProviderHealthTracker.Probe() {
+				@Override
+				public void probe(ServiceItem item) throws Exception {
+					checkAlive(item);
+				}
+			}, new ProviderHealthTracker.EvictionListener() {
+				@Override
+				public void evicted(ServiceItem item) {
+					// not Alive anymore removing from cataloger
+					removeServiceItem(item);
+				}
+			});
 		}
 
 		public void setCataloger(Cataloger cataloger) {
@@ -463,18 +493,8 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 		}
 
 		public void remove(ServiceItem value) {
-            InterfaceList found = null;
-            ServiceItem itemFound = null;
-            for (Map.Entry<InterfaceList, List<ServiceItem>> entry : interfaceListMap
-                    .entrySet()) {
-                for (ServiceItem item : entry.getValue()) {
-                    if (item.serviceID.equals(value.serviceID)) {
-                        found = entry.getKey();
-                        itemFound = item;
-                        break;
-                    }
-                }
-            }
+			registry.remove(value.serviceID);
+			health.untrack(value.serviceID);
         }
 
 
@@ -483,6 +503,8 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 					.getClass().getInterfaces());
 			List<ServiceItem> value;
             logger.info("Removing ServiceItem from Cataloger: " + sItem.toString());
+			registry.remove(sItem.serviceID);
+			health.untrack(sItem.serviceID);
 
 			for (InterfaceList key : interfaceListMap.keySet()) {
                 if (key.containsAllInterfaces(searchInterfaceList)) {
@@ -491,7 +513,7 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 						if (value.size() == 1)
 							remove(key);
 						else
-							removeFrom(value, sItem);
+							removeFrom(key, value, sItem);
 					}
 				}
 			}
@@ -528,6 +550,8 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 		}
 
 		public void addServiceItem(ServiceItem sItem) {
+			registry.add(sItem);
+			health.track(sItem);
 			InterfaceList keyList = new InterfaceList(sItem.service.getClass().getInterfaces());
 			List<ServiceItem> sItems = interfaceListMap.get(keyList);
 			if(sItems!=null) {
@@ -582,12 +606,15 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 			return name;
 		}
 
-        private void removeFrom(List<ServiceItem> sis, ServiceItem si) {
+        private void removeFrom(InterfaceList key, List<ServiceItem> sis, ServiceItem si) {
 			if (si.service == null)
 				return;
 			for (int i = 0; i < sis.size(); i++)
 				if (si.service.equals(sis.get(i).service)) {
-					sis.remove(i);
+					// replace the list, readers may iterate the current one
+					List<ServiceItem> workingList = new ArrayList<ServiceItem>(sis);
+					workingList.remove(i);
+					interfaceListMap.put(key, workingList);
 					return;
 				}
 		}
@@ -624,85 +651,30 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 		 * first parameter = String[] of interfaces<br>
 		 * second parameter = providerName if any
 		 * <p>
-		 * This method provides automatic load balancing by providing the
-		 * serviceItem from the beginning and by removing it and adding to the
-		 * end upon each request.
+		 * This method provides automatic load balancing by returning the
+		 * matching serviceItems in round-robin order.
 		 */
 		public ServiceItem getServiceItem(Class[] interfaces,
 				String providerName) {
 
-			logger.info("providerName = " + providerName + "\ninterfaces: "
-					+ GenericUtil.arrayToString(interfaces));
-
-			List<ServiceItem> list = getAll(new InterfaceList(interfaces));
-			logger.info("Cinfo getServiceItem, got: " + list);
-			if (providerName != null && providerName.equals(ANY))
+			if (logger.isDebugEnabled())
+				logger.debug("providerName = " + providerName + "\ninterfaces: "
+						+ GenericUtil.arrayToString(interfaces));
+			if (providerName != null && (providerName.equals(ANY) || providerName.length() == 0))
 				providerName = null;
-			if (list == null)
-				return null;
 
-			ServiceItem sItem;
-			// provide load balancing and check if still alive
-			if (providerName == null || providerName.length() == 0) {
-				do {
-					if (list.size() == 0)
-						return null;
-					sItem = list.remove(0);
-					if (sItem != null) {
-						if (isAlive(sItem)) {
-							list.add(sItem);
-							return sItem;
-						} else {
-							// not Alive anymore removing from cataloger
-							removeServiceItem(sItem);
-						}
-					}
-				} while (sItem != null);
-			} else {
-				net.jini.core.entry.Entry[] attrs;
-				for (int i = 0; i < list.size(); i++) {
-					attrs = list.get(i).attributeSets;
-					for (net.jini.core.entry.Entry et : attrs) {
-						if (et instanceof Name
-								&& providerName.equals(((Name) et).name)) {
-							sItem = list.remove(i);
-                            if (sItem != null) {
-                                if (isAlive(sItem)) {
-                                    list.add(sItem);
-                                    return sItem;
-                                } else {
-                                    // not Alive anymore removing from cataloger
-                                    removeServiceItem(sItem);
-                                }
-                            }
-						}
-					}
-				}
+			ProviderRegistry.Selector selector = registry.select(interfaces, providerName);
+			// provide load balancing and skip providers failing health probes
+			for (int i = 0; i < selector.size(); i++) {
+				ServiceItem sItem = selector.next();
+				if (health.isHealthy(sItem))
+					return sItem;
 			}
 			return null;
 		}
 
-		// there's no other better way of doing this because of the structure we
-		// maintain.
-		// we need to iterate through each and every one of the list and getValue the
-		// service
 		public ServiceItem getServiceItem(ServiceID serviceID) {
-			Collection<List<ServiceItem>> c = interfaceListMap.values();
-			if (c == null)
-				return null;
-			List<ServiceItem> sItems;
-			ServiceItem sItem;
-			for (Iterator<List<ServiceItem>> it = c.iterator(); it.hasNext();) {
-				sItems = it.next();
-				for (int i = 0; i < sItems.size(); i++) {
-					if (serviceID.equals((sItems.get(i)).serviceID)) {
-						sItem = sItems.remove(i);
-						sItems.add(sItem);
-						return sItem;
-					}
-				}
-			}
-			return null;
+			return registry.get(serviceID);
 		}
 
 		public List<ServiceItem> getAllServiceItems() {
@@ -719,55 +691,22 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 			// if maxItems is less or 0 then getValue all possible ServiceItems
 			if (maxItems <= 0)
 				maxItems = Integer.MAX_VALUE;
-			if (providerName != null && providerName.equals(ANY))
+			if (providerName != null && (providerName.equals(ANY) || providerName.length() == 0))
 				providerName = null;
-			// logger.debug("Looking for interfaces: " + interfaces);
-			List<ServiceItem> list = interfaceListMap.get(new InterfaceList(
-					interfaces));
-			// logger.debug("Got list: " + list.toString());
-			if (list == null)
+			ProviderRegistry.Selector selector = registry.select(interfaces, providerName);
+			if (selector.size() == 0)
 				return null;
 
-			ServiceItem sItem;
 			// provide load balancing
-			if (providerName == null || "".equals(providerName)) {
-				sItem = list.remove(0);
-				list.add(sItem);
-				ArrayList<ServiceItem> arItems = new ArrayList<ServiceItem>();
-				Iterator<ServiceItem> it = list.iterator();
-				while (it.hasNext() && arItems.size() < maxItems) {
-					// Check if provider is still alive
-					ServiceItem si = it.next();
-					if (isAlive(si) && (!arItems.contains(si)))
-						arItems.add(si);
-				}
-				ServiceItem[] sitems = new ServiceItem[arItems.size()];
-				for (int i = 0; i < arItems.size(); i++) {
-					sitems[i] = arItems.get(i);
-				}
-				return sitems;
-			} else {
-				net.jini.core.entry.Entry[] attrs;
-				List<ServiceItem> slist = new ArrayList<ServiceItem>();
-				Iterator<ServiceItem> it = list.iterator();
-				ServiceItem si = null;
-				while (it.hasNext() && slist.size() < maxItems) {
-					si = it.next();
-					attrs = si.attributeSets;
-					if (attrs != null && attrs.length > 0
-							&& (attrs[0] instanceof Name)
-							&& providerName.equals(((Name) attrs[0]).name)) {
-						if (isAlive(si) && (!slist.contains(si))) {
-							slist.add(si);
-						}
-					}
-				}
-				ServiceItem[] sitems = new ServiceItem[slist.size()];
-				for (int i = 0; i < slist.size(); i++) {
-					sitems[i] = slist.get(i);
-				}
-				return sitems;
+			List<ServiceItem> slist = new ArrayList<ServiceItem>();
+			for (ServiceItem si : selector.ordered()) {
+				if (slist.size() >= maxItems)
+					break;
+				// Check if provider is still alive
+				if (health.isHealthy(si))
+					slist.add(si);
 			}
+			return slist.toArray(new ServiceItem[slist.size()]);
 		}
 
 
@@ -1225,26 +1164,16 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 
 
     /**
-     * Tests if provider is still alive.
+     * Tests if provider is still alive, used by the {@link ProviderHealthTracker}.
      *
      * @param si service to check
-     * @return true if a provider is alive, otherwise false
+     * @throws Exception if a provider can not be reached
      */
-    private static boolean isAlive(ServiceItem si) {
-        if (si == null)
-            return false;
-        try {
-            if (si.service instanceof ServiceActivityProvider) {
-                boolean result = ((ServiceActivityProvider)si.service).isActive();
-            } else if (si.service instanceof Exerter) {
-                String name = ((Exerter) si.service).getProviderName();
-            }
-            return true;
-        } catch (Exception e) {
-            logger.warn("Service ID: " + si.serviceID
-					+ " is not Alive anymore");
-            // throw e;
-            return false;
+    private static void checkAlive(ServiceItem si) throws Exception {
+        if (si.service instanceof ServiceActivityProvider) {
+            ((ServiceActivityProvider) si.service).isActive();
+        } else if (si.service instanceof Exerter) {
+            ((Exerter) si.service).getProviderName();
         }
 	}
 
@@ -1274,7 +1203,6 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
         } else
         for (Map.Entry<InterfaceList, List<ServiceItem>> entry : cinfo.getInterfaceListMap().entrySet()) {
             List<ServiceItem> serviceItems;
-            List<ServiceItem> down = new LinkedList<ServiceItem>();
             synchronized (entry) {
                 serviceItems = new LinkedList<ServiceItem>(entry.getValue());
             }
@@ -1295,24 +1223,24 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
                             continue SRVITEM;
                         }
                     }
-                    if (isAlive(serviceItem)) {
+                    // dead providers are evicted by the health tracker
+                    if (cinfo.health.isHealthy(serviceItem)) {
                         logger.info("Service " + serviceItem.serviceID + " is adding to results for: " + tmpl.toString());
                         result.add(serviceItem);
-                    } else {
-                        // not Alive anymore removing from cataloger
-                        down.add(serviceItem);
                     }
                     if (result.size() >= maxMatches) break;
                 }
             }
-            synchronized (cinfo){
-                for(ServiceItem serviceItem: down)
-                        cinfo.removeServiceItem(serviceItem);
-            }
-
         }
         return new ServiceMatches(result.toArray(new ServiceItem[result.size()]), result.size());
     }
+
+    @Override
+    public void destroy() {
+        cinfo.health.stop();
+        super.destroy();
+    }
+
 	public String returnString() throws RemoteException {
 		return getClass().getName() + ":" + getProviderName();
 	}
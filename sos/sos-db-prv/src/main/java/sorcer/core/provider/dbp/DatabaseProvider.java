@@ -17,9 +17,12 @@
 
 package sorcer.core.provider.dbp;
 
+import com.sleepycat.bind.serial.SerialBinding;
 import com.sleepycat.collections.StoredMap;
 import com.sleepycat.collections.StoredValueSet;
-import com.sleepycat.je.DatabaseException;
+import com.sleepycat.collections.TransactionRunner;
+import com.sleepycat.collections.TransactionWorker;
+import com.sleepycat.je.*;
 import com.sun.jini.start.LifeCycle;
 import net.jini.config.Configuration;
 import net.jini.id.Uuid;
@@ -30,6 +33,9 @@ import sorcer.core.context.ServiceContext;
 import sorcer.core.provider.DatabaseStorer;
 import sorcer.core.provider.ServiceExerter;
 import sorcer.core.provider.StorageManagement;
+import sorcer.core.provider.StorePage;
+import sorcer.core.provider.dbp.WriteBehindQueue.Op;
+import sorcer.core.provider.dbp.WriteBehindQueue.Write;
 import sorcer.service.*;
 import sorcer.service.modeling.Functionality;
 import sorcer.service.modeling.Variability;
@@ -62,6 +68,16 @@ public class DatabaseProvider extends ServiceExerter implements DatabaseStorer {
 
 	private SorcerDatabaseViews views;
 
+	private WriteBehindQueue writes;
+
+	// the time in milliseconds to wait for the queued writes to commit
+	private static final long FLUSH_TIMEOUT = 30000;
+
+	// the records read or deleted per cursor pass
+	private static final int PAGE_SIZE = 1000;
+
+	private SerialBinding keyBinding;
+
 	public DatabaseProvider() throws RemoteException {
 		super();
 	}
@@ -80,17 +96,14 @@ public class DatabaseProvider extends ServiceExerter implements DatabaseStorer {
 		setupDatabase();
 	}
 
-    private Set<Uuid> objectsQueue = Collections.synchronizedSet(new HashSet<Uuid>());
-
 	public Uuid store(Object object) {
 		Object obj = object;
 //		if (!(object instanceof Identifiable)) {
 			obj = new UuidObject(object);
 //		}
-        PersistThread pt = new PersistThread(obj);
-		Uuid id = pt.getUuid();
-        pt.start();
-        return id;
+		Uuid id = ((UuidObject)obj).getId();
+		writes.submit(Store.object, id, Op.STORE, obj);
+		return id;
 	}
 
 	public Uuid update(Uuid uuid, Object object) throws InvalidObjectException {
@@ -99,224 +112,109 @@ public class DatabaseProvider extends ServiceExerter implements DatabaseStorer {
 		if (!(object instanceof Identifiable)) {
 			uuidObject = new UuidObject(uuid, object);
 		}
-		UpdateThread ut = new UpdateThread(uuid, uuidObject);
-        Uuid id = ut.getUuid();
-        ut.start();
-        return id;
+		writes.submit(getUpdatedStoreType(uuidObject), uuid, Op.UPDATE, uuidObject);
+		return uuid;
 	}
 
 	public Uuid updateObject(URL url, Object object) throws InvalidObjectException {
 //		logger.info("Updating url object: " + url);
+		Uuid uuid = SdbUtil.getUuid(url);
 		Object uuidObject = object;
 		if (!(object instanceof Identifiable)) {
-			uuidObject = new UuidObject(SdbUtil.getUuid(url), object);
+			uuidObject = new UuidObject(uuid, object);
 		}
-		UpdateThread ut = new UpdateThread(url, uuidObject);
-        Uuid id = ut.getUuid();
-        ut.start();
-		return id;
+		writes.submit(getUpdatedStoreType(uuidObject), uuid, Op.UPDATE, uuidObject);
+		return uuid;
 	}
 
-    private void append(Uuid id, Object object) {
-        waitIfBusy(id);
-        objectsQueue.add(id);
-//		logger.info("new waiting: " + object + " id: " + id + " size: " + objectsQueue.size());
+	/**
+	 * Waits until the writes submitted so far are committed.
+	 */
+	public void waitIfBusy() {
+		try {
+			if (!writes.flush(FLUSH_TIMEOUT))
+				logger.warn("Timed out waiting for " + writes.size() + " writes to commit");
+		} catch (InterruptedException ie) {
+			logger.warn("Interrupted while busy :" + writes.size());
+			Thread.currentThread().interrupt();
+		}
 	}
 
-    private void waitIfBusy(Uuid uuid) {
-        while (objectsQueue.contains(uuid)) {
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException ie) {
-                logger.warn("Interrupted while waiting for retrieved object: " + uuid);
-            }
-        }
-    }
-
-    private synchronized Set<Uuid> getCurrentBusy(){
-        return new HashSet<Uuid>(objectsQueue);
-    }
-
-    public void waitIfBusy() {
-        Set<Uuid> currentlyBusy = getCurrentBusy();
-        while (!currentlyBusy.isEmpty()) {
-            try {
-                currentlyBusy.retainAll(objectsQueue);
-//                logger.info("currentlyBusy size: " + currentlyBusy.size());
-                Thread.sleep(50);
-            } catch (InterruptedException ie) {
-                logger.warn("Interrupted while busy :" + currentlyBusy.size());
-            }
-        }
-    }
-
 	public Object getObject(Uuid uuid) {
 //		logger.info("Getting object: " + uuid);
-		waitIfBusy(uuid);
-		StoredMap<UuidKey, UuidObject> uuidObjectMap = views.getUuidObjectMap();
-
-		int tries = 0;
-		while (uuidObjectMap == null && tries < 100) {
-			logger.info("Didn't getValue UuidObjectMap, trying: " + tries);
-			try {
-				Thread.sleep(50);
-			} catch (InterruptedException ie) {
-			}
-			views.getUuidObjectMap();
-			tries++;
+		Write pending = writes.lookup(Store.object, uuid);
+		if (pending != null) {
+			if (pending.op == Op.DELETE)
+				return null;
+			return pending.object instanceof UuidObject
+					? ((UuidObject) pending.object).getObject() : pending.object;
 		}
-
+		StoredMap<UuidKey, UuidObject> uuidObjectMap = views.getUuidObjectMap();
 		UuidObject uuidObj = uuidObjectMap.get(new UuidKey(uuid));
 		return uuidObj != null ? uuidObj.getObject() : null;
 	}
 
 	public Context getContext(Uuid uuid) {
-        try {
-            append(uuid, "context");
-            StoredMap<UuidKey, Context> cxtMap = views.getContextMap();
-            return cxtMap.get(new UuidKey(uuid));
-        } finally {
-            objectsQueue.remove(uuid);
-        }
+		Write pending = writes.lookup(Store.context, uuid);
+		if (pending != null)
+			return pending.op == Op.DELETE ? null : (Context) pending.object;
+		StoredMap<UuidKey, Context> cxtMap = views.getContextMap();
+		return cxtMap.get(new UuidKey(uuid));
 	}
 
 	public Routine getExertion(Uuid uuid) {
-        try {
-            append(uuid, "exertion");
-            StoredMap<UuidKey, Routine> xrtMap = views.getRoutineMap();
-		    return xrtMap.get(new UuidKey(uuid));
-        } finally {
-            objectsQueue.remove(uuid);
-        }
+		Write pending = writes.lookup(Store.exertion, uuid);
+		if (pending != null)
+			return pending.op == Op.DELETE ? null : (Routine) pending.object;
+		StoredMap<UuidKey, Routine> xrtMap = views.getRoutineMap();
+		return xrtMap.get(new UuidKey(uuid));
 	}
 
     public ModelTable getTable(Uuid uuid) {
-        try {
-            append(uuid, "dataTable");
-            StoredMap<UuidKey, ModelTable> xrtMap = views.getTableMap();
-            return xrtMap.get(new UuidKey(uuid));
-        } finally {
-            objectsQueue.remove(uuid);
-        }
+        Write pending = writes.lookup(Store.table, uuid);
+        if (pending != null)
+            return pending.op == Op.DELETE ? null : (ModelTable) pending.object;
+        StoredMap<UuidKey, ModelTable> xrtMap = views.getTableMap();
+        return xrtMap.get(new UuidKey(uuid));
     }
 
-	protected class PersistThread extends Thread {
-
-		Object object;
-		Uuid uuid;
-
-		public PersistThread(Object object) {
-            super("PersistThread-" + ((Identifiable)object).getId());
-			this.object = object;
-			this.uuid = ((UuidObject)object).getId();
-			append(uuid, object);
-		}
-
-		@SuppressWarnings("unchecked")
-		public void run() {
-			try {
-//				logger.info("persisting: " + object);
-				StoredValueSet storedSet = views.getUuidObjectSet();
-				storedSet.add(object);
-//				TODO
-//				Object inner = ((UuidObject)object).getObject();
-//				if (inner instanceof Context) {
-//					storedSet = views.getContextSet();
-//					storedSet.add(object);
-//				} else if (inner instanceof Routine) {
-//					storedSet = views.getRoutineSet();
-//					storedSet.add(object);
-//				} else if (inner instanceof ModelTable) {
-//					storedSet = views.getTableSet();
-//					storedSet.add(object);
-//				} else if (inner instanceof UuidObject) {
-//					storedSet = views.getUuidObjectSet();
-//					storedSet.add(object);
-//				}
-			} finally {
-				objectsQueue.remove(this.uuid);
-			}
-		}
-
-		public Uuid getUuid() {
-			return uuid;
-		}
-	}
-
-	protected class UpdateThread extends Thread {
-
-		Object object;
-		Uuid uuid;
-
-		public UpdateThread(Uuid uuid, Object object) throws InvalidObjectException {
-			this.uuid = uuid;
-			this.object = object;
-		}
-
-		public UpdateThread(URL url, Object object) throws InvalidObjectException {
-            super("UpdateThread-" + url);
-			this.object = object;
-			this.uuid = SdbUtil.getUuid(url);
-            append(uuid, object);
-		}
-
-		public void run() {
-            StoredMap storedMap = null;
-            UuidKey key = null;
-			try {
-                key = new UuidKey(uuid);
-                if (object instanceof Context) {
-                    storedMap = views.getContextMap();
-                    storedMap.replace(key, object);
-                } else if (object instanceof Routine) {
-                    storedMap = views.getRoutineMap();
-                    storedMap.replace(key, object);
-                } else if (object instanceof ModelTable) {
-                    storedMap = views.getTableMap();
-                    storedMap.replace(key, object);
-                } else if (object instanceof Object) {
-                    storedMap = views.getUuidObjectMap();
-                    storedMap.replace(key, object);
-                }
-            } catch (IllegalArgumentException ie) {
-                logger.warn("Problem updating object with key: " + key.toString()
-						+ "\n" + storedMap.get(key).toString());
-                objectsQueue.remove(this.uuid);
-                throw (ie);
-            } finally {
-                objectsQueue.remove(this.uuid);
-            }
-		}
-
-		public Uuid getUuid() {
-			return uuid;
-		}
-	}
-
-	protected class DeleteThread extends Thread {
-
-		Uuid uuid;
-		Store storeType;
-        StoredMap storedMap;
-
-        public DeleteThread(Uuid uuid, Store storeType) {
-            super("DeleteThread-" + uuid);
-            this.uuid = uuid;
-			this.storeType = storeType;
-            storedMap = getStoredMap(storeType);
-            append(uuid, "deleteThread");
+	/**
+	 * Commits a batch of queued writes in one transaction.
+	 */
+	private class BatchWriter implements WriteBehindQueue.Writer {
+		private final TransactionRunner runner = new TransactionRunner(db.getEnvironment());
+
+		public void write(final Collection<Write> batch) throws Exception {
+			runner.run(new TransactionWorker() {
+				public void doWork() {
+					for (Write write : batch)
+						apply(write);
+				}
+			});
 		}
 
-		public void run() {
-            try {
-                storedMap.remove(new UuidKey(uuid));
-            } finally {
-                objectsQueue.remove(this.uuid);
-            }
+		public void write(final Write write) throws Exception {
+			runner.run(new TransactionWorker() {
+				public void doWork() {
+					apply(write);
+				}
+			});
 		}
 
-		public Uuid getUuid() {
-			return uuid;
+		private void apply(Write write) {
+			StoredMap storedMap = getMap(write.store);
+			if (storedMap == null) {
+				logger.warn("No store of type: " + write.store + " for object: " + write.uuid);
+				return;
+			}
+			UuidKey key = new UuidKey(write.uuid);
+			if (write.op == Op.STORE) {
+				storedMap.put(key, write.object);
+			} else if (write.op == Op.UPDATE) {
+				storedMap.replace(key, write.object);
+			} else {
+				storedMap.remove(key);
+			}
 		}
 	}
 
@@ -355,16 +253,14 @@ public class DatabaseProvider extends ServiceExerter implements DatabaseStorer {
 	}
 
 	public int size(Store storeType) {
-		StoredValueSet storedSet = getStoredSet(storeType);
-		return storedSet.size();
+		waitIfBusy();
+		return (int) db.getDatabase(storeType).count();
 	}
 
 	public Uuid deleteObject(URL url) {
 		Store storeType = SdbUtil.getStoreType(url);
 		Uuid id = SdbUtil.getUuid(url);
-		DeleteThread dt = new DeleteThread(id, storeType);
-		dt.start();
-		id = dt.getUuid();
+		writes.submit(storeType, id, Op.DELETE, null);
 		return id;
 	}
 
@@ -459,21 +355,104 @@ public class DatabaseProvider extends ServiceExerter implements DatabaseStorer {
 	@Override
 	public Context contextList(Context context) throws RemoteException,
 			ContextException, MalformedURLException {
-		List<String> content = list((Store) context.getValue(StorageManagement.store_type));
-		context.putValue(StorageManagement.store_content_list, content);
+		Store type = (Store) context.getValue(StorageManagement.store_type);
+		Object limit = context.getValue(StorageManagement.store_page_limit);
+		if (!(limit instanceof Integer)) {
+			context.putValue(StorageManagement.store_content_list, list(type));
+			return context;
+		}
+		StorePage page;
+		Object token = context.getValue(StorageManagement.store_page_token);
+		Object offset = context.getValue(StorageManagement.store_page_offset);
+		if (token instanceof String)
+			page = list(type, (String) token, (Integer) limit, true);
+		else
+			page = list(type, offset instanceof Number ? ((Number) offset).longValue() : 0, (Integer) limit, true);
+		context.putValue(StorageManagement.store_content_list, page.getRecords());
+		context.putValue(StorageManagement.store_page_next, page.getResumeToken());
 		return context;
 	}
 	
 	public List<String> list(Store storeType) {
-		StoredValueSet storedSet = getStoredSet(storeType);
-        logger.info("list got storedSet size: " + storedSet.size());
-		List<String> contents = new ArrayList<String>(storedSet.size());
-		Iterator it = storedSet.iterator();
-		while(it.hasNext()) {
-			contents.add(it.next().toString());
+		waitIfBusy();
+		List<String> contents = new ArrayList<String>();
+		StorePage page = page(storeType, null, 0, PAGE_SIZE, true);
+		contents.addAll(page.getRecords());
+		while (page.hasMore()) {
+			page = page(storeType, decode(page.getResumeToken()), 0, PAGE_SIZE, true);
+			contents.addAll(page.getRecords());
 		}
 		return contents;
 	}
+
+	public StorePage list(Store storeType, String resumeToken, int limit, boolean describe) {
+		waitIfBusy();
+		return page(storeType, resumeToken == null ? null : decode(resumeToken), 0, limit, describe);
+	}
+
+	public StorePage list(Store storeType, long offset, int limit, boolean describe) {
+		waitIfBusy();
+		return page(storeType, null, offset, limit, describe);
+	}
+
+	/**
+	 * Reads a page of records with a cursor over the keys of the store,
+	 * starting after the given key or at the given offset. Only the
+	 * described records are deserialized.
+	 */
+	private StorePage page(Store storeType, byte[] after, long offset, int limit, boolean describe) {
+		Database database = db.getDatabase(storeType);
+		if (database == null)
+			throw new IllegalArgumentException("No store of type: " + storeType);
+		StoredMap storedMap = describe ? getMap(storeType) : null;
+		List<String> records = new ArrayList<String>(Math.min(Math.max(limit, 0), PAGE_SIZE));
+		DatabaseEntry key = new DatabaseEntry();
+		DatabaseEntry data = new DatabaseEntry();
+		data.setPartial(0, 0, true);
+		byte[] last = null;
+		Cursor cursor = database.openCursor(null, CursorConfig.READ_COMMITTED);
+		try {
+			OperationStatus status;
+			if (after != null) {
+				key.setData(after);
+				status = cursor.getSearchKeyRange(key, data, null);
+				if (status == OperationStatus.SUCCESS && Arrays.equals(after, keyBytes(key)))
+					status = cursor.getNext(key, data, null);
+			} else {
+				status = cursor.getFirst(key, data, null);
+				if (status == OperationStatus.SUCCESS && offset > 0
+						&& cursor.skipNext(offset, key, data, null) < offset)
+					status = OperationStatus.NOTFOUND;
+			}
+			while (status == OperationStatus.SUCCESS && records.size() < limit) {
+				UuidKey uuidKey = (UuidKey) keyBinding.entryToObject(key);
+				Object record = storedMap != null ? storedMap.get(uuidKey) : null;
+				records.add(record != null ? record.toString() : uuidKey.getId().toString());
+				last = keyBytes(key);
+				status = cursor.getNext(key, data, null);
+			}
+			String next = status == OperationStatus.SUCCESS && last != null ? encode(last) : null;
+			return new StorePage(records, next);
+		} finally {
+			cursor.close();
+		}
+	}
+
+	private static byte[] keyBytes(DatabaseEntry entry) {
+		return Arrays.copyOfRange(entry.getData(), entry.getOffset(), entry.getOffset() + entry.getSize());
+	}
+
+	private static String encode(byte[] key) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(key);
+	}
+
+	private static byte[] decode(String resumeToken) {
+		try {
+			return Base64.getUrlDecoder().decode(resumeToken);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid resume token: " + resumeToken, e);
+		}
+	}
 	
 	public List<String> list(URL url) {
 		return list(SdbUtil.getStoreType(url));
@@ -490,11 +469,43 @@ public class DatabaseProvider extends ServiceExerter implements DatabaseStorer {
 		return context;
 	}
 	
+	/**
+	 * Deletes all records of the store in transactions of a page of records
+	 * each, without reading the stored objects.
+	 */
 	public int clear(Store type) throws RemoteException,
 			ContextException, MalformedURLException {
-		StoredValueSet storedSet = getStoredSet(type);
-		int size = storedSet.size();
-		storedSet.clear();
+		waitIfBusy();
+		Database database = db.getDatabase(type);
+		if (database == null)
+			throw new ContextException("No store of type: " + type);
+		Environment env = db.getEnvironment();
+		DatabaseEntry key = new DatabaseEntry();
+		DatabaseEntry data = new DatabaseEntry();
+		data.setPartial(0, 0, true);
+		int size = 0;
+		int deleted;
+		do {
+			deleted = 0;
+			Transaction txn = env.beginTransaction(null, null);
+			Cursor cursor = database.openCursor(txn, null);
+			try {
+				while (deleted < PAGE_SIZE && cursor.getNext(key, data, LockMode.RMW) == OperationStatus.SUCCESS) {
+					cursor.delete();
+					deleted++;
+				}
+				cursor.close();
+				cursor = null;
+				txn.commit();
+				txn = null;
+			} finally {
+				if (cursor != null)
+					cursor.close();
+				if (txn != null)
+					txn.abort();
+			}
+			size += deleted;
+		} while (deleted == PAGE_SIZE);
 		return size;
 	}
 
@@ -528,6 +539,20 @@ public class DatabaseProvider extends ServiceExerter implements DatabaseStorer {
 		logger.info("Opening provider's BDBJE in: " + dbHomeFile.getAbsolutePath());
 		db = new SorcerDatabase(dbHome);
 		views = new SorcerDatabaseViews(db);
+		keyBinding = new SerialBinding(db.getClassCatalog(), UuidKey.class);
+		int capacity = WriteBehindQueue.DEFAULT_CAPACITY;
+		int maxBatch = WriteBehindQueue.DEFAULT_MAX_BATCH;
+		try {
+			capacity = (Integer) config.getEntry(ServiceExerter.COMPONENT,
+					"writeQueueCapacity", int.class, capacity);
+			maxBatch = (Integer) config.getEntry(ServiceExerter.COMPONENT,
+					"writeBatchSize", int.class, maxBatch);
+		} catch (Exception e) {
+			// do nothing, default values are used
+		}
+		writes = new WriteBehindQueue("DatabaseProvider-writer", new BatchWriter(),
+				capacity, maxBatch, WriteBehindQueue.DEFAULT_MAX_DELAY);
+		writes.start();
 	}
 	
 	/**
@@ -537,15 +562,13 @@ public class DatabaseProvider extends ServiceExerter implements DatabaseStorer {
 	 */
 	public void destroy() {
 		try {
-            int tries=0;
-            try {
-                while (objectsQueue.size()>0 && tries<80) {
-                    Thread.sleep(50);
-                    tries++;
-                }
-                if (tries==80) logger.warn("Interrupted while objects where still being used; size: "
-                + objectsQueue.size());
-            } catch (InterruptedException ie) {}
+			if (writes != null) {
+				try {
+					writes.close(FLUSH_TIMEOUT);
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+				}
+			}
 			if (db != null) {
 				db.close();
 			}
@@ -577,6 +600,10 @@ public class DatabaseProvider extends ServiceExerter implements DatabaseStorer {
 	
 	public StoredMap getStoredMap(Store storeType) {
         waitIfBusy();
+        return getMap(storeType);
+	}
+
+	private StoredMap getMap(Store storeType) {
 		StoredMap storedMap = null;
 		if (storeType == Store.context) {
 			storedMap = views.getContextMap();
@@ -615,38 +642,29 @@ public class DatabaseProvider extends ServiceExerter implements DatabaseStorer {
 	
 	public Uuid deleteIdentifiable(Object object) {
 		Uuid id = (Uuid) ((Identifiable) object).getId();
-		DeleteThread dt = null;
-		if (object instanceof Context) {
-			dt = new DeleteThread(id, Store.context);
-		} else if (object instanceof Routine) {
-			dt = new DeleteThread(id, Store.exertion);
-		} else if (object instanceof Functionality) {
-			dt = new DeleteThread(id, Store.var);
-		} else if (object instanceof Variability) {
-			dt = new DeleteThread(id, Store.varmodel);
-		} else if (object instanceof ModelTable) {
-            dt = new DeleteThread(id, Store.table);
-        } else {
-			dt = new DeleteThread(id, Store.object);			
-		}
-		dt.start();
-		id = dt.getUuid();
+		writes.submit(getStoreType(object), id, Op.DELETE, null);
 		return id;
 	}
 	
 	private int getStoreSize(Store type) {
-        waitIfBusy();
-		if (type == Store.context) {
-			return views.getContextSet().size();
-		} else if (type == Store.exertion) {
-			return views.getRoutineSet().size();
-		} else if (type == Store.table) {
-            return views.getTableSet().size();
-        } else {
-			return views.getUuidObjectSet().size();
-		}
+		if (type != Store.context && type != Store.exertion && type != Store.table)
+			type = Store.object;
+		return size(type);
 	}
 	
+	/**
+	 * Returns the type of the store an updated object is replaced in.
+	 */
+	private Store getUpdatedStoreType(Object object) {
+		if (object instanceof Context)
+			return Store.context;
+		else if (object instanceof Routine)
+			return Store.exertion;
+		else if (object instanceof ModelTable)
+			return Store.table;
+		return Store.object;
+	}
+
 	private Store getStoreType(Object object) {
 		Store type = Store.object;
 		if (object instanceof Context) {
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.provider.dbp;
+
+import net.jini.id.Uuid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.core.provider.DatabaseStorer.Store;
+
+import java.util.*;
+
+/**
+ * The write-behind pipeline of {@link DatabaseProvider}. Writes are queued
+ * and applied by a single writer thread in batches, each batch in one
+ * transaction, so a burst of writes costs one commit per batch instead of
+ * one per object. A write replaces the pending write of the same object, so
+ * repeated updates are applied once. Queued writes are visible to readers
+ * through {@link #lookup(Store, Uuid)} until they are committed, and
+ * writers block while <code>capacity</code> distinct objects are pending.
+ */
+class WriteBehindQueue {
+	private static final Logger logger = LoggerFactory.getLogger(WriteBehindQueue.class);
+
+	public static final int DEFAULT_CAPACITY = 10000;
+
+	public static final int DEFAULT_MAX_BATCH = 500;
+
+	public static final long DEFAULT_MAX_DELAY = 10;
+
+	enum Op { STORE, UPDATE, DELETE }
+
+	/**
+	 * Applies a batch of writes in one transaction.
+	 */
+	interface Writer {
+		void write(Collection<Write> batch) throws Exception;
+
+		void write(Write write) throws Exception;
+	}
+
+	static class Write {
+		final Store store;
+		final Uuid uuid;
+		final Op op;
+		final Object object;
+		// the number of the first write submitted this write stands for
+		final long seq;
+
+		Write(Store store, Uuid uuid, Op op, Object object, long seq) {
+			this.store = store;
+			this.uuid = uuid;
+			this.op = op;
+			this.object = object;
+			this.seq = seq;
+		}
+
+		/**
+		 * Returns the write that has the effect of this write followed by the
+		 * given one.
+		 */
+		Write then(Write next) {
+			if (next.op == Op.UPDATE) {
+				// an update replaces an object only if it exists
+				if (op == Op.DELETE)
+					return this;
+				if (op == Op.STORE)
+					return new Write(store, uuid, Op.STORE, next.object, seq);
+			}
+			return next;
+		}
+
+		Write at(long seq) {
+			return seq == this.seq ? this : new Write(store, uuid, op, object, seq);
+		}
+	}
+
+	private static class Key {
+		final Store store;
+		final Uuid uuid;
+
+		Key(Store store, Uuid uuid) {
+			this.store = store;
+			this.uuid = uuid;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key))
+				return false;
+			Key key = (Key) o;
+			return store == key.store && uuid.equals(key.uuid);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * store.hashCode() + uuid.hashCode();
+		}
+	}
+
+	private final String name;
+
+	private final Writer writer;
+
+	private final int capacity;
+
+	private final int maxBatch;
+
+	private final long maxDelay;
+
+	// writes not taken by the writer yet, in submission order
+	private final Map<Key, Write> pending = new LinkedHashMap<Key, Write>();
+
+	// writes of the batch being committed
+	private final Map<Key, Write> committing = new HashMap<Key, Write>();
+
+	// the number of writes submitted
+	private long submitted;
+
+	// the number of the first write of the batch being committed
+	private long committingFrom;
+
+	private Thread thread;
+
+	private boolean running;
+
+	/**
+	 * @param maxDelay the time in milliseconds the writer waits for more
+	 *                 writes to fill a batch
+	 */
+	WriteBehindQueue(String name, Writer writer, int capacity, int maxBatch, long maxDelay) {
+		this.name = name;
+		this.writer = writer;
+		this.capacity = Math.max(1, capacity);
+		this.maxBatch = Math.max(1, maxBatch);
+		this.maxDelay = Math.max(0, maxDelay);
+	}
+
+	synchronized void start() {
+		if (thread != null)
+			return;
+		running = true;
+		thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				drain();
+			}
+		}, name);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Queues a write, blocking while the queue is full. An interrupted
+	 * writer queues the write regardless and keeps its interrupt status.
+	 *
+	 * @throws IllegalStateException if the queue is not started or closed
+	 */
+	synchronized void submit(Store store, Uuid uuid, Op op, Object object) {
+		if (!running)
+			throw new IllegalStateException(name + " is closed, " + op + " of " + uuid + " rejected");
+		Key key = new Key(store, uuid);
+		Write write = new Write(store, uuid, op, object, ++submitted);
+		Write previous = pending.get(key);
+		if (previous != null) {
+			// keeps the place of the previous write in the queue
+			pending.put(key, previous.then(write).at(previous.seq));
+			return;
+		}
+		Write committed = committing.get(key);
+		if (committed != null)
+			write = committed.then(write).at(write.seq);
+		boolean interrupted = false;
+		while (running && pending.size() >= capacity && !interrupted) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+		if (!running)
+			throw new IllegalStateException(name + " is closed, " + op + " of " + uuid + " rejected");
+		// the writer may have taken a coalesced write while this one waited
+		previous = pending.get(key);
+		pending.put(key, previous != null ? previous.then(write).at(previous.seq) : write);
+		// the writer waits for the first write or a full batch
+		if (pending.size() == 1 || pending.size() >= maxBatch)
+			notifyAll();
+	}
+
+	/**
+	 * Returns the latest write of the object not committed yet, or
+	 * <code>null</code> if the stored object is current.
+	 */
+	synchronized Write lookup(Store store, Uuid uuid) {
+		Key key = new Key(store, uuid);
+		Write write = pending.get(key);
+		return write != null ? write : committing.get(key);
+	}
+
+	synchronized int size() {
+		return pending.size() + committing.size();
+	}
+
+	/**
+	 * Waits until the writes queued so far are committed, at most the given
+	 * time in milliseconds, and returns <code>true</code> if they are. Writes
+	 * submitted meanwhile are not waited for.
+	 */
+	synchronized boolean flush(long timeout) throws InterruptedException {
+		long target = submitted;
+		long deadline = System.currentTimeMillis() + timeout;
+		while (thread != null && committed() < target) {
+			long left = deadline - System.currentTimeMillis();
+			if (left <= 0)
+				return false;
+			wait(left);
+		}
+		return committed() >= target;
+	}
+
+	/**
+	 * Returns the number of the last write committed along with all the
+	 * writes submitted before it. Writes are taken in the order of their
+	 * first submission, so the oldest uncommitted write heads the batch
+	 * being committed or the pending writes.
+	 */
+	private long committed() {
+		if (!committing.isEmpty())
+			return committingFrom - 1;
+		if (!pending.isEmpty())
+			return pending.values().iterator().next().seq - 1;
+		return submitted;
+	}
+
+	/**
+	 * Commits the queued writes, waiting at most the given time, and stops
+	 * the writer. Writes submitted from now on are rejected.
+	 */
+	void close(long timeout) throws InterruptedException {
+		Thread writerThread;
+		synchronized (this) {
+			if (thread == null)
+				return;
+			running = false;
+			writerThread = thread;
+			notifyAll();
+		}
+		writerThread.join(timeout);
+		synchronized (this) {
+			if (!pending.isEmpty())
+				logger.warn("{} closed with {} writes not committed", name, pending.size());
+		}
+	}
+
+	private void drain() {
+		while (true) {
+			List<Write> batch;
+			synchronized (this) {
+				try {
+					while (running && pending.isEmpty())
+						wait();
+					// give concurrent writers a moment to fill the batch
+					long deadline = System.currentTimeMillis() + maxDelay;
+					long left = maxDelay;
+					while (running && pending.size() < maxBatch && left > 0) {
+						wait(left);
+						left = deadline - System.currentTimeMillis();
+					}
+				} catch (InterruptedException e) {
+					running = false;
+				}
+				if (pending.isEmpty() && !running) {
+					thread = null;
+					notifyAll();
+					return;
+				}
+				batch = new ArrayList<Write>(Math.min(maxBatch, pending.size()));
+				committingFrom = pending.values().iterator().next().seq;
+				Iterator<Map.Entry<Key, Write>> it = pending.entrySet().iterator();
+				while (it.hasNext() && batch.size() < maxBatch) {
+					Map.Entry<Key, Write> entry = it.next();
+					committing.put(entry.getKey(), entry.getValue());
+					batch.add(entry.getValue());
+					it.remove();
+				}
+				notifyAll();
+			}
+			commit(batch);
+			synchronized (this) {
+				committing.clear();
+				notifyAll();
+			}
+		}
+	}
+
+	private void commit(List<Write> batch) {
+		try {
+			writer.write(batch);
+			if (logger.isDebugEnabled())
+				logger.debug("{} committed {} writes", name, batch.size());
+		} catch (Exception e) {
+			// isolate the failed writes from the rest of the batch
+			logger.warn("{} failed to commit {} writes, retrying one by one: {}", name, batch.size(), e.toString());
+			for (Write write : batch) {
+				try {
+					writer.write(write);
+				} catch (Exception we) {
+					logger.warn("{} failed to {} object: {}", name, write.op, write.uuid, we);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package sorcer.core.provider.dbp;
+
+import net.jini.id.Uuid;
+import net.jini.id.UuidFactory;
+import org.junit.Test;
+import sorcer.core.provider.DatabaseStorer.Store;
+import sorcer.core.provider.dbp.WriteBehindQueue.Op;
+import sorcer.core.provider.dbp.WriteBehindQueue.Write;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class WriteBehindQueueTest {
+
+    private static class SlowWriter implements WriteBehindQueue.Writer {
+        final Set<Uuid> written = Collections.synchronizedSet(new HashSet<Uuid>());
+
+        @Override
+        public void write(Collection<Write> batch) throws Exception {
+            Thread.sleep(5);
+            for (Write write : batch)
+                written.add(write.uuid);
+        }
+
+        @Override
+        public void write(Write write) throws Exception {
+            written.add(write.uuid);
+        }
+    }
+
+    @Test
+    public void testFlushWhileWriting() throws Exception {
+        SlowWriter writer = new SlowWriter();
+        final WriteBehindQueue queue = new WriteBehindQueue("test-writer", writer, 1000, 10, 1);
+        queue.start();
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        Thread other = new Thread() {
+            @Override
+            public void run() {
+                while (writing.get())
+                    queue.submit(Store.object, UuidFactory.generate(), Op.STORE, "other");
+            }
+        };
+        other.start();
+        try {
+            Thread.sleep(50);
+            Uuid id = UuidFactory.generate();
+            queue.submit(Store.object, id, Op.STORE, "mine");
+            long start = System.currentTimeMillis();
+            // the other writer keeps the queue busy
+            assertTrue(queue.flush(10000));
+            assertTrue(System.currentTimeMillis() - start < 5000);
+            assertTrue(writer.written.contains(id));
+        } finally {
+            writing.set(false);
+            other.join();
+            queue.close(10000);
+        }
+    }
+
+    @Test
+    public void testFlushCoalescedWrite() throws Exception {
+        SlowWriter writer = new SlowWriter();
+        WriteBehindQueue queue = new WriteBehindQueue("test-writer", writer, 1000, 10, 1);
+        queue.start();
+        Uuid id = UuidFactory.generate();
+        queue.submit(Store.object, id, Op.STORE, "first");
+        queue.submit(Store.object, id, Op.UPDATE, "second");
+        assertTrue(queue.flush(10000));
+        assertTrue(writer.written.contains(id));
+        assertNull(queue.lookup(Store.object, id));
+        queue.close(10000);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSubmitAfterClose() throws Exception {
+        WriteBehindQueue queue = new WriteBehindQueue("test-writer", new SlowWriter(), 1000, 10, 1);
+        queue.start();
+        queue.close(10000);
+        queue.submit(Store.object, UuidFactory.generate(), Op.STORE, "late");
+    }
+}
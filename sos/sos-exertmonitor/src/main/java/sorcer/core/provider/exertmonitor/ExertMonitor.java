@@ -18,6 +18,9 @@
 package sorcer.core.provider.exertmonitor;
 
 import com.sleepycat.collections.StoredMap;
+import com.sleepycat.collections.StoredSortedMap;
+import com.sleepycat.collections.TransactionRunner;
+import com.sleepycat.collections.TransactionWorker;
 import com.sleepycat.je.DatabaseException;
 import com.sun.jini.landlord.LeasedResource;
 import com.sun.jini.start.LifeCycle;
@@ -26,6 +29,7 @@ import net.jini.core.event.RemoteEventListener;
 import net.jini.core.lease.Lease;
 import net.jini.core.lease.LeaseDeniedException;
 import net.jini.id.Uuid;
+import net.jini.id.UuidFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sorcer.core.UEID;
@@ -34,11 +38,13 @@ import sorcer.core.monitor.MonitorEvent;
 import sorcer.core.monitor.MonitoringManagement;
 import sorcer.core.provider.MonitorManagementSession;
 import sorcer.core.provider.ServiceExerter;
+import sorcer.core.provider.exertmonitor.db.JournalKey;
 import sorcer.core.provider.exertmonitor.db.SessionDatabase;
 import sorcer.core.provider.exertmonitor.db.SessionDatabaseViews;
 import sorcer.core.provider.exertmonitor.lease.MonitorLandlord;
 import sorcer.security.util.SorcerPrincipal;
 import sorcer.service.*;
+import sorcer.util.bdb.objects.MarshalledData;
 import sorcer.util.bdb.objects.UuidKey;
 
 import java.io.File;
@@ -47,16 +53,26 @@ import java.rmi.RemoteException;
 import java.security.Principal;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
 
 @SuppressWarnings("unchecked")
-public class ExertMonitor extends ServiceExerter implements MonitoringManagement {
+public class ExertMonitor extends ServiceExerter implements MonitoringManagement, SessionJournal {
 	static transient final Logger logger = LoggerFactory.getLogger(ExertMonitor.class.getName());
+	// the number of journaled changes after which a root session is compacted
+	public static final int DEFAULT_COMPACTION_THRESHOLD = 64;
 	private MonitorLandlord landlord;
 	private SessionDatabase db;
 	private StoredMap<UuidKey, MonitorManagementSession> resources;
-    private Map<Uuid, UuidKey> cacheSessionKeyMap = new HashMap<>();
+    private final ExertionIndex index = new ExertionIndex();
     private final Object resourcesWriteLock = new Object();
+	private StoredSortedMap<JournalKey, MarshalledData> journal;
+	// the next sequence number and the number of journaled changes of root sessions
+	private Map<Uuid, long[]> journalStates = new HashMap<>();
+	private int compactionThreshold;
+	private TransactionRunner txnRunner;
     private ExertMonitorEventHandler eventHandler;
 
 	public ExertMonitor(String[] args, LifeCycle lifeCycle) throws Exception {
@@ -86,10 +102,25 @@ public class ExertMonitor extends ServiceExerter implements MonitoringManagement
 		db = new SessionDatabase(dbHome);
 		SessionDatabaseViews views = new SessionDatabaseViews(db);
 		resources = views.getSessionMap();
+		journal = views.getJournalMap();
+		txnRunner = new TransactionRunner(db.getEnvironment());
+		compactionThreshold = Integer.parseInt(getProperty("monitor.journal.compaction",
+				Integer.toString(DEFAULT_COMPACTION_THRESHOLD)));
 
 		// statically initialize
 		MonitorSession.mLandlord = landlord;
 		MonitorSession.sessionManager = (MonitoringManagement) getServiceProxy();
+		MonitorSession.journal = this;
+
+		// index the stored sessions
+		synchronized (resourcesWriteLock) {
+			for (UuidKey key : resources.keySet()) {
+				MonitorSession session = getSession(key);
+				if (session != null)
+					index.updateAll(key.getId(), session);
+			}
+		}
+		logger.info("Indexed {} exertions", index.size());
 
         eventHandler = new ExertMonitorEventHandler(getProviderConfiguration());
 	}
@@ -307,16 +338,30 @@ public class ExertMonitor extends ServiceExerter implements MonitoringManagement
 	 */
 	public Map<Uuid, ExertionInfo> getMonitorableExertionInfo(Exec.State state,
 															  Principal principal) throws MonitorException {
+		return getMonitorableExertionInfo(state, principal, 0, 0, Integer.MAX_VALUE);
+	}
+
+	public Map<Uuid, ExertionInfo> getMonitorableExertionInfo(Exec.State state, Principal principal, long since,
+															  int offset, int limit) throws MonitorException {
         logger.debug("Trying to getValue exertionInfos for: {} for: {}", (state==null?"null":state.toString()), principal);
-		Map<Uuid, ExertionInfo> table = new HashMap<>();
+		Map<Uuid, ExertionInfo> table = new LinkedHashMap<>();
+		Integer status = state == null || state.equals(Exec.State.NULL) ? null : state.ordinal();
+		List<ExertionIndex.Entry> entries = index.query(((SorcerPrincipal) principal).getId(), status, since,
+				offset, limit);
+		// the root sessions read for this query
+		Map<Uuid, MonitorSession> roots = new HashMap<>();
 		try {
-			if (resources==null) return table;
-			Iterator<UuidKey> ki = resources.keySet().iterator();
-			UuidKey key;
-			while (ki.hasNext()) {
-				key = ki.next();
-                MonitorSession monSession = getSession(key);
-                table.putAll(getMonitorableExertionInfo(monSession, key, state, principal));
+			for (ExertionIndex.Entry entry : entries) {
+				MonitorSession root = roots.get(entry.rootKey);
+				if (root == null) {
+					root = getSession(entry.rootKey);
+					if (root == null)
+						continue;
+					roots.put(entry.rootKey, root);
+				}
+				MonitorSession session = root.getSessionResource(entry.cookie);
+				if (session != null)
+					table.put(entry.exertionId, new ExertionInfo(session.getRuntimeExertion(), entry.rootKey));
 			}
 		} catch (Exception e) {
 			logger.error("Failed getting ExertionInfo for principal: {}, State: {}",
@@ -326,23 +371,6 @@ public class ExertMonitor extends ServiceExerter implements MonitoringManagement
 		return table;
 	}
 
-    private Map<Uuid, ExertionInfo> getMonitorableExertionInfo(MonitorSession monitorSession, UuidKey key, Exec.State state, Principal principal) throws RemoteException,MonitorException {
-        Map<Uuid, ExertionInfo> table = new HashMap<>();
-        logger.debug("Trying to getValue exertionInfos for: {} state: {} for: {}", monitorSession, (state==null?"null":state.toString()), principal);
-        Subroutine xrt = (Subroutine) (monitorSession).getRuntimeExertion();
-        if (xrt.getPrincipal().getId()
-                .equals(((SorcerPrincipal) principal).getId())) {
-            if (state == null || state.equals(Exec.State.NULL)
-                    || xrt.getStatus() == state.ordinal()) {
-                table.put(xrt.getId(), new ExertionInfo(xrt, key.getId()));
-            }
-        }
-        for (MonitorSession internalSession : monitorSession) {
-            table.putAll(getMonitorableExertionInfo(internalSession, key, state, principal));
-        }
-        return table;
-    }
-
     public Routine getMonitorableExertion(Uuid id, Principal principal) throws MonitorException {
         Routine xrt = getSession(id).getRuntimeExertion();
         if (((Subroutine) xrt).getPrincipal().getId().equals(((SorcerPrincipal) principal).getId()))
@@ -356,25 +384,23 @@ public class ExertMonitor extends ServiceExerter implements MonitoringManagement
 	 * exertion if the client has enough credentials.
 	 */
 	public Routine getMonitorableExertion(UEID cookie, Principal principal) throws MonitorException {
-        UuidKey lkey = cacheSessionKeyMap.get(cookie.exertionID);
-        Routine ex;
-        if (lkey!=null) {
-            ex = (getSession(lkey)).getRuntimeExertion();
-            if (ex!=null && ((Subroutine) ex).getPrincipal().getId().equals(((SorcerPrincipal) principal).getId()))
-                return ex;
-            else
-                return null;
-        }
-		Iterator<UuidKey> ki = resources.keySet().iterator();
-		while (ki.hasNext()) {
-			lkey = ki.next();
-			ex = (getSession(lkey)).getRuntimeExertion();
-            if (ex!=null) cacheSessionKeyMap.put(ex.getId(), lkey);
-            if (cookie.exertionID.equals(ex.getId().toString())
-					&& ((Subroutine) ex).getPrincipal().getId().equals(((SorcerPrincipal) principal).getId()))
-				return ex;
+		ExertionIndex.Entry entry;
+		try {
+			entry = index.get(UuidFactory.create(cookie.exertionID));
+		} catch (IllegalArgumentException e) {
+			return null;
 		}
-		return null;
+		if (entry == null)
+			return null;
+		MonitorSession session = getSession(entry.rootKey);
+		session = session != null ? session.getSessionResource(entry.cookie) : null;
+		if (session == null)
+			return null;
+		Routine ex = session.getRuntimeExertion();
+		if (((Subroutine) ex).getPrincipal().getId().equals(((SorcerPrincipal) principal).getId()))
+			return ex;
+		else
+			return null;
 	}
 
 
@@ -418,23 +444,89 @@ public class ExertMonitor extends ServiceExerter implements MonitoringManagement
 	@Override
 	public boolean persist(MonitorManagementSession session) throws IOException {
         logger.warn("Persist {}", session);
-		resources.put(new UuidKey(((MonitorSession)session).getCookie()), session);
+		synchronized (resourcesWriteLock) {
+			MonitorSession root = (MonitorSession) session;
+			compact(root);
+			index.updateAll(root.getCookie(), root);
+		}
 		return true;
 	}
-	
-	public MonitorSession getSession(UuidKey key) throws MonitorException {
+
+	/* (non-Javadoc)
+	 * @see sorcer.core.provider.exertmonitor.SessionJournal#append(sorcer.core.provider.exertmonitor.MonitorSession, sorcer.core.provider.exertmonitor.SessionDelta)
+	 */
+	@Override
+	public void append(MonitorSession root, SessionDelta delta) throws IOException {
+		synchronized (resourcesWriteLock) {
+			Uuid cookie = root.getCookie();
+			long[] state = journalStates.get(cookie);
+			if (state == null) {
+				// resume the journal left by a previous run
+				SortedMap<JournalKey, MarshalledData> records = journal.subMap(JournalKey.first(cookie),
+						JournalKey.last(cookie));
+				state = records.isEmpty() ? new long[] { 0, 0 }
+						: new long[] { records.lastKey().getSequence() + 1, records.size() };
+				journalStates.put(cookie, state);
+			}
+			journal.put(new JournalKey(cookie, state[0]++), new MarshalledData(delta));
+			state[1]++;
+			MonitorSession session = root.getSessionResource(delta.getCookie());
+			if (session != null)
+				index.update(cookie, session);
+			logger.debug("Journaled {} of root session {}", delta, cookie);
+			if (state[1] >= compactionThreshold || root.isDone() || root.isFailed())
+				compact(root);
+		}
+	}
+
+	/**
+	 * Writes a snapshot of the root session and drops its journal in one
+	 * transaction.
+	 */
+	private void compact(final MonitorSession root) throws IOException {
+		final Uuid cookie = root.getCookie();
 		try {
-			return (MonitorSession) resources.get(key);
+			txnRunner.run(new TransactionWorker() {
+				@Override
+				public void doWork() {
+					resources.put(new UuidKey(cookie), root);
+					journal.subMap(JournalKey.first(cookie), JournalKey.last(cookie)).clear();
+				}
+			});
 		} catch (Exception e) {
-			throw new MonitorException(e);
+			throw new IOException("Could not compact session: " + cookie, e);
 		}
+		journalStates.remove(cookie);
 	}
 
-	public MonitorSession getSession(Uuid key) throws MonitorException {
+	/**
+	 * Applies the journaled changes of a root session to its snapshot.
+	 */
+	private MonitorSession replay(MonitorSession root) throws IOException, ClassNotFoundException {
+		if (root == null)
+			return null;
+		Uuid cookie = root.getCookie();
+		for (MarshalledData record : journal.subMap(JournalKey.first(cookie), JournalKey.last(cookie)).values()) {
+			SessionDelta delta = (SessionDelta) record.get();
+			MonitorSession session = root.getSessionResource(delta.getCookie());
+			if (session != null)
+				session.apply(delta);
+		}
+		return root;
+	}
+	
+	public MonitorSession getSession(UuidKey key) throws MonitorException {
 		try {
-			return (MonitorSession) resources.get(new UuidKey(key));
+			// a snapshot and its journal are read while no compaction runs
+			synchronized (resourcesWriteLock) {
+				return replay((MonitorSession) resources.get(key));
+			}
 		} catch (Exception e) {
 			throw new MonitorException(e);
 		}
 	}
+
+	public MonitorSession getSession(Uuid key) throws MonitorException {
+		return getSession(new UuidKey(key));
+	}
 }
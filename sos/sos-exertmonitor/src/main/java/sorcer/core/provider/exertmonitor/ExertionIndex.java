@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.provider.exertmonitor;
+
+import net.jini.id.Uuid;
+import sorcer.security.util.SorcerPrincipal;
+import sorcer.service.Subroutine;
+
+import java.util.*;
+
+/**
+ * An in-memory index of the exertions of the monitor sessions by exertion
+ * id, and by principal and state. The index is updated with every journaled
+ * session change, so queries by principal and state touch only the matching
+ * exertions instead of deserializing every stored session.
+ */
+class ExertionIndex {
+
+	static class Entry {
+		final Uuid exertionId;
+		// the store key of the root session
+		final Uuid rootKey;
+		final Uuid cookie;
+		final String principalId;
+		int status;
+		long lastUpdateTime;
+
+		Entry(Uuid exertionId, Uuid rootKey, Uuid cookie, String principalId) {
+			this.exertionId = exertionId;
+			this.rootKey = rootKey;
+			this.cookie = cookie;
+			this.principalId = principalId;
+		}
+	}
+
+	private final Map<Uuid, Entry> entries = new HashMap<Uuid, Entry>();
+
+	// exertion ids by principal id and state
+	private final Map<String, Map<Integer, Set<Uuid>>> byPrincipal = new HashMap<String, Map<Integer, Set<Uuid>>>();
+
+	/**
+	 * Indexes the exertions of a root session and all its nested sessions.
+	 */
+	synchronized void updateAll(Uuid rootKey, MonitorSession root) {
+		update(rootKey, root);
+		for (MonitorSession session : root)
+			updateAll(rootKey, session);
+	}
+
+	/**
+	 * Indexes the exertion of a session of the given root session.
+	 */
+	synchronized void update(Uuid rootKey, MonitorSession session) {
+		Subroutine xrt = (Subroutine) session.getRuntimeExertion();
+		Uuid id = xrt.getId();
+		Entry entry = entries.get(id);
+		if (entry == null) {
+			SorcerPrincipal principal = xrt.getPrincipal();
+			entry = new Entry(id, rootKey, session.getCookie(), principal != null ? principal.getId() : null);
+			entries.put(id, entry);
+		} else if (entry.status != xrt.getStatus()) {
+			ids(entry.principalId, entry.status).remove(id);
+		}
+		entry.status = xrt.getStatus();
+		entry.lastUpdateTime = session.getLastUpdateTime();
+		ids(entry.principalId, entry.status).add(id);
+	}
+
+	synchronized Entry get(Uuid exertionId) {
+		return entries.get(exertionId);
+	}
+
+	/**
+	 * Returns a page of the exertions of the principal, most recently updated
+	 * first.
+	 *
+	 * @param status the state of the exertions, or <code>null</code> for all
+	 *               states
+	 * @param since  the time after which the exertions were updated
+	 */
+	synchronized List<Entry> query(String principalId, Integer status, long since, int offset, int limit) {
+		Map<Integer, Set<Uuid>> states = byPrincipal.get(principalId);
+		if (states == null)
+			return Collections.emptyList();
+		List<Entry> matches = new ArrayList<Entry>();
+		for (Map.Entry<Integer, Set<Uuid>> state : states.entrySet()) {
+			if (status != null && !status.equals(state.getKey()))
+				continue;
+			for (Uuid id : state.getValue()) {
+				Entry entry = entries.get(id);
+				if (entry.lastUpdateTime > since)
+					matches.add(entry);
+			}
+		}
+		Collections.sort(matches, new Comparator<Entry>() {
+			@Override
+			public int compare(Entry e1, Entry e2) {
+				return Long.compare(e2.lastUpdateTime, e1.lastUpdateTime);
+			}
+		});
+		int from = Math.min(Math.max(0, offset), matches.size());
+		int to = (int) Math.min(matches.size(), (long) from + Math.max(0, limit));
+		return new ArrayList<Entry>(matches.subList(from, to));
+	}
+
+	synchronized int size() {
+		return entries.size();
+	}
+
+	private Set<Uuid> ids(String principalId, int status) {
+		Map<Integer, Set<Uuid>> states = byPrincipal.get(principalId);
+		if (states == null) {
+			states = new HashMap<Integer, Set<Uuid>>();
+			byPrincipal.put(principalId, states);
+		}
+		Set<Uuid> ids = states.get(status);
+		if (ids == null) {
+			ids = new HashSet<Uuid>();
+			states.put(status, ids);
+		}
+		return ids;
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.provider.exertmonitor.db;
+
+import com.sleepycat.bind.tuple.TupleBinding;
+import com.sleepycat.bind.tuple.TupleInput;
+import com.sleepycat.bind.tuple.TupleOutput;
+import net.jini.id.Uuid;
+import net.jini.id.UuidFactory;
+
+/**
+ * The key of a session journal record, the cookie of the root session
+ * followed by the sequence number of the change. Keys are stored in tuple
+ * format, so the records of a root session are adjacent and in the order
+ * the changes were made.
+ */
+public class JournalKey {
+
+	private final Uuid root;
+
+	private final long sequence;
+
+	public JournalKey(Uuid root, long sequence) {
+		this.root = root;
+		this.sequence = sequence;
+	}
+
+	/**
+	 * Returns the key preceding all journal records of the root session.
+	 */
+	public static JournalKey first(Uuid root) {
+		return new JournalKey(root, Long.MIN_VALUE);
+	}
+
+	/**
+	 * Returns the key following all journal records of the root session.
+	 */
+	public static JournalKey last(Uuid root) {
+		return new JournalKey(root, Long.MAX_VALUE);
+	}
+
+	public Uuid getRoot() {
+		return root;
+	}
+
+	public long getSequence() {
+		return sequence;
+	}
+
+	public String toString() {
+		return root + "#" + sequence;
+	}
+
+	public static class Binding extends TupleBinding<JournalKey> {
+
+		@Override
+		public JournalKey entryToObject(TupleInput input) {
+			Uuid root = UuidFactory.create(input.readLong(), input.readLong());
+			return new JournalKey(root, input.readLong());
+		}
+
+		@Override
+		public void objectToEntry(JournalKey key, TupleOutput output) {
+			output.writeLong(key.root.getMostSignificantBits());
+			output.writeLong(key.root.getLeastSignificantBits());
+			output.writeLong(key.sequence);
+		}
+	}
+}
@@ -18,9 +18,11 @@ public class SessionDatabase {
 
     private static final String CLASS_CATALOG = "java_class_catalog";
     private static final String SESSION_STORE = "sesion_store";
+    private static final String JOURNAL_STORE = "session_journal";
 
     private Environment env;
     private Database sessionDb;
+    private Database journalDb;
     private StoredClassCatalog javaCatalog;
 
     /**
@@ -48,6 +50,10 @@ public class SessionDatabase {
         // Open the Berkeley DB database for the monitor session
         // store.  The store is opened with no duplicate keys allowed.
         sessionDb = env.openDatabase(null, SESSION_STORE, dbConfig);
+
+        // Open the journal of session changes, keyed by the root session
+        // and the sequence number of the change.
+        journalDb = env.openDatabase(null, JOURNAL_STORE, dbConfig);
     }
 
     /**
@@ -71,12 +77,20 @@ public class SessionDatabase {
         return sessionDb;
     }
     
+    /**
+     * Return the session journal storage container.
+     */
+    public final Database getJournalDatabase() {
+        return journalDb;
+    }
+
     /**
      * Close all stores (closing a store automatically closes its indices).
      */
     public void close()
         throws DatabaseException {
         // Close secondary databases, then primary databases.
+        journalDb.close();
         sessionDb.close();
         // And don't forget to close the catalog and the environment.
         javaCatalog.close();
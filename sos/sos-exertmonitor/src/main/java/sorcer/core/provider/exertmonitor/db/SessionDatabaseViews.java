@@ -12,6 +12,7 @@ import com.sleepycat.bind.serial.ClassCatalog;
 import com.sleepycat.bind.serial.SerialBinding;
 import com.sleepycat.bind.serial.SerialSerialBinding;
 import com.sleepycat.collections.StoredMap;
+import com.sleepycat.collections.StoredSortedMap;
 import com.sleepycat.collections.StoredValueSet;
 
 /**
@@ -25,6 +26,8 @@ public class SessionDatabaseViews {
 	
 	private StoredMap<UuidKey, MonitorManagementSession>  sessionMap;
 
+	private StoredSortedMap<JournalKey, MarshalledData> journalMap;
+
 	/**
 	 * Create the data bindings and collection views.
 	 */
@@ -37,6 +40,9 @@ public class SessionDatabaseViews {
 		
 		sessionMap = new StoredMap(db.getSessionDatabase(),
 				sessionKeyBinding, sessionDataBinding, true);
+
+		journalMap = new StoredSortedMap(db.getJournalDatabase(),
+				new JournalKey.Binding(), new SerialBinding(catalog, MarshalledData.class), true);
 	}
 
 	// The views returned below can be accessed using the java.util.Map or
@@ -52,6 +58,13 @@ public class SessionDatabaseViews {
 		return sessionMap;
 	}
 	
+	/**
+	 * Return a sorted map view of the session journal storage container.
+	 */
+	public StoredSortedMap<JournalKey, MarshalledData> getJournalMap() {
+		return journalMap;
+	}
+
 	/**
 	 * Return an entity setValue view of the session storage container.
 	 */
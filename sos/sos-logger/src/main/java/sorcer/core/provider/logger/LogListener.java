@@ -0,0 +1,190 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.provider.logger;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import org.rioproject.event.EventHandler;
+import org.rioproject.event.NoEventConsumerException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A registered remote log listener with its own bounded delivery queue.
+ * Events are fired to the listener in order by one task at a time on the
+ * delivery executor, so a slow listener delays only its own events. When
+ * the queue is full the {@link Policy} decides whether the event is dropped
+ * or the logger waits for the listener.
+ */
+class LogListener implements Runnable {
+    private static final Logger log = LoggerFactory.getLogger(LogListener.class);
+
+    // the events fired by one delivery task before it yields its thread
+    private static final int MAX_RUN = 256;
+
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    enum Policy {
+        /** Drops the events that do not fit into the queue. */
+        DROP,
+        /** Waits for space in the queue, and drops the event on timeout. */
+        BLOCK
+    }
+
+    private final long registrationId;
+
+    private final EventHandler handler;
+
+    private final List<Map<String, String>> filters;
+
+    private final Object source;
+
+    private final Executor executor;
+
+    private final int capacity;
+
+    private final Policy policy;
+
+    private final long timeout;
+
+    private final Queue<ILoggingEvent> queue = new ConcurrentLinkedQueue<ILoggingEvent>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private final AtomicLong delivered = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * @param source  the source of the fired events
+     * @param timeout the time in milliseconds the {@link Policy#BLOCK} policy
+     *                waits for space in the queue
+     */
+    LogListener(long registrationId, EventHandler handler, List<Map<String, String>> filters, Object source,
+                Executor executor, int capacity, Policy policy, long timeout) {
+        this.registrationId = registrationId;
+        this.handler = handler;
+        this.filters = filters;
+        this.source = source;
+        this.executor = executor;
+        this.capacity = Math.max(1, capacity);
+        this.policy = policy;
+        this.timeout = TimeUnit.MILLISECONDS.toNanos(timeout);
+    }
+
+    long getRegistrationId() {
+        return registrationId;
+    }
+
+    List<Map<String, String>> getFilters() {
+        return filters;
+    }
+
+    /**
+     * Returns <code>true</code> if the MDC properties of an event match any
+     * filter of this listener.
+     */
+    boolean matches(Map<String, String> mdc) {
+        for (Map<String, String> filter : filters) {
+            if (mdc.entrySet().containsAll(filter.entrySet()))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Queues the event for delivery and returns <code>false</code> if it was
+     * dropped.
+     */
+    boolean offer(ILoggingEvent event) {
+        long deadline = System.nanoTime() + timeout;
+        while (true) {
+            int n = size.get();
+            if (n < capacity) {
+                if (size.compareAndSet(n, n + 1))
+                    break;
+                continue;
+            }
+            if (policy == Policy.DROP || System.nanoTime() - deadline >= 0) {
+                dropped.incrementAndGet();
+                return false;
+            }
+            schedule();
+            LockSupport.parkNanos(this, PARK_NANOS);
+        }
+        queue.offer(event);
+        schedule();
+        return true;
+    }
+
+    long getDelivered() {
+        return delivered.get();
+    }
+
+    long getDropped() {
+        return dropped.get();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                // the queued events are delivered with the next event
+                scheduled.set(false);
+                log.warn("Delivery of remote logs to listener {} rejected", registrationId);
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            ILoggingEvent event;
+            for (int i = 0; i < MAX_RUN && (event = queue.poll()) != null; i++) {
+                size.decrementAndGet();
+                try {
+                    handler.fire(new LoggerRemoteEvent(source, event));
+                    delivered.incrementAndGet();
+                } catch (NoEventConsumerException e) {
+                    dropped.incrementAndGet();
+                    log.debug("No event consumer for remote logs of listener {}", registrationId);
+                } catch (RuntimeException e) {
+                    dropped.incrementAndGet();
+                    log.warn("Problem sending remote log event to listener {}", registrationId, e);
+                }
+            }
+        } finally {
+            scheduled.set(false);
+            if (!queue.isEmpty())
+                schedule();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.provider.logger;
+
+import java.util.*;
+
+import static sorcer.core.provider.RemoteLogger.KEY_MOGRAM_ID;
+
+/**
+ * The remote log listeners indexed by the mogram id of their filters.
+ * Listeners filtering on other MDC properties only are matched against
+ * every event. The index is replaced on every registration change, so
+ * lookups of the logger thread take no lock.
+ */
+class LogListenerIndex {
+
+    private static class Snapshot {
+        final Map<String, List<LogListener>> byMogram;
+        final List<LogListener> unindexed;
+        final List<LogListener> all;
+
+        Snapshot(Map<String, List<LogListener>> byMogram, List<LogListener> unindexed, List<LogListener> all) {
+            this.byMogram = byMogram;
+            this.unindexed = unindexed;
+            this.all = all;
+        }
+    }
+
+    private volatile Snapshot snapshot = new Snapshot(Collections.<String, List<LogListener>>emptyMap(),
+            Collections.<LogListener>emptyList(), Collections.<LogListener>emptyList());
+
+    synchronized void add(LogListener listener) {
+        List<LogListener> all = new ArrayList<LogListener>(snapshot.all);
+        all.add(listener);
+        snapshot = build(all);
+    }
+
+    synchronized LogListener remove(long registrationId) {
+        List<LogListener> all = new ArrayList<LogListener>(snapshot.all);
+        for (Iterator<LogListener> it = all.iterator(); it.hasNext(); ) {
+            LogListener listener = it.next();
+            if (listener.getRegistrationId() == registrationId) {
+                it.remove();
+                snapshot = build(all);
+                return listener;
+            }
+        }
+        return null;
+    }
+
+    boolean isEmpty() {
+        return snapshot.all.isEmpty();
+    }
+
+    List<LogListener> getListeners() {
+        return snapshot.all;
+    }
+
+    /**
+     * Returns the listeners with a filter matching the MDC properties of an
+     * event.
+     */
+    List<LogListener> match(Map<String, String> mdc) {
+        Snapshot current = snapshot;
+        if (current.all.isEmpty())
+            return Collections.emptyList();
+        List<LogListener> matches = null;
+        String mogramId = mdc.get(KEY_MOGRAM_ID);
+        List<LogListener> candidates = mogramId != null ? current.byMogram.get(mogramId) : null;
+        if (candidates != null)
+            matches = collect(candidates, mdc, matches);
+        matches = collect(current.unindexed, mdc, matches);
+        return matches != null ? matches : Collections.<LogListener>emptyList();
+    }
+
+    private static List<LogListener> collect(List<LogListener> candidates, Map<String, String> mdc,
+                                             List<LogListener> matches) {
+        for (LogListener listener : candidates) {
+            if (listener.matches(mdc)) {
+                if (matches == null)
+                    matches = new ArrayList<LogListener>(2);
+                if (!matches.contains(listener))
+                    matches.add(listener);
+            }
+        }
+        return matches;
+    }
+
+    private static Snapshot build(List<LogListener> all) {
+        Map<String, List<LogListener>> byMogram = new HashMap<String, List<LogListener>>();
+        List<LogListener> unindexed = new ArrayList<LogListener>();
+        for (LogListener listener : all) {
+            for (Map<String, String> filter : listener.getFilters()) {
+                String mogramId = filter.get(KEY_MOGRAM_ID);
+                List<LogListener> listeners;
+                if (mogramId == null) {
+                    listeners = unindexed;
+                } else {
+                    listeners = byMogram.get(mogramId);
+                    if (listeners == null) {
+                        listeners = new ArrayList<LogListener>(1);
+                        byMogram.put(mogramId, listeners);
+                    }
+                }
+                if (!listeners.contains(listener))
+                    listeners.add(listener);
+            }
+        }
+        return new Snapshot(byMogram, unindexed, Collections.unmodifiableList(all));
+    }
+}
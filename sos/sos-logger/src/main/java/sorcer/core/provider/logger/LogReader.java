@@ -0,0 +1,350 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.provider.logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads parts of the remote log files with positional reads, so a read
+ * costs the bytes it returns rather than the size of the log. Only
+ * complete lines are read, so a line being written is returned by the next
+ * read that resumes from the returned cursor. Line numbers are resolved
+ * through a sparse index of line offsets that is extended as the log grows.
+ */
+class LogReader {
+    private static final int BLOCK_SIZE = 64 * 1024;
+
+    // the bytes scanned by one read before it returns its cursor
+    static final long MAX_SCAN = 16 * 1024 * 1024;
+
+    // the number of lines between the entries of a line index
+    static final int INDEX_INTERVAL = 1024;
+
+    private static final String[] LEVELS = { "TRACE", "DEBUG", "INFO", "WARN", "ERROR" };
+
+    private final Charset charset;
+
+    private final Map<String, LineIndex> indexes = new ConcurrentHashMap<String, LineIndex>();
+
+    LogReader() {
+        this(Charset.defaultCharset());
+    }
+
+    LogReader(Charset charset) {
+        this.charset = charset;
+    }
+
+    /**
+     * Reads the records starting at the first line at or after the offset,
+     * until at least <code>maxLines</code> lines are read or the end of the
+     * log is reached.
+     *
+     * @param query the records read, <code>null</code> for all records
+     */
+    LogChunk read(File file, long offset, int maxLines, LogQuery query) throws IOException {
+        maxLines = Math.max(1, maxLines);
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            long length = channel.size();
+            boolean reset = offset > length;
+            if (reset || offset < 0)
+                offset = 0;
+            long start = lineStart(channel, offset, length);
+            Lines lines = new Lines(channel, start, length);
+            List<String> result = new ArrayList<String>();
+            List<String> record = new ArrayList<String>();
+            Level level = null;
+            long end = start;
+            boolean full = false;
+            String line;
+            while ((line = lines.next()) != null) {
+                Level lineLevel = levelOf(line);
+                if (lineLevel != null) {
+                    add(result, record, level, query);
+                    end = lines.lineStart;
+                    if (result.size() >= maxLines || end - start >= MAX_SCAN) {
+                        full = true;
+                        break;
+                    }
+                    level = lineLevel;
+                }
+                record.add(line);
+            }
+            if (!full) {
+                add(result, record, level, query);
+                end = lines.position;
+            }
+            return new LogChunk(result, start, end, length, -1, reset);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Reads at most <code>maxLines</code> lines starting at a line number.
+     */
+    LogChunk readLines(File file, long fromLine, int maxLines) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            long length = channel.size();
+            LineIndex index = indexes.get(file.getPath());
+            if (index == null) {
+                index = new LineIndex();
+                LineIndex current = indexes.putIfAbsent(file.getPath(), index);
+                if (current != null)
+                    index = current;
+            }
+            long[] checkpoint = index.seek(channel, Math.max(0, fromLine), length);
+            Lines lines = new Lines(channel, checkpoint[1], length);
+            long lineNumber = checkpoint[0];
+            while (lineNumber < fromLine && lines.next() != null)
+                lineNumber++;
+            long start = lines.position;
+            List<String> result = new ArrayList<String>();
+            String line;
+            while (result.size() < maxLines && (line = lines.next()) != null)
+                result.add(line);
+            return new LogChunk(result, start, lines.position, length, lineNumber, false);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Reads the last records of the log with at least <code>maxLines</code>
+     * lines in total. The end of the chunk is the cursor to follow the log.
+     *
+     * @param query the records read, <code>null</code> for all records
+     */
+    LogChunk tail(File file, int maxLines, LogQuery query) throws IOException {
+        maxLines = Math.max(1, maxLines);
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            long length = channel.size();
+            // the records read, last record first
+            List<List<String>> records = new ArrayList<List<String>>();
+            int count = 0;
+            long start = -1;
+            long end = -1;
+            // the lines following the last record of the next window
+            List<String> carry = new ArrayList<String>();
+            long windowEnd = length;
+            int size = BLOCK_SIZE;
+            while (windowEnd > 0 && count < maxLines && length - windowEnd < MAX_SCAN) {
+                long windowStart = Math.max(0, windowEnd - size);
+                long first = lineStart(channel, windowStart, length);
+                if (first >= windowEnd && windowStart > 0) {
+                    // a line longer than the window
+                    size *= 2;
+                    continue;
+                }
+                Lines lines = new Lines(channel, first, windowEnd);
+                List<String> window = new ArrayList<String>();
+                List<Long> offsets = new ArrayList<Long>();
+                String line;
+                while ((line = lines.next()) != null) {
+                    window.add(line);
+                    offsets.add(lines.lineStart);
+                }
+                if (end < 0)
+                    end = lines.position;
+
+                int recordEnd = window.size();
+                for (int i = window.size() - 1; i >= 0 && count < maxLines; i--) {
+                    Level level = levelOf(window.get(i));
+                    if (level == null)
+                        continue;
+                    List<String> record = new ArrayList<String>(window.subList(i, recordEnd));
+                    if (recordEnd == window.size())
+                        record.addAll(carry);
+                    if (query == null || query.matches(record, level)) {
+                        records.add(record);
+                        count += record.size();
+                        start = offsets.get(i);
+                    }
+                    recordEnd = i;
+                }
+                List<String> leading = new ArrayList<String>(window.subList(0, recordEnd));
+                if (recordEnd == window.size())
+                    leading.addAll(carry);
+                carry = leading;
+                windowEnd = first;
+                size = BLOCK_SIZE;
+            }
+            // the lines preceding the first record of the log
+            if (windowEnd == 0 && count < maxLines && !carry.isEmpty()
+                    && (query == null || query.matches(carry, null))) {
+                records.add(carry);
+                start = 0;
+            }
+            List<String> result = new ArrayList<String>(count);
+            for (int i = records.size() - 1; i >= 0; i--)
+                result.addAll(records.get(i));
+            if (end < 0)
+                end = length;
+            return new LogChunk(result, start < 0 ? windowEnd : start, end, length, -1, false);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Drops the line index of a deleted log.
+     */
+    void invalidate(File file) {
+        indexes.remove(file.getPath());
+    }
+
+    private static void add(List<String> result, List<String> record, Level level, LogQuery query) {
+        if (!record.isEmpty() && (query == null || query.matches(record, level)))
+            result.addAll(record);
+        record.clear();
+    }
+
+    /**
+     * Returns the level of the first line of a record, or <code>null</code>
+     * if the line continues a record.
+     */
+    static Level levelOf(String line) {
+        for (String level : LEVELS) {
+            if (line.startsWith(level) && line.length() > level.length() && line.charAt(level.length()) == ' ')
+                return Level.toLevel(level);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the offset of the first line starting at or after the offset.
+     */
+    private long lineStart(FileChannel channel, long offset, long length) throws IOException {
+        if (offset == 0)
+            return 0;
+        // the line containing the byte preceding the offset ends before the next line
+        Lines lines = new Lines(channel, offset - 1, length);
+        return lines.next() != null ? lines.position : length;
+    }
+
+    /**
+     * The complete lines of a byte range of a log.
+     */
+    private class Lines {
+        private final FileChannel channel;
+        private final long limit;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BLOCK_SIZE);
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+        // the offset of the next byte read into the buffer
+        private long read;
+        // the offset of the last line returned
+        long lineStart;
+        // the offset following the last line returned
+        long position;
+
+        Lines(FileChannel channel, long from, long limit) {
+            this.channel = channel;
+            this.limit = limit;
+            read = from;
+            position = from;
+            lineStart = from;
+            buffer.flip();
+        }
+
+        /**
+         * Returns the next complete line without its line separator, or
+         * <code>null</code> if no complete line follows.
+         */
+        String next() throws IOException {
+            line.reset();
+            long p = position;
+            while (true) {
+                if (!buffer.hasRemaining()) {
+                    if (read >= limit)
+                        return null;
+                    buffer.clear();
+                    if (limit - read < buffer.capacity())
+                        buffer.limit((int) (limit - read));
+                    int n = channel.read(buffer, read);
+                    buffer.flip();
+                    if (n <= 0)
+                        return null;
+                    read += n;
+                }
+                byte b = buffer.get();
+                p++;
+                if (b == '\n') {
+                    lineStart = position;
+                    position = p;
+                    byte[] bytes = line.toByteArray();
+                    int n = bytes.length;
+                    if (n > 0 && bytes[n - 1] == '\r')
+                        n--;
+                    return new String(bytes, 0, n, charset);
+                }
+                line.write(b);
+            }
+        }
+    }
+
+    /**
+     * The offsets of every {@link #INDEX_INTERVAL}th line of a log.
+     */
+    private class LineIndex {
+        private final List<Long> offsets = new ArrayList<Long>();
+        // the number of lines indexed
+        private long lines;
+        // the offset following the lines indexed
+        private long position;
+
+        LineIndex() {
+            offsets.add(0L);
+        }
+
+        /**
+         * Returns the number and offset of the last indexed line at or before
+         * the given line, indexing the log up to the line.
+         */
+        synchronized long[] seek(FileChannel channel, long line, long length) throws IOException {
+            if (length < position) {
+                // the log was truncated
+                offsets.clear();
+                offsets.add(0L);
+                lines = 0;
+                position = 0;
+            }
+            if (line >= lines && position < length) {
+                Lines scan = new Lines(channel, position, length);
+                while (lines <= line && scan.next() != null) {
+                    lines++;
+                    if (lines % INDEX_INTERVAL == 0)
+                        offsets.add(scan.position);
+                }
+                position = scan.position;
+            }
+            int k = (int) Math.min(line / INDEX_INTERVAL, offsets.size() - 1);
+            return new long[] { (long) k * INDEX_INTERVAL, offsets.get(k) };
+        }
+    }
+}
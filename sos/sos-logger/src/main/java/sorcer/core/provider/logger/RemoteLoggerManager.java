@@ -20,18 +20,16 @@ import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.classic.spi.LoggingEventVO;
-import ch.qos.logback.core.Appender;
 import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.OutputStreamAppender;
 import net.jini.core.event.EventRegistration;
 import net.jini.core.event.RemoteEventListener;
 import net.jini.core.lease.LeaseDeniedException;
 import net.jini.lookup.entry.UIDescriptor;
 import net.jini.lookup.ui.MainUI;
 import net.jini.lookup.ui.factory.JFrameFactory;
-import org.apache.commons.io.FileUtils;
 import org.rioproject.event.EventDescriptor;
 import org.rioproject.event.EventHandler;
-import org.rioproject.event.NoEventConsumerException;
 import org.slf4j.ILoggerFactory;
 import org.slf4j.LoggerFactory;
 import org.slf4j.helpers.MessageFormatter;
@@ -42,6 +40,7 @@ import sorcer.serviceui.UIDescriptorFactory;
 import sorcer.serviceui.UIFrameFactory;
 import sorcer.util.SOS;
 import sorcer.util.SenderEventHandler;
+import sorcer.util.ServiceExecutors;
 import sorcer.util.Sorcer;
 
 import java.io.BufferedReader;
@@ -53,36 +52,115 @@ import java.rmi.MarshalledObject;
 import java.rmi.RemoteException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
+/**
+ * The remote logger service. Published events are queued without locking
+ * and written to the log files by a single writer thread in batches. The
+ * writer matches each event against the remote log listeners indexed by
+ * mogram id, and each listener is fed from its own bounded queue on a shared
+ * delivery pool, so a slow listener never stalls ingestion.
+ */
 public class RemoteLoggerManager implements RemoteLogger {
     private static final org.slf4j.Logger log = LoggerFactory.getLogger(RemoteLoggerManager.class);
 
-    // The list of all known loggers.
-    private List<LoggingConfig> knownLoggers = new LinkedList<LoggingConfig>();
+    // the maximum number of events queued for the writer
+    public static final String QUEUE_SIZE = "sorcer.logger.queue.size";
+
+    // the maximum number of events written before the log files are flushed
+    public static final String BATCH_SIZE = "sorcer.logger.batch.size";
+
+    // the time in milliseconds a publisher waits for a full queue before its events are dropped
+    public static final String PUBLISH_TIMEOUT = "sorcer.logger.publish.timeout";
+
+    // the maximum number of events queued for each remote log listener
+    public static final String LISTENER_QUEUE_SIZE = "sorcer.logger.listener.queue.size";
+
+    // the policy for events of a full listener queue, drop or block
+    public static final String LISTENER_POLICY = "sorcer.logger.listener.policy";
+
+    // the time in milliseconds the block policy waits for a full listener queue
+    public static final String LISTENER_TIMEOUT = "sorcer.logger.listener.timeout";
+
+    // the lines of a log returned by getLog
+    private static final int MAX_LOG_LINES = 10000;
+
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    // The known loggers by name.
+    private Map<String, LoggingConfig> knownLoggers = new ConcurrentHashMap<String, LoggingConfig>();
 
     private LoggerContext loggerFactory;
 
     private File logDir = new File(Sorcer.getHomeDir(), "logs/remote");
 
-    private Map<Map<String,String>, EventHandler> remoteLogListeners = new ConcurrentHashMap<Map<String,String>, EventHandler>();
+    private final LogListenerIndex listeners = new LogListenerIndex();
+
+    private final LogReader reader = new LogReader();
+
+    private final Queue<ILoggingEvent> events = new ConcurrentLinkedQueue<ILoggingEvent>();
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final AtomicBoolean writerIdle = new AtomicBoolean();
+
+    // the appenders of the remote loggers, used by the writer thread only
+    private final Map<String, OutputStreamAppender<ILoggingEvent>> appenders = new HashMap<String, OutputStreamAppender<ILoggingEvent>>();
+
+    private final AtomicLong received = new AtomicLong();
+
+    private final AtomicLong written = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    // the events delivered to and dropped for unregistered listeners
+    private final AtomicLong delivered = new AtomicLong();
 
-    private Map<Long, EventHandler> remoteLogHandlers = new ConcurrentHashMap<Long, EventHandler>();
+    private final AtomicLong deliveryDropped = new AtomicLong();
+
+    private final int queueSize = Integer.getInteger(QUEUE_SIZE, 10000);
+
+    private final int batchSize = Math.max(1, Integer.getInteger(BATCH_SIZE, 256));
+
+    private final long publishTimeout = TimeUnit.MILLISECONDS.toNanos(Long.getLong(PUBLISH_TIMEOUT, 1000));
+
+    private Thread writer;
+
+    private volatile boolean running = true;
 
     private Exerter provider;
 
+    private Object proxy;
+
     public RemoteLoggerManager() {
         ILoggerFactory loggerFactory;
         loggerFactory = LoggerFactory.getILoggerFactory();
         if (!(loggerFactory instanceof LoggerContext))
             throw new IllegalStateException("This service must be running with Logback Classic");
         this.loggerFactory = (LoggerContext) loggerFactory;
+        writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                write();
+            }
+        }, "RemoteLogger-writer");
+        writer.setDaemon(true);
+        writer.start();
     }
 
     public void init(Exerter provider) throws RemoteException {
         this.provider = provider;
+        this.proxy = provider.getProxy();
     }
 
     public String[] getLogNames() throws RemoteException {
@@ -105,56 +183,114 @@ public class RemoteLoggerManager implements RemoteLogger {
             publish(vo);
     }
 
+    /**
+     * Queues the event for the writer. A publisher waits while the queue is
+     * full, and the event is dropped if the queue stays full or the logger
+     * is destroyed.
+     */
     protected void publish(ILoggingEvent loggingEvent) {
-        String loggerName;
-        Logger logger;
-        synchronized (this) {
-            log.info("Publishing remote log: " + loggingEvent.getMessage().substring(0,Math.min(loggingEvent.getMessage().length(),50)));
-            Map<String, String> mdc = loggingEvent.getMDCPropertyMap();
-            String exertionId = null;
-            if (!remoteLogListeners.isEmpty()) {
-                exertionId = mdc.get(KEY_MOGRAM_ID);
-                Map<String, String> keyMap = new HashMap<String, String>();
-                keyMap.put(KEY_MOGRAM_ID, exertionId);
-
-                for (Map.Entry<Map<String, String>, EventHandler> entry : remoteLogListeners.entrySet()) {
-                    if (mdc.entrySet().containsAll(entry.getKey().entrySet())) {
-                        try {
-                            LoggerRemoteEvent rse = new LoggerRemoteEvent(provider.getProxy(), loggingEvent);
-                            entry.getValue().fire(rse);
-                            System.out.println("!!!!!!!!!!!!!!!!!!!!!!!!!!! Sending log to remote listener exID: " + exertionId + ": " + loggingEvent.getMessage().substring(0, Math.min(loggingEvent.getMessage().length(), 50)));
-                        } catch (NoEventConsumerException e) {
-                            log.error("Problem sending remote log event, no event consumer available");
-                        } catch (RemoteException e) {
-                            log.error("Problem getting proxy from provider - should never happen as provider is local!!!");
-                        }
-                    }
-                }
+        received.incrementAndGet();
+        if (!running) {
+            dropDestroyed(loggingEvent);
+            return;
+        }
+        long deadline = System.nanoTime() + publishTimeout;
+        while (true) {
+            int n = queued.get();
+            if (n < queueSize) {
+                if (queued.compareAndSet(n, n + 1))
+                    break;
+                continue;
             }
-            loggerName = loggingEvent.getLoggerName();
-            logger = loggerFactory.getLogger(loggerName);
-            Appender<ILoggingEvent> appender = logger.getAppender(loggerName);
-            if (appender == null) {
-                String hostname;
-                if (mdc.containsKey(KEY_HOSTNAME))
-                    hostname = mdc.get(KEY_HOSTNAME);
-                else
-                    hostname = "remote";
-                //logger.setAdditive(false);
-                logger.addAppender(createAppender(loggerName, hostname));
+            if (!running || System.nanoTime() - deadline >= 0) {
+                dropped.incrementAndGet();
+                return;
             }
+            LockSupport.parkNanos(this, PARK_NANOS);
+        }
+        events.offer(loggingEvent);
+        // the writer may have drained the queue for the last time
+        if (!running && events.remove(loggingEvent)) {
+            queued.decrementAndGet();
+            dropDestroyed(loggingEvent);
+            return;
         }
+        if (writerIdle.get() && writerIdle.compareAndSet(true, false))
+            LockSupport.unpark(writer);
+    }
 
-        logger.callAppenders(loggingEvent);
-        LoggingConfig lc = new LoggingConfig(loggerName, null);
-        if (!knownLoggers.contains(lc)) {
-            lc.setLevel(Level.ALL);
-            knownLoggers.add(lc);
+    private void dropDestroyed(ILoggingEvent loggingEvent) {
+        dropped.incrementAndGet();
+        log.debug("Dropped remote log event of {}, the logger is destroyed", loggingEvent.getLoggerName());
+    }
+
+    private void write() {
+        Set<OutputStreamAppender<ILoggingEvent>> batchAppenders = new HashSet<OutputStreamAppender<ILoggingEvent>>();
+        while (running || !events.isEmpty()) {
+            ILoggingEvent event = events.poll();
+            if (event == null) {
+                writerIdle.set(true);
+                // recheck after publishing the idle flag so no wakeup is lost
+                if (running && events.isEmpty())
+                    LockSupport.parkNanos(this, IDLE_NANOS);
+                writerIdle.set(false);
+                continue;
+            }
+            int n = 0;
+            do {
+                queued.decrementAndGet();
+                try {
+                    append(event, batchAppenders);
+                    written.incrementAndGet();
+                } catch (RuntimeException e) {
+                    log.warn("Problem writing remote log event of {}", event.getLoggerName(), e);
+                }
+                if (!listeners.isEmpty()) {
+                    for (LogListener listener : listeners.match(event.getMDCPropertyMap()))
+                        listener.offer(event);
+                }
+            } while (++n < batchSize && (event = events.poll()) != null);
+            for (OutputStreamAppender<ILoggingEvent> appender : batchAppenders) {
+                try {
+                    appender.getOutputStream().flush();
+                } catch (IOException e) {
+                    log.warn("Problem flushing remote log {}", appender.getName(), e);
+                }
+            }
+            batchAppenders.clear();
+        }
+    }
+
+    private void append(ILoggingEvent loggingEvent, Set<OutputStreamAppender<ILoggingEvent>> batchAppenders) {
+        String loggerName = loggingEvent.getLoggerName();
+        Logger logger = loggerFactory.getLogger(loggerName);
+        OutputStreamAppender<ILoggingEvent> appender = appenders.get(loggerName);
+        if (appender == null && logger.getAppender(loggerName) instanceof OutputStreamAppender) {
+            appender = (OutputStreamAppender<ILoggingEvent>) logger.getAppender(loggerName);
+            appenders.put(loggerName, appender);
+        } else if (appender == null) {
+            // replace an appender of the same name the writer can not flush
+            if (logger.detachAppender(loggerName))
+                log.warn("Replaced appender {} of the remote logger", loggerName);
+            Map<String, String> mdc = loggingEvent.getMDCPropertyMap();
+            String hostname;
+            if (mdc.containsKey(KEY_HOSTNAME))
+                hostname = mdc.get(KEY_HOSTNAME);
+            else
+                hostname = "remote";
+            //logger.setAdditive(false);
+            appender = createAppender(loggerName, hostname);
+            logger.addAppender(appender);
+            appenders.put(loggerName, appender);
         }
+        if (!knownLoggers.containsKey(loggerName))
+            knownLoggers.put(loggerName, new LoggingConfig(loggerName, Level.ALL));
+        logger.callAppenders(loggingEvent);
+        batchAppenders.add(appender);
     }
 
-    private Appender<ILoggingEvent> createAppender(String loggerName, String prefix) {
-        Appender<ILoggingEvent> appender;
+    private OutputStreamAppender<ILoggingEvent> createAppender(String loggerName, String prefix) {
+        OutputStreamAppender<ILoggingEvent> appender;
         FileAppender<ILoggingEvent> fileAppender = new FileAppender<ILoggingEvent>();
         fileAppender.setName(loggerName);
         File file = new File(logDir, prefix + "-" + loggerName + ".log");
@@ -162,8 +298,11 @@ public class RemoteLoggerManager implements RemoteLogger {
         fileAppender.setContext(loggerFactory);
         PatternLayoutEncoder encoder = new PatternLayoutEncoder();
         encoder.setContext(loggerFactory);
-        encoder.setPattern("%-5level %d{HH:mm:ss.SSS} [%t] %logger{36} - %msg%n%rEx");
+        // records start with their level and mogram id to be selected by a LogQuery
+        encoder.setPattern("%-5level %d{HH:mm:ss.SSS} [%t] %replace(%X{" + KEY_MOGRAM_ID + "} ){'^ $', ''}%logger{36} - %msg%n%rEx");
         fileAppender.setEncoder(encoder);
+        // the writer flushes after each batch
+        fileAppender.setImmediateFlush(false);
         appender = fileAppender;
         encoder.start();
         appender.start();
@@ -172,7 +311,7 @@ public class RemoteLoggerManager implements RemoteLogger {
 
     public List<String> getLog(String fileName) throws RemoteException {
         try {
-            return FileUtils.readLines(new File(logDir, fileName));
+            return reader.tail(new File(logDir, fileName), MAX_LOG_LINES, null).getLines();
         } catch (IOException e) {
             String msg = MessageFormatter.format("Error reading file {}", fileName).getMessage();
             log.warn(msg, e);
@@ -180,8 +319,38 @@ public class RemoteLoggerManager implements RemoteLogger {
         }
     }
 
+    public LogChunk readLog(String fileName, long offset, int maxLines, LogQuery query) throws RemoteException {
+        try {
+            return reader.read(new File(logDir, fileName), offset, maxLines, query);
+        } catch (IOException e) {
+            throw readFailed(fileName, e);
+        }
+    }
+
+    public LogChunk readLogLines(String fileName, long fromLine, int maxLines) throws RemoteException {
+        try {
+            return reader.readLines(new File(logDir, fileName), fromLine, maxLines);
+        } catch (IOException e) {
+            throw readFailed(fileName, e);
+        }
+    }
+
+    public LogChunk tailLog(String fileName, int maxLines, LogQuery query) throws RemoteException {
+        try {
+            return reader.tail(new File(logDir, fileName), maxLines, query);
+        } catch (IOException e) {
+            throw readFailed(fileName, e);
+        }
+    }
+
+    private RemoteException readFailed(String fileName, IOException e) {
+        String msg = MessageFormatter.format("Error reading file {}", fileName).getMessage();
+        log.warn(msg, e);
+        return new RemoteException(msg, e);
+    }
+
     public List<LoggingConfig> getLoggers() throws IOException {
-        return knownLoggers;
+        return new ArrayList<LoggingConfig>(knownLoggers.values());
     }
 
     public void deleteLog(String loggerName) throws RemoteException {
@@ -189,6 +358,7 @@ public class RemoteLoggerManager implements RemoteLogger {
         if (df.exists()) {
             df.delete();
         }
+        reader.invalidate(df);
     }
 
     public EventRegistration registerLogListener(RemoteEventListener listener, MarshalledObject handback, long duration, List<Map<String,String>> filterMap) throws LeaseDeniedException, RemoteException {
@@ -200,9 +370,11 @@ public class RemoteLoggerManager implements RemoteLogger {
             eventHandler = new SenderEventHandler(eventDescriptor);
             EventRegistration evReg = eventHandler.register(provider.getProxy(), listener, handback, duration);
             log.debug("Got evRegID: " + evReg.getID() + " filters: " + filterMap);
-            remoteLogHandlers.put(evReg.getID(), eventHandler);
-            for (Map<String, String>  fMap : filterMap)
-                remoteLogListeners.put(fMap, eventHandler);
+            LogListener.Policy policy = LogListener.Policy.valueOf(
+                    System.getProperty(LISTENER_POLICY, "drop").toUpperCase());
+            listeners.add(new LogListener(evReg.getID(), eventHandler, new ArrayList<Map<String, String>>(filterMap),
+                    proxy, ServiceExecutors.get(ServiceExecutors.LOG_DELIVERY),
+                    Integer.getInteger(LISTENER_QUEUE_SIZE, 1000), policy, Long.getLong(LISTENER_TIMEOUT, 100)));
             return evReg;
         } catch (Exception e1) {
             log.error("Problem registering to Log listener: " + e1.getMessage());
@@ -212,24 +384,48 @@ public class RemoteLoggerManager implements RemoteLogger {
 
     public void unregisterLogListener(EventRegistration evReg) throws RemoteException {
         log.debug("Unregistering listener for remote logs: " + evReg.getID());
+        LogListener listener = listeners.remove(evReg.getID());
+        if (listener != null) {
+            delivered.addAndGet(listener.getDelivered());
+            deliveryDropped.addAndGet(listener.getDropped());
+        } else {
+            log.error("Problem unregistering, listener for: " + evReg.getID() + " doesn't exist");
+        }
+    }
+
+    public LoggerStats getStats() {
+        long listenerDelivered = delivered.get();
+        long listenerDropped = deliveryDropped.get();
+        List<LogListener> registered = listeners.getListeners();
+        for (LogListener listener : registered) {
+            listenerDelivered += listener.getDelivered();
+            listenerDropped += listener.getDropped();
+        }
+        return new LoggerStats(received.get(), written.get(), dropped.get(), queued.get(),
+                listenerDelivered, listenerDropped, registered.size());
+    }
+
+    /**
+     * Stops the writer after it wrote the queued events and closes the log
+     * files. Called by the provider when it is destroyed.
+     */
+    public void destroy() {
+        running = false;
+        LockSupport.unpark(writer);
         try {
-            EventHandler evHandler = remoteLogHandlers.get(evReg.getID());
-            if (evHandler!=null) {
-                List<Map<String,String>> toRemove = new ArrayList<Map<String, String>>();
-                for (Map.Entry<Map<String, String>, EventHandler> entry : remoteLogListeners.entrySet()) {
-                    if (entry.getValue().equals(evHandler)) {
-                        toRemove.add(entry.getKey());
-                    }
-                }
-                for (Map<String, String> key : toRemove)
-                    remoteLogListeners.remove(key);
-                remoteLogHandlers.remove(evReg.getID());
-            } else {
-                log.error("Problem unregistering, listener for: " + evReg.getID() + " doesn't exist");
-            }
-        } catch (Exception e1) {
-            log.error("Problem unregistering Log listener: " + e1.getMessage());
+            writer.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("Remote log writer still running, {} events queued", queued.get());
+            return;
+        }
+        for (Map.Entry<String, OutputStreamAppender<ILoggingEvent>> e : appenders.entrySet()) {
+            loggerFactory.getLogger(e.getKey()).detachAppender(e.getValue());
+            e.getValue().stop();
         }
+        appenders.clear();
     }
 
     /**
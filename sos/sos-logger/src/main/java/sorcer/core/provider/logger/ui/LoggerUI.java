@@ -34,6 +34,8 @@ import sorcer.core.provider.logger.LogFilter;
  */
 public class LoggerUI extends JPanel implements Observer {
 	private static final long serialVersionUID = 1L;
+	// the last lines of a log shown
+	private static final int MAX_LINES = 1000;
 	private final static Logger logger = LoggerFactory.getLogger(LoggerUI.class
 			.getName());
 	private boolean activeLoggers = false;
@@ -305,7 +307,7 @@ public class LoggerUI extends JPanel implements Observer {
 			fileName = (String) newValue;
 			logText.setText("");
 			try {
-				lines = remoteLogger.getLog(fileName);
+				lines = remoteLogger.tailLog(fileName, MAX_LINES, null).getLines();
 				StringBuffer sb = new StringBuffer();
 				for (String line : lines) {
 					sb.append(line).append("\n");
@@ -27,16 +27,12 @@ import sorcer.tools.shell.ServiceShell;
 import sorcer.tools.shell.ShellCmd;
 import sorcer.tools.shell.WhitespaceTokenizer;
 import sorcer.util.bdb.objects.ObjectInfo;
-import sorcer.util.url.sos.SdbUtil;
+import sorcer.util.url.sos.StoreIterator;
 
 import java.io.PrintStream;
-import java.net.MalformedURLException;
 import java.rmi.RemoteException;
 import java.util.*;
 
-import static sorcer.co.operator.list;
-import static sorcer.co.operator.store;
-
 public class DataStorageCmd extends ShellCmd {
 
 	{
@@ -187,20 +183,15 @@ public class DataStorageCmd extends ShellCmd {
 //					.getMonitorableExertionInfo(fiType,
 //							ServiceShell.getPrincipal());
 
-				Context cxt = null;
-
-				store("test-only");
-//				out.println("XXXXXXXXXXXXX service impl: " + dataStorers[selectedDataStorer]);
-//				out.println("XXXXXXXXXXXXX service: " + (DatabaseStorer) dataStorers[selectedDataStorer].service);
-//				out.println("XXXXXXXXXXXXX interfaces: " + Arrays.toString(dataStorers[selectedDataStorer].service.getClass().getInterfaces()));
-//				out.println("XXXXXXXXXXXXX key: " + ((Provider) dataStorers[selectedDataStorer].service).getProviderName());
-				cxt = ((DatabaseStorer) dataStorers[selectedDataStorer].service).contextList(SdbUtil.getListContext(Store.object));
-//				out.println("XXXXXXXXXXXXX context: " + cxt);
-
-				store("test-only");
-				List<String> records = list(Store.object);
-//				out.println("XXXXXXXXXXXXX records; " + records);
-				out.println(cxt.getValue(DatabaseStorer.store_content_list));
+				// stream the records a page at a time
+				StoreIterator records = new StoreIterator((DatabaseStorer) dataStorers[selectedDataStorer].service,
+						type == null || type == Store.all ? Store.object : type, StoreIterator.DEFAULT_PAGE_SIZE, true);
+				int count = 0;
+				while (records.hasNext()) {
+					out.println(records.next());
+					count++;
+				}
+				out.println("Records: " + count);
 			} else {
 				Map<Uuid, ObjectInfo> ri = null;
 				all = new HashMap<Uuid, ObjectInfo>();
@@ -225,7 +216,7 @@ public class DataStorageCmd extends ShellCmd {
 					}
 				}
 			}
-		} catch (ContextException | RemoteException | SignatureException | MalformedURLException e) {
+		} catch (RemoteException e) {
 			throw new MogramException(e);
 		}
 //		if (all.size() == 0) {
@@ -10,11 +10,16 @@ import edu.emory.mathcs.util.io.RedirectibleInput;
 import edu.emory.mathcs.util.io.RedirectingInputStream;
 
 import java.io.*;
+import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.security.AccessController;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.Permission;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
@@ -22,6 +27,7 @@ import java.security.cert.Certificate;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Properties;
 import java.util.jar.Attributes;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
@@ -31,6 +37,13 @@ import java.util.zip.ZipEntry;
 /**
  * Implementation of {@link edu.emory.mathcs.util.classloader.jar.JarURLConnection.JarOpener} that caches downloaded
  * JAR files in a local file system.
+ * <p>
+ * If the system property <code>sorcer.codebase.cache.dir</code> names a
+ * directory, JAR files downloaded over HTTP are kept there across JVM
+ * restarts together with their <code>ETag</code> and
+ * <code>Last-Modified</code> validators. A kept file is revalidated with a
+ * conditional request when it is opened and reused if the server answers
+ * <code>304 Not Modified</code>.
  *
  * @see edu.emory.mathcs.util.classloader.jar.JarURLConnection
  * @see edu.emory.mathcs.util.classloader.jar.JarURLStreamHandler
@@ -41,9 +54,24 @@ import java.util.zip.ZipEntry;
 @SuppressWarnings("unchecked")
 public class JarProxy implements JarURLConnection.JarOpener {
 
+    public static final String CACHE_DIR_PROPERTY = "sorcer.codebase.cache.dir";
+
     private final Map cache = new HashMap();
 
-    public JarProxy() {}
+    private final File cacheDir;
+
+    public JarProxy() {
+        this(getCacheDirProperty());
+    }
+
+    /**
+     * @param cacheDir the directory keeping downloaded JAR files across JVM
+     *                 restarts, or <code>null</code> to keep them only while
+     *                 this proxy is in use
+     */
+    public JarProxy(File cacheDir) {
+        this.cacheDir = cacheDir;
+    }
 
     public JarFile openJarFile(java.net.JarURLConnection conn) throws IOException {
         URL url = conn.getJarFileURL();
@@ -89,37 +117,52 @@ public class JarProxy implements JarURLConnection.JarOpener {
 
             jarconn.setUseCaches(conn.getUseCaches());
 
-            final InputStream in = getJarInputStream(jarconn);
+            if (cacheDir != null && jarconn.getUseCaches() && jarconn instanceof HttpURLConnection) {
+                try {
+                    result = (CachedJarFile)
+                        AccessController.doPrivileged(new PrivilegedExceptionAction() {
+                            public Object run() throws IOException {
+                                return openPersistent((HttpURLConnection)jarconn);
+                            }
+                        });
+                }
+                catch (PrivilegedActionException pae) {
+                    throw (IOException)pae.getException();
+                }
+            }
+            else {
+                final InputStream in = getJarInputStream(jarconn);
 
-            try {
-                result = (CachedJarFile)
-                    AccessController.doPrivileged(new PrivilegedExceptionAction() {
-                        public Object run() throws IOException {
-                            File file = File.createTempFile("jar_cache", "");
-                            FileOutputStream out = new FileOutputStream(file);
-                            try {
-                                RedirectibleInput r =
-                                    new RedirectingInputStream(in, false, false);
-                                int len = r.redirectAll(out);
-                                out.flush();
-                                if (len == 0) {
-                                    // e.g. HttpURLConnection: "NOT_MODIFIED"
-                                    return null;
+                try {
+                    result = (CachedJarFile)
+                        AccessController.doPrivileged(new PrivilegedExceptionAction() {
+                            public Object run() throws IOException {
+                                File file = File.createTempFile("jar_cache", "");
+                                FileOutputStream out = new FileOutputStream(file);
+                                try {
+                                    RedirectibleInput r =
+                                        new RedirectingInputStream(in, false, false);
+                                    int len = r.redirectAll(out);
+                                    out.flush();
+                                    if (len == 0) {
+                                        // e.g. HttpURLConnection: "NOT_MODIFIED"
+                                        return null;
+                                    }
                                 }
-                            }
-                            finally {
-                                out.close();
-                            }
-                            return new CachedJarFile(file, jarconn.getPermission(), true);
+                                finally {
+                                    out.close();
+                                }
+                                return new CachedJarFile(file, jarconn.getPermission(), true);
 
-                        }
-                    });
-            }
-            catch (PrivilegedActionException pae) {
-                throw (IOException)pae.getException();
-            }
-            finally {
-                in.close();
+                            }
+                        });
+                }
+                catch (PrivilegedActionException pae) {
+                    throw (IOException)pae.getException();
+                }
+                finally {
+                    in.close();
+                }
             }
         }
 
@@ -144,6 +187,127 @@ public class JarProxy implements JarURLConnection.JarOpener {
         return conn.getInputStream();
     }
 
+    /**
+     * Opens the JAR file kept in the cache directory if the server reports
+     * it unchanged, or downloads it and keeps it with its validators.
+     */
+    private CachedJarFile openPersistent(HttpURLConnection jarconn) throws IOException {
+        String url = jarconn.getURL().toString();
+        String key = cacheKey(url);
+        File jar = new File(cacheDir, key + ".jar");
+        File meta = new File(cacheDir, key + ".meta");
+
+        Properties validators = null;
+        if (jar.isFile() && meta.isFile()) {
+            validators = new Properties();
+            InputStream in = new FileInputStream(meta);
+            try {
+                validators.load(in);
+            }
+            finally {
+                in.close();
+            }
+            if (!url.equals(validators.getProperty("url"))) validators = null;
+        }
+        if (validators != null) {
+            String etag = validators.getProperty("etag");
+            if (etag != null) jarconn.setRequestProperty("If-None-Match", etag);
+            String lastModified = validators.getProperty("lastModified");
+            if (lastModified != null) jarconn.setIfModifiedSince(Long.parseLong(lastModified));
+        }
+
+        InputStream in = getJarInputStream(jarconn);
+        File file;
+        try {
+            if (jarconn.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                // without validators of our own the caller asked for it
+                if (validators == null) return null;
+                return new CachedJarFile(jar, jarconn.getPermission(), false);
+            }
+            if (!cacheDir.isDirectory() && !cacheDir.mkdirs()) {
+                throw new IOException("Cannot create JAR cache directory " + cacheDir);
+            }
+            file = File.createTempFile(key, ".part", cacheDir);
+            FileOutputStream out = new FileOutputStream(file);
+            try {
+                RedirectibleInput r = new RedirectingInputStream(in, false, false);
+                int len = r.redirectAll(out);
+                out.flush();
+                if (len == 0) {
+                    out.close();
+                    file.delete();
+                    return null;
+                }
+            }
+            finally {
+                out.close();
+            }
+        }
+        finally {
+            in.close();
+        }
+
+        String etag = jarconn.getHeaderField("ETag");
+        long lastModified = jarconn.getLastModified();
+        if (etag == null && lastModified == 0) {
+            // nothing to revalidate with, use the file once
+            return new CachedJarFile(file, jarconn.getPermission(), true);
+        }
+        // a kept file never pairs with validators of another version
+        meta.delete();
+        try {
+            Files.move(file.toPath(), jar.toPath(),
+                       StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e) {
+            // the kept file is in use and cannot be replaced
+            return new CachedJarFile(file, jarconn.getPermission(), true);
+        }
+        Properties props = new Properties();
+        props.setProperty("url", url);
+        if (etag != null) props.setProperty("etag", etag);
+        if (lastModified != 0) props.setProperty("lastModified", String.valueOf(lastModified));
+        File metaFile = File.createTempFile(key, ".meta.part", cacheDir);
+        OutputStream out = new FileOutputStream(metaFile);
+        try {
+            props.store(out, null);
+        }
+        finally {
+            out.close();
+        }
+        try {
+            Files.move(metaFile.toPath(), meta.toPath(),
+                       StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e) {
+            metaFile.delete();
+        }
+        return new CachedJarFile(jar, jarconn.getPermission(), false);
+    }
+
+    private static String cacheKey(String url) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(url.getBytes("UTF-8"));
+            StringBuilder key = new StringBuilder();
+            for (int i = 0; i < digest.length; i++) {
+                key.append(Character.forDigit((digest[i] >> 4) & 0xf, 16));
+                key.append(Character.forDigit(digest[i] & 0xf, 16));
+            }
+            return key.toString();
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static File getCacheDirProperty() {
+        String dir = System.getProperty(CACHE_DIR_PROPERTY);
+        return dir == null || dir.length() == 0 ? null : new File(dir);
+    }
+
     protected void clear() {
         Map cache;
         synchronized (this.cache) {
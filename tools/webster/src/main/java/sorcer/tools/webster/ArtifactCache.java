@@ -0,0 +1,159 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.tools.webster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A size-bounded cache of the contents of hot files served by
+ * {@link Webster}. A file is cached on its second request, so files fetched
+ * once do not evict the hot ones, and the least recently used files are
+ * evicted when the cache is full. Entries are validated against the length
+ * and modification time of the file, and {@link #invalidate(File)} drops an
+ * entry when the file is written or deleted through Webster.
+ */
+class ArtifactCache {
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactCache.class);
+
+    static final long DEFAULT_SIZE = 64 * 1024 * 1024;
+
+    static final long DEFAULT_MAX_ENTRY = 8 * 1024 * 1024;
+
+    // the number of once requested files remembered for admission
+    private static final int MAX_CANDIDATES = 1024;
+
+    private final long capacity;
+
+    private final long maxEntry;
+
+    private long size;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+
+    private final Map<String, Long> candidates = new LinkedHashMap<String, Long>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > MAX_CANDIDATES;
+        }
+    };
+
+    /**
+     * @param capacity the total size of the cached files in bytes, 0
+     *                 disables the cache
+     * @param maxEntry the size of the largest file cached
+     */
+    ArtifactCache(long capacity, long maxEntry) {
+        this.capacity = Math.max(0, capacity);
+        this.maxEntry = Math.min(Math.min(maxEntry, this.capacity), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the cached contents of the file, or <code>null</code> if the
+     * file is not cached. The file is read into the cache in the calling
+     * thread if it was requested before and fits, so the selector thread of
+     * the NIO mode leaves the requests to its I/O threads.
+     *
+     * @param length       the length of the file being served
+     * @param lastModified the modification time of the file being served
+     */
+    ByteBuffer get(File file, long length, long lastModified) throws IOException {
+        if (capacity == 0 || length > maxEntry)
+            return null;
+        String key = file.getAbsolutePath();
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.length == length && entry.lastModified == lastModified)
+                    return entry.content.duplicate();
+                remove(key);
+            }
+            Long requested = candidates.get(key);
+            if (requested == null || requested != lastModified) {
+                candidates.put(key, lastModified);
+                return null;
+            }
+            candidates.remove(key);
+        }
+
+        ByteBuffer content = ByteBuffer.allocateDirect((int) length);
+        FileChannel channel = new FileInputStream(file).getChannel();
+        try {
+            while (content.hasRemaining() && channel.read(content) >= 0) {
+            }
+        } finally {
+            channel.close();
+        }
+        // the file changed while it was read
+        if (content.hasRemaining() || file.length() != length || file.lastModified() != lastModified)
+            return null;
+        content.flip();
+        ByteBuffer readOnly = content.asReadOnlyBuffer();
+
+        synchronized (this) {
+            remove(key);
+            entries.put(key, new Entry(readOnly, length, lastModified));
+            size += length;
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (size > capacity && eldest.hasNext()) {
+                Map.Entry<String, Entry> evicted = eldest.next();
+                size -= evicted.getValue().length;
+                eldest.remove();
+                logger.debug("Evicted {} from cache", evicted.getKey());
+            }
+        }
+        logger.debug("Cached {}, size: [{}]", key, length);
+        return readOnly.duplicate();
+    }
+
+    synchronized void invalidate(File file) {
+        String key = file.getAbsolutePath();
+        remove(key);
+        candidates.remove(key);
+    }
+
+    synchronized long getSize() {
+        return size;
+    }
+
+    private void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null)
+            size -= entry.length;
+    }
+
+    private static class Entry {
+        final ByteBuffer content;
+        final long length;
+        final long lastModified;
+
+        Entry(ByteBuffer content, long length, long lastModified) {
+            this.content = content;
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+    }
+}
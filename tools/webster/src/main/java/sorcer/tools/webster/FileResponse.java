@@ -0,0 +1,293 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.tools.webster;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The response to a GET or HEAD request of a file. The response carries the
+ * validators of the file, an <code>ETag</code> derived from its length and
+ * modification time and its <code>Last-Modified</code> date, and honours
+ * <code>If-None-Match</code>, <code>If-Modified-Since</code>,
+ * <code>If-Range</code> and single byte <code>Range</code> requests.
+ * Requests for several ranges are answered with the whole file.
+ */
+class FileResponse {
+    static final int OK = 200;
+    static final int PARTIAL_CONTENT = 206;
+    static final int NOT_MODIFIED = 304;
+    static final int RANGE_NOT_SATISFIABLE = 416;
+
+    private static final long[] UNSATISFIABLE = new long[0];
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // the IMF-fixdate format of HTTP/1.1
+    private static final DateTimeFormatter DATE_FORMAT =
+            DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US).withZone(ZoneOffset.UTC);
+
+    private final File file;
+    private final int status;
+    private final long total;
+    private final long start;
+    private final long length;
+    private final String etag;
+    private final String lastModified;
+    private ByteBuffer content;
+
+    private FileResponse(File file, int status, long total, long start, long length, String etag,
+                         String lastModified) {
+        this.file = file;
+        this.status = status;
+        this.total = total;
+        this.start = start;
+        this.length = length;
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Creates the response to a request of an existing file.
+     *
+     * @param header the request header with case insensitive field names
+     * @param cache  the cache to serve the contents from, <code>null</code>
+     *               for HEAD requests
+     */
+    static FileResponse create(File file, Map<String, String> header, ArtifactCache cache) throws IOException {
+        long total = file.length();
+        long modified = file.lastModified();
+        String etag = "\"" + Long.toHexString(total) + "-" + Long.toHexString(modified) + "\"";
+        String lastModified = formatDate(modified);
+
+        String ifNoneMatch = header.get("If-None-Match");
+        boolean notModified;
+        if (ifNoneMatch != null) {
+            notModified = matches(ifNoneMatch, etag);
+        } else {
+            long since = parseDate(header.get("If-Modified-Since"));
+            notModified = since >= 0 && modified / 1000 <= since / 1000;
+        }
+        if (notModified)
+            return new FileResponse(file, NOT_MODIFIED, total, 0, 0, etag, lastModified);
+
+        long[] range = null;
+        String ifRange = header.get("If-Range");
+        if (ifRange == null || ifRange.trim().equals(etag)
+                || (parseDate(ifRange) >= 0 && parseDate(ifRange) / 1000 == modified / 1000))
+            range = parseRange(header.get("Range"), total);
+        FileResponse response;
+        if (range == UNSATISFIABLE)
+            return new FileResponse(file, RANGE_NOT_SATISFIABLE, total, 0, 0, etag, lastModified);
+        else if (range != null)
+            response = new FileResponse(file, PARTIAL_CONTENT, total, range[0], range[1] - range[0] + 1,
+                    etag, lastModified);
+        else
+            response = new FileResponse(file, OK, total, 0, total, etag, lastModified);
+
+        if (cache != null) {
+            ByteBuffer cached = cache.get(file, total, modified);
+            if (cached != null) {
+                cached.position((int) response.start);
+                cached.limit((int) (response.start + response.length));
+                response.content = cached.slice();
+            }
+        }
+        return response;
+    }
+
+    int getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the status line of the response without the protocol version.
+     */
+    String getStatusLine() {
+        switch (status) {
+            case PARTIAL_CONTENT:
+                return "206 Partial Content";
+            case NOT_MODIFIED:
+                return "304 Not Modified";
+            case RANGE_NOT_SATISFIABLE:
+                return "416 Range Not Satisfiable";
+            default:
+                return "200 OK";
+        }
+    }
+
+    /**
+     * Returns the position of the first byte of the body in the file.
+     */
+    long getStart() {
+        return start;
+    }
+
+    /**
+     * Returns the length of the body, or -1 if the response has no
+     * <code>Content-Length</code>.
+     */
+    long getLength() {
+        return status == NOT_MODIFIED ? -1 : length;
+    }
+
+    /**
+     * Returns the cached body of the response, or <code>null</code> if the
+     * body is read from the file.
+     */
+    ByteBuffer getContent() {
+        return content == null ? null : content.duplicate();
+    }
+
+    /**
+     * Appends the validator and range header fields, each followed by the
+     * given line separator.
+     */
+    void appendHeaders(StringBuilder sb, String eol) {
+        sb.append("ETag: ").append(etag).append(eol);
+        sb.append("Last-Modified: ").append(lastModified).append(eol);
+        sb.append("Accept-Ranges: bytes").append(eol);
+        if (status == PARTIAL_CONTENT)
+            sb.append("Content-Range: bytes ").append(start).append("-").append(start + length - 1)
+              .append("/").append(total).append(eol);
+        else if (status == RANGE_NOT_SATISFIABLE)
+            sb.append("Content-Range: bytes */").append(total).append(eol);
+    }
+
+    /**
+     * Writes the body of the response.
+     */
+    void writeBody(OutputStream out) throws IOException {
+        if (length == 0 || status == NOT_MODIFIED || status == RANGE_NOT_SATISFIABLE)
+            return;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        if (content != null) {
+            ByteBuffer body = content.duplicate();
+            while (body.hasRemaining()) {
+                int n = Math.min(buffer.length, body.remaining());
+                body.get(buffer, 0, n);
+                out.write(buffer, 0, n);
+            }
+            return;
+        }
+        FileChannel channel = new FileInputStream(file).getChannel();
+        try {
+            channel.position(start);
+            ByteBuffer body = ByteBuffer.wrap(buffer);
+            long remaining = length;
+            while (remaining > 0) {
+                body.clear();
+                if (remaining < buffer.length)
+                    body.limit((int) remaining);
+                int n = channel.read(body);
+                if (n < 0)
+                    throw new IOException("File truncated while sending");
+                out.write(buffer, 0, n);
+                remaining -= n;
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if the entity tag list of an
+     * <code>If-None-Match</code> field matches the tag, comparing weakly.
+     */
+    static boolean matches(String tags, String etag) {
+        for (String tag : tags.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/"))
+                tag = tag.substring(2);
+            if (tag.equals("*") || tag.equals(etag))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Parses the value of a <code>Range</code> field and returns the first
+     * and last byte of the range, {@link #UNSATISFIABLE} if the range starts
+     * past the end of the file, or <code>null</code> if the field is absent,
+     * invalid or requests several ranges.
+     */
+    static long[] parseRange(String range, long total) {
+        if (range == null || !range.trim().startsWith("bytes="))
+            return null;
+        String spec = range.trim().substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (spec.indexOf(',') >= 0 || dash < 0)
+            return null;
+        String first = spec.substring(0, dash).trim();
+        String last = spec.substring(dash + 1).trim();
+        try {
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                if (last.isEmpty())
+                    return null;
+                long suffix = Long.parseLong(last);
+                if (suffix < 0)
+                    return null;
+                if (suffix == 0)
+                    return UNSATISFIABLE;
+                start = Math.max(0, total - suffix);
+                end = total - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+                if (start < 0 || end < start)
+                    return null;
+                end = Math.min(end, total - 1);
+            }
+            if (start >= total)
+                return UNSATISFIABLE;
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static String formatDate(long time) {
+        return DATE_FORMAT.format(Instant.ofEpochMilli(time));
+    }
+
+    /**
+     * Returns the time of an HTTP date, or -1 if the value is absent or not a
+     * date.
+     */
+    static long parseDate(String date) {
+        if (date == null)
+            return -1;
+        try {
+            return ZonedDateTime.parse(date.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,622 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * Copyright 2026 SorcerSoft.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.tools.webster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The non-blocking serving mode of {@link Webster}. A single selector thread
+ * accepts connections, parses requests and writes responses. Connections
+ * are kept alive between requests as HTTP/1.1 allows, and file bodies are
+ * sent with {@link FileChannel#transferTo}, so a file is neither read into
+ * the heap nor buffered whole, unless it is served from the cache of hot
+ * files. The file I/O of the requests, including the transfers and the
+ * uploads, is done by I/O threads while the selector thread serves the other
+ * connections. GET, HEAD, PUT and DELETE behave as in the threaded mode.
+ */
+class NioClassServer implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(NioClassServer.class);
+
+    static final long DEFAULT_IDLE_TIMEOUT = 15000;
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private static final int MAX_HEADER_SIZE = 64 * 1024;
+
+    private final Webster webster;
+
+    private final ServerSocketChannel server;
+
+    private final Selector selector;
+
+    private final long idleTimeout;
+
+    private final ThreadPoolExecutor io;
+
+    // connections handed back by the I/O threads
+    private final Queue<Connection> resumed = new ConcurrentLinkedQueue<Connection>();
+
+    private volatile boolean running = true;
+
+    NioClassServer(Webster webster, InetAddress address, int port, long idleTimeout, int ioThreads)
+            throws IOException {
+        this.webster = webster;
+        this.idleTimeout = idleTimeout;
+        io = new ThreadPoolExecutor(ioThreads, ioThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                r -> {
+                    Thread thread = new Thread(r, "Webster-IO");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        io.allowCoreThreadTimeOut(true);
+        server = ServerSocketChannel.open();
+        try {
+            server.socket().bind(new InetSocketAddress(address, port));
+            server.configureBlocking(false);
+            selector = Selector.open();
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            server.close();
+            throw e;
+        }
+    }
+
+    ServerSocket getServerSocket() {
+        return server.socket();
+    }
+
+    void close() {
+        running = false;
+        selector.wakeup();
+    }
+
+    public void run() {
+        long lastSweep = System.currentTimeMillis();
+        try {
+            while (running) {
+                selector.select(1000);
+                Connection connection;
+                while ((connection = resumed.poll()) != null)
+                    connection.resume();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid())
+                        continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    connection = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable())
+                            connection.readable();
+                        else if (key.isWritable())
+                            connection.process();
+                    } catch (IOException | RuntimeException e) {
+                        logger.debug("Closing connection from {}", connection.from(), e);
+                        connection.close();
+                    }
+                }
+                long now = System.currentTimeMillis();
+                if (now - lastSweep >= 1000) {
+                    closeIdle(now);
+                    lastSweep = now;
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (running)
+                logger.warn("Processing HTTP Request", e);
+        } finally {
+            io.shutdownNow();
+            try {
+                io.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection)
+                    ((Connection) key.attachment()).close();
+            }
+            try {
+                selector.close();
+                server.close();
+            } catch (IOException e) {
+                logger.warn("Exception closing Webster ServerSocketChannel", e);
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Connection(channel, key));
+        }
+    }
+
+    private void closeIdle(long now) {
+        for (SelectionKey key : selector.keys()) {
+            Object attachment = key.attachment();
+            if (attachment instanceof Connection) {
+                Connection connection = (Connection) attachment;
+                if (!connection.busy && now - connection.lastActive > idleTimeout)
+                    connection.close();
+            }
+        }
+    }
+
+    private class Connection {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        // request bytes not processed yet, in write mode
+        private ByteBuffer in = ByteBuffer.allocate(BUFFER_SIZE);
+        private long lastActive = System.currentTimeMillis();
+        private boolean keepAlive;
+
+        // the response being written
+        private ByteBuffer head;
+        private ByteBuffer cached;
+        private FileChannel body;
+        private long position;
+        private long end;
+        // the socket was full when the body was last transferred
+        private boolean stalled;
+
+        // the file being received by a PUT
+        private FileChannel upload;
+        private long remaining;
+        private String uploadStatus;
+        private String uploadName;
+        private File uploadFile;
+
+        // set while an I/O thread works on the connection
+        private boolean busy;
+        private Exception failure;
+
+        Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+
+        String from() {
+            return String.valueOf(channel.socket().getRemoteSocketAddress());
+        }
+
+        void readable() throws IOException {
+            if (!in.hasRemaining()) {
+                if (in.capacity() >= MAX_HEADER_SIZE) {
+                    keepAlive = false;
+                    respond("431 Request Header Fields Too Large", null, null, "");
+                    process();
+                    return;
+                }
+                ByteBuffer larger = ByteBuffer.allocate(in.capacity() * 2);
+                in.flip();
+                larger.put(in);
+                in = larger;
+            }
+            if (channel.read(in) < 0) {
+                close();
+                return;
+            }
+            lastActive = System.currentTimeMillis();
+            process();
+        }
+
+        /**
+         * Runs the file I/O of a request on an I/O thread, the connection is
+         * not selected until the thread is done.
+         */
+        private void offload(final FileTask task) {
+            busy = true;
+            key.interestOps(0);
+            try {
+                io.execute(() -> {
+                    try {
+                        task.run();
+                    } catch (Exception e) {
+                        failure = e;
+                    }
+                    resumed.add(this);
+                    selector.wakeup();
+                });
+            } catch (RejectedExecutionException e) {
+                // the server is closing
+                busy = false;
+                close();
+            }
+        }
+
+        // continues on the selector thread after the I/O thread is done
+        void resume() {
+            busy = false;
+            if (failure != null) {
+                logger.debug("Closing connection from {}", from(), failure);
+                close();
+                return;
+            }
+            try {
+                process();
+            } catch (IOException | RuntimeException e) {
+                logger.debug("Closing connection from {}", from(), e);
+                close();
+            }
+        }
+
+        /**
+         * Writes the pending response, receives a pending upload and handles
+         * the buffered requests until more bytes need to be read or written,
+         * or an I/O thread serves a request.
+         */
+        void process() throws IOException {
+            while (channel.isOpen() && !busy) {
+                if (head != null) {
+                    if (!write()) {
+                        if (!busy)
+                            key.interestOps(SelectionKey.OP_WRITE);
+                        return;
+                    }
+                    if (!keepAlive) {
+                        close();
+                        return;
+                    }
+                } else if (upload != null) {
+                    // no bytes of the upload buffered
+                    if (remaining > 0 && in.position() == 0)
+                        break;
+                    offload(this::receive);
+                } else if (!handleRequest()) {
+                    break;
+                }
+            }
+            if (channel.isOpen() && !busy)
+                key.interestOps(SelectionKey.OP_READ);
+        }
+
+        private boolean write() throws IOException {
+            while (head.hasRemaining()) {
+                if (channel.write(head) == 0)
+                    return false;
+                lastActive = System.currentTimeMillis();
+            }
+            while (cached != null && cached.hasRemaining()) {
+                if (channel.write(cached) == 0)
+                    return false;
+                lastActive = System.currentTimeMillis();
+            }
+            cached = null;
+            if (body != null && position < end) {
+                if (stalled)
+                    stalled = false;
+                else
+                    offload(this::transfer);
+                return false;
+            }
+            closeBody();
+            head = null;
+            return true;
+        }
+
+        private void transfer() throws IOException {
+            while (position < end) {
+                long n = body.transferTo(position, end - position, channel);
+                if (n == 0) {
+                    if (position >= body.size())
+                        throw new IOException("File truncated while sending");
+                    stalled = true;
+                    return;
+                }
+                position += n;
+                lastActive = System.currentTimeMillis();
+            }
+        }
+
+        /**
+         * Handles the next buffered request, returns <code>false</code> if
+         * the request is not complete yet.
+         */
+        private boolean handleRequest() throws IOException {
+            in.flip();
+            int headerEnd = headerEnd(in);
+            if (headerEnd < 0) {
+                in.position(in.limit());
+                in.limit(in.capacity());
+                return false;
+            }
+            byte[] bytes = new byte[headerEnd - in.position()];
+            in.get(bytes);
+            in.compact();
+            String text = new String(bytes, StandardCharsets.ISO_8859_1).trim();
+            // blank lines between requests are ignored
+            if (text.isEmpty())
+                return true;
+
+            String[] lines = text.split("\r?\n");
+            Map<String, String> header = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+            for (int i = 1; i < lines.length; i++) {
+                int colon = lines[i].indexOf(':');
+                if (colon > 0)
+                    header.put(lines[i].substring(0, colon).trim(), lines[i].substring(colon + 1).trim());
+            }
+            String[] request = lines[0].split(" ");
+            if (logger.isDebugEnabled())
+                logger.debug("From: {}, Request: {}", from(), lines[0]);
+            if (request.length < 2) {
+                keepAlive = false;
+                respond("400 Bad Request", null, null, "");
+                return true;
+            }
+            String method = request[0];
+            String fileName = request[1];
+            if (fileName.startsWith("/"))
+                fileName = fileName.substring(1);
+            String version = request.length > 2 ? request[2] : "HTTP/1.0";
+            String connection = header.get("Connection");
+            if ("HTTP/1.1".equals(version))
+                keepAlive = !"close".equalsIgnoreCase(connection);
+            else
+                keepAlive = "keep-alive".equalsIgnoreCase(connection);
+
+            final String path = fileName;
+            if (method.equals("GET"))
+                offload(() -> get(path, header, false));
+            else if (method.equals("HEAD"))
+                offload(() -> get(path, header, true));
+            else if (method.equals("PUT"))
+                offload(() -> put(path, header));
+            else if (method.equals("DELETE"))
+                offload(() -> delete(path));
+            else {
+                logger.debug("bad request [{}] from {}", lines[0], from());
+                keepAlive = false;
+                respond("400 Bad Request", null, null, "");
+            }
+            return true;
+        }
+
+        private void get(String fileName, Map<String, String> header, boolean headOnly) throws IOException {
+            File file = webster.parseFileName(fileName);
+            if (file.isDirectory()) {
+                String listing = Webster.listDirectory(file);
+                String type = Webster.getMimeType("txt");
+                respond("200 OK", "GET", type != null ? type : "application/java", headOnly ? null : listing,
+                        listing.length());
+            } else if (file.isFile()) {
+                FileResponse response = FileResponse.create(file, header, headOnly ? null : webster.getCache());
+                respond(response.getStatusLine(), "GET", Webster.getMimeType(fileName), null, response.getLength(),
+                        response);
+                if (!headOnly && response.getLength() > 0) {
+                    cached = response.getContent();
+                    if (cached == null) {
+                        body = new FileInputStream(file).getChannel();
+                        position = response.getStart();
+                        end = position + response.getLength();
+                    }
+                }
+                logger.debug("Do {}: input={}, parsed={}, file size: [{}], {}", headOnly ? "HEAD" : "GET",
+                        fileName, file, file.length(), response.getStatusLine());
+            } else {
+                respond("404 Not Found", null, null, "");
+                logger.debug("Do {}: input={}, parsed={}, not found", headOnly ? "HEAD" : "GET", fileName, file);
+            }
+        }
+
+        /**
+         * Returns the value of a <code>Content-Length</code> field, or -1 if
+         * the value is absent, negative or not a number.
+         */
+        private long parseLength(String length) {
+            if (length == null)
+                return -1;
+            try {
+                return Math.max(-1, Long.parseLong(length));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        private void put(String fileName, Map<String, String> header) throws IOException {
+            String tempDir = webster.getTempDir();
+            String length = header.get("Content-Length");
+            long contentLength = parseLength(length);
+            if (tempDir == null) {
+                keepAlive = false;
+                respond("405 Method Not Allowed", null, null, "Webster is in read-only mode");
+            } else if (length == null) {
+                keepAlive = false;
+                respond("411 Length Required", "PUT", "text/html", "<H1>411 Webster refuses to accept the out "
+                        + "request for " + fileName + " without a defined Content-Length.</H1>\n");
+            } else if (contentLength < 0) {
+                logger.debug("bad Content-Length [{}] from {}", length, from());
+                keepAlive = false;
+                respond("400 Bad Request", null, null, "");
+            } else {
+                File putFile = new File(tempDir + File.separator + fileName);
+                boolean exists = putFile.exists();
+                File parentDir = putFile.getParentFile();
+                if (!exists && parentDir != null && !parentDir.exists())
+                    parentDir.mkdirs();
+                remaining = contentLength;
+                uploadName = fileName;
+                uploadFile = putFile;
+                uploadStatus = exists ? "200 OK" : "201 Created";
+                upload = new FileOutputStream(putFile).getChannel();
+                logger.debug("Putting {} size: {}", putFile, remaining);
+            }
+        }
+
+        /**
+         * Writes the buffered body bytes of the upload to its file.
+         */
+        private void receive() throws IOException {
+            in.flip();
+            try {
+                while (remaining > 0 && in.hasRemaining()) {
+                    ByteBuffer part = in.duplicate();
+                    part.limit(part.position() + (int) Math.min(part.remaining(), remaining));
+                    int n = upload.write(part);
+                    in.position(in.position() + n);
+                    remaining -= n;
+                }
+            } catch (IOException e) {
+                logger.warn("Writing {}", uploadName, e);
+                closeUpload();
+                webster.getCache().invalidate(uploadFile);
+                keepAlive = false;
+                respond("500 Internal Server Error", "PUT", "text/html", "<H1>500 Internal Server Error</H1>\n" + e);
+                return;
+            } finally {
+                in.compact();
+            }
+            if (remaining > 0)
+                return;
+            closeUpload();
+            webster.getCache().invalidate(uploadFile);
+            String message = uploadStatus.startsWith("200") ? " updated" : " Created";
+            respond(uploadStatus, "PUT", "text/html", "<H1>" + uploadStatus.substring(0, 3) + " PUT File "
+                    + uploadName + message + "</H1>\n");
+        }
+
+        private void delete(String fileName) throws IOException {
+            File file = webster.parseFileName(fileName);
+            if (!file.exists())
+                respond("404 File not found", "GET", "text/html", "<H1>404 File not Found</H1>\n<BR>");
+            else if (file.delete()) {
+                webster.getCache().invalidate(file);
+                respond("200 OK", "PUT", "text/html", "<H1>200 File succesfully deleted</H1>\n");
+            } else
+                respond("500 Internal Server Error", "PUT", "text/html", "<H1>500 File could not be deleted</H1>\n");
+        }
+
+        private void respond(String status, String allow, String contentType, String content) {
+            respond(status, allow, contentType, content, content.length(), null);
+        }
+
+        private void respond(String status, String allow, String contentType, String content, long contentLength) {
+            respond(status, allow, contentType, content, contentLength, null);
+        }
+
+        /**
+         * Prepares the response header followed by the given content, if any.
+         * A negative content length is not sent.
+         */
+        private void respond(String status, String allow, String contentType, String content, long contentLength,
+                             FileResponse file) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("HTTP/1.1 ").append(status).append("\r\n");
+            if (allow != null)
+                sb.append("Allow: ").append(allow).append("\r\n");
+            sb.append("MIME-Version: 1.0\r\n");
+            sb.append("Server: ").append(Webster.SERVER_DESCRIPTION).append("\r\n");
+            if (contentType != null)
+                sb.append("Content-Type: ").append(contentType).append("\r\n");
+            if (file != null)
+                file.appendHeaders(sb, "\r\n");
+            if (contentLength >= 0)
+                sb.append("Content-Length: ").append(contentLength).append("\r\n");
+            sb.append("Connection: ").append(keepAlive ? "keep-alive" : "close").append("\r\n\r\n");
+            if (content != null)
+                sb.append(content);
+            head = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.ISO_8859_1));
+        }
+
+        private void closeBody() {
+            if (body != null) {
+                try {
+                    body.close();
+                } catch (IOException e) {
+                    logger.warn("Closing file", e);
+                }
+                body = null;
+            }
+            cached = null;
+        }
+
+        private void closeUpload() {
+            if (upload != null) {
+                try {
+                    upload.close();
+                } catch (IOException e) {
+                    logger.warn("Closing file", e);
+                }
+                upload = null;
+            }
+        }
+
+        void close() {
+            closeBody();
+            closeUpload();
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.warn("Closing incoming socket", e);
+            }
+        }
+    }
+
+    /**
+     * The file I/O of a request run by an I/O thread.
+     */
+    private interface FileTask {
+        void run() throws IOException;
+    }
+
+    /**
+     * Returns the position after the blank line ending the request header in
+     * the buffer, or -1 if the header is not complete.
+     */
+    static int headerEnd(ByteBuffer buffer) {
+        int newline = -1;
+        for (int i = buffer.position(); i < buffer.limit(); i++) {
+            byte b = buffer.get(i);
+            if (b == '\n') {
+                if (newline >= 0)
+                    return i + 1;
+                newline = i;
+            } else if (b != '\r') {
+                newline = -1;
+            }
+        }
+        return -1;
+    }
+}
@@ -44,6 +44,24 @@ import java.util.concurrent.ThreadPoolExecutor;
  * directories which are separated by a <code>;</code></td>
  * <td>System.getProperty(user.home)</td>
  * </tr>
+ * <tr>
+ * <td>webster.nio</td>
+ * <td>Serves requests from a single selector thread with HTTP/1.1 keep-alive
+ * connections and zero-copy file transfers, the file I/O is done by up to
+ * maxThreads I/O threads</td>
+ * <td>false</td>
+ * </tr>
+ * <tr>
+ * <td>webster.cache.size</td>
+ * <td>The size in bytes of the in-memory cache of frequently requested files,
+ * 0 disables the cache</td>
+ * <td>67108864</td>
+ * </tr>
+ * <tr>
+ * <td>webster.cache.maxEntry</td>
+ * <td>The size in bytes of the largest file cached</td>
+ * <td>8388608</td>
+ * </tr>
  * <p/>
  * </table>
  *
@@ -70,11 +88,16 @@ public class Webster implements WebsterService, Runnable {
     private com.sun.jini.start.LifeCycle lifeCycle;
     private boolean debug = false;
     private boolean isDaemon = false;
-    private static final String SERVER_DESCRIPTION = Webster.class.getName();
+    static final String SERVER_DESCRIPTION = Webster.class.getName();
     private String tempDir;
     // Shared class server (webster) 
     private static Webster webster;
     private InetAddress addr;
+    private boolean nio = false;
+    private NioClassServer nioServer;
+    private final ArtifactCache cache =
+            new ArtifactCache(Long.getLong("webster.cache.size", ArtifactCache.DEFAULT_SIZE),
+                              Long.getLong("webster.cache.maxEntry", ArtifactCache.DEFAULT_MAX_ENTRY));
 
     /**
      * Create a new Webster. The port is determined by the
@@ -244,7 +267,7 @@ public class Webster implements WebsterService, Runnable {
      *
      * @param args      String[] of options. Valid options are [-port port],
      *                  [-roots list-of-roots], [-bindAddress address], [-minThreads minThreads],
-     *                  [-maxThreads maxThreads] [-soTimeout soTimeout]
+     *                  [-maxThreads maxThreads] [-soTimeout soTimeout] [-nio true]
      * @param lifeCycle The LifeCycle object, may be null
      * @throws Exception if Webster cannot create a socket
      */
@@ -315,6 +338,9 @@ public class Webster implements WebsterService, Runnable {
             } else if (option.equals("-isDaemon")) {
                 i++;
                 isDaemon = Boolean.parseBoolean(options[i]);
+            } else if (option.equals("-nio")) {
+                i++;
+                nio = Boolean.parseBoolean(options[i]);
             } else if (option.equals("-debug")) {
                 i++;
                 debug = Boolean.parseBoolean(options[i]);
@@ -374,6 +400,8 @@ public class Webster implements WebsterService, Runnable {
             if (str != null && str.equals("true"))
                 debug = true;
         }
+        if (!nio)
+            nio = Boolean.getBoolean("webster.nio");
         str = System.getProperty("webster.tmp.dir");
         if (str != null) {
             tempDir = str;
@@ -434,7 +462,14 @@ public class Webster implements WebsterService, Runnable {
             if (s != null && s.length() > 0) {
                 port = new Integer(s);
             }
-            ss = new ServerSocket(port, 0, address);
+            if (nio) {
+                nioServer = new NioClassServer(this, address, port,
+                                               soTimeout > 0 ? soTimeout : NioClassServer.DEFAULT_IDLE_TIMEOUT,
+                                               maxThreads);
+                ss = nioServer.getServerSocket();
+            } else {
+                ss = new ServerSocket(port, 0, address);
+            }
         } catch (IOException ioe) {
             if (startPort == endPort) {
                 throw new IOException("Port bind server socket failure: " + endPort, ioe);
@@ -456,8 +491,12 @@ public class Webster implements WebsterService, Runnable {
         if (logger.isDebugEnabled()) {
             logger.debug("Webster listening on port: " + port);
         }
+        if (nio)
+            logger.info("Webster serving from a selector thread on port: " + port);
         try {
-            pool = (ThreadPoolExecutor) Executors.newFixedThreadPool(maxThreads);
+            // the NIO mode does its file I/O on threads of its own
+            if (!nio)
+                pool = (ThreadPoolExecutor) Executors.newFixedThreadPool(maxThreads);
             if (debug)
                 System.out.println("Webster minThreads [" + minThreads + "], "
                                            + "maxThreads [" + maxThreads + "]");
@@ -592,6 +631,8 @@ public class Webster implements WebsterService, Runnable {
                 logger.warn("Exception closing Webster ServerSocket");
             }
         }
+        if (nioServer != null)
+            nioServer.close();
         if (lifeCycle != null)
             lifeCycle.unregister(this);
 
@@ -632,6 +673,10 @@ public class Webster implements WebsterService, Runnable {
         Socket s;
         try {
             loadMimes();
+            if (nioServer != null) {
+                nioServer.run();
+                return;
+            }
             String fileName;
             while (run) {
                 s = ss.accept(); // accept incoming requests
@@ -640,19 +685,23 @@ public class Webster implements WebsterService, Runnable {
                 }
                 String line;
                 Properties header = new Properties();
+                Map<String, String> fields = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
                 DataInputStream inputStream = null;
                 try {
-                    inputStream = new DataInputStream(s.getInputStream());
+                    inputStream = new DataInputStream(new BufferedInputStream(s.getInputStream()));
                     StringBuilder lineBuilder = new StringBuilder();
                     StringTokenizer tokenizer;
                     while ((line = readRequest(inputStream)).length() != 0) {
                         if (lineBuilder.length() > 0)
                             lineBuilder.append("\n");
                         lineBuilder.append(line);
-                        tokenizer = new StringTokenizer(line, ":");
-                        String aToken = tokenizer.nextToken().trim();
-                        if (tokenizer.hasMoreTokens()) {
-                            header.setProperty(aToken, tokenizer.nextToken().trim());
+                        // values such as dates contain colons
+                        int colon = line.indexOf(':');
+                        if (colon > 0) {
+                            String field = line.substring(0, colon).trim();
+                            String value = line.substring(colon + 1).trim();
+                            header.setProperty(field, value);
+                            fields.put(field, value);
                         }
                     }
                     line = lineBuilder.toString();
@@ -700,7 +749,7 @@ public class Webster implements WebsterService, Runnable {
                             }
                         }
                         if (header.getProperty("GET") != null) {
-                            pool.execute(new GetFile(s, fileName));
+                            pool.execute(new GetFile(s, fileName, fields));
                         } else if (header.getProperty("PUT") != null) {
                             if(tempDir==null) {
                                 DataOutputStream clientStream = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
@@ -713,7 +762,7 @@ public class Webster implements WebsterService, Runnable {
                         } else if (header.getProperty("DELETE") != null) {
                             pool.execute(new DelFile(s, fileName));
                         } else if (header.getProperty("HEAD") != null) {
-                            pool.execute(new Head(s, fileName));
+                            pool.execute(new Head(s, fileName, fields));
                         } else {
                             if (debug)
                                 System.out.println("bad request [" + line + "] from " + from);
@@ -813,6 +862,64 @@ public class Webster implements WebsterService, Runnable {
         }
     } // end of loadMimes
 
+    String getTempDir() {
+        return tempDir;
+    }
+
+    ArtifactCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Returns the MIME type of the file name extension, or <code>null</code>
+     * if the extension is not known.
+     */
+    static String getMimeType(String fileName) {
+        return MimeTypes.getProperty(fileName.substring(fileName.lastIndexOf(".") + 1));
+    }
+
+    /**
+     * Returns the header of a response to a file request.
+     */
+    static String fileHeader(FileResponse response, String contentType) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("HTTP/1.0 ").append(response.getStatusLine()).append("\r\n");
+        sb.append("Allow: GET\r\nMIME-Version: 1.0\r\n");
+        sb.append("Server: ").append(SERVER_DESCRIPTION).append("\r\n");
+        if (contentType != null)
+            sb.append("Content-Type: ").append(contentType).append("\r\n");
+        response.appendHeaders(sb, "\r\n");
+        if (response.getLength() >= 0)
+            sb.append("Content-Length: ").append(response.getLength()).append("\r\n");
+        return sb.append("\r\n").toString();
+    }
+
+    /**
+     * Returns the listing of a directory, one line per file with its path,
+     * type, length and modification time separated by tabs.
+     */
+    static String listDirectory(File dir) {
+        StringBuilder dirData = new StringBuilder();
+        String[] files = dir.list();
+        if (files == null)
+            return "";
+        for (String file : files) {
+            File f = new File(dir, file);
+            dirData.append(f.toString().substring(dir.getParent().length()));
+            dirData.append("\t");
+            if (f.isDirectory())
+                dirData.append("d");
+            else
+                dirData.append("f");
+            dirData.append("\t");
+            dirData.append(f.length());
+            dirData.append("\t");
+            dirData.append(f.lastModified());
+            dirData.append("\n");
+        }
+        return dirData.toString();
+    }
+
     protected File parseFileName(String filename) {
         StringBuilder fn = new StringBuilder(filename);
         for (int i = 0; i < fn.length(); i++) {
@@ -884,10 +991,12 @@ public class Webster implements WebsterService, Runnable {
     class Head implements Runnable {
         private Socket client;
         private String fileName;
+        private Map<String, String> requestHeader;
 
-        Head(Socket s, String fileName) {
+        Head(Socket s, String fileName, Map<String, String> requestHeader) {
             client = s;
             this.fileName = fileName;
+            this.requestHeader = requestHeader;
         }
 
         public void run() {
@@ -900,26 +1009,11 @@ public class Webster implements WebsterService, Runnable {
                        .append(", " + "parsed=")
                        .append(getFile)
                        .append(", ");
-                int fileLength;
+                long fileLength;
                 String header;
                 if (getFile.isDirectory()) {
                     logData.append("directory located");
-                    String files[] = getFile.list();
-                    for (String file : files) {
-                        File f = new File(getFile, file);
-                        dirData.append(f.toString().substring(
-                                getFile.getParent().length()));
-                        dirData.append("\t");
-                        if (f.isDirectory())
-                            dirData.append("d");
-                        else
-                            dirData.append("f");
-                        dirData.append("\t");
-                        dirData.append(f.length());
-                        dirData.append("\t");
-                        dirData.append(f.lastModified());
-                        dirData.append("\n");
-                    }
+                    dirData.append(listDirectory(getFile));
                     fileLength = dirData.length();
                     String fileType = MimeTypes.getProperty("txt");
                     if (fileType == null)
@@ -930,23 +1024,11 @@ public class Webster implements WebsterService, Runnable {
                             "Content-Type: " + fileType + "\n" +
                             "Content-Length: " + fileLength + "\r\n\r\n";
                 } else if (getFile.exists()) {
-                    DataInputStream requestedFile = new DataInputStream(
-                            new BufferedInputStream(new FileInputStream(getFile)));
-                    fileLength = requestedFile.available();
-                    String fileType =
-                            fileName.substring(fileName.lastIndexOf(".") + 1,
-                                               fileName.length());
-                    fileType = MimeTypes.getProperty(fileType);
-                    logData.append("file size: [").append(fileLength).append("]");
-                    header = "HTTP/1.0 200 OK\n"
-                            + "Allow: GET\nMIME-Version: 1.0\n"
-                            + "Server: " + SERVER_DESCRIPTION + "\n"
-                            + "Content-Type: "
-                            + fileType
-                            + "\n"
-                            + "Content-Length: "
-                            + fileLength
-                            + "\r\n\r\n";
+                    FileResponse response = FileResponse.create(getFile, requestHeader, null);
+                    fileLength = response.getLength();
+                    logData.append("file size: [").append(getFile.length()).append("], ")
+                           .append(response.getStatusLine());
+                    header = fileHeader(response, getMimeType(fileName));
                 } else {
                     header = "HTTP/1.1 404 Not Found\r\n\r\n";
                     logData.append("not found");
@@ -980,12 +1062,14 @@ public class Webster implements WebsterService, Runnable {
     class GetFile implements Runnable {
         private Socket client;
         private String fileName;
-        private DataInputStream requestedFile;
-        private int fileLength;
+        private Map<String, String> requestHeader;
+        private FileResponse response;
+        private long fileLength;
 
-        GetFile(Socket s, String fileName) {
+        GetFile(Socket s, String fileName, Map<String, String> requestHeader) {
             client = s;
             this.fileName = fileName;
+            this.requestHeader = requestHeader;
         }
 
         public void run() {
@@ -1001,22 +1085,7 @@ public class Webster implements WebsterService, Runnable {
                 String header;
                 if (getFile.isDirectory()) {
                     logData.append("directory located");
-                    String files[] = getFile.list();
-                    for (String file : files) {
-                        File f = new File(getFile, file);
-                        dirData.append(f.toString().substring(
-                                getFile.getParent().length()));
-                        dirData.append("\t");
-                        if (f.isDirectory())
-                            dirData.append("d");
-                        else
-                            dirData.append("f");
-                        dirData.append("\t");
-                        dirData.append(f.length());
-                        dirData.append("\t");
-                        dirData.append(f.lastModified());
-                        dirData.append("\n");
-                    }
+                    dirData.append(listDirectory(getFile));
                     fileLength = dirData.length();
                     String fileType = MimeTypes.getProperty("txt");
                     if (fileType == null)
@@ -1031,23 +1100,9 @@ public class Webster implements WebsterService, Runnable {
                             + fileLength
                             + "\r\n\r\n";
                 } else if (getFile.exists()) {
-                    requestedFile =
-                            new DataInputStream(
-                                    new BufferedInputStream(new FileInputStream(getFile)));
-                    fileLength = requestedFile.available();
-                    String fileType =
-                            fileName.substring(fileName.lastIndexOf(".") + 1,
-                                               fileName.length());
-                    fileType = MimeTypes.getProperty(fileType);
-                    header = "HTTP/1.0 200 OK\n"
-                            + "Allow: GET\nMIME-Version: 1.0\n"
-                            + "Server: " + SERVER_DESCRIPTION + "\n"
-                            + "Content-Type: "
-                            + fileType
-                            + "\n"
-                            + "Content-Length: "
-                            + fileLength
-                            + "\r\n\r\n";
+                    response = FileResponse.create(getFile, requestHeader, cache);
+                    fileLength = response.getLength();
+                    header = fileHeader(response, getMimeType(fileName));
                 } else {
                     header = "HTTP/1.0 404 Not Found\r\n\r\n";
                 }
@@ -1059,11 +1114,10 @@ public class Webster implements WebsterService, Runnable {
                 if (getFile.isDirectory()) {
                     clientStream.writeBytes(dirData.toString());
                 } else if (getFile.exists()) {
-                    byte[] buffer = new byte[fileLength];
-                    requestedFile.readFully(buffer);
-                    logData.append("file size: [").append(fileLength).append("]");
+                    logData.append("file size: [").append(getFile.length()).append("], ")
+                           .append(response.getStatusLine());
                     try {
-                        clientStream.write(buffer);
+                        response.writeBody(clientStream);
                     } catch (Exception e) {
                         String s = "Sending [" +
                                 getFile.getAbsolutePath() + "], " +
@@ -1079,7 +1133,6 @@ public class Webster implements WebsterService, Runnable {
                             e.printStackTrace();
                         }
                     }
-                    requestedFile.close();
                 } else {
                     logData.append("not found");
                 }
@@ -1190,6 +1243,7 @@ public class Webster implements WebsterService, Runnable {
                             amountRead += read;
                         }
                         requestedFileOutputStream.flush();
+                        cache.invalidate(putFile);
                         System.out.println("Wrote: " + putFile.getPath() + " size: " + putFile.length());
                     } catch (IOException e) {
                         e.printStackTrace();
@@ -1259,6 +1313,7 @@ public class Webster implements WebsterService, Runnable {
                             + "\n\n <H1>404 File not Found</H1>\n"
                             + "<BR>";
                 } else if (putFile.delete()) {
+                    cache.invalidate(putFile);
                     header = "HTTP/1.0 200 OK\n"
                             + "Allow: PUT\n"
                             + "MIME-Version: 1.0\n"
@@ -0,0 +1,64 @@
+package sorcer.tools.webster;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FileResponseTest {
+
+    @Test
+    public void testParseRange() {
+        assertArrayEquals(new long[]{0, 99}, FileResponse.parseRange("bytes=0-99", 1000));
+        assertArrayEquals(new long[]{500, 999}, FileResponse.parseRange("bytes=500-", 1000));
+        // the last byte is clamped to the end of the file
+        assertArrayEquals(new long[]{900, 999}, FileResponse.parseRange("bytes=900-2000", 1000));
+        assertArrayEquals(new long[]{5, 5}, FileResponse.parseRange(" bytes= 5-5 ", 1000));
+    }
+
+    @Test
+    public void testParseSuffixRange() {
+        assertArrayEquals(new long[]{900, 999}, FileResponse.parseRange("bytes=-100", 1000));
+        assertArrayEquals(new long[]{0, 999}, FileResponse.parseRange("bytes=-5000", 1000));
+        assertEquals(0, FileResponse.parseRange("bytes=-0", 1000).length);
+    }
+
+    @Test
+    public void testUnsatisfiableRange() {
+        assertEquals(0, FileResponse.parseRange("bytes=1000-", 1000).length);
+        assertEquals(0, FileResponse.parseRange("bytes=0-10", 0).length);
+    }
+
+    @Test
+    public void testInvalidRange() {
+        assertNull(FileResponse.parseRange(null, 1000));
+        assertNull(FileResponse.parseRange("items=0-10", 1000));
+        assertNull(FileResponse.parseRange("bytes=10", 1000));
+        assertNull(FileResponse.parseRange("bytes=-", 1000));
+        assertNull(FileResponse.parseRange("bytes=20-10", 1000));
+        assertNull(FileResponse.parseRange("bytes=a-10", 1000));
+        assertNull(FileResponse.parseRange("bytes=--5", 1000));
+        // several ranges are answered with the whole file
+        assertNull(FileResponse.parseRange("bytes=0-10,20-30", 1000));
+    }
+
+    @Test
+    public void testMatches() {
+        assertTrue(FileResponse.matches("\"abc\"", "\"abc\""));
+        assertTrue(FileResponse.matches("\"x\", \"abc\"", "\"abc\""));
+        assertTrue(FileResponse.matches("W/\"abc\"", "\"abc\""));
+        assertTrue(FileResponse.matches("*", "\"abc\""));
+        assertFalse(FileResponse.matches("\"x\", \"y\"", "\"abc\""));
+        assertFalse(FileResponse.matches("abc", "\"abc\""));
+    }
+
+    @Test
+    public void testParseDate() {
+        long time = 784111777000L;
+        assertEquals(time, FileResponse.parseDate("Sun, 06 Nov 1994 08:49:37 GMT"));
+        assertEquals(time, FileResponse.parseDate(" Sun, 06 Nov 1994 08:49:37 GMT "));
+        assertEquals(time, FileResponse.parseDate(FileResponse.formatDate(time)));
+        assertEquals(-1, FileResponse.parseDate(null));
+        assertEquals(-1, FileResponse.parseDate(""));
+        assertEquals(-1, FileResponse.parseDate("yesterday"));
+    }
+}